@@ -0,0 +1,184 @@
+package com.cargopro.config;
+
+import com.zaxxer.hikari.HikariConfigMXBean;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.servlet.AsyncContext;
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.jdbc.DataSourceUnwrapper;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Caps the number of requests being handled at once at the size of the connection pool
+ *
+ * With platform threads Tomcat's worker pool already bounds concurrency. With
+ * virtual threads (spring.threads.virtual.enabled) every request gets its own
+ * thread, and thousands could pile up inside Hikari until connection-timeout.
+ * Excess requests wait here for a permit (fair, so the oldest go first) for at
+ * most tms.concurrency-limit.acquire-timeout-ms and then get a 503. That way
+ * waiting happens before any transaction is opened.
+ *
+ * Streaming NDJSON responses read rows off a pooled connection after their
+ * handler returns, so they keep the permit until the async response completes.
+ * SSE streams are served from memory and hold no connection; they give the
+ * permit back once their handler returns.
+ *
+ * Off by default (tms.concurrency-limit.enabled): with platform threads it would
+ * only add a second queue in front of Tomcat's, so turn it on together with
+ * virtual threads.
+ */
+@Component
+@ConditionalOnProperty(name = "tms.concurrency-limit.enabled", havingValue = "true")
+public class ConcurrencyLimitFilter extends OncePerRequestFilter {
+
+    static final String IN_FLIGHT_METRIC = "tms.concurrency.limit.in-flight";
+    static final String WAIT_METRIC = "tms.concurrency.limit.wait";
+    static final String REJECTED_METRIC = "tms.concurrency.limit.rejected";
+
+    private static final int DEFAULT_LIMIT = 10;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${tms.concurrency-limit.max-concurrent:0}")
+    private int maxConcurrent;
+
+    @Value("${tms.concurrency-limit.acquire-timeout-ms:5000}")
+    private long acquireTimeoutMs;
+
+    private int limit;
+
+    private Semaphore permits;
+
+    private Timer waitTimer;
+
+    private Counter rejected;
+
+    @PostConstruct
+    void start() {
+        limit = maxConcurrent > 0 ? maxConcurrent : poolSize();
+        permits = new Semaphore(limit, true);
+        Gauge.builder(IN_FLIGHT_METRIC, permits, p -> limit - p.availablePermits())
+                .description("Requests currently holding a concurrency permit")
+                .register(meterRegistry);
+        waitTimer = Timer.builder(WAIT_METRIC)
+                .description("Time requests waited for a concurrency permit")
+                .publishPercentiles(0.5, 0.99)
+                .register(meterRegistry);
+        rejected = Counter.builder(REJECTED_METRIC)
+                .description("Requests turned away after waiting too long for a permit")
+                .register(meterRegistry);
+    }
+
+    int getLimit() {
+        return limit;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        // Health and metrics must answer even when the application is saturated
+        return request.getRequestURI().startsWith("/actuator");
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        long start = System.nanoTime();
+        boolean acquired;
+        try {
+            acquired = permits.tryAcquire(acquireTimeoutMs, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            acquired = false;
+        }
+        waitTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+
+        if (!acquired) {
+            rejected.increment();
+            response.setStatus(HttpStatus.SERVICE_UNAVAILABLE.value());
+            response.setHeader("Retry-After", "1");
+            response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+            response.getWriter().write("{\"error\":\"Server is busy, please retry shortly\"}");
+            return;
+        }
+
+        boolean streaming = false;
+        try {
+            chain.doFilter(request, response);
+            streaming = request.isAsyncStarted() && !isEventStream(response);
+        } finally {
+            if (streaming) {
+                releaseOnCompletion(request.getAsyncContext());
+            } else {
+                permits.release();
+            }
+        }
+    }
+
+    private static boolean isEventStream(HttpServletResponse response) {
+        String contentType = response.getContentType();
+        return contentType != null && contentType.startsWith(MediaType.TEXT_EVENT_STREAM_VALUE);
+    }
+
+    /**
+     * Give the permit back once the async response ends, however it ends
+     */
+    private void releaseOnCompletion(AsyncContext asyncContext) {
+        AtomicBoolean released = new AtomicBoolean();
+        Runnable release = () -> {
+            if (released.compareAndSet(false, true)) {
+                permits.release();
+            }
+        };
+        asyncContext.addListener(new AsyncListener() {
+            @Override
+            public void onComplete(AsyncEvent event) {
+                release.run();
+            }
+
+            @Override
+            public void onTimeout(AsyncEvent event) {
+                release.run();
+            }
+
+            @Override
+            public void onError(AsyncEvent event) {
+                release.run();
+            }
+
+            @Override
+            public void onStartAsync(AsyncEvent event) {
+            }
+        });
+    }
+
+    private int poolSize() {
+        HikariDataSource hikari = DataSourceUnwrapper.unwrap(dataSource, HikariConfigMXBean.class,
+                HikariDataSource.class);
+        return hikari != null ? hikari.getMaximumPoolSize() : DEFAULT_LIMIT;
+    }
+}
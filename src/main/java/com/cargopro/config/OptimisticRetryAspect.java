@@ -0,0 +1,90 @@
+package com.cargopro.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.OptimisticLockException;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.hibernate.StaleObjectStateException;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Retries {@link RetryOnConflict} methods when an optimistic lock check fails
+ *
+ * Runs outside the transaction interceptor (just inside ServiceMetricsAspect),
+ * so every attempt gets a new transaction and persistence context. Backoff is
+ * exponential with full jitter so that colliding requests spread out instead
+ * of colliding again. Conflicts, retries and exhausted retries are counted
+ * per operation.
+ */
+@Aspect
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 1)
+public class OptimisticRetryAspect {
+
+    static final String CONFLICTS_METRIC = "tms.optimistic.conflicts";
+    static final String RETRIES_METRIC = "tms.optimistic.retries";
+    static final String EXHAUSTED_METRIC = "tms.optimistic.retries.exhausted";
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${tms.retry.max-attempts:4}")
+    private int maxAttempts;
+
+    @Value("${tms.retry.backoff-ms:10}")
+    private long backoffMs;
+
+    @Around("@annotation(com.cargopro.config.RetryOnConflict)")
+    public Object retryOnConflict(ProceedingJoinPoint joinPoint) throws Throwable {
+        // Inside a caller's transaction a retry would reuse a rolled-back session;
+        // let the outermost annotated method do the retrying
+        if (TransactionSynchronizationManager.isActualTransactionActive()) {
+            return joinPoint.proceed();
+        }
+
+        String operation = joinPoint.getSignature().getDeclaringType().getSimpleName()
+                + "." + joinPoint.getSignature().getName();
+
+        for (int attempt = 1;; attempt++) {
+            try {
+                return joinPoint.proceed();
+            } catch (OptimisticLockingFailureException | OptimisticLockException | StaleObjectStateException ex) {
+                meterRegistry.counter(CONFLICTS_METRIC, "operation", operation).increment();
+                if (attempt >= maxAttempts) {
+                    meterRegistry.counter(EXHAUSTED_METRIC, "operation", operation).increment();
+                    throw ex;
+                }
+                meterRegistry.counter(RETRIES_METRIC, "operation", operation).increment();
+                if (!backoff(attempt)) {
+                    throw ex;
+                }
+            }
+        }
+    }
+
+    /**
+     * Sleep a random time up to backoffMs * 2^(attempt - 1); false if interrupted
+     */
+    private boolean backoff(int attempt) {
+        long ceiling = backoffMs << Math.min(attempt - 1, 10);
+        if (ceiling <= 0) {
+            return true;
+        }
+        try {
+            Thread.sleep(ThreadLocalRandom.current().nextLong(ceiling + 1));
+            return true;
+        } catch (InterruptedException ie) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+}
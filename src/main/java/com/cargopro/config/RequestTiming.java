@@ -0,0 +1,107 @@
+package com.cargopro.config;
+
+import java.util.Locale;
+
+/**
+ * Where the time of the current request went: JDBC, waiting for a pooled
+ * connection, JSON serialization and everything else
+ *
+ * One instance per request, held in a thread local by {@link RequestTimingFilter}
+ * and fed by the Hibernate session listener and the JSON converter from
+ * {@link RequestTimingConfig}. Only the request thread touches it, so it is
+ * not synchronized; work done on other threads (SSE pushes, import workers)
+ * is not attributed to any request.
+ */
+public final class RequestTiming {
+
+    private static final ThreadLocal<RequestTiming> CURRENT = new ThreadLocal<>();
+
+    private final long startNanos = System.nanoTime();
+    private int statements;
+    private long statementNanos;
+    private long connectionNanos;
+    private int entityLoads;
+    private long serializationNanos;
+
+    private RequestTiming() {
+    }
+
+    static RequestTiming start() {
+        RequestTiming timing = new RequestTiming();
+        CURRENT.set(timing);
+        return timing;
+    }
+
+    static void clear() {
+        CURRENT.remove();
+    }
+
+    /**
+     * Timing of the request running on this thread, or null outside a timed request
+     */
+    public static RequestTiming current() {
+        return CURRENT.get();
+    }
+
+    void addStatement(long nanos) {
+        statements++;
+        statementNanos += nanos;
+    }
+
+    void addStatementTime(long nanos) {
+        statementNanos += nanos;
+    }
+
+    void addConnectionWait(long nanos) {
+        connectionNanos += nanos;
+    }
+
+    void addEntityLoad() {
+        entityLoads++;
+    }
+
+    void addSerialization(long nanos) {
+        serializationNanos += nanos;
+    }
+
+    int getStatements() {
+        return statements;
+    }
+
+    long getStatementNanos() {
+        return statementNanos;
+    }
+
+    long getConnectionNanos() {
+        return connectionNanos;
+    }
+
+    int getEntityLoads() {
+        return entityLoads;
+    }
+
+    long getSerializationNanos() {
+        return serializationNanos;
+    }
+
+    long getElapsedNanos() {
+        return System.nanoTime() - startNanos;
+    }
+
+    /**
+     * Server-Timing header value; app is whatever is left of the elapsed time
+     */
+    String toServerTiming() {
+        long total = getElapsedNanos();
+        long app = Math.max(0, total - statementNanos - connectionNanos - serializationNanos);
+        return String.format(Locale.ROOT,
+                "db;dur=%.2f;desc=\"%d statements\", pool;dur=%.2f, entities;desc=\"%d loaded\", "
+                        + "ser;dur=%.2f, app;dur=%.2f, total;dur=%.2f",
+                millis(statementNanos), statements, millis(connectionNanos), entityLoads,
+                millis(serializationNanos), millis(app), millis(total));
+    }
+
+    private static double millis(long nanos) {
+        return nanos / 1_000_000.0;
+    }
+}
@@ -0,0 +1,177 @@
+package com.cargopro.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationRegistry;
+import org.hibernate.Interceptor;
+import org.hibernate.SessionEventListener;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.type.Type;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * Feeds {@link RequestTiming} from Hibernate and from JSON serialization
+ *
+ * Every Hibernate session gets a {@link StatementTimer}
+ * (hibernate.session.events.auto) that times JDBC statements and connection
+ * acquisition, and the session factory gets an {@link EntityLoadCounter}
+ * interceptor. The JSON converter replaces Boot's default one: during a timed
+ * request it serializes into a buffer as a tms.serialization observation (a
+ * child span and timer), so the time is known before the Server-Timing header
+ * goes out.
+ */
+@Configuration
+@ConditionalOnProperty(name = "tms.request-timing.enabled", havingValue = "true", matchIfMissing = true)
+public class RequestTimingConfig {
+
+    static final String SERIALIZATION_OBSERVATION = "tms.serialization";
+
+    @Bean
+    public HibernatePropertiesCustomizer requestTimingHibernateCustomizer() {
+        return properties -> {
+            properties.put(AvailableSettings.AUTO_SESSION_EVENTS_LISTENER, StatementTimer.class.getName());
+            properties.put(AvailableSettings.INTERCEPTOR, new EntityLoadCounter());
+        };
+    }
+
+    @Bean
+    public MappingJackson2HttpMessageConverter mappingJackson2HttpMessageConverter(ObjectMapper objectMapper,
+            ObjectProvider<ObservationRegistry> observationRegistry) {
+        return new TimedJsonConverter(objectMapper,
+                observationRegistry.getIfAvailable(() -> ObservationRegistry.NOOP));
+    }
+
+    /**
+     * Per-session listener; Hibernate creates one for every session it opens
+     */
+    public static class StatementTimer implements SessionEventListener {
+        private long connectionStart;
+        private long prepareStart;
+        private long executeStart;
+
+        @Override
+        public void jdbcConnectionAcquisitionStart() {
+            connectionStart = System.nanoTime();
+        }
+
+        @Override
+        public void jdbcConnectionAcquisitionEnd() {
+            RequestTiming timing = RequestTiming.current();
+            if (timing != null) {
+                timing.addConnectionWait(System.nanoTime() - connectionStart);
+            }
+        }
+
+        @Override
+        public void jdbcPrepareStatementStart() {
+            prepareStart = System.nanoTime();
+        }
+
+        @Override
+        public void jdbcPrepareStatementEnd() {
+            RequestTiming timing = RequestTiming.current();
+            if (timing != null) {
+                timing.addStatementTime(System.nanoTime() - prepareStart);
+            }
+        }
+
+        @Override
+        public void jdbcExecuteStatementStart() {
+            executeStart = System.nanoTime();
+        }
+
+        @Override
+        public void jdbcExecuteStatementEnd() {
+            executed();
+        }
+
+        @Override
+        public void jdbcExecuteBatchStart() {
+            executeStart = System.nanoTime();
+        }
+
+        @Override
+        public void jdbcExecuteBatchEnd() {
+            executed();
+        }
+
+        private void executed() {
+            RequestTiming timing = RequestTiming.current();
+            if (timing != null) {
+                timing.addStatement(System.nanoTime() - executeStart);
+            }
+        }
+    }
+
+    /**
+     * Counts entities hydrated from JDBC results, including lazy loads
+     */
+    static class EntityLoadCounter implements Interceptor {
+        @Override
+        public boolean onLoad(Object entity, Object id, Object[] state, String[] propertyNames, Type[] types) {
+            RequestTiming timing = RequestTiming.current();
+            if (timing != null) {
+                timing.addEntityLoad();
+            }
+            return false;
+        }
+    }
+
+    /**
+     * Jackson converter that measures serialization of timed requests
+     */
+    static class TimedJsonConverter extends MappingJackson2HttpMessageConverter {
+        private final ObservationRegistry observationRegistry;
+
+        TimedJsonConverter(ObjectMapper objectMapper, ObservationRegistry observationRegistry) {
+            super(objectMapper);
+            this.observationRegistry = observationRegistry;
+        }
+
+        @Override
+        protected void writeInternal(Object object, java.lang.reflect.Type type, HttpOutputMessage outputMessage)
+                throws IOException {
+            RequestTiming timing = RequestTiming.current();
+            if (timing == null) {
+                super.writeInternal(object, type, outputMessage);
+                return;
+            }
+
+            ByteArrayOutputStream buffer = new ByteArrayOutputStream(1024);
+            HttpOutputMessage buffered = new HttpOutputMessage() {
+                @Override
+                public OutputStream getBody() {
+                    return buffer;
+                }
+
+                @Override
+                public HttpHeaders getHeaders() {
+                    return outputMessage.getHeaders();
+                }
+            };
+            Observation observation = Observation.start(SERIALIZATION_OBSERVATION, observationRegistry);
+            long start = System.nanoTime();
+            try (Observation.Scope scope = observation.openScope()) {
+                super.writeInternal(object, type, buffered);
+            } catch (IOException | RuntimeException ex) {
+                observation.error(ex);
+                throw ex;
+            } finally {
+                timing.addSerialization(System.nanoTime() - start);
+                observation.stop();
+            }
+            buffer.writeTo(outputMessage.getBody());
+        }
+    }
+}
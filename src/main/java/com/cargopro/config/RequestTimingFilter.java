@@ -0,0 +1,154 @@
+package com.cargopro.config;
+
+import io.micrometer.common.KeyValue;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpServletResponseWrapper;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.filter.ServerHttpObservationFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Breaks each request's latency down into JDBC, connection wait, entity loads,
+ * serialization and application time
+ *
+ * The breakdown is sent as a Server-Timing header, set just before the first
+ * byte of the body so it includes serialization. It is also attached to the
+ * request's trace span (tms.* attributes). Per endpoint, the JDBC time and
+ * statement count are published as tms.request.db and tms.request.db.statements.
+ * Runs just inside the HTTP observation filter so the span is still open.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 2)
+@ConditionalOnProperty(name = "tms.request-timing.enabled", havingValue = "true", matchIfMissing = true)
+public class RequestTimingFilter extends OncePerRequestFilter {
+
+    static final String HEADER = "Server-Timing";
+    static final String DB_METRIC = "tms.request.db";
+    static final String STATEMENTS_METRIC = "tms.request.db.statements";
+
+    @Autowired
+    private ObjectProvider<MeterRegistry> meterRegistry;
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return request.getRequestURI().startsWith("/actuator");
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        RequestTiming timing = RequestTiming.start();
+        ServerTimingResponse timedResponse = new ServerTimingResponse(response, timing);
+        try {
+            chain.doFilter(request, timedResponse);
+        } finally {
+            RequestTiming.clear();
+            // Responses without a body never asked for a stream
+            timedResponse.addServerTiming();
+            record(request, timing);
+        }
+    }
+
+    private void record(HttpServletRequest request, RequestTiming timing) {
+        ServerHttpObservationFilter.findObservationContext(request).ifPresent(context -> context
+                .addHighCardinalityKeyValue(KeyValue.of("tms.db.statements", String.valueOf(timing.getStatements())))
+                .addHighCardinalityKeyValue(KeyValue.of("tms.db.time_ms", millis(timing.getStatementNanos())))
+                .addHighCardinalityKeyValue(KeyValue.of("tms.db.pool_wait_ms", millis(timing.getConnectionNanos())))
+                .addHighCardinalityKeyValue(KeyValue.of("tms.entities.loaded", String.valueOf(timing.getEntityLoads())))
+                .addHighCardinalityKeyValue(
+                        KeyValue.of("tms.serialization.time_ms", millis(timing.getSerializationNanos()))));
+
+        MeterRegistry registry = meterRegistry.getIfAvailable();
+        Object uri = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        if (registry == null || uri == null) {
+            return;
+        }
+        Timer.builder(DB_METRIC)
+                .description("JDBC time per request")
+                .tag("uri", uri.toString())
+                .register(registry)
+                .record(timing.getStatementNanos(), TimeUnit.NANOSECONDS);
+        DistributionSummary.builder(STATEMENTS_METRIC)
+                .description("JDBC statements per request")
+                .tag("uri", uri.toString())
+                .register(registry)
+                .record(timing.getStatements());
+    }
+
+    private static String millis(long nanos) {
+        return String.valueOf(nanos / 1_000_000.0);
+    }
+
+    /**
+     * Adds the Server-Timing header once, before anything can commit the response
+     */
+    private static class ServerTimingResponse extends HttpServletResponseWrapper {
+        private final RequestTiming timing;
+        private boolean headerAdded;
+
+        ServerTimingResponse(HttpServletResponse response, RequestTiming timing) {
+            super(response);
+            this.timing = timing;
+        }
+
+        void addServerTiming() {
+            if (!headerAdded && !isCommitted()) {
+                headerAdded = true;
+                setHeader(HEADER, timing.toServerTiming());
+            }
+        }
+
+        @Override
+        public ServletOutputStream getOutputStream() throws IOException {
+            addServerTiming();
+            return super.getOutputStream();
+        }
+
+        @Override
+        public PrintWriter getWriter() throws IOException {
+            addServerTiming();
+            return super.getWriter();
+        }
+
+        @Override
+        public void flushBuffer() throws IOException {
+            addServerTiming();
+            super.flushBuffer();
+        }
+
+        @Override
+        public void sendError(int sc) throws IOException {
+            addServerTiming();
+            super.sendError(sc);
+        }
+
+        @Override
+        public void sendError(int sc, String msg) throws IOException {
+            addServerTiming();
+            super.sendError(sc, msg);
+        }
+
+        @Override
+        public void sendRedirect(String location) throws IOException {
+            addServerTiming();
+            super.sendRedirect(location);
+        }
+    }
+}
@@ -0,0 +1,20 @@
+package com.cargopro.config;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marks a transactional service method to be retried when its transaction
+ * loses an optimistic-locking race (a @Version check failed).
+ *
+ * The retry wraps the whole transaction, so each attempt re-reads fresh state.
+ * See {@link OptimisticRetryAspect}.
+ */
+@Documented
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface RetryOnConflict {
+}
@@ -0,0 +1,78 @@
+package com.cargopro.config;
+
+import com.cargopro.exception.ConflictException;
+import com.cargopro.exception.InsufficientCapacityException;
+import com.cargopro.exception.InvalidOperationException;
+import com.cargopro.exception.InvalidStatusTransitionException;
+import com.cargopro.exception.LoadAlreadyBookedException;
+import com.cargopro.exception.ResourceNotFoundException;
+import com.cargopro.exception.SubscriberLimitExceededException;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.persistence.OptimisticLockException;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.hibernate.StaleObjectStateException;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.stereotype.Component;
+
+/**
+ * Times every public method of the @Service classes as tms.service
+ *
+ * Tags are low-cardinality: class, method, outcome (success, client_error,
+ * conflict, server_error, following the status GlobalExceptionHandler gives
+ * the exception) and exception (simple class name, or "none"). Runs outermost,
+ * so a method retried by {@link RetryOnConflict} is timed once, retries included.
+ * Histogram buckets for Prometheus are switched on in application.properties.
+ */
+@Aspect
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class ServiceMetricsAspect {
+
+    static final String SERVICE_METRIC = "tms.service";
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Around("@within(org.springframework.stereotype.Service) && execution(public * com.cargopro.service..*(..))")
+    public Object time(ProceedingJoinPoint joinPoint) throws Throwable {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        Throwable failure = null;
+        try {
+            return joinPoint.proceed();
+        } catch (Throwable ex) {
+            failure = ex;
+            throw ex;
+        } finally {
+            sample.stop(Timer.builder(SERVICE_METRIC)
+                    .description("Service method execution time")
+                    .tag("class", joinPoint.getSignature().getDeclaringType().getSimpleName())
+                    .tag("method", joinPoint.getSignature().getName())
+                    .tag("outcome", outcome(failure))
+                    .tag("exception", failure == null ? "none" : failure.getClass().getSimpleName())
+                    .register(meterRegistry));
+        }
+    }
+
+    static String outcome(Throwable failure) {
+        if (failure == null) {
+            return "success";
+        }
+        if (failure instanceof ConflictException || failure instanceof LoadAlreadyBookedException
+                || failure instanceof OptimisticLockingFailureException || failure instanceof OptimisticLockException
+                || failure instanceof StaleObjectStateException) {
+            return "conflict";
+        }
+        if (failure instanceof ResourceNotFoundException || failure instanceof InvalidStatusTransitionException
+                || failure instanceof InsufficientCapacityException || failure instanceof InvalidOperationException
+                || failure instanceof SubscriberLimitExceededException) {
+            return "client_error";
+        }
+        return "server_error";
+    }
+}
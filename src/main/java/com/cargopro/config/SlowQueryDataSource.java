@@ -0,0 +1,140 @@
+package com.cargopro.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.TreeMap;
+
+/**
+ * Logs JDBC statements that take longer than a threshold, with their SQL and
+ * the types of their bind parameters (never the values)
+ *
+ * Each connection and statement is wrapped in a JDK proxy that times the
+ * execute calls; see {@link SlowQueryLogPostProcessor}, which only installs it
+ * when tms.slow-query.threshold-ms is above zero.
+ */
+public class SlowQueryDataSource extends DelegatingDataSource {
+
+    private static final Logger log = LoggerFactory.getLogger(SlowQueryDataSource.class);
+
+    private final long thresholdNanos;
+
+    public SlowQueryDataSource(DataSource target, long thresholdMs) {
+        super(target);
+        this.thresholdNanos = thresholdMs * 1_000_000;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return wrap(super.getConnection());
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return wrap(super.getConnection(username, password));
+    }
+
+    private Connection wrap(Connection connection) {
+        return (Connection) Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[] { Connection.class },
+                (proxy, method, args) -> {
+                    Object result = invoke(connection, method, args);
+                    if (result instanceof CallableStatement statement) {
+                        return wrap(statement, CallableStatement.class, (String) args[0]);
+                    }
+                    if (result instanceof PreparedStatement statement) {
+                        return wrap(statement, PreparedStatement.class, (String) args[0]);
+                    }
+                    if (result instanceof Statement statement) {
+                        return wrap(statement, Statement.class, null);
+                    }
+                    return result;
+                });
+    }
+
+    private <T extends Statement> T wrap(T statement, Class<T> type, String preparedSql) {
+        return type.cast(Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[] { type },
+                new TimedStatement(statement, preparedSql)));
+    }
+
+    private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException ex) {
+            throw ex.getCause();
+        }
+    }
+
+    /**
+     * Records parameter types as they are bound and times every execute call
+     */
+    private class TimedStatement implements InvocationHandler {
+        private final Statement statement;
+        private final String preparedSql;
+        private final TreeMap<Integer, String> parameterTypes = new TreeMap<>();
+        private final List<String> batchedSql = new ArrayList<>();
+        private int batchSize;
+
+        TimedStatement(Statement statement, String preparedSql) {
+            this.statement = statement;
+            this.preparedSql = preparedSql;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            String name = method.getName();
+            if (name.startsWith("set") && args != null && args.length >= 2 && args[0] instanceof Integer index) {
+                parameterTypes.put(index, name.equals("setNull") || args[1] == null
+                        ? "null"
+                        : args[1].getClass().getSimpleName());
+            } else if (name.equals("addBatch")) {
+                batchSize++;
+                if (args != null && args.length == 1) {
+                    batchedSql.add((String) args[0]);
+                }
+            } else if (name.equals("clearBatch")) {
+                batchSize = 0;
+                batchedSql.clear();
+            }
+
+            if (!name.startsWith("execute")) {
+                return SlowQueryDataSource.invoke(statement, method, args);
+            }
+
+            long start = System.nanoTime();
+            try {
+                return SlowQueryDataSource.invoke(statement, method, args);
+            } finally {
+                long elapsed = System.nanoTime() - start;
+                if (elapsed >= thresholdNanos) {
+                    log(name, args, elapsed);
+                }
+                if (name.equals("executeBatch")) {
+                    batchSize = 0;
+                    batchedSql.clear();
+                }
+            }
+        }
+
+        private void log(String method, Object[] args, long elapsedNanos) {
+            String sql = preparedSql != null ? preparedSql
+                    : args != null && args.length > 0 && args[0] instanceof String text ? text
+                    : String.join("; ", batchedSql);
+            String batch = method.equals("executeBatch") ? " batch=" + batchSize : "";
+            log.warn("Slow statement took {} ms{}: {} params={}",
+                    elapsedNanos / 1_000_000, batch, sql, parameterTypes.values());
+        }
+    }
+}
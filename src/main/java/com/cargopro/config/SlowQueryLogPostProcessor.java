@@ -0,0 +1,30 @@
+package com.cargopro.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+
+/**
+ * Wraps the application DataSource in a {@link SlowQueryDataSource} when the
+ * slow-query log is switched on (tms.slow-query.threshold-ms > 0)
+ *
+ * With the log off the DataSource is left untouched, so there is no cost at all.
+ * The wrapper is a DelegatingDataSource, so pool metrics and health checks
+ * still find the Hikari pool behind it.
+ */
+@Component
+public class SlowQueryLogPostProcessor implements BeanPostProcessor {
+
+    @Value("${tms.slow-query.threshold-ms:0}")
+    private long thresholdMs;
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+        if (thresholdMs > 0 && bean instanceof DataSource dataSource && !(bean instanceof SlowQueryDataSource)) {
+            return new SlowQueryDataSource(dataSource, thresholdMs);
+        }
+        return bean;
+    }
+}
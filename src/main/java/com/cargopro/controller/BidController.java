@@ -1,18 +1,25 @@
 package com.cargopro.controller;
 
+import com.cargopro.dto.BidBatchRequest;
+import com.cargopro.dto.BidBatchResponse;
 import com.cargopro.dto.BidRequest;
 import com.cargopro.dto.BidResponse;
 import com.cargopro.service.BidService;
 import com.cargopro.enums.BidStatus;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
-import java.util.List;
 import java.util.UUID;
 
 @RestController
@@ -23,6 +30,9 @@ public class BidController {
     @Autowired
     private BidService bidService;
 
+    @Autowired
+    private ObjectMapper objectMapper;
+
     @PostMapping
     @Operation(summary = "Create a bid", description = "Transporter places a bid on a load")
     public ResponseEntity<BidResponse> createBid(@Valid @RequestBody BidRequest request) {
@@ -31,16 +41,39 @@ public class BidController {
         return ResponseEntity.status(HttpStatus.CREATED).body(response);
     }
 
+    @PostMapping("/batch")
+    @Operation(summary = "Create bids in bulk", description = "Validate and insert up to "
+            + BidBatchRequest.MAX_BIDS + " bids in one transaction; each bid succeeds or fails on its own")
+    public ResponseEntity<BidBatchResponse> createBids(@Valid @RequestBody BidBatchRequest request) {
+        BidBatchResponse response = bidService.createBids(request.getBids());
+        return ResponseEntity.ok(response);
+    }
+
     @GetMapping
-    @Operation(summary = "Get bids", description = "Get bids filtered by loadId, transporterId, or status")
-    public ResponseEntity<List<BidResponse>> getBids(
+    @Operation(summary = "Get bids", description = "Get a page of bids filtered by loadId, transporterId, or status, newest first; "
+            + "size is at most " + BidService.MAX_PAGE_SIZE)
+    public ResponseEntity<Page<BidResponse>> getBids(
             @RequestParam(required = false) UUID loadId,
             @RequestParam(required = false) UUID transporterId,
-            @RequestParam(required = false) BidStatus status) {
-        List<BidResponse> bids = bidService.getBids(loadId, transporterId, status);
+            @RequestParam(required = false) BidStatus status,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "20") int size) {
+        Pageable pageable = PageRequests.of(page, size, BidService.MAX_PAGE_SIZE,
+                Sort.by(Sort.Order.desc("submittedAt"), Sort.Order.desc("bidId")));
+        Page<BidResponse> bids = bidService.getBids(loadId, transporterId, status, pageable);
         return ResponseEntity.ok(bids);
     }
 
+    @GetMapping(value = "/stream", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    @Operation(summary = "Stream bids", description = "Every matching bid as newline-delimited JSON, written as rows are read")
+    public ResponseEntity<StreamingResponseBody> streamBids(
+            @RequestParam(required = false) UUID loadId,
+            @RequestParam(required = false) UUID transporterId,
+            @RequestParam(required = false) BidStatus status) {
+        return NdjsonResponses.<BidResponse>of(objectMapper,
+                sink -> bidService.streamBids(loadId, transporterId, status, sink));
+    }
+
     @GetMapping("/{id}")
     @Operation(summary = "Get bid details", description = "Get full details of a bid")
     public ResponseEntity<BidResponse> getBidById(@PathVariable UUID id) {
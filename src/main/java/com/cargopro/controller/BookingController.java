@@ -1,5 +1,6 @@
 package com.cargopro.controller;
 
+import com.cargopro.dto.AllocationResponse;
 import com.cargopro.dto.BookingResponse;
 import com.cargopro.service.BookingService;
 import io.swagger.v3.oas.annotations.Operation;
@@ -27,6 +28,17 @@ public class BookingController {
         return ResponseEntity.status(HttpStatus.CREATED).body(response);
     }
 
+    @PostMapping("/allocate")
+    @Operation(summary = "Allocate bids", description = "Cheapest set of pending bids that fills the load's remaining "
+            + "trucks, from transporters rated at least minRating; with book=true every chosen bid is booked in one transaction")
+    public ResponseEntity<AllocationResponse> allocateBids(
+            @RequestParam UUID loadId,
+            @RequestParam(defaultValue = "0") double minRating,
+            @RequestParam(defaultValue = "false") boolean book) {
+        AllocationResponse response = bookingService.allocateBids(loadId, minRating, book);
+        return ResponseEntity.status(book ? HttpStatus.CREATED : HttpStatus.OK).body(response);
+    }
+
     @GetMapping("/{id}")
     @Operation(summary = "Get booking details", description = "Get full details of a booking")
     public ResponseEntity<BookingResponse> getBookingById(@PathVariable UUID id) {
@@ -1,23 +1,37 @@
 package com.cargopro.controller;
 
+import com.cargopro.dto.CursorPage;
+import com.cargopro.dto.LoadImportResponse;
 import com.cargopro.dto.LoadRequest;
 import com.cargopro.dto.LoadResponse;
+import com.cargopro.dto.TransporterMatchResponse;
+import com.cargopro.service.LoadImportService;
 import com.cargopro.service.LoadService;
+import com.cargopro.service.MatchingService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import com.cargopro.dto.BestBidResponse;
+import com.cargopro.enums.BidStatus;
 import com.cargopro.enums.LoadStatus;
+import com.cargopro.service.BestBidStreamService;
 import com.cargopro.service.BidService;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.format.annotation.DateTimeFormat;
 
+import java.io.InputStream;
+import java.net.URI;
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.UUID;
 
@@ -26,12 +40,23 @@ import java.util.UUID;
 @Tag(name = "Load Management", description = "APIs for managing shipping loads")
 public class LoadController {
 
+    static final String TEXT_CSV_VALUE = "text/csv";
+
     @Autowired
     private LoadService loadService;
 
     @Autowired
     private BidService bidService;
 
+    @Autowired
+    private BestBidStreamService bestBidStreamService;
+
+    @Autowired
+    private LoadImportService loadImportService;
+
+    @Autowired
+    private MatchingService matchingService;
+
     @PostMapping
     @Operation(summary = "Create a new load", description = "Creates a new shipping load that needs trucks")
     public ResponseEntity<LoadResponse> createLoad(@Valid @RequestBody LoadRequest request) {
@@ -39,6 +64,25 @@ public class LoadController {
         return ResponseEntity.status(HttpStatus.CREATED).body(response);
     }
 
+    @PostMapping(value = "/import", consumes = { LoadController.TEXT_CSV_VALUE, MediaType.APPLICATION_NDJSON_VALUE })
+    @Operation(summary = "Bulk import loads", description = "Upload loads as CSV (header row of LoadRequest fields) "
+            + "or NDJSON; returns a job to poll for progress and per-row errors")
+    public ResponseEntity<LoadImportResponse> importLoads(
+            @RequestHeader(HttpHeaders.CONTENT_TYPE) MediaType contentType,
+            InputStream body) {
+        LoadImportService.Format format = MediaType.APPLICATION_NDJSON.isCompatibleWith(contentType)
+                ? LoadImportService.Format.NDJSON
+                : LoadImportService.Format.CSV;
+        LoadImportResponse job = loadImportService.startImport(body, format);
+        return ResponseEntity.accepted().location(URI.create("/load/import/" + job.getJobId())).body(job);
+    }
+
+    @GetMapping("/import/{jobId}")
+    @Operation(summary = "Get import progress", description = "Rows read, imported and failed so far for a bulk import job")
+    public ResponseEntity<LoadImportResponse> getImportJob(@PathVariable UUID jobId) {
+        return ResponseEntity.ok(loadImportService.getJob(jobId));
+    }
+
     @GetMapping
     @Operation(summary = "Get all loads", description = "Retrieves a list of all loads")
     public ResponseEntity<Page<LoadResponse>> getAllLoads(
@@ -52,6 +96,34 @@ public class LoadController {
         return ResponseEntity.ok(loads);
     }
 
+    @GetMapping("/scroll")
+    @Operation(summary = "Scroll loads", description = "Retrieves loads newest first using an opaque cursor instead of page numbers; no total count")
+    public ResponseEntity<CursorPage<LoadResponse>> scrollLoads(
+            @RequestParam(required = false) String shipperId,
+            @RequestParam(required = false) LoadStatus status,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "10") int size) {
+
+        CursorPage<LoadResponse> loads = loadService.scrollLoads(shipperId, status, cursor, size);
+        return ResponseEntity.ok(loads);
+    }
+
+    @GetMapping("/board")
+    @Operation(summary = "Load board", description = "Open loads by lane and truck type, earliest loading date first; "
+            + "served from an in-memory index, every filter optional")
+    public ResponseEntity<List<LoadResponse>> getLoadBoard(
+            @RequestParam(required = false) String loadingCity,
+            @RequestParam(required = false) String unloadingCity,
+            @RequestParam(required = false) String truckType,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime loadingFrom,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime loadingTo,
+            @RequestParam(defaultValue = "20") int size) {
+
+        List<LoadResponse> loads = loadService.getLoadBoard(loadingCity, unloadingCity, truckType,
+                loadingFrom, loadingTo, size);
+        return ResponseEntity.ok(loads);
+    }
+
     @GetMapping("/{id}")
     @Operation(summary = "Get load by ID", description = "Retrieves a specific load by its ID")
     public ResponseEntity<LoadResponse> getLoadById(@PathVariable UUID id) {
@@ -67,9 +139,33 @@ public class LoadController {
     }
 
     @GetMapping("/{id}/best-bids")
-    @Operation(summary = "Get best bids", description = "Get sorted bid suggestions for a load")
-    public ResponseEntity<List<BestBidResponse>> getBestBids(@PathVariable UUID id) {
-        List<BestBidResponse> bestBids = bidService.getBestBidsForLoad(id);
+    @Operation(summary = "Get best bids", description = "Top-scored bids for a load (pending by default), "
+            + "optionally filtered by minimum transporter rating (minRating) and maximum rate (maxRate)")
+    public ResponseEntity<List<BestBidResponse>> getBestBids(
+            @PathVariable UUID id,
+            @RequestParam(defaultValue = "20") int limit,
+            @RequestParam(defaultValue = "PENDING") BidStatus status,
+            @RequestParam(required = false) Double minRating,
+            @RequestParam(required = false) Double maxRate) {
+        List<BestBidResponse> bestBids = bidService.getBestBidsForLoad(id, status, minRating, maxRate, limit);
         return ResponseEntity.ok(bestBids);
     }
+
+    @GetMapping("/{id}/matching-transporters")
+    @Operation(summary = "Matching transporters", description = "Transporters with free trucks of the load's type, "
+            + "most free trucks first; served from in-memory indexes")
+    public ResponseEntity<List<TransporterMatchResponse>> getMatchingTransporters(
+            @PathVariable UUID id,
+            @RequestParam(defaultValue = "20") int size) {
+        List<TransporterMatchResponse> transporters = matchingService.getMatchingTransporters(id, size);
+        return ResponseEntity.ok(transporters);
+    }
+
+    @GetMapping(value = "/{id}/best-bids/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @Operation(summary = "Stream best bids", description = "Server-sent events: a ranked snapshot, then a delta whenever a bid on the load changes")
+    public SseEmitter streamBestBids(@PathVariable UUID id) {
+        // Fail fast with 404 before opening a long-lived connection
+        loadService.getLoadById(id);
+        return bestBidStreamService.subscribe(id);
+    }
 }
@@ -0,0 +1,41 @@
+package com.cargopro.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.function.Consumer;
+
+/**
+ * Builds newline-delimited JSON responses (one object per line) that are
+ * written while the rows are still being read, on an async request thread
+ */
+final class NdjsonResponses {
+
+    private static final byte NEWLINE = '\n';
+
+    private NdjsonResponses() {
+    }
+
+    /**
+     * The producer is handed a sink that writes each element as one line
+     */
+    static <T> ResponseEntity<StreamingResponseBody> of(ObjectMapper objectMapper, Consumer<Consumer<T>> producer) {
+        StreamingResponseBody body = out -> producer.accept(element -> writeLine(objectMapper, out, element));
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_NDJSON).body(body);
+    }
+
+    private static void writeLine(ObjectMapper objectMapper, OutputStream out, Object element) {
+        try {
+            out.write(objectMapper.writeValueAsBytes(element));
+            out.write(NEWLINE);
+        } catch (IOException ex) {
+            // Client went away; unwinds the producer and closes its cursor
+            throw new UncheckedIOException(ex);
+        }
+    }
+}
@@ -0,0 +1,34 @@
+package com.cargopro.controller;
+
+import com.cargopro.dto.OutboxListenerStatus;
+import com.cargopro.service.OutboxDispatcher;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/outbox")
+@Tag(name = "Outbox", description = "APIs for the domain event outbox")
+public class OutboxController {
+
+    @Autowired
+    private OutboxDispatcher outboxDispatcher;
+
+    @GetMapping("/listeners")
+    @Operation(summary = "Get outbox listeners", description = "Last processed event and lag of every listener")
+    public ResponseEntity<List<OutboxListenerStatus>> getListeners() {
+        return ResponseEntity.ok(outboxDispatcher.getStatus());
+    }
+
+    @PostMapping("/listeners/{name}/replay")
+    @Operation(summary = "Replay outbox events", description = "Deliver events to the listener again, "
+            + "starting at fromEventId")
+    public ResponseEntity<Void> replay(@PathVariable String name, @RequestParam long fromEventId) {
+        outboxDispatcher.replay(name, fromEventId);
+        return ResponseEntity.accepted().build();
+    }
+}
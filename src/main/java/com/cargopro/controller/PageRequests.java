@@ -0,0 +1,26 @@
+package com.cargopro.controller;
+
+import com.cargopro.exception.InvalidOperationException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+
+/**
+ * Builds page requests from query parameters, rejecting out-of-range values
+ * with a 400 before any rows are read
+ */
+final class PageRequests {
+
+    private PageRequests() {
+    }
+
+    static Pageable of(int page, int size, int maxSize, Sort sort) {
+        if (page < 0) {
+            throw new InvalidOperationException("Page must not be negative");
+        }
+        if (size < 1 || size > maxSize) {
+            throw new InvalidOperationException("Size must be between 1 and " + maxSize);
+        }
+        return PageRequest.of(page, size, sort);
+    }
+}
@@ -0,0 +1,34 @@
+package com.cargopro.controller;
+
+import com.cargopro.dto.ScoringWeights;
+import com.cargopro.service.ScoringService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.Valid;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/shipper")
+@Tag(name = "Shipper Settings", description = "APIs for shipper-specific settings")
+public class ShipperController {
+
+    @Autowired
+    private ScoringService scoringService;
+
+    @GetMapping("/{shipperId}/scoring")
+    @Operation(summary = "Get bid scoring settings", description = "Strategy and weights used to rank bids on the shipper's loads")
+    public ResponseEntity<ScoringWeights> getScoring(@PathVariable String shipperId) {
+        return ResponseEntity.ok(scoringService.getWeights(shipperId));
+    }
+
+    @PutMapping("/{shipperId}/scoring")
+    @Operation(summary = "Set bid scoring settings", description = "Replaces the strategy and weights; "
+            + "best bids of the shipper's loads are re-ranked once saved")
+    public ResponseEntity<ScoringWeights> updateScoring(
+            @PathVariable String shipperId,
+            @Valid @RequestBody ScoringWeights request) {
+        return ResponseEntity.ok(scoringService.updateWeights(shipperId, request));
+    }
+}
@@ -1,16 +1,24 @@
 package com.cargopro.controller;
 
+import com.cargopro.dto.LoadResponse;
 import com.cargopro.dto.TransporterRequest;
 import com.cargopro.dto.TransporterResponse;
 import com.cargopro.entity.TruckAvailability;
+import com.cargopro.service.MatchingService;
 import com.cargopro.service.TransporterService;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.util.List;
 import java.util.UUID;
@@ -23,6 +31,12 @@ public class TransporterController {
     @Autowired
     private TransporterService transporterService;
 
+    @Autowired
+    private MatchingService matchingService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
     @PostMapping
     @Operation(summary = "Create a transporter", description = "Registers a new transporter/company")
     public ResponseEntity<TransporterResponse> createTransporter(
@@ -32,12 +46,23 @@ public class TransporterController {
     }
 
     @GetMapping
-    @Operation(summary = "Get all transporters", description = "Retrieves a list of all transporters")
-    public ResponseEntity<List<TransporterResponse>> getAllTransporters() {
-        List<TransporterResponse> transporters = transporterService.getAllTransporters();
+    @Operation(summary = "Get all transporters", description = "Retrieves a page of transporters ordered by company name; "
+            + "size is at most " + TransporterService.MAX_PAGE_SIZE)
+    public ResponseEntity<Page<TransporterResponse>> getAllTransporters(
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "20") int size) {
+        Pageable pageable = PageRequests.of(page, size, TransporterService.MAX_PAGE_SIZE,
+                Sort.by("companyName", "transporterId"));
+        Page<TransporterResponse> transporters = transporterService.getAllTransporters(pageable);
         return ResponseEntity.ok(transporters);
     }
 
+    @GetMapping(value = "/stream", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    @Operation(summary = "Stream transporters", description = "Every transporter as newline-delimited JSON, written as rows are read")
+    public ResponseEntity<StreamingResponseBody> streamAllTransporters() {
+        return NdjsonResponses.<TransporterResponse>of(objectMapper, transporterService::streamAllTransporters);
+    }
+
     @GetMapping("/{id}")
     @Operation(summary = "Get transporter by ID", description = "Retrieves a specific transporter by its ID")
     public ResponseEntity<TransporterResponse> getTransporterById(@PathVariable UUID id) {
@@ -45,6 +70,16 @@ public class TransporterController {
         return ResponseEntity.ok(transporter);
     }
 
+    @GetMapping("/{id}/matching-loads")
+    @Operation(summary = "Matching loads", description = "Open loads the transporter has free trucks for, "
+            + "earliest loading date first; served from in-memory indexes")
+    public ResponseEntity<List<LoadResponse>> getMatchingLoads(
+            @PathVariable UUID id,
+            @RequestParam(defaultValue = "20") int size) {
+        List<LoadResponse> loads = matchingService.getMatchingLoads(id, size);
+        return ResponseEntity.ok(loads);
+    }
+
     @PutMapping("/{id}/trucks")
     @Operation(summary = "Update available trucks", description = "Updates the available trucks for a transporter")
     public ResponseEntity<TransporterResponse> updateAvailableTrucks(
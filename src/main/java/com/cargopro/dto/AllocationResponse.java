@@ -0,0 +1,39 @@
+package com.cargopro.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * DTO for the cheapest set of pending bids filling a load
+ * bookings is only set when the set was booked
+ */
+@Data
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class AllocationResponse {
+    private UUID loadId;
+    private int trucksNeeded;
+    private int trucksAllocated;
+    private double totalRate;
+    private boolean fullyCovered;
+    private boolean optimal;
+    private List<Item> bids;
+    private List<BookingResponse> bookings;
+
+    /**
+     * One chosen bid
+     */
+    @Data
+    @AllArgsConstructor
+    public static class Item {
+        private UUID bidId;
+        private UUID transporterId;
+        private String transporterName;
+        private Double transporterRating;
+        private Integer trucksOffered;
+        private Double proposedRate;
+    }
+}
@@ -0,0 +1,18 @@
+package com.cargopro.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import java.util.UUID;
+
+/**
+ * DTO pushed to best-bid stream subscribers when a bid's rank changes
+ * The rank is zero-based (0 = best bid) among bids with the same status;
+ * clients upsert pending bids by bidId and drop bids that are no longer pending
+ */
+@Data
+@AllArgsConstructor
+public class BestBidEvent {
+    private UUID loadId;
+    private Integer rank;
+    private BestBidResponse bid;
+}
@@ -1,5 +1,6 @@
 package com.cargopro.dto;
 
+import com.cargopro.enums.BidStatus;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import java.sql.Timestamp;
@@ -20,4 +21,5 @@ public class BestBidResponse {
     private Integer trucksOffered;
     private Double score;
     private Timestamp submittedAt;
+    private BidStatus status;
 }
@@ -0,0 +1,22 @@
+package com.cargopro.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import lombok.Data;
+import java.util.List;
+
+/**
+ * DTO for submitting many bids in one request
+ * Malformed items reject the whole request; business rule failures
+ * (unknown load, closed load, not enough trucks) are reported per item
+ */
+@Data
+public class BidBatchRequest {
+
+    public static final int MAX_BIDS = 500;
+
+    @NotEmpty(message = "At least one bid is required")
+    @Size(max = MAX_BIDS, message = "At most " + MAX_BIDS + " bids per batch")
+    private List<@Valid BidRequest> bids;
+}
@@ -0,0 +1,38 @@
+package com.cargopro.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import java.util.List;
+
+/**
+ * DTO for the outcome of a bid batch, one result per submitted bid in request order
+ */
+@Data
+@AllArgsConstructor
+public class BidBatchResponse {
+    private int created;
+    private int failed;
+    private List<Item> results;
+
+    /**
+     * Either bid (created) or error (failed) is set
+     */
+    @Data
+    @AllArgsConstructor
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    public static class Item {
+        private int index;
+        private boolean created;
+        private BidResponse bid;
+        private String error;
+
+        public static Item created(int index, BidResponse bid) {
+            return new Item(index, true, bid, null);
+        }
+
+        public static Item failed(int index, String error) {
+            return new Item(index, false, null, error);
+        }
+    }
+}
@@ -0,0 +1,18 @@
+package com.cargopro.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import java.util.List;
+
+/**
+ * DTO for one slice of a keyset-paginated listing
+ * Pass nextCursor back as the cursor parameter to fetch the following slice;
+ * it is null on the last slice. No total count is computed.
+ */
+@Data
+@AllArgsConstructor
+public class CursorPage<T> {
+    private List<T> content;
+    private String nextCursor;
+    private boolean hasNext;
+}
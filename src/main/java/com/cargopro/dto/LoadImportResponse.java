@@ -0,0 +1,41 @@
+package com.cargopro.dto;
+
+import com.cargopro.enums.ImportStatus;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import java.sql.Timestamp;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * DTO for the progress of a bulk load import job
+ * Only the first row errors are kept (errorsTruncated tells if more were dropped);
+ * rowsFailed always counts them all
+ */
+@Data
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class LoadImportResponse {
+    private UUID jobId;
+    private ImportStatus status;
+    private String format;
+    private long rowsRead;
+    private long rowsImported;
+    private long rowsFailed;
+    private List<RowError> errors;
+    private boolean errorsTruncated;
+    private String failureReason;
+    private Timestamp createdAt;
+    private Timestamp finishedAt;
+
+    /**
+     * A rejected row; line is the line number in the uploaded file
+     */
+    @Data
+    @AllArgsConstructor
+    public static class RowError {
+        private long line;
+        private String message;
+    }
+}
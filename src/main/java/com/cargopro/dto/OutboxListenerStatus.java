@@ -0,0 +1,16 @@
+package com.cargopro.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+/**
+ * DTO for how far one outbox listener has got
+ * lag is the number of event ids between its offset and the newest event
+ */
+@Data
+@AllArgsConstructor
+public class OutboxListenerStatus {
+    private String listener;
+    private long lastEventId;
+    private long lag;
+}
@@ -0,0 +1,42 @@
+package com.cargopro.dto;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.PositiveOrZero;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * DTO for a shipper's bid scoring settings
+ * Each weight scales one term of the score: rate, rate per truck, rate per
+ * tonne (cheaper is better), transporter rating and reliability
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ScoringWeights {
+
+    @NotBlank(message = "Strategy is required")
+    private String strategy;
+
+    @NotNull(message = "Rate weight is required")
+    @PositiveOrZero(message = "Rate weight must not be negative")
+    private Double rate;
+
+    @NotNull(message = "Rate per truck weight is required")
+    @PositiveOrZero(message = "Rate per truck weight must not be negative")
+    private Double ratePerTruck;
+
+    @NotNull(message = "Rate per tonne weight is required")
+    @PositiveOrZero(message = "Rate per tonne weight must not be negative")
+    private Double ratePerTonne;
+
+    @NotNull(message = "Rating weight is required")
+    @PositiveOrZero(message = "Rating weight must not be negative")
+    private Double rating;
+
+    @NotNull(message = "Reliability weight is required")
+    @PositiveOrZero(message = "Reliability weight must not be negative")
+    private Double reliability;
+}
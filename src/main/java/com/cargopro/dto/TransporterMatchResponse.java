@@ -0,0 +1,18 @@
+package com.cargopro.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import java.util.UUID;
+
+/**
+ * DTO for a transporter that can serve a load
+ * availableTrucks is the transporter's free trucks of the load's truck type
+ */
+@Data
+@AllArgsConstructor
+public class TransporterMatchResponse {
+    private UUID transporterId;
+    private String companyName;
+    private Double rating;
+    private Integer availableTrucks;
+}
@@ -40,6 +40,9 @@ public class Bid {
     @Column(nullable = false, updatable = false)
     private LocalDateTime submittedAt;
 
+    @Version
+    private Long version;
+
     @PrePersist
     protected void onCreate() {
         if (submittedAt == null) {
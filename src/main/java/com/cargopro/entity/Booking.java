@@ -45,6 +45,9 @@ public class Booking {
     @Column(nullable = false, updatable = false)
     private LocalDateTime bookedAt;
 
+    @Version
+    private Long version;
+
     @PrePersist
     protected void onCreate() {
         if (bookedAt == null) {
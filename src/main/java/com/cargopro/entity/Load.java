@@ -63,6 +63,10 @@ public class Load {
     @Column(nullable = false, updatable = false)
     private LocalDateTime datePosted;
 
+    // Concurrent bookings on the same load conflict here instead of overbooking remainingTrucks
+    @Version
+    private Long version;
+
     @OneToMany(mappedBy = "load", cascade = CascadeType.ALL, fetch = FetchType.LAZY)
     private List<Bid> bids = new ArrayList<>();
 
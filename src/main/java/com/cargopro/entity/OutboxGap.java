@@ -0,0 +1,28 @@
+package com.cargopro.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import java.time.LocalDateTime;
+
+/**
+ * Range of outbox ids the dispatcher skipped because they had not committed in time
+ * Events that turn up in the range later are still delivered
+ */
+@Entity
+@Table(name = "outbox_gaps")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class OutboxGap {
+
+    @Id
+    private Long firstEventId;
+
+    @Column(nullable = false)
+    private long lastEventId;
+
+    @Column(nullable = false)
+    private LocalDateTime skippedAt;
+}
@@ -0,0 +1,33 @@
+package com.cargopro.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import java.time.LocalDateTime;
+
+/**
+ * How far one outbox listener has got
+ */
+@Entity
+@Table(name = "outbox_offsets")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class OutboxOffset {
+
+    @Id
+    private String consumer;
+
+    @Column(nullable = false)
+    private long lastEventId;
+
+    @Column(nullable = false)
+    private LocalDateTime updatedAt;
+
+    @PrePersist
+    @PreUpdate
+    protected void onSave() {
+        updatedAt = LocalDateTime.now();
+    }
+}
@@ -0,0 +1,52 @@
+package com.cargopro.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import java.time.LocalDateTime;
+
+/**
+ * Bid scoring settings of one shipper
+ * Applies to the bids on every load the shipper posts
+ */
+@Entity
+@Table(name = "shipper_scoring")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ShipperScoring {
+
+    @Id
+    private String shipperId;
+
+    @Column(nullable = false)
+    private String strategy;
+
+    @Column(nullable = false)
+    private double rateWeight;
+
+    @Column(nullable = false)
+    private double ratePerTruckWeight;
+
+    @Column(nullable = false)
+    private double ratePerTonneWeight;
+
+    @Column(nullable = false)
+    private double ratingWeight;
+
+    @Column(nullable = false)
+    private double reliabilityWeight;
+
+    @Column(nullable = false)
+    private LocalDateTime updatedAt;
+
+    @Version
+    private Long version;
+
+    @PrePersist
+    @PreUpdate
+    protected void onSave() {
+        updatedAt = LocalDateTime.now();
+    }
+}
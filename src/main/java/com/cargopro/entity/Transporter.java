@@ -4,6 +4,7 @@ import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.BatchSize;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.UUID;
@@ -28,7 +29,15 @@ public class Transporter {
     @Column(nullable = false)
     private Double rating; // Rating from 0.0 to 5.0
 
+    @Version
+    private Long version;
+
+    // One row per (transporter, truck type); reservations update that row in place
+    // A page of transporters loads all of its truck lists in one IN query
     @ElementCollection
-    @CollectionTable(name = "transporter_trucks", joinColumns = @JoinColumn(name = "transporter_id"))
+    @BatchSize(size = 100)
+    @CollectionTable(name = "transporter_trucks", joinColumns = @JoinColumn(name = "transporter_id"),
+            uniqueConstraints = @UniqueConstraint(name = "uk_transporter_trucks_type",
+                    columnNames = { "transporter_id", "truck_type" }))
     private List<TruckAvailability> availableTrucks = new ArrayList<>();
 }
@@ -0,0 +1,15 @@
+package com.cargopro.enums;
+
+/**
+ * Enum representing the state of a bulk import job
+ * - QUEUED: Upload stored, waiting for a worker
+ * - RUNNING: Rows are being validated and inserted
+ * - COMPLETED: Every row was processed (some may have failed)
+ * - FAILED: The job stopped early, e.g. the upload could not be read
+ */
+public enum ImportStatus {
+    QUEUED,
+    RUNNING,
+    COMPLETED,
+    FAILED
+}
@@ -1,11 +1,17 @@
 package com.cargopro.exception;
 
+import jakarta.servlet.http.HttpServletRequest;
 import org.hibernate.StaleObjectStateException;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.web.HttpMediaTypeNotSupportedException;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+import org.springframework.web.filter.ServerHttpObservationFilter;
 
 import java.util.HashMap;
 import java.util.Map;
@@ -16,6 +22,9 @@ import java.util.Map;
  * responses
  * 
  * @RestControllerAdvice makes this class handle exceptions for all controllers
+ *
+ * Every handler records the exception on the request's observation, so
+ * http.server.requests is tagged with its type even though it was handled.
  */
 @RestControllerAdvice
 public class GlobalExceptionHandler {
@@ -26,6 +35,7 @@ public class GlobalExceptionHandler {
     @ExceptionHandler(MethodArgumentNotValidException.class)
     public ResponseEntity<Map<String, String>> handleValidationExceptions(
             MethodArgumentNotValidException ex) {
+        recordException(ex);
         Map<String, String> errors = new HashMap<>();
         ex.getBindingResult().getFieldErrors().forEach(error -> {
             errors.put(error.getField(), error.getDefaultMessage());
@@ -39,6 +49,7 @@ public class GlobalExceptionHandler {
     @ExceptionHandler(ResourceNotFoundException.class)
     public ResponseEntity<Map<String, String>> handleResourceNotFoundException(
             ResourceNotFoundException ex) {
+        recordException(ex);
         Map<String, String> error = new HashMap<>();
         error.put("error", ex.getMessage());
         return ResponseEntity.status(HttpStatus.NOT_FOUND).body(error);
@@ -50,6 +61,7 @@ public class GlobalExceptionHandler {
     @ExceptionHandler(InvalidStatusTransitionException.class)
     public ResponseEntity<Map<String, String>> handleInvalidStatusTransitionException(
             InvalidStatusTransitionException ex) {
+        recordException(ex);
         Map<String, String> error = new HashMap<>();
         error.put("error", ex.getMessage());
         return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(error);
@@ -61,6 +73,19 @@ public class GlobalExceptionHandler {
     @ExceptionHandler(InsufficientCapacityException.class)
     public ResponseEntity<Map<String, String>> handleInsufficientCapacityException(
             InsufficientCapacityException ex) {
+        recordException(ex);
+        Map<String, String> error = new HashMap<>();
+        error.put("error", ex.getMessage());
+        return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(error);
+    }
+
+    /**
+     * Handle invalid operation exceptions
+     */
+    @ExceptionHandler(InvalidOperationException.class)
+    public ResponseEntity<Map<String, String>> handleInvalidOperationException(
+            InvalidOperationException ex) {
+        recordException(ex);
         Map<String, String> error = new HashMap<>();
         error.put("error", ex.getMessage());
         return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(error);
@@ -72,6 +97,7 @@ public class GlobalExceptionHandler {
     @ExceptionHandler(ConflictException.class)
     public ResponseEntity<Map<String, String>> handleConflictException(
             ConflictException ex) {
+        recordException(ex);
         Map<String, String> error = new HashMap<>();
         error.put("error", ex.getMessage());
         return ResponseEntity.status(HttpStatus.CONFLICT).body(error);
@@ -83,11 +109,24 @@ public class GlobalExceptionHandler {
     @ExceptionHandler(LoadAlreadyBookedException.class)
     public ResponseEntity<Map<String, String>> handleLoadAlreadyBookedException(
             LoadAlreadyBookedException ex) {
+        recordException(ex);
         Map<String, String> error = new HashMap<>();
         error.put("error", ex.getMessage());
         return ResponseEntity.status(HttpStatus.CONFLICT).body(error);
     }
 
+    /**
+     * Handle subscriber limit exceptions (too many best-bid streams for one load)
+     */
+    @ExceptionHandler(SubscriberLimitExceededException.class)
+    public ResponseEntity<Map<String, String>> handleSubscriberLimitExceededException(
+            SubscriberLimitExceededException ex) {
+        recordException(ex);
+        Map<String, String> error = new HashMap<>();
+        error.put("error", ex.getMessage());
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS).body(error);
+    }
+
     /**
      * Handle optimistic locking exceptions (prevents double booking)
      * This happens when @Version field doesn't match (someone else updated the
@@ -96,20 +135,54 @@ public class GlobalExceptionHandler {
     @ExceptionHandler(StaleObjectStateException.class)
     public ResponseEntity<Map<String, String>> handleOptimisticLockException(
             StaleObjectStateException ex) {
+        recordException(ex);
         Map<String, String> error = new HashMap<>();
         error.put("error", "Load was modified by another request. Please refresh and try again.");
         return ResponseEntity.status(HttpStatus.CONFLICT).body(error);
     }
 
+    /**
+     * Handle optimistic locking failures raised by Spring at flush/commit time
+     * (reached only once @RetryOnConflict retries are exhausted)
+     */
+    @ExceptionHandler(OptimisticLockingFailureException.class)
+    public ResponseEntity<Map<String, String>> handleOptimisticLockingFailureException(
+            OptimisticLockingFailureException ex) {
+        recordException(ex);
+        Map<String, String> error = new HashMap<>();
+        error.put("error", "Resource was modified by another request. Please refresh and try again.");
+        return ResponseEntity.status(HttpStatus.CONFLICT).body(error);
+    }
+
+    /**
+     * Handle uploads sent with a content type the endpoint does not accept
+     */
+    @ExceptionHandler(HttpMediaTypeNotSupportedException.class)
+    public ResponseEntity<Map<String, String>> handleMediaTypeNotSupportedException(
+            HttpMediaTypeNotSupportedException ex) {
+        recordException(ex);
+        Map<String, String> error = new HashMap<>();
+        error.put("error", ex.getMessage());
+        return ResponseEntity.status(HttpStatus.UNSUPPORTED_MEDIA_TYPE).body(error);
+    }
+
     /**
      * Handle all other unexpected exceptions
      */
     @ExceptionHandler(Exception.class)
     public ResponseEntity<Map<String, String>> handleGenericException(Exception ex) {
+        recordException(ex);
         Map<String, String> error = new HashMap<>();
         error.put("error", "An unexpected error occurred: " + ex.getMessage());
         // Log the full exception for debugging
         ex.printStackTrace();
         return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(error);
     }
+
+    private void recordException(Exception ex) {
+        if (RequestContextHolder.getRequestAttributes() instanceof ServletRequestAttributes attributes) {
+            HttpServletRequest request = attributes.getRequest();
+            ServerHttpObservationFilter.findObservationContext(request).ifPresent(context -> context.setError(ex));
+        }
+    }
 }
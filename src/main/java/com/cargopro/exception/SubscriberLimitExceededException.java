@@ -0,0 +1,10 @@
+package com.cargopro.exception;
+
+/**
+ * Thrown when a load already has the maximum number of stream subscribers
+ */
+public class SubscriberLimitExceededException extends RuntimeException {
+    public SubscriberLimitExceededException(String message) {
+        super(message);
+    }
+}
@@ -2,19 +2,70 @@ package com.cargopro.repository;
 
 import com.cargopro.entity.Bid;
 import com.cargopro.enums.BidStatus;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
 
 @Repository
 public interface BidRepository extends JpaRepository<Bid, UUID>, JpaSpecificationExecutor<Bid> {
 
+    // Fetch transporter and load in the same query; responses read both for every bid
+    @EntityGraph(attributePaths = { "load", "transporter" })
     List<Bid> findByLoadLoadId(UUID loadId);
 
     List<Bid> findByTransporterTransporterId(UUID transporterId);
 
+    // Allocation reads the transporter of every pending bid on a load
+    @EntityGraph(attributePaths = { "load", "transporter" })
+    List<Bid> findByLoadLoadIdAndStatus(UUID loadId, BidStatus status);
+
+    // Accepting a bid reads its load and transporter; fetch all three in one query
+    @EntityGraph(attributePaths = { "load", "transporter" })
+    Optional<Bid> findWithLoadAndTransporterByBidId(UUID bidId);
+
     List<Bid> findByStatus(BidStatus status);
+
+    @Override
+    @EntityGraph(attributePaths = { "load", "transporter" })
+    List<Bid> findAll(Specification<Bid> spec);
+
+    @Override
+    @EntityGraph(attributePaths = { "load", "transporter" })
+    Page<Bid> findAll(Specification<Bid> spec, Pageable pageable);
+
+    // Pending bids of a load as (bid_id, transporter_id), locked until commit so none of them
+    // can be accepted before it is rejected; flush first so earlier changes are seen
+    @Query(value = "SELECT bid_id, transporter_id FROM bids WHERE load_id = :loadId AND status = 'PENDING' "
+            + "ORDER BY bid_id FOR UPDATE", nativeQuery = true)
+    List<Object[]> lockPendingBids(@Param("loadId") UUID loadId);
+
+    // Reject the given bids in one statement when their load closes; only bids read by
+    // lockPendingBids are touched, so a bid committed since then is never rejected unannounced
+    // The version bump makes a concurrent accept of one of these bids fail instead of overwriting it
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE Bid b SET b.status = com.cargopro.enums.BidStatus.REJECTED, b.version = b.version + 1 "
+            + "WHERE b.bidId IN :bidIds AND b.status = com.cargopro.enums.BidStatus.PENDING")
+    int rejectBids(@Param("bidIds") Collection<UUID> bidIds);
+
+    // Bids per status in one query (business gauges)
+    @Query("SELECT b.status AS status, COUNT(b) AS total FROM Bid b GROUP BY b.status")
+    List<StatusCount> countByStatus();
+
+    interface StatusCount {
+        BidStatus getStatus();
+
+        long getTotal();
+    }
 }
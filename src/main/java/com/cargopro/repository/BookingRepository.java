@@ -1,22 +1,50 @@
 package com.cargopro.repository;
 
 import com.cargopro.entity.Booking;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
 
 /**
  * Repository for Booking entity
  * JpaRepository provides basic CRUD operations automatically
+ * List queries fetch the transporter eagerly because every booking response
+ * includes the transporter name (load and bid ids come from the foreign keys)
  */
 @Repository
 public interface BookingRepository extends JpaRepository<Booking, UUID> {
 
     // Find bookings by load
+    @EntityGraph(attributePaths = { "transporter" })
     List<Booking> findByLoadLoadId(UUID loadId);
 
     // Find bookings by transporter
+    @EntityGraph(attributePaths = { "transporter" })
     List<Booking> findByTransporterTransporterId(UUID transporterId);
+
+    // Cancelling a booking updates its load and returns the transporter name
+    @EntityGraph(attributePaths = { "load", "transporter" })
+    Optional<Booking> findWithLoadAndTransporterByBookingId(UUID bookingId);
+
+    // Booking history per transporter in one query (bid scoring reliability)
+    @Query("SELECT b.transporter.transporterId AS transporterId, COUNT(b) AS total, "
+            + "SUM(CASE WHEN b.status = com.cargopro.enums.BookingStatus.CANCELLED THEN 1 ELSE 0 END) AS cancelled "
+            + "FROM Booking b WHERE b.transporter.transporterId IN :transporterIds "
+            + "GROUP BY b.transporter.transporterId")
+    List<BookingOutcomes> countOutcomesByTransporter(@Param("transporterIds") Collection<UUID> transporterIds);
+
+    interface BookingOutcomes {
+        UUID getTransporterId();
+
+        long getTotal();
+
+        long getCancelled();
+    }
 }
@@ -4,8 +4,10 @@ import com.cargopro.entity.Load;
 import com.cargopro.enums.LoadStatus;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 
 import java.util.UUID;
@@ -23,4 +25,17 @@ public interface LoadRepository extends JpaRepository<Load, UUID>, JpaSpecificat
 
     // Find active loads (not cancelled or booked)
     List<Load> findByStatusNot(LoadStatus status);
+
+    // Open loads with trucks still to fill (load board build at startup)
+    List<Load> findByStatusInAndRemainingTrucksGreaterThan(Collection<LoadStatus> statuses, int remainingTrucks);
+
+    // Loads per status in one query (business gauges)
+    @Query("SELECT l.status AS status, COUNT(l) AS total FROM Load l GROUP BY l.status")
+    List<StatusCount> countByStatus();
+
+    interface StatusCount {
+        LoadStatus getStatus();
+
+        long getTotal();
+    }
 }
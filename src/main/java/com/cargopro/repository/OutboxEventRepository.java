@@ -0,0 +1,30 @@
+package com.cargopro.repository;
+
+import com.cargopro.entity.OutboxEvent;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Repository for OutboxEvent entity
+ */
+@Repository
+public interface OutboxEventRepository extends JpaRepository<OutboxEvent, Long> {
+
+    // Next batch for a listener, oldest first
+    List<OutboxEvent> findByEventIdGreaterThanOrderByEventIdAsc(long eventId, Pageable pageable);
+
+    // Events that committed inside a skipped range
+    List<OutboxEvent> findByEventIdBetweenOrderByEventIdAsc(long firstEventId, long lastEventId);
+
+    // Oldest event a listener has not processed yet (lag age)
+    Optional<OutboxEvent> findFirstByEventIdGreaterThanOrderByEventIdAsc(long eventId);
+
+    // Newest event id, 0 while the outbox is empty
+    @Query("SELECT COALESCE(MAX(e.eventId), 0) FROM OutboxEvent e")
+    long findMaxEventId();
+}
@@ -0,0 +1,12 @@
+package com.cargopro.repository;
+
+import com.cargopro.entity.OutboxGap;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Repository for OutboxGap entity, keyed by the first id of the range
+ */
+@Repository
+public interface OutboxGapRepository extends JpaRepository<OutboxGap, Long> {
+}
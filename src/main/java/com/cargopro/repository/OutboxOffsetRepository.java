@@ -0,0 +1,12 @@
+package com.cargopro.repository;
+
+import com.cargopro.entity.OutboxOffset;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Repository for OutboxOffset entity, keyed by listener name
+ */
+@Repository
+public interface OutboxOffsetRepository extends JpaRepository<OutboxOffset, String> {
+}
@@ -0,0 +1,12 @@
+package com.cargopro.repository;
+
+import com.cargopro.entity.ShipperScoring;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Repository for ShipperScoring entity, keyed by shipper id
+ */
+@Repository
+public interface ShipperScoringRepository extends JpaRepository<ShipperScoring, String> {
+}
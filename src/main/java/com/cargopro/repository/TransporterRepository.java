@@ -2,13 +2,89 @@ package com.cargopro.repository;
 
 import com.cargopro.entity.Transporter;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
+import java.util.stream.Stream;
 
 /**
  * Repository for Transporter entity
  * JpaRepository provides basic CRUD operations automatically
+ *
+ * Truck counts are changed with single conditional UPDATEs on the
+ * transporter_trucks table (keyed by transporter and truck type) instead of
+ * loading and re-saving the whole collection, so concurrent bookings cannot
+ * lose updates. These statements bypass the persistence context: do not
+ * modify a loaded Transporter's truck list in the same transaction.
+ *
+ * Truck types are stored upper-case (TransporterService normalises them), so
+ * they are matched by plain equality, which the case-sensitive key supports.
+ * Callers must pass the upper-case type.
  */
 @Repository
 public interface TransporterRepository extends JpaRepository<Transporter, UUID> {
+
+    // Rows are read off the JDBC cursor as the stream is consumed (hibernate.jdbc.fetch_size);
+    // ordering by id keeps each transporter's truck rows together for the collection fetch
+    @Query("SELECT t FROM Transporter t LEFT JOIN FETCH t.availableTrucks ORDER BY t.transporterId")
+    Stream<Transporter> streamAllWithTrucks();
+
+    // Take trucks only if enough are free; returns the number of rows updated (0 = not reserved)
+    @Modifying(flushAutomatically = true)
+    @Query(value = "UPDATE transporter_trucks SET count = count - :count "
+            + "WHERE transporter_id = :transporterId AND truck_type = :truckType "
+            + "AND count >= :count", nativeQuery = true)
+    int reserveTrucks(@Param("transporterId") UUID transporterId,
+            @Param("truckType") String truckType,
+            @Param("count") int count);
+
+    // Give trucks back; returns 0 if the transporter has no row for this truck type
+    @Modifying(flushAutomatically = true)
+    @Query(value = "UPDATE transporter_trucks SET count = count + :count "
+            + "WHERE transporter_id = :transporterId AND truck_type = :truckType", nativeQuery = true)
+    int releaseTrucks(@Param("transporterId") UUID transporterId,
+            @Param("truckType") String truckType,
+            @Param("count") int count);
+
+    @Modifying(flushAutomatically = true)
+    @Query(value = "INSERT INTO transporter_trucks (transporter_id, truck_type, count) "
+            + "VALUES (:transporterId, :truckType, :count)", nativeQuery = true)
+    int insertTrucks(@Param("transporterId") UUID transporterId,
+            @Param("truckType") String truckType,
+            @Param("count") int count);
+
+    @Query(value = "SELECT count FROM transporter_trucks "
+            + "WHERE transporter_id = :transporterId AND truck_type = :truckType", nativeQuery = true)
+    Optional<Integer> findTruckCount(@Param("transporterId") UUID transporterId,
+            @Param("truckType") String truckType);
+
+    // Every truck row of the given transporters in one query (used by batch bid validation)
+    @Query("SELECT t.transporterId AS transporterId, truck.truckType AS truckType, truck.count AS available "
+            + "FROM Transporter t JOIN t.availableTrucks truck WHERE t.transporterId IN :transporterIds")
+    List<TruckCount> findTruckCounts(@Param("transporterIds") Collection<UUID> transporterIds);
+
+    // Free trucks across all transporters per truck type (business gauges)
+    @Query("SELECT UPPER(truck.truckType) AS truckType, SUM(truck.count) AS available "
+            + "FROM Transporter t JOIN t.availableTrucks truck GROUP BY UPPER(truck.truckType)")
+    List<TruckTypeTotal> sumAvailableByTruckType();
+
+    interface TruckCount {
+        UUID getTransporterId();
+
+        String getTruckType();
+
+        int getAvailable();
+    }
+
+    interface TruckTypeTotal {
+        String getTruckType();
+
+        long getAvailable();
+    }
 }
@@ -0,0 +1,233 @@
+package com.cargopro.service;
+
+import com.cargopro.dto.BestBidEvent;
+import com.cargopro.dto.BestBidResponse;
+import com.cargopro.exception.SubscriberLimitExceededException;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.BlockingDeque;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Service class for streaming best-bid updates to shippers over server-sent events
+ *
+ * Each subscriber gets a snapshot of the ranked bids followed by a delta event
+ * every time a bid on the load is created, rejected or accepted. Events are
+ * queued per subscriber in a bounded queue and written by a small sender pool,
+ * so a slow client never blocks the request that changed the book; a client
+ * that falls too far behind is disconnected and can reconnect for a fresh snapshot.
+ */
+@Service
+public class BestBidStreamService implements BidOrderBook.Listener {
+
+    static final String SNAPSHOT_EVENT = "snapshot";
+    static final String BID_EVENT = "bid";
+    static final String CLOSED_EVENT = "closed";
+
+    @Autowired
+    private BidOrderBook bidOrderBook;
+
+    @Autowired
+    private BidService bidService;
+
+    @Value("${tms.best-bids.stream.max-subscribers-per-load:100}")
+    private int maxSubscribersPerLoad;
+
+    @Value("${tms.best-bids.stream.queue-capacity:256}")
+    private int queueCapacity;
+
+    @Value("${tms.best-bids.stream.timeout-ms:1800000}")
+    private long timeoutMs;
+
+    @Value("${tms.best-bids.stream.sender-threads:4}")
+    private int senderThreads;
+
+    private final Map<UUID, Set<Subscriber>> subscribers = new ConcurrentHashMap<>();
+
+    private ExecutorService sender;
+
+    @PostConstruct
+    void start() {
+        sender = Executors.newFixedThreadPool(senderThreads, runnable -> {
+            Thread thread = new Thread(runnable, "best-bid-stream");
+            thread.setDaemon(true);
+            return thread;
+        });
+        bidOrderBook.addListener(this);
+    }
+
+    @PreDestroy
+    void stop() {
+        bidOrderBook.removeListener(this);
+        subscribers.values().forEach(set -> set.forEach(Subscriber::close));
+        sender.shutdownNow();
+    }
+
+    /**
+     * Open a stream of best-bid updates for a load
+     */
+    public SseEmitter subscribe(UUID loadId) {
+        Subscriber subscriber = new Subscriber(loadId, new SseEmitter(timeoutMs));
+
+        subscribers.compute(loadId, (id, set) -> {
+            if (set == null) {
+                set = ConcurrentHashMap.newKeySet();
+            }
+            if (set.size() >= maxSubscribersPerLoad) {
+                throw new SubscriberLimitExceededException(
+                        "Load " + loadId + " already has " + maxSubscribersPerLoad + " best-bid subscribers");
+            }
+            set.add(subscriber);
+            return set;
+        });
+
+        SseEmitter emitter = subscriber.emitter;
+        emitter.onCompletion(() -> unsubscribe(subscriber));
+        emitter.onTimeout(() -> unsubscribe(subscriber));
+        emitter.onError(ex -> unsubscribe(subscriber));
+
+        // Register before taking the snapshot so no delta is missed; deltas queued
+        // meanwhile are already part of the snapshot and re-apply harmlessly
+        List<BestBidResponse> snapshot;
+        try {
+            snapshot = bidService.getBestBidsForLoad(loadId);
+        } catch (RuntimeException ex) {
+            unsubscribe(subscriber);
+            throw ex;
+        }
+        subscriber.enqueueFirst(SseEmitter.event().name(SNAPSHOT_EVENT).data(snapshot));
+        return emitter;
+    }
+
+    /**
+     * Number of open streams for a load
+     */
+    public int getSubscriberCount(UUID loadId) {
+        Set<Subscriber> set = subscribers.get(loadId);
+        return set == null ? 0 : set.size();
+    }
+
+    @Override
+    public boolean isWatching(UUID loadId) {
+        return subscribers.containsKey(loadId);
+    }
+
+    @Override
+    public void onBidRanked(UUID loadId, int rank, BestBidResponse bid) {
+        Set<Subscriber> set = subscribers.get(loadId);
+        if (set == null) {
+            return;
+        }
+        BestBidEvent event = new BestBidEvent(loadId, rank, bid);
+        set.forEach(subscriber -> subscriber.enqueue(SseEmitter.event().name(BID_EVENT).data(event)));
+    }
+
+    @Override
+    public void onBookClosed(UUID loadId) {
+        Set<Subscriber> set = subscribers.get(loadId);
+        if (set == null) {
+            return;
+        }
+        set.forEach(subscriber -> {
+            subscriber.enqueue(SseEmitter.event().name(CLOSED_EVENT).data(loadId));
+            subscriber.completeAfterDrain();
+        });
+    }
+
+    private void unsubscribe(Subscriber subscriber) {
+        subscribers.computeIfPresent(subscriber.loadId, (id, set) -> {
+            set.remove(subscriber);
+            return set.isEmpty() ? null : set;
+        });
+    }
+
+    /**
+     * One open stream: a bounded event queue drained by the sender pool
+     */
+    private class Subscriber {
+        private final UUID loadId;
+        private final SseEmitter emitter;
+        private final BlockingDeque<SseEmitter.SseEventBuilder> queue;
+        private final AtomicBoolean draining = new AtomicBoolean();
+        private volatile boolean completeWhenDrained;
+        private volatile boolean closed;
+
+        Subscriber(UUID loadId, SseEmitter emitter) {
+            this.loadId = loadId;
+            this.emitter = emitter;
+            this.queue = new LinkedBlockingDeque<>(queueCapacity);
+        }
+
+        void enqueue(SseEmitter.SseEventBuilder event) {
+            if (!queue.offerLast(event)) {
+                // Client is too slow to keep up; drop it rather than buffer without bound
+                close();
+                return;
+            }
+            scheduleDrain();
+        }
+
+        void enqueueFirst(SseEmitter.SseEventBuilder event) {
+            if (!queue.offerFirst(event)) {
+                close();
+                return;
+            }
+            scheduleDrain();
+        }
+
+        void completeAfterDrain() {
+            completeWhenDrained = true;
+            scheduleDrain();
+        }
+
+        void close() {
+            closed = true;
+            unsubscribe(this);
+            queue.clear();
+            emitter.complete();
+        }
+
+        private void scheduleDrain() {
+            if (!closed && draining.compareAndSet(false, true)) {
+                sender.execute(this::drain);
+            }
+        }
+
+        private void drain() {
+            try {
+                SseEmitter.SseEventBuilder event;
+                while ((event = queue.pollFirst()) != null) {
+                    emitter.send(event);
+                }
+                if (completeWhenDrained) {
+                    close();
+                }
+            } catch (IOException | IllegalStateException ex) {
+                // Client went away mid-send
+                closed = true;
+                unsubscribe(this);
+                queue.clear();
+            } finally {
+                draining.set(false);
+            }
+            // An event may have been queued after the last poll but before the flag was cleared
+            if (!closed && (!queue.isEmpty() || completeWhenDrained)) {
+                scheduleDrain();
+            }
+        }
+    }
+}
@@ -0,0 +1,242 @@
+package com.cargopro.service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Picks the cheapest set of bids that together fill a load's remaining trucks
+ *
+ * Bids are all-or-nothing (a booking takes every truck a bid offers) and their
+ * rate is the price of the whole offer, so this is a 0/1 knapsack: minimise
+ * total rate subject to total trucks = trucks needed. It is solved exactly by
+ * dynamic programming over truck counts. When no set fills the load exactly,
+ * the cheapest set covering the most trucks is returned instead.
+ *
+ * Bids of one transporter draw on the same free trucks, so together they may
+ * not exceed its capacity. A transporter whose bids could break that limit is
+ * solved on its own first (cheapest mix of its bids for each truck count up to
+ * the capacity) and then enters the main DP as one group, of which at most one
+ * mix is taken.
+ *
+ * Before the DP, bids that can never be part of an optimal set are dropped:
+ * more than limit / k bids of size k cannot fit, so only the cheapest of each
+ * size are kept per transporter. Inputs too large for the DP table fall back to
+ * a greedy fill by rate per truck, which is reported as not optimal.
+ */
+public final class BidAllocator {
+
+    static final long MAX_CELLS = 20_000_000L;
+
+    private static final Comparator<Option> CHEAPEST_PER_TRUCK = Comparator
+            .comparingDouble((Option o) -> o.cost() / o.trucks())
+            .thenComparing(Option::bidId);
+
+    private BidAllocator() {
+    }
+
+    /**
+     * A bid as seen by the allocator; bids with the same transporterId share its capacity
+     */
+    public record Option(UUID bidId, UUID transporterId, int trucks, double cost) {
+
+        /**
+         * A bid that shares no trucks with the others
+         */
+        public Option(UUID bidId, int trucks, double cost) {
+            this(bidId, null, trucks, cost);
+        }
+    }
+
+    /**
+     * The chosen bids, the trucks they cover and their total rate
+     */
+    public record Allocation(List<Option> chosen, int trucks, double cost, boolean optimal) {
+    }
+
+    /**
+     * Bids taken together in one DP step: a single bid, or a mix of one transporter's bids
+     */
+    private record Choice(List<Option> options, int trucks, double cost) {
+    }
+
+    /**
+     * Cheapest set of options filling trucksNeeded, or covering as many trucks as possible
+     */
+    public static Allocation allocate(List<Option> options, int trucksNeeded) {
+        return allocate(options, Map.of(), trucksNeeded);
+    }
+
+    /**
+     * As above, with the options of each transporter in capacities together taking at
+     * most its capacity in trucks. Transporters missing from the map are not limited
+     */
+    public static Allocation allocate(List<Option> options, Map<UUID, Integer> capacities, int trucksNeeded) {
+        Map<UUID, List<Option>> byTransporter = new HashMap<>();
+        for (Option option : options) {
+            byTransporter.computeIfAbsent(option.transporterId(), id -> new ArrayList<>()).add(option);
+        }
+
+        List<Option> candidates = new ArrayList<>();
+        List<Option> singles = new ArrayList<>();
+        List<List<Option>> groups = new ArrayList<>();
+        long cells = 0;
+        for (Map.Entry<UUID, List<Option>> entry : byTransporter.entrySet()) {
+            int limit = limit(entry.getKey(), capacities, trucksNeeded);
+            List<Option> pruned = prune(entry.getValue(), limit);
+            candidates.addAll(pruned);
+            if (entry.getKey() != null && pruned.stream().mapToInt(Option::trucks).sum() > limit) {
+                groups.add(pruned);
+                cells += (long) (pruned.size() + trucksNeeded + 1) * (limit + 1);
+            } else {
+                singles.addAll(pruned);
+                cells += (long) pruned.size() * (trucksNeeded + 1);
+            }
+        }
+        if (candidates.isEmpty()) {
+            return new Allocation(List.of(), 0, 0, true);
+        }
+        candidates.sort(CHEAPEST_PER_TRUCK);
+        if (cells > MAX_CELLS) {
+            return greedy(candidates, capacities, trucksNeeded);
+        }
+
+        singles.sort(CHEAPEST_PER_TRUCK);
+        List<List<Choice>> steps = new ArrayList<>();
+        for (Option option : singles) {
+            steps.add(List.of(single(option)));
+        }
+        groups.sort(Comparator.comparing(group -> group.get(0).transporterId()));
+        for (List<Option> group : groups) {
+            int limit = limit(group.get(0).transporterId(), capacities, trucksNeeded);
+            Table mixes = new Table(group.stream().map(option -> List.of(single(option))).toList(), limit);
+            List<Choice> step = new ArrayList<>();
+            for (int t = 1; t <= limit; t++) {
+                if (mixes.cost[t] != Double.POSITIVE_INFINITY) {
+                    step.add(new Choice(mixes.pick(t), t, mixes.cost[t]));
+                }
+            }
+            steps.add(step);
+        }
+
+        Table table = new Table(steps, trucksNeeded);
+        int best = trucksNeeded;
+        while (table.cost[best] == Double.POSITIVE_INFINITY) {
+            best--;
+        }
+        List<Option> chosen = table.pick(best);
+        chosen.sort(CHEAPEST_PER_TRUCK);
+        return new Allocation(chosen, best, table.cost[best], true);
+    }
+
+    /**
+     * Cheapest cost of exactly t trucks for every t up to the capacity, taking at most
+     * one choice from each step. taken.get(s).get(c) marks the t where choice c of step
+     * s improved cost[t], enough to walk the choices back afterwards
+     */
+    private static final class Table {
+
+        private final List<List<Choice>> steps;
+        private final double[] cost;
+        private final List<List<BitSet>> taken;
+
+        Table(List<List<Choice>> steps, int capacity) {
+            this.steps = steps;
+            this.cost = new double[capacity + 1];
+            this.taken = new ArrayList<>(steps.size());
+            Arrays.fill(cost, Double.POSITIVE_INFINITY);
+            cost[0] = 0;
+            for (List<Choice> step : steps) {
+                List<BitSet> improved = new ArrayList<>(step.size());
+                for (int c = 0; c < step.size(); c++) {
+                    improved.add(new BitSet(capacity + 1));
+                }
+                // Downwards, so cost[t - trucks] still excludes this step
+                for (int t = capacity; t > 0; t--) {
+                    int best = -1;
+                    for (int c = 0; c < step.size(); c++) {
+                        Choice choice = step.get(c);
+                        if (choice.trucks() <= t) {
+                            double with = cost[t - choice.trucks()] + choice.cost();
+                            if (with < cost[t]) {
+                                cost[t] = with;
+                                best = c;
+                            }
+                        }
+                    }
+                    if (best >= 0) {
+                        improved.get(best).set(t);
+                    }
+                }
+                taken.add(improved);
+            }
+        }
+
+        List<Option> pick(int t) {
+            List<Option> chosen = new ArrayList<>();
+            for (int s = steps.size() - 1; s >= 0 && t > 0; s--) {
+                List<BitSet> improved = taken.get(s);
+                for (int c = 0; c < improved.size(); c++) {
+                    if (improved.get(c).get(t)) {
+                        Choice choice = steps.get(s).get(c);
+                        chosen.addAll(choice.options());
+                        t -= choice.trucks();
+                        break;
+                    }
+                }
+            }
+            return chosen;
+        }
+    }
+
+    private static Choice single(Option option) {
+        return new Choice(List.of(option), option.trucks(), option.cost());
+    }
+
+    private static int limit(UUID transporterId, Map<UUID, Integer> capacities, int trucksNeeded) {
+        Integer capacity = transporterId == null ? null : capacities.get(transporterId);
+        return capacity == null ? trucksNeeded : Math.min(capacity, trucksNeeded);
+    }
+
+    /**
+     * Drop bids that are too big, and all but the limit / k cheapest bids of each size k
+     */
+    private static List<Option> prune(List<Option> options, int limit) {
+        Map<Integer, List<Option>> bySize = new HashMap<>();
+        for (Option option : options) {
+            if (option.trucks() > 0 && option.trucks() <= limit) {
+                bySize.computeIfAbsent(option.trucks(), size -> new ArrayList<>()).add(option);
+            }
+        }
+        List<Option> candidates = new ArrayList<>();
+        bySize.forEach((size, sameSize) -> {
+            sameSize.sort(CHEAPEST_PER_TRUCK);
+            candidates.addAll(sameSize.subList(0, Math.min(sameSize.size(), limit / size)));
+        });
+        candidates.sort(CHEAPEST_PER_TRUCK);
+        return candidates;
+    }
+
+    private static Allocation greedy(List<Option> candidates, Map<UUID, Integer> capacities, int trucksNeeded) {
+        List<Option> chosen = new ArrayList<>();
+        Map<UUID, Integer> used = new HashMap<>();
+        int trucks = 0;
+        double cost = 0;
+        for (Option option : candidates) {
+            int usedByTransporter = used.getOrDefault(option.transporterId(), 0);
+            if (trucks + option.trucks() <= trucksNeeded
+                    && usedByTransporter + option.trucks() <= limit(option.transporterId(), capacities, trucksNeeded)) {
+                chosen.add(option);
+                used.put(option.transporterId(), usedByTransporter + option.trucks());
+                trucks += option.trucks();
+                cost += option.cost();
+            }
+        }
+        return new Allocation(chosen, trucks, cost, false);
+    }
+}
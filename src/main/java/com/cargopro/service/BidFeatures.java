@@ -0,0 +1,46 @@
+package com.cargopro.service;
+
+import com.cargopro.enums.WeightUnit;
+
+/**
+ * The bids of one load laid out column by column for scoring
+ *
+ * Element i of every array belongs to the same bid. Load-level terms
+ * (weight in tonnes, trucks requested) are shared by all bids.
+ *
+ * @param tonnes       load weight in tonnes
+ * @param noOfTrucks   trucks the load asks for
+ * @param proposedRate rate of each bid (always positive)
+ * @param trucksOffered trucks offered by each bid
+ * @param rating       transporter rating of each bid, 0 to 5
+ * @param reliability  share of the transporter's bookings it kept, 0 to 1
+ */
+public record BidFeatures(double tonnes, int noOfTrucks, double[] proposedRate, int[] trucksOffered,
+        double[] rating, double[] reliability) {
+
+    /**
+     * Empty columns for the given number of bids
+     */
+    public static BidFeatures allocate(double tonnes, int noOfTrucks, int size) {
+        return new BidFeatures(tonnes, noOfTrucks, new double[size], new int[size], new double[size],
+                new double[size]);
+    }
+
+    public int size() {
+        return proposedRate.length;
+    }
+
+    public void set(int i, double rate, int trucks, double transporterRating, double transporterReliability) {
+        proposedRate[i] = rate;
+        trucksOffered[i] = trucks;
+        rating[i] = transporterRating;
+        reliability[i] = transporterReliability;
+    }
+
+    /**
+     * A load's weight in tonnes; weights without a unit are taken as tonnes
+     */
+    public static double tonnes(double weight, WeightUnit unit) {
+        return unit == WeightUnit.KG ? weight / 1000.0 : weight;
+    }
+}
@@ -0,0 +1,472 @@
+package com.cargopro.service;
+
+import com.cargopro.dto.BestBidResponse;
+import com.cargopro.entity.Bid;
+import com.cargopro.entity.Load;
+import com.cargopro.enums.BidStatus;
+import com.cargopro.enums.LoadStatus;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.RemovalCause;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeSet;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * In-memory ranked order book of bids, one book per load.
+ *
+ * A book is built from the database the first time best bids are requested
+ * for a load and is then kept current as bids are created, rejected and
+ * accepted, so reads no longer need a query plus a sort. Changes made inside
+ * a transaction are only applied once that transaction commits.
+ *
+ * Scores come from BidScorer with the load's shipper settings. Each entry
+ * keeps the inputs it was scored from, so a shipper's books can be re-scored
+ * in memory when the shipper changes its weights.
+ *
+ * Each book keeps one ranking per bid status, so reads for pending bids
+ * never walk past rejected or accepted ones, and a top-K read stops as
+ * soon as K bids pass its filters.
+ *
+ * Listeners that watch a load get a ranked delta for every committed bid even
+ * when its book is not cached (never built, evicted or dropped as stale): the
+ * book is then rebuilt from the database after the commit.
+ *
+ * Books live in a Caffeine cache bounded by max-loads and dropped after
+ * idle-ttl without reads or updates. A book is built outside any lock; if a
+ * commit touched the load, or re-scored its shipper, while it was being built,
+ * it is still returned but not kept, so the cache never holds a book that
+ * missed a change.
+ */
+@Component
+public class BidOrderBook {
+
+    private static final Comparator<Entry> RANKING = Comparator
+            .comparingDouble((Entry e) -> e.score).reversed()
+            .thenComparing(e -> e.bidId);
+
+    @Autowired
+    private BidScorer bidScorer;
+
+    @Value("${tms.order-book.max-loads:10000}")
+    private long maxLoads;
+
+    @Value("${tms.order-book.idle-ttl-ms:600000}")
+    private long idleTtlMs;
+
+    private Cache<UUID, LoadBook> books;
+
+    // Last change per load and last re-score per shipper, as values of sequence; see getTopBids
+    private Cache<UUID, Long> loadVersions;
+    private Cache<String, Long> shipperVersions;
+
+    private final AtomicLong sequence = new AtomicLong();
+
+    // Highest version evicted from either map; stands in for keys without an entry
+    private final AtomicLong evictedVersion = new AtomicLong();
+
+    private final List<Listener> listeners = new CopyOnWriteArrayList<>();
+
+    /**
+     * Callback for changes to a load's book, used to push updates to clients
+     */
+    public interface Listener {
+        /**
+         * A bid was added or refreshed and now sits at the given rank (0 = best)
+         * among the bids with the same status
+         */
+        void onBidRanked(UUID loadId, int rank, BestBidResponse bid);
+
+        /**
+         * The load's book was dropped, e.g. because the load was cancelled
+         */
+        void onBookClosed(UUID loadId);
+
+        /**
+         * Whether this listener needs deltas for the load; a watched load's book
+         * is rebuilt when a bid commits without one
+         */
+        default boolean isWatching(UUID loadId) {
+            return false;
+        }
+    }
+
+    @PostConstruct
+    public void start() {
+        books = Caffeine.newBuilder()
+                .maximumSize(maxLoads)
+                .expireAfterAccess(Duration.ofMillis(idleTtlMs))
+                .build();
+        loadVersions = Caffeine.newBuilder()
+                .maximumSize(maxLoads)
+                .evictionListener((UUID loadId, Long version, RemovalCause cause) ->
+                        evictedVersion.accumulateAndGet(version, Math::max))
+                .build();
+        shipperVersions = Caffeine.newBuilder()
+                .maximumSize(maxLoads)
+                .evictionListener((String shipperId, Long version, RemovalCause cause) ->
+                        evictedVersion.accumulateAndGet(version, Math::max))
+                .build();
+    }
+
+    public void addListener(Listener listener) {
+        listeners.add(listener);
+    }
+
+    public void removeListener(Listener listener) {
+        listeners.remove(listener);
+    }
+
+    /**
+     * Get all bids for a load whatever their status, best score first.
+     * The loader is only called when the load has no book yet.
+     */
+    public List<BestBidResponse> getRankedBids(UUID loadId, Supplier<List<Bid>> loader) {
+        return getTopBids(loadId, loader, null, null, null, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Get the best bids for a load that pass the filters, at most limit of them
+     * A null status matches every status; null minRating and maxRate do not filter.
+     * The loader is only called when the load has no book yet.
+     */
+    public List<BestBidResponse> getTopBids(UUID loadId, Supplier<List<Bid>> loader, BidStatus status,
+            Double minRating, Double maxRate, int limit) {
+        LoadBook book = loadBook(loadId, loader);
+        if (book == null) {
+            return new ArrayList<>();
+        }
+        return book.top(status,
+                minRating == null ? Double.NEGATIVE_INFINITY : minRating,
+                maxRate == null ? Double.POSITIVE_INFINITY : maxRate,
+                limit);
+    }
+
+    /**
+     * Add a bid to its load's book, or refresh it if it is already there
+     * The loader is only called to rebuild a missing book of a watched load, after commit.
+     */
+    public void upsert(Bid bid, Supplier<List<Bid>> loader) {
+        UUID loadId = bid.getLoad().getLoadId();
+        boolean watched = listeners.stream().anyMatch(listener -> listener.isWatching(loadId));
+        if (!watched && books.getIfPresent(loadId) == null) {
+            // Nothing to score into; a book built before this commit would miss the
+            // bid, so drop any such book and let the next read rebuild it
+            AfterCommit.run(() -> {
+                loadVersions.put(loadId, sequence.incrementAndGet());
+                books.invalidate(loadId);
+            });
+            return;
+        }
+        Entry entry = toEntries(bid.getLoad(), List.of(bid)).get(0);
+        AfterCommit.run(() -> {
+            loadVersions.put(loadId, sequence.incrementAndGet());
+            int[] rank = { -1 };
+            books.asMap().computeIfPresent(loadId, (id, book) -> {
+                rank[0] = book.put(entry);
+                return book;
+            });
+            if (rank[0] >= 0) {
+                listeners.forEach(listener -> listener.onBidRanked(loadId, rank[0], entry.copy()));
+            } else if (watched) {
+                rankInRebuiltBook(loadId, entry.bidId, loader);
+            }
+        });
+    }
+
+    /**
+     * Drop the book for a load, e.g. when the load is cancelled
+     */
+    public void invalidate(UUID loadId) {
+        AfterCommit.run(() -> {
+            loadVersions.put(loadId, sequence.incrementAndGet());
+            books.invalidate(loadId);
+            listeners.forEach(listener -> listener.onBookClosed(loadId));
+        });
+    }
+
+    /**
+     * Re-score the books of every load the shipper posted, e.g. after its weights changed
+     * Listeners are not notified; streamed ranks catch up with the next bid.
+     */
+    public void rescore(String shipperId) {
+        AfterCommit.run(() -> {
+            // Books of this shipper being built now may have scored with the old weights
+            if (shipperId != null) {
+                shipperVersions.put(shipperId, sequence.incrementAndGet());
+            }
+            books.asMap().replaceAll((loadId, book) ->
+                    Objects.equals(shipperId, book.shipperId) ? book.rescored(bidScorer) : book);
+        });
+    }
+
+    /**
+     * Original ranking score, equal to the default strategy and weights:
+     * lower rate and higher rating are better
+     */
+    public static double score(double proposedRate, double rating) {
+        double rateScore = (1.0 / proposedRate) * 0.7;
+        double ratingScore = (rating / 5.0) * 0.3;
+        return rateScore + ratingScore;
+    }
+
+    /**
+     * The cached book of a load, or one built from the loader (cached unless a
+     * change raced the build); null when the load has no bids or is closed
+     */
+    private LoadBook loadBook(UUID loadId, Supplier<List<Bid>> loader) {
+        LoadBook book = books.getIfPresent(loadId);
+        if (book == null) {
+            long seen = version(loadVersions, loadId);
+            LoadBook loaded = buildBook(loader.get());
+            if (loaded == null) {
+                return null;
+            }
+            book = books.asMap().putIfAbsent(loadId, loaded);
+            if (book == null) {
+                book = loaded;
+                // A commit since the load may have found no book to update, or a re-score
+                // may have missed it; drop ours. Versions move before changes are applied,
+                // so none slips in between
+                if (version(loadVersions, loadId) != seen
+                        || version(shipperVersions, loaded.shipperId) != loaded.scoredAt) {
+                    books.asMap().remove(loadId, loaded);
+                }
+            }
+        }
+        return book;
+    }
+
+    /**
+     * Rebuild a watched load's book after a commit found none, and pass the bid's
+     * rank in it to the listeners
+     */
+    private void rankInRebuiltBook(UUID loadId, UUID bidId, Supplier<List<Bid>> loader) {
+        LoadBook book = loadBook(loadId, loader);
+        if (book == null) {
+            return;
+        }
+        Entry stored = book.get(bidId);
+        if (stored != null) {
+            int rank = book.rank(stored);
+            listeners.forEach(listener -> listener.onBidRanked(loadId, rank, stored.copy()));
+        }
+    }
+
+    /**
+     * Current version of a load or shipper. A key without an entry takes the highest
+     * evicted version, so a change whose entry was evicted still reads as a change.
+     * Loads without a shipper score with the default settings, which never change: 0
+     */
+    private <K> long version(Cache<K, Long> versions, K key) {
+        if (key == null) {
+            return 0;
+        }
+        Long version = versions.getIfPresent(key);
+        return version != null ? version : evictedVersion.get();
+    }
+
+    private LoadBook buildBook(List<Bid> bids) {
+        // Nothing worth caching for loads without bids or loads that are closed
+        if (bids.isEmpty() || bids.get(0).getLoad().getStatus() == LoadStatus.CANCELLED) {
+            return null;
+        }
+        Load load = bids.get(0).getLoad();
+        // Read before scoring, so a re-score that lands meanwhile is noticed in loadBook
+        long scoredAt = version(shipperVersions, load.getShipperId());
+        LoadBook book = new LoadBook(load.getShipperId(), scoredAt,
+                BidFeatures.tonnes(load.getWeight(), load.getWeightUnit()), load.getNoOfTrucks());
+        toEntries(load, bids).forEach(book::add);
+        return book;
+    }
+
+    /**
+     * Score the bids of one load in a single pass and wrap them as entries
+     */
+    private List<Entry> toEntries(Load load, List<Bid> bids) {
+        BidFeatures features = bidScorer.features(load, bids);
+        double[] scores = bidScorer.score(load.getShipperId(), features);
+        List<Entry> entries = new ArrayList<>(bids.size());
+        for (int i = 0; i < bids.size(); i++) {
+            Bid bid = bids.get(i);
+            BestBidResponse response = new BestBidResponse(
+                    bid.getBidId(),
+                    bid.getTransporter().getTransporterId(),
+                    bid.getTransporter().getCompanyName(),
+                    bid.getTransporter().getRating(),
+                    bid.getProposedRate(),
+                    bid.getTrucksOffered(),
+                    scores[i],
+                    Timestamp.valueOf(bid.getSubmittedAt()),
+                    bid.getStatus());
+            entries.add(new Entry(response, features.reliability()[i]));
+        }
+        return entries;
+    }
+
+    /**
+     * Bids of a single load, ordered by score per status and indexed by bid id
+     */
+    private static class LoadBook {
+        private final String shipperId;
+        private final long scoredAt;
+        private final double tonnes;
+        private final int noOfTrucks;
+        private final Map<BidStatus, TreeSet<Entry>> ranked = new EnumMap<>(BidStatus.class);
+        private final Map<UUID, Entry> byBidId = new HashMap<>();
+
+        LoadBook(String shipperId, long scoredAt, double tonnes, int noOfTrucks) {
+            this.shipperId = shipperId;
+            this.scoredAt = scoredAt;
+            this.tonnes = tonnes;
+            this.noOfTrucks = noOfTrucks;
+        }
+
+        /**
+         * Insert or replace an entry
+         */
+        synchronized void add(Entry entry) {
+            Entry previous = byBidId.put(entry.bidId, entry);
+            if (previous != null) {
+                ranked.get(previous.status).remove(previous);
+            }
+            ranked.computeIfAbsent(entry.status, status -> new TreeSet<>(RANKING)).add(entry);
+        }
+
+        /**
+         * Insert or replace an entry and return its new rank within its status
+         * (O(n), so not used for bulk builds)
+         */
+        synchronized int put(Entry entry) {
+            add(entry);
+            return rank(entry);
+        }
+
+        /**
+         * Rank of an entry within its status (O(n))
+         */
+        synchronized int rank(Entry entry) {
+            return ranked.get(entry.status).headSet(entry).size();
+        }
+
+        synchronized Entry get(UUID bidId) {
+            return byBidId.get(bidId);
+        }
+
+        /**
+         * A new book with every entry scored again from its stored inputs
+         */
+        synchronized LoadBook rescored(BidScorer scorer) {
+            List<Entry> entries = new ArrayList<>(byBidId.values());
+            BidFeatures features = BidFeatures.allocate(tonnes, noOfTrucks, entries.size());
+            for (int i = 0; i < entries.size(); i++) {
+                BestBidResponse response = entries.get(i).response;
+                features.set(i, response.getProposedRate(), response.getTrucksOffered(),
+                        response.getTransporterRating(), entries.get(i).reliability);
+            }
+            double[] scores = scorer.score(shipperId, features);
+            LoadBook book = new LoadBook(shipperId, scoredAt, tonnes, noOfTrucks);
+            for (int i = 0; i < entries.size(); i++) {
+                book.add(entries.get(i).withScore(scores[i]));
+            }
+            return book;
+        }
+
+        /**
+         * The first limit entries, best first, with a rating of at least minRating
+         * and a rate of at most maxRate. Only the rankings of the wanted status are
+         * walked (all of them, merged, when status is null) and the walk ends once
+         * limit entries are found.
+         */
+        synchronized List<BestBidResponse> top(BidStatus status, double minRating, double maxRate, int limit) {
+            List<Iterator<Entry>> sources = new ArrayList<>();
+            if (status == null) {
+                ranked.values().forEach(set -> sources.add(set.iterator()));
+            } else if (ranked.containsKey(status)) {
+                sources.add(ranked.get(status).iterator());
+            }
+            Entry[] heads = new Entry[sources.size()];
+            for (int i = 0; i < heads.length; i++) {
+                heads[i] = sources.get(i).hasNext() ? sources.get(i).next() : null;
+            }
+
+            List<BestBidResponse> result = new ArrayList<>(Math.min(limit, byBidId.size()));
+            while (result.size() < limit) {
+                int best = -1;
+                for (int i = 0; i < heads.length; i++) {
+                    if (heads[i] != null && (best < 0 || RANKING.compare(heads[i], heads[best]) < 0)) {
+                        best = i;
+                    }
+                }
+                if (best < 0) {
+                    break;
+                }
+                Entry entry = heads[best];
+                heads[best] = sources.get(best).hasNext() ? sources.get(best).next() : null;
+                if (entry.rating >= minRating && entry.rate <= maxRate) {
+                    result.add(entry.copy());
+                }
+            }
+            return result;
+        }
+    }
+
+    /**
+     * Immutable book entry; responses are copied out so callers cannot mutate the book
+     */
+    private static final class Entry {
+        private final UUID bidId;
+        private final BidStatus status;
+        private final double score;
+        private final double rate;
+        private final double rating;
+        private final double reliability;
+        private final BestBidResponse response;
+
+        Entry(BestBidResponse response, double reliability) {
+            this.bidId = response.getBidId();
+            this.status = response.getStatus();
+            this.score = response.getScore();
+            this.rate = response.getProposedRate();
+            this.rating = response.getTransporterRating();
+            this.reliability = reliability;
+            this.response = response;
+        }
+
+        Entry withScore(double newScore) {
+            BestBidResponse rescored = copy();
+            rescored.setScore(newScore);
+            return new Entry(rescored, reliability);
+        }
+
+        BestBidResponse copy() {
+            return new BestBidResponse(
+                    response.getBidId(),
+                    response.getTransporterId(),
+                    response.getTransporterName(),
+                    response.getTransporterRating(),
+                    response.getProposedRate(),
+                    response.getTrucksOffered(),
+                    response.getScore(),
+                    response.getSubmittedAt(),
+                    response.getStatus());
+        }
+    }
+}
@@ -0,0 +1,180 @@
+package com.cargopro.service;
+
+import com.cargopro.entity.Bid;
+import com.cargopro.entity.Load;
+import com.cargopro.entity.ShipperScoring;
+import com.cargopro.repository.BookingRepository;
+import com.cargopro.repository.ShipperScoringRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.UUID;
+
+/**
+ * Scores the bids of a load with its shipper's strategy and weights
+ *
+ * Bids are copied into primitive columns (BidFeatures) once and the strategy
+ * scores them all in a single pass. Shipper settings and transporter
+ * reliability are cached, so scoring only reads the database on a miss.
+ *
+ * Reliability is the share of a transporter's bookings that were not
+ * cancelled, smoothed so a transporter without bookings counts as reliable:
+ * (bookings - cancelled + 1) / (bookings + 1).
+ */
+@Component
+public class BidScorer {
+
+    // Keeps the IN list of the reliability query at a size every database accepts
+    private static final int RELIABILITY_CHUNK = 1000;
+
+    @Autowired
+    private List<BidScoringStrategy> strategyBeans;
+
+    @Autowired
+    private ShipperScoringRepository shipperScoringRepository;
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Value("${tms.scoring.max-shippers:10000}")
+    private long maxShippers;
+
+    @Value("${tms.scoring.reliability-ttl-ms:300000}")
+    private long reliabilityTtlMs;
+
+    private Map<String, BidScoringStrategy> strategies;
+    private Cache<String, Settings> settings;
+    private Cache<UUID, Double> reliability;
+
+    /**
+     * A shipper's resolved strategy and weights
+     */
+    private record Settings(BidScoringStrategy strategy, BidScoringStrategy.Weights weights) {
+    }
+
+    @PostConstruct
+    public void start() {
+        strategies = new HashMap<>();
+        for (BidScoringStrategy strategy : strategyBeans) {
+            if (strategies.put(strategy.name(), strategy) != null) {
+                throw new IllegalStateException("Duplicate bid scoring strategy: " + strategy.name());
+            }
+        }
+        if (!strategies.containsKey(WeightedBidScoring.NAME)) {
+            throw new IllegalStateException("Default bid scoring strategy missing: " + WeightedBidScoring.NAME);
+        }
+        settings = Caffeine.newBuilder()
+                .maximumSize(maxShippers)
+                .build();
+        reliability = Caffeine.newBuilder()
+                .maximumSize(maxShippers * 10)
+                .expireAfterWrite(Duration.ofMillis(reliabilityTtlMs))
+                .build();
+    }
+
+    /**
+     * Lay out the bids of one load as features; element i belongs to bids.get(i)
+     */
+    public BidFeatures features(Load load, List<Bid> bids) {
+        BidFeatures features = BidFeatures.allocate(BidFeatures.tonnes(load.getWeight(), load.getWeightUnit()),
+                load.getNoOfTrucks(), bids.size());
+        Set<UUID> missing = new HashSet<>();
+        for (int i = 0; i < bids.size(); i++) {
+            Bid bid = bids.get(i);
+            UUID transporterId = bid.getTransporter().getTransporterId();
+            Double known = reliability.getIfPresent(transporterId);
+            if (known == null) {
+                missing.add(transporterId);
+            }
+            features.set(i, bid.getProposedRate(), bid.getTrucksOffered(), bid.getTransporter().getRating(),
+                    known == null ? Double.NaN : known);
+        }
+        if (!missing.isEmpty()) {
+            // One query per chunk of transporters not seen recently, then fill in the gaps
+            Map<UUID, Double> loaded = loadReliability(missing);
+            reliability.putAll(loaded);
+            double[] column = features.reliability();
+            for (int i = 0; i < bids.size(); i++) {
+                if (Double.isNaN(column[i])) {
+                    column[i] = loaded.get(bids.get(i).getTransporter().getTransporterId());
+                }
+            }
+        }
+        return features;
+    }
+
+    /**
+     * Score bids already laid out as features, with the shipper's settings
+     */
+    public double[] score(String shipperId, BidFeatures features) {
+        Settings current = settingsFor(shipperId);
+        double[] scores = new double[features.size()];
+        current.strategy().score(features, current.weights(), scores);
+        return scores;
+    }
+
+    public boolean hasStrategy(String name) {
+        return strategies.containsKey(name);
+    }
+
+    public Set<String> getStrategyNames() {
+        return new TreeSet<>(strategies.keySet());
+    }
+
+    /**
+     * Forget a shipper's cached settings once the current transaction commits
+     */
+    public void evict(String shipperId) {
+        AfterCommit.run(() -> settings.invalidate(shipperId));
+    }
+
+    private Settings settingsFor(String shipperId) {
+        if (shipperId == null) {
+            return new Settings(strategies.get(WeightedBidScoring.NAME), BidScoringStrategy.Weights.DEFAULT);
+        }
+        return settings.get(shipperId, id -> shipperScoringRepository.findById(id)
+                .map(this::toSettings)
+                .orElseGet(() -> new Settings(strategies.get(WeightedBidScoring.NAME),
+                        BidScoringStrategy.Weights.DEFAULT)));
+    }
+
+    private Settings toSettings(ShipperScoring scoring) {
+        // A strategy that was removed since the shipper chose it falls back to the default
+        BidScoringStrategy strategy = strategies.getOrDefault(scoring.getStrategy(),
+                strategies.get(WeightedBidScoring.NAME));
+        return new Settings(strategy, new BidScoringStrategy.Weights(
+                scoring.getRateWeight(),
+                scoring.getRatePerTruckWeight(),
+                scoring.getRatePerTonneWeight(),
+                scoring.getRatingWeight(),
+                scoring.getReliabilityWeight()));
+    }
+
+    private Map<UUID, Double> loadReliability(Set<UUID> transporterIds) {
+        Map<UUID, Double> result = new HashMap<>();
+        for (UUID transporterId : transporterIds) {
+            result.put(transporterId, 1.0);
+        }
+        List<UUID> ids = new ArrayList<>(transporterIds);
+        for (int from = 0; from < ids.size(); from += RELIABILITY_CHUNK) {
+            List<UUID> chunk = ids.subList(from, Math.min(ids.size(), from + RELIABILITY_CHUNK));
+            for (BookingRepository.BookingOutcomes outcomes : bookingRepository.countOutcomesByTransporter(chunk)) {
+                long kept = outcomes.getTotal() - outcomes.getCancelled();
+                result.put(outcomes.getTransporterId(), (kept + 1.0) / (outcomes.getTotal() + 1.0));
+            }
+        }
+        return result;
+    }
+}
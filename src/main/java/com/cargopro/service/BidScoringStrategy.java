@@ -0,0 +1,33 @@
+package com.cargopro.service;
+
+/**
+ * Extension point for ranking bids
+ *
+ * Every Spring bean implementing this interface can be picked by name in a
+ * shipper's scoring settings. Implementations are handed all bids of a load
+ * as primitive arrays and write one score per bid, higher is better; they
+ * must not allocate per bid or keep references to the arrays.
+ */
+public interface BidScoringStrategy {
+
+    /**
+     * Shipper-chosen weights for each scoring term
+     */
+    record Weights(double rate, double ratePerTruck, double ratePerTonne, double rating, double reliability) {
+
+        /**
+         * The original ranking: 70% rate, 30% transporter rating
+         */
+        public static final Weights DEFAULT = new Weights(0.7, 0, 0, 0.3, 0);
+    }
+
+    /**
+     * Name shippers select the strategy by
+     */
+    String name();
+
+    /**
+     * Write the score of bid i to scores[i] for every bid in the features
+     */
+    void score(BidFeatures bids, Weights weights, double[] scores);
+}
@@ -1,28 +1,40 @@
 package com.cargopro.service;
 
+import com.cargopro.config.RetryOnConflict;
 import com.cargopro.dto.BestBidResponse;
+import com.cargopro.dto.BidBatchResponse;
 import com.cargopro.dto.BidRequest;
 import com.cargopro.dto.BidResponse;
 import com.cargopro.entity.Bid;
 import com.cargopro.enums.BidStatus;
 import com.cargopro.entity.Load;
 import com.cargopro.entity.Transporter;
-import com.cargopro.entity.TruckAvailability;
 import com.cargopro.enums.LoadStatus;
 import com.cargopro.exception.InsufficientCapacityException;
+import com.cargopro.exception.InvalidOperationException;
 import com.cargopro.exception.InvalidStatusTransitionException;
 import com.cargopro.exception.ResourceNotFoundException;
 import com.cargopro.repository.BidRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.sql.Timestamp;
-import java.util.Comparator;
+import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
-import java.util.stream.Collectors;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
 
 /**
  * Service class for Bid operations
@@ -31,6 +43,15 @@ import java.util.stream.Collectors;
 @Transactional
 public class BidService {
 
+    public static final int MAX_PAGE_SIZE = 100;
+
+    static final int MAX_BEST_BIDS = 100;
+
+    private static final Sort STREAM_SORT = Sort.by(Sort.Order.desc("submittedAt"), Sort.Order.desc("bidId"));
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
     @Autowired
     private BidRepository bidRepository;
 
@@ -40,52 +61,27 @@ public class BidService {
     @Autowired
     private TransporterService transporterService;
 
+    @Autowired
+    private BidOrderBook bidOrderBook;
+
+    @Autowired
+    private DomainEventPublisher domainEventPublisher;
+
     /**
      * Create a new bid
      */
+    @RetryOnConflict
     public BidResponse createBid(BidRequest request) {
         // Get the load and transporter entities
         Load load = loadService.getLoadEntity(request.getLoadId());
-        Transporter transporter = transporterService.getTransporterEntity(request.getTransporterId());
-
-        // Validate that load is active
-        if (load.getStatus() != LoadStatus.POSTED && load.getStatus() != LoadStatus.OPEN_FOR_BIDS) {
-            throw new InvalidStatusTransitionException(
-                    "Cannot bid on a load with status: " + load.getStatus());
-        }
-
-        // Validate that transporter has enough trucks
-        // Need to check for the specific truck type required by the load
-        String requiredTruckType = load.getTruckType();
+        Transporter transporter = transporterService.getTransporterReference(request.getTransporterId());
 
-        // Find availability
-        int availableCount = transporter.getAvailableTrucks().stream()
-                .filter(ta -> ta.getTruckType().equalsIgnoreCase(requiredTruckType))
-                .mapToInt(TruckAvailability::getCount)
-                .findFirst()
-                .orElse(0);
+        // Find availability (never cached, so a bid cannot pass on stale counts)
+        int availableCount = transporterService.getAvailableTruckCount(
+                transporter.getTransporterId(), load.getTruckType());
+        validateBid(load, request.getTrucksOffered(), availableCount);
 
-        if (availableCount < request.getTrucksOffered()) {
-            throw new InsufficientCapacityException(
-                    "Transporter only has " + availableCount +
-                            " available trucks of type " + requiredTruckType + ", but trying to offer "
-                            + request.getTrucksOffered());
-        }
-
-        // Validate that trucks offered doesn't exceed remaining trucks needed
-        if (request.getTrucksOffered() > load.getRemainingTrucks()) {
-            throw new InsufficientCapacityException(
-                    "Cannot offer more trucks (" + request.getTrucksOffered() +
-                            ") than remaining trucks needed (" + load.getRemainingTrucks() + ")");
-        }
-
-        // Create new Bid entity
-        Bid bid = new Bid();
-        bid.setLoad(load);
-        bid.setTransporter(transporter);
-        bid.setProposedRate(request.getProposedRate());
-        bid.setTrucksOffered(request.getTrucksOffered());
-        bid.setStatus(BidStatus.PENDING);
+        Bid bid = newBid(load, transporter, request);
 
         // Rule: POSTED -> OPEN_FOR_BIDS
         if (load.getStatus() == LoadStatus.POSTED) {
@@ -94,27 +90,107 @@ public class BidService {
         }
 
         Bid savedBid = bidRepository.save(bid);
+        bidOrderBook.upsert(savedBid, bidsOf(savedBid));
+        publishBidPlaced(savedBid);
         return convertToResponse(savedBid);
     }
 
-    public List<BidResponse> getBids(UUID loadId, UUID transporterId, BidStatus status) {
-        Specification<Bid> spec = Specification.where(null);
+    /**
+     * Create many bids in one transaction
+     * Each distinct load and transporter is read once and all truck counts come
+     * from a single query; the valid bids are then written as batched INSERTs.
+     * Bids that break a rule are reported in their result and do not stop the others.
+     */
+    @RetryOnConflict
+    public BidBatchResponse createBids(List<BidRequest> requests) {
+        Set<UUID> loadIds = new HashSet<>();
+        Set<UUID> transporterIds = new HashSet<>();
+        for (BidRequest request : requests) {
+            loadIds.add(request.getLoadId());
+            transporterIds.add(request.getTransporterId());
+        }
+        Map<UUID, Load> loads = loadService.getLoadEntities(loadIds);
+        Map<UUID, Transporter> transporters = transporterService.getTransporterEntities(transporterIds);
+        Map<UUID, Map<String, Integer>> truckCounts = transporterService.getAvailableTruckCounts(transporterIds);
 
-        if (loadId != null) {
-            spec = spec.and((root, query, cb) -> cb.equal(root.get("load").get("loadId"), loadId));
+        Bid[] created = new Bid[requests.size()];
+        String[] errors = new String[requests.size()];
+        List<Bid> bids = new ArrayList<>();
+        for (int i = 0; i < requests.size(); i++) {
+            BidRequest request = requests.get(i);
+            Load load = loads.get(request.getLoadId());
+            Transporter transporter = transporters.get(request.getTransporterId());
+            try {
+                if (load == null) {
+                    throw new ResourceNotFoundException("Load not found with id: " + request.getLoadId());
+                }
+                if (transporter == null) {
+                    throw new ResourceNotFoundException(
+                            "Transporter not found with id: " + request.getTransporterId());
+                }
+                int availableCount = truckCounts.getOrDefault(transporter.getTransporterId(), Map.of())
+                        .getOrDefault(load.getTruckType().toUpperCase(), 0);
+                validateBid(load, request.getTrucksOffered(), availableCount);
+            } catch (ResourceNotFoundException | InvalidStatusTransitionException
+                    | InsufficientCapacityException ex) {
+                errors[i] = ex.getMessage();
+                continue;
+            }
+            created[i] = newBid(load, transporter, request);
+            bids.add(created[i]);
         }
 
-        if (transporterId != null) {
-            spec = spec.and((root, query, cb) -> cb.equal(root.get("transporter").get("transporterId"), transporterId));
+        // Rule: POSTED -> OPEN_FOR_BIDS, once per load
+        for (Bid bid : bids) {
+            Load load = bid.getLoad();
+            if (load.getStatus() == LoadStatus.POSTED) {
+                load.setStatus(LoadStatus.OPEN_FOR_BIDS);
+                loadService.save(load);
+            }
         }
 
-        if (status != null) {
-            spec = spec.and((root, query, cb) -> cb.equal(root.get("status"), status));
+        // Written as batched INSERTs at flush (hibernate.jdbc.batch_size)
+        bidRepository.saveAll(bids);
+
+        List<BidBatchResponse.Item> results = new ArrayList<>(requests.size());
+        for (int i = 0; i < requests.size(); i++) {
+            if (created[i] != null) {
+                bidOrderBook.upsert(created[i], bidsOf(created[i]));
+                publishBidPlaced(created[i]);
+                results.add(BidBatchResponse.Item.created(i, convertToResponse(created[i])));
+            } else {
+                results.add(BidBatchResponse.Item.failed(i, errors[i]));
+            }
         }
+        return new BidBatchResponse(bids.size(), requests.size() - bids.size(), results);
+    }
 
-        return bidRepository.findAll(spec).stream()
-                .map(this::convertToResponse)
-                .collect(Collectors.toList());
+    /**
+     * Get a page of bids with filtering
+     */
+    @Transactional(readOnly = true)
+    public Page<BidResponse> getBids(UUID loadId, UUID transporterId, BidStatus status, Pageable pageable) {
+        if (pageable.getPageSize() > MAX_PAGE_SIZE) {
+            throw new InvalidOperationException("Size must be at most " + MAX_PAGE_SIZE);
+        }
+        return bidRepository.findAll(filter(loadId, transporterId, status), pageable)
+                .map(this::convertToResponse);
+    }
+
+    /**
+     * Hand every matching bid to the sink, newest first, one row at a time
+     * Rows come off the JDBC cursor and are evicted from the persistence
+     * context once handed over, so memory stays flat however many bids match
+     */
+    @Transactional(readOnly = true)
+    public void streamBids(UUID loadId, UUID transporterId, BidStatus status, Consumer<BidResponse> sink) {
+        try (Stream<Bid> bids = bidRepository.findBy(filter(loadId, transporterId, status),
+                q -> q.project("load", "transporter").sortBy(STREAM_SORT).stream())) {
+            bids.forEach(bid -> {
+                sink.accept(convertToResponse(bid));
+                entityManager.clear();
+            });
+        }
     }
 
     /**
@@ -128,6 +204,7 @@ public class BidService {
     /**
      * Reject a bid
      */
+    @RetryOnConflict
     public BidResponse rejectBid(UUID id) {
         Bid bid = getBidEntity(id);
 
@@ -137,42 +214,37 @@ public class BidService {
 
         bid.setStatus(BidStatus.REJECTED);
         Bid savedBid = bidRepository.save(bid);
+        bidOrderBook.upsert(savedBid, bidsOf(savedBid));
         return convertToResponse(savedBid);
     }
 
     /**
-     * Get best bids for a load sorted by score
+     * Get every pending bid for a load sorted by score (best-bid stream snapshot)
+     * Served from the in-memory order book; the database is only read the
+     * first time a load's book is needed
      */
     public List<BestBidResponse> getBestBidsForLoad(UUID loadId) {
-        List<Bid> bids = bidRepository.findByLoadLoadId(loadId);
-
-        return bids.stream()
-                .map(bid -> {
-                    // Higher score = better bid (custom formula needed)
-                    // Let's assume lower rate is better, higher rating is better.
-                    // Simple score: (Rating / 5) * 1000 - Rate
-                    // Or user previous formula: (1.0 / rate) * 0.7 + (rating / 5.0) * 0.3
-
-                    double rateScore = (1.0 / bid.getProposedRate()) * 0.7;
-                    double ratingScore = (bid.getTransporter().getRating() / 5.0) * 0.3;
-                    double score = rateScore + ratingScore;
-
-                    return new BestBidResponse(
-                            bid.getBidId(),
-                            bid.getTransporter().getTransporterId(),
-                            bid.getTransporter().getCompanyName(),
-                            bid.getTransporter().getRating(),
-                            bid.getProposedRate(),
-                            bid.getTrucksOffered(),
-                            score,
-                            Timestamp.valueOf(bid.getSubmittedAt()));
-                })
-                .sorted(Comparator.comparing(BestBidResponse::getScore).reversed()) // Descending score
-                .collect(Collectors.toList());
+        return bidOrderBook.getTopBids(loadId, () -> bidRepository.findByLoadLoadId(loadId),
+                BidStatus.PENDING, null, null, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Get the top bids for a load sorted by score, filtered by status, minimum
+     * transporter rating and maximum rate (null filters are ignored)
+     * The order book stops reading once limit bids pass the filters.
+     */
+    public List<BestBidResponse> getBestBidsForLoad(UUID loadId, BidStatus status, Double minRating,
+            Double maxRate, int limit) {
+        if (limit < 1 || limit > MAX_BEST_BIDS) {
+            throw new InvalidOperationException("Limit must be between 1 and " + MAX_BEST_BIDS);
+        }
+        return bidOrderBook.getTopBids(loadId, () -> bidRepository.findByLoadLoadId(loadId),
+                status, minRating, maxRate, limit);
     }
 
     public void save(Bid bid) {
         bidRepository.save(bid);
+        bidOrderBook.upsert(bid, bidsOf(bid));
     }
 
     public Bid getBidEntity(UUID bidId) {
@@ -180,6 +252,89 @@ public class BidService {
                 .orElseThrow(() -> new ResourceNotFoundException("Bid not found with id: " + bidId));
     }
 
+    /**
+     * Get the pending bids of a load with their transporters fetched in the same query
+     */
+    public List<Bid> getPendingBidEntities(UUID loadId) {
+        return bidRepository.findByLoadLoadIdAndStatus(loadId, BidStatus.PENDING);
+    }
+
+    /**
+     * Get the Bid entity with its load and transporter fetched in the same query
+     */
+    public Bid getBidEntityWithLoadAndTransporter(UUID bidId) {
+        return bidRepository.findWithLoadAndTransporterByBidId(bidId)
+                .orElseThrow(() -> new ResourceNotFoundException("Bid not found with id: " + bidId));
+    }
+
+    /**
+     * Rules every new bid must pass: the load is open and enough trucks are free and needed
+     */
+    private void validateBid(Load load, int trucksOffered, int availableCount) {
+        if (load.getStatus() != LoadStatus.POSTED && load.getStatus() != LoadStatus.OPEN_FOR_BIDS) {
+            throw new InvalidStatusTransitionException(
+                    "Cannot bid on a load with status: " + load.getStatus());
+        }
+
+        if (availableCount < trucksOffered) {
+            throw new InsufficientCapacityException(
+                    "Transporter only has " + availableCount +
+                            " available trucks of type " + load.getTruckType() + ", but trying to offer "
+                            + trucksOffered);
+        }
+
+        if (trucksOffered > load.getRemainingTrucks()) {
+            throw new InsufficientCapacityException(
+                    "Cannot offer more trucks (" + trucksOffered +
+                            ") than remaining trucks needed (" + load.getRemainingTrucks() + ")");
+        }
+    }
+
+    private Bid newBid(Load load, Transporter transporter, BidRequest request) {
+        Bid bid = new Bid();
+        bid.setLoad(load);
+        bid.setTransporter(transporter);
+        bid.setProposedRate(request.getProposedRate());
+        bid.setTrucksOffered(request.getTrucksOffered());
+        bid.setStatus(BidStatus.PENDING);
+        return bid;
+    }
+
+    private void publishBidPlaced(Bid bid) {
+        domainEventPublisher.publish(DomainEventPublisher.BID_PLACED, bid.getBidId(), Map.of(
+                "bidId", bid.getBidId(),
+                "loadId", bid.getLoad().getLoadId(),
+                "transporterId", bid.getTransporter().getTransporterId(),
+                "proposedRate", bid.getProposedRate(),
+                "trucksOffered", bid.getTrucksOffered()));
+    }
+
+    /**
+     * Loads every bid of the bid's load; the order book only calls it to rebuild a book
+     */
+    private Supplier<List<Bid>> bidsOf(Bid bid) {
+        UUID loadId = bid.getLoad().getLoadId();
+        return () -> bidRepository.findByLoadLoadId(loadId);
+    }
+
+    private Specification<Bid> filter(UUID loadId, UUID transporterId, BidStatus status) {
+        Specification<Bid> spec = Specification.where(null);
+
+        if (loadId != null) {
+            spec = spec.and((root, query, cb) -> cb.equal(root.get("load").get("loadId"), loadId));
+        }
+
+        if (transporterId != null) {
+            spec = spec.and((root, query, cb) -> cb.equal(root.get("transporter").get("transporterId"), transporterId));
+        }
+
+        if (status != null) {
+            spec = spec.and((root, query, cb) -> cb.equal(root.get("status"), status));
+        }
+
+        return spec;
+    }
+
     private BidResponse convertToResponse(Bid bid) {
         return new BidResponse(
                 bid.getBidId(),
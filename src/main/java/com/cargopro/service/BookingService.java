@@ -1,12 +1,16 @@
 package com.cargopro.service;
 
+import com.cargopro.config.RetryOnConflict;
+import com.cargopro.dto.AllocationResponse;
 import com.cargopro.dto.BookingResponse;
+import com.cargopro.entity.Bid;
 import com.cargopro.entity.Booking;
 import com.cargopro.enums.BookingStatus;
 import com.cargopro.enums.BidStatus;
 import com.cargopro.entity.Load;
-import com.cargopro.entity.Load;
+import com.cargopro.entity.Transporter;
 import com.cargopro.enums.LoadStatus;
+import com.cargopro.exception.InvalidOperationException;
 import com.cargopro.exception.InvalidStatusTransitionException;
 import com.cargopro.exception.ResourceNotFoundException;
 import com.cargopro.repository.BookingRepository;
@@ -15,7 +19,11 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
 import java.util.stream.Collectors;
 
@@ -38,35 +46,101 @@ public class BookingService {
     @Autowired
     private TransporterService transporterService;
 
+    @Autowired
+    private DomainEventPublisher domainEventPublisher;
+
     /**
      * Accept a bid and create a booking
+     * The bid, load and transporter are read in one query. The truck reservation is
+     * the only statement before commit; the booking insert and the load and bid
+     * updates are sent together at flush.
      */
+    @RetryOnConflict
     public BookingResponse acceptBid(UUID bidId) {
-        com.cargopro.entity.Bid bid = bidService.getBidEntity(bidId);
-        Load load = bid.getLoad();
-        com.cargopro.entity.Transporter transporter = bid.getTransporter();
+        Bid bid = bidService.getBidEntityWithLoadAndTransporter(bidId);
+        return convertToResponse(book(bid));
+    }
 
-        if (load.getStatus() != LoadStatus.POSTED && load.getStatus() != LoadStatus.OPEN_FOR_BIDS
-                && load.getStatus() != LoadStatus.BOOKED) {
-            throw new InvalidStatusTransitionException(
-                    "Cannot accept bid for a load with status: " + load.getStatus());
+    /**
+     * Find the cheapest set of pending bids that fills the load's remaining trucks
+     * Only bids from transporters rated at least minRating that still have the
+     * trucks they offered are considered. With book set, every chosen bid is
+     * accepted in this one transaction: if any booking fails, none is made.
+     */
+    @RetryOnConflict
+    public AllocationResponse allocateBids(UUID loadId, double minRating, boolean book) {
+        Load load = loadService.getLoadEntity(loadId);
+        checkBookable(load);
+        int trucksNeeded = load.getRemainingTrucks();
+
+        List<Bid> pending = bidService.getPendingBidEntities(loadId);
+        Set<UUID> transporterIds = pending.stream()
+                .map(bid -> bid.getTransporter().getTransporterId())
+                .collect(Collectors.toSet());
+        Map<UUID, Map<String, Integer>> truckCounts = transporterService.getAvailableTruckCounts(transporterIds);
+
+        Map<UUID, Bid> eligible = new HashMap<>();
+        Map<UUID, Integer> capacities = new HashMap<>();
+        List<BidAllocator.Option> options = new ArrayList<>();
+        for (Bid bid : pending) {
+            Transporter transporter = bid.getTransporter();
+            int available = truckCounts.getOrDefault(transporter.getTransporterId(), Map.of())
+                    .getOrDefault(load.getTruckType().toUpperCase(), 0);
+            if (transporter.getRating() >= minRating && bid.getTrucksOffered() <= available) {
+                eligible.put(bid.getBidId(), bid);
+                capacities.put(transporter.getTransporterId(), available);
+                options.add(new BidAllocator.Option(bid.getBidId(), transporter.getTransporterId(),
+                        bid.getTrucksOffered(), bid.getProposedRate()));
+            }
         }
 
-        if (load.getRemainingTrucks() <= 0) {
-            throw new InvalidStatusTransitionException("Load is already fully booked");
+        // Bids of one transporter share its free trucks
+        BidAllocator.Allocation allocation = BidAllocator.allocate(options, capacities, trucksNeeded);
+        List<Bid> chosen = allocation.chosen().stream().map(option -> eligible.get(option.bidId())).toList();
+
+        List<BookingResponse> bookings = null;
+        if (book) {
+            if (chosen.isEmpty()) {
+                throw new InvalidOperationException("No pending bids can be allocated to this load");
+            }
+            bookings = new ArrayList<>(chosen.size());
+            for (Bid bid : chosen) {
+                bookings.add(convertToResponse(book(bid)));
+            }
         }
 
-        // Reduce available trucks from transporter
-        // Since we are accepting a bid, we assume the transporter *had* trucks when
-        // bidding.
-        // But we should check again or just try to reduce and catch exception.
-        // TransporterService.reduceAvailableTrucks will throw if insufficient.
+        List<AllocationResponse.Item> items = chosen.stream()
+                .map(bid -> new AllocationResponse.Item(
+                        bid.getBidId(),
+                        bid.getTransporter().getTransporterId(),
+                        bid.getTransporter().getCompanyName(),
+                        bid.getTransporter().getRating(),
+                        bid.getTrucksOffered(),
+                        bid.getProposedRate()))
+                .toList();
+        return new AllocationResponse(loadId, trucksNeeded, allocation.trucks(), allocation.cost(),
+                allocation.trucks() == trucksNeeded, allocation.optimal(), items, bookings);
+    }
+
+    /**
+     * Book one bid: reserve the transporter's trucks, then record the booking and
+     * update the load and the bid
+     */
+    private Booking book(Bid bid) {
+        Load load = bid.getLoad();
+        Transporter transporter = bid.getTransporter();
+        // A retried accept re-reads a bid the winning attempt already accepted
+        if (bid.getStatus() != BidStatus.PENDING) {
+            throw new InvalidStatusTransitionException("Can only accept pending bids");
+        }
+        checkBookable(load);
+
+        // Throws if the transporter no longer has the trucks
         transporterService.reduceAvailableTrucks(transporter.getTransporterId(), load.getTruckType(),
                 bid.getTrucksOffered());
 
         if (bid.getTrucksOffered() > load.getRemainingTrucks()) {
-            // Rollback transporter reduction? Or just fail?
-            // Transactional will handle rollback if we throw exception.
+            // Rolls back the reservation above with the transaction
             throw new InvalidStatusTransitionException(
                     "Cannot book more trucks than remaining trucks needed");
         }
@@ -76,29 +150,40 @@ public class BookingService {
         booking.setBid(bid);
         booking.setTransporter(transporter);
         booking.setAllocatedTrucks(bid.getTrucksOffered());
-        booking.setFinalRate(bid.getProposedRate() * bid.getTrucksOffered()); // Or just rate? usually rate is per
-                                                                              // unit/truck? Schema said finalRate. I'll
-                                                                              // assume total cost or per truck?
-        // User schema: `proposedRate` (double). usually per truck or per load.
-        // Given `trucksOffered` and `proposedRate`, usually rate is total for the
-        // offered trucks?
-        // Or rate per ton?
-        // I will assume `proposedRate` is the rate for the *entire* offer.
-        // So `finalRate` = `proposedRate`.
-        // If proposedRate was per truck, then final = rate * trucks.
-        // Let's assume proposedRate is the total price for the service.
+        // The proposed rate is the price of the whole offer, not per truck
         booking.setFinalRate(bid.getProposedRate());
 
         booking.setStatus(BookingStatus.CONFIRMED);
 
         Booking savedBooking = bookingRepository.save(booking);
 
-        loadService.updateLoadAfterBooking(load, bid.getTrucksOffered());
-
+        // Accept the bid first: filling the load rejects every bid still pending
         bid.setStatus(BidStatus.ACCEPTED);
         bidService.save(bid);
 
-        return convertToResponse(savedBooking);
+        // Published before the load update, so the acceptance precedes the rejections it causes
+        domainEventPublisher.publish(DomainEventPublisher.BID_ACCEPTED, bid.getBidId(), Map.of(
+                "bidId", bid.getBidId(),
+                "bookingId", savedBooking.getBookingId(),
+                "loadId", load.getLoadId(),
+                "transporterId", transporter.getTransporterId(),
+                "allocatedTrucks", savedBooking.getAllocatedTrucks(),
+                "finalRate", savedBooking.getFinalRate()));
+
+        loadService.updateLoadAfterBooking(load, bid.getTrucksOffered());
+        return savedBooking;
+    }
+
+    private void checkBookable(Load load) {
+        if (load.getStatus() != LoadStatus.POSTED && load.getStatus() != LoadStatus.OPEN_FOR_BIDS
+                && load.getStatus() != LoadStatus.BOOKED) {
+            throw new InvalidStatusTransitionException(
+                    "Cannot accept bid for a load with status: " + load.getStatus());
+        }
+
+        if (load.getRemainingTrucks() <= 0) {
+            throw new InvalidStatusTransitionException("Load is already fully booked");
+        }
     }
 
     public List<BookingResponse> getBookingsByLoadId(UUID loadId) {
@@ -121,8 +206,13 @@ public class BookingService {
         return convertToResponse(booking);
     }
 
+    /**
+     * Cancel a booking and give its trucks back to the load and the transporter
+     * The booking, load and transporter are read in one query
+     */
+    @RetryOnConflict
     public BookingResponse cancelBooking(UUID id) {
-        Booking booking = bookingRepository.findById(id)
+        Booking booking = bookingRepository.findWithLoadAndTransporterByBookingId(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Booking not found: " + id));
 
         if (booking.getStatus() == BookingStatus.CANCELLED) {
@@ -146,6 +236,12 @@ public class BookingService {
                 load.getTruckType(),
                 booking.getAllocatedTrucks());
 
+        domainEventPublisher.publish(DomainEventPublisher.BOOKING_CANCELLED, booking.getBookingId(), Map.of(
+                "bookingId", booking.getBookingId(),
+                "bidId", booking.getBid().getBidId(),
+                "loadId", load.getLoadId(),
+                "transporterId", booking.getTransporter().getTransporterId(),
+                "releasedTrucks", booking.getAllocatedTrucks()));
         return convertToResponse(booking);
     }
 
@@ -0,0 +1,106 @@
+package com.cargopro.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.UncheckedIOException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Records domain events in the transactional outbox
+ *
+ * Events published during a transaction are collected and written in one JDBC
+ * batch just before it commits, so they are stored if and only if the change
+ * that caused them is, and cost a single extra round trip however many there
+ * are. A rolled-back transaction writes nothing. Listeners receive the events
+ * afterwards through OutboxDispatcher, outside the request.
+ *
+ * An event published outside a transaction is written in a transaction of its
+ * own: the pool hands out connections with auto-commit off, so a bare insert
+ * would be rolled back when the connection is returned.
+ */
+@Component
+public class DomainEventPublisher {
+
+    public static final String LOAD_POSTED = "LoadPosted";
+    public static final String BID_PLACED = "BidPlaced";
+    public static final String BID_ACCEPTED = "BidAccepted";
+    public static final String BID_REJECTED = "BidRejected";
+    public static final String BOOKING_CANCELLED = "BookingCancelled";
+    public static final String TRUCKS_RESERVED = "TrucksReserved";
+
+    private static final String INSERT_SQL =
+            "INSERT INTO outbox_events (event_type, aggregate_id, payload, created_at) VALUES (?, ?, ?, ?)";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private OutboxDispatcher outboxDispatcher;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    /**
+     * Publish an event about an aggregate (load, bid, booking or transporter)
+     * The payload is stored as JSON
+     */
+    public void publish(String eventType, Object aggregateId, Map<String, ?> payload) {
+        Object[] row = { eventType, String.valueOf(aggregateId), toJson(payload),
+                Timestamp.valueOf(LocalDateTime.now()) };
+
+        if (!TransactionSynchronizationManager.isActualTransactionActive()) {
+            new TransactionTemplate(transactionManager)
+                    .executeWithoutResult(status -> jdbcTemplate.update(INSERT_SQL, row));
+            outboxDispatcher.wake();
+            return;
+        }
+
+        @SuppressWarnings("unchecked")
+        List<Object[]> pending = (List<Object[]>) TransactionSynchronizationManager.getResource(this);
+        if (pending == null) {
+            List<Object[]> rows = new ArrayList<>();
+            TransactionSynchronizationManager.bindResource(this, rows);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void beforeCommit(boolean readOnly) {
+                    jdbcTemplate.batchUpdate(INSERT_SQL, rows);
+                }
+
+                @Override
+                public void afterCommit() {
+                    outboxDispatcher.wake();
+                }
+
+                @Override
+                public void afterCompletion(int status) {
+                    TransactionSynchronizationManager.unbindResourceIfPossible(DomainEventPublisher.this);
+                }
+            });
+            pending = rows;
+        }
+        pending.add(row);
+    }
+
+    private String toJson(Map<String, ?> payload) {
+        try {
+            return objectMapper.writeValueAsString(payload);
+        } catch (JsonProcessingException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+}
@@ -0,0 +1,289 @@
+package com.cargopro.service;
+
+import com.cargopro.dto.LoadResponse;
+import com.cargopro.entity.Load;
+import com.cargopro.enums.LoadStatus;
+import com.cargopro.enums.WeightUnit;
+import com.cargopro.repository.LoadRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+/**
+ * In-memory load board: open loads indexed by lane (loading city, unloading
+ * city) and truck type, each lane ordered by loading date. A second index by
+ * truck type alone serves searches without cities and carrier matching.
+ *
+ * Built from the database at startup, before the web server takes requests,
+ * and then kept current by LoadService as loads are created, bid on, booked
+ * and cancelled. Like the bid order book, changes are applied once their
+ * transaction commits. Commits can arrive out of order, so an update is
+ * applied only if its @Version is newer than the one on the board; versions
+ * of recently closed loads are remembered for a minute for the same reason.
+ *
+ * Cities match case-insensitively and truck types are compared upper-case.
+ */
+@Component
+public class LoadBoard {
+
+    static final String SIZE_METRIC = "tms.load-board.size";
+
+    private static final List<LoadStatus> OPEN_STATUSES = List.of(LoadStatus.POSTED, LoadStatus.OPEN_FOR_BIDS);
+    private static final UUID MIN_ID = new UUID(Long.MIN_VALUE, Long.MIN_VALUE);
+    private static final UUID MAX_ID = new UUID(Long.MAX_VALUE, Long.MAX_VALUE);
+    private static final Comparator<Entry> BOARD_ORDER = Comparator.comparing((Entry e) -> e.slot);
+
+    @Autowired
+    private LoadRepository loadRepository;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private final Map<Lane, ConcurrentSkipListMap<Slot, Entry>> lanes = new ConcurrentHashMap<>();
+
+    private final Map<String, ConcurrentSkipListMap<Slot, Entry>> byTruckType = new ConcurrentHashMap<>();
+
+    private final Map<UUID, Entry> byLoadId = new ConcurrentHashMap<>();
+
+    private final Cache<UUID, Long> closedVersions = Caffeine.newBuilder()
+            .expireAfterWrite(Duration.ofMinutes(1))
+            .build();
+
+    /**
+     * Normalised lane and truck type; any part may be null in a query
+     */
+    private record Lane(String loadingCity, String unloadingCity, String truckType) {
+
+        static Lane of(String loadingCity, String unloadingCity, String truckType) {
+            return new Lane(city(loadingCity), city(unloadingCity),
+                    truckType == null ? null : truckType.trim().toUpperCase(Locale.ROOT));
+        }
+
+        private static String city(String city) {
+            return city == null ? null : city.trim().toLowerCase(Locale.ROOT);
+        }
+
+        boolean matches(Lane filter) {
+            return (filter.loadingCity == null || filter.loadingCity.equals(loadingCity))
+                    && (filter.unloadingCity == null || filter.unloadingCity.equals(unloadingCity))
+                    && (filter.truckType == null || filter.truckType.equals(truckType));
+        }
+
+        boolean isExact() {
+            return loadingCity != null && unloadingCity != null && truckType != null;
+        }
+    }
+
+    /**
+     * Position within a lane: loading date, then load id to keep equal dates apart
+     */
+    private record Slot(LocalDateTime loadingDate, UUID loadId) implements Comparable<Slot> {
+        @Override
+        public int compareTo(Slot other) {
+            int byDate = loadingDate.compareTo(other.loadingDate);
+            return byDate != 0 ? byDate : loadId.compareTo(other.loadId);
+        }
+    }
+
+    /**
+     * Immutable copy of the load fields shown on the board
+     */
+    private record Entry(Lane lane, Slot slot, long version, String shipperId, String loadingCity,
+            String unloadingCity, String productType, double weight, WeightUnit weightUnit, String truckType,
+            int noOfTrucks, int remainingTrucks, LoadStatus status, LocalDateTime datePosted) {
+
+        static Entry of(Load load) {
+            return new Entry(
+                    Lane.of(load.getLoadingCity(), load.getUnloadingCity(), load.getTruckType()),
+                    new Slot(load.getLoadingDate(), load.getLoadId()),
+                    LoadBoard.version(load),
+                    load.getShipperId(),
+                    load.getLoadingCity(),
+                    load.getUnloadingCity(),
+                    load.getProductType(),
+                    load.getWeight(),
+                    load.getWeightUnit(),
+                    load.getTruckType(),
+                    load.getNoOfTrucks(),
+                    load.getRemainingTrucks(),
+                    load.getStatus(),
+                    load.getDatePosted());
+        }
+
+        LoadResponse toResponse() {
+            return new LoadResponse(
+                    slot.loadId(),
+                    shipperId,
+                    loadingCity,
+                    unloadingCity,
+                    Timestamp.valueOf(slot.loadingDate()),
+                    productType,
+                    weight,
+                    weightUnit,
+                    truckType,
+                    noOfTrucks,
+                    remainingTrucks,
+                    status,
+                    datePosted != null ? Timestamp.valueOf(datePosted) : null);
+        }
+    }
+
+    @PostConstruct
+    void start() {
+        loadRepository.findByStatusInAndRemainingTrucksGreaterThan(OPEN_STATUSES, 0).forEach(this::apply);
+        Gauge.builder(SIZE_METRIC, byLoadId, Map::size)
+                .description("Open loads on the load board")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Put a load on the board, refresh it, or take it off if it no longer takes bids
+     */
+    public void upsert(Load load) {
+        // Read the entity after commit, when the flush has bumped its version
+        AfterCommit.run(() -> apply(load));
+    }
+
+    /**
+     * Open loads matching every given filter, earliest loading date first
+     * Null filters match everything; the date window is inclusive.
+     */
+    public List<LoadResponse> find(String loadingCity, String unloadingCity, String truckType,
+            LocalDateTime loadingFrom, LocalDateTime loadingTo, int limit) {
+        Lane filter = Lane.of(loadingCity, unloadingCity, truckType);
+        List<Entry> matches = new ArrayList<>();
+        if (filter.isExact()) {
+            collect(lanes.get(filter), loadingFrom, loadingTo, limit, matches);
+        } else if (filter.loadingCity() == null && filter.unloadingCity() == null && filter.truckType() != null) {
+            collect(byTruckType.get(filter.truckType()), loadingFrom, loadingTo, limit, matches);
+        } else {
+            lanes.forEach((lane, slots) -> {
+                if (lane.matches(filter)) {
+                    collect(slots, loadingFrom, loadingTo, limit, matches);
+                }
+            });
+            matches.sort(BOARD_ORDER);
+        }
+
+        return toResponses(matches, limit);
+    }
+
+    /**
+     * Open loads needing any of the given truck types, earliest loading date first
+     */
+    public List<LoadResponse> findByTruckTypes(Collection<String> truckTypes, int limit) {
+        List<Entry> matches = new ArrayList<>();
+        for (String truckType : truckTypes) {
+            collect(byTruckType.get(Lane.of(null, null, truckType).truckType()), null, null, limit, matches);
+        }
+        if (truckTypes.size() > 1) {
+            matches.sort(BOARD_ORDER);
+        }
+        return toResponses(matches, limit);
+    }
+
+    /**
+     * The load as shown on the board, or empty if it is not open for bids
+     */
+    public Optional<LoadResponse> get(UUID loadId) {
+        return Optional.ofNullable(byLoadId.get(loadId)).map(Entry::toResponse);
+    }
+
+    int size() {
+        return byLoadId.size();
+    }
+
+    private static List<LoadResponse> toResponses(List<Entry> matches, int limit) {
+        List<LoadResponse> result = new ArrayList<>(Math.min(limit, matches.size()));
+        for (int i = 0; i < matches.size() && i < limit; i++) {
+            result.add(matches.get(i).toResponse());
+        }
+        return result;
+    }
+
+    /**
+     * Add the first limit entries of one lane inside the date window
+     */
+    private void collect(ConcurrentSkipListMap<Slot, Entry> slots, LocalDateTime from, LocalDateTime to, int limit,
+            List<Entry> matches) {
+        if (slots == null) {
+            return;
+        }
+        NavigableMap<Slot, Entry> window = slots;
+        if (from != null) {
+            window = window.tailMap(new Slot(from, MIN_ID), true);
+        }
+        if (to != null) {
+            window = window.headMap(new Slot(to, MAX_ID), true);
+        }
+        int taken = 0;
+        for (Entry entry : window.values()) {
+            if (taken++ >= limit) {
+                break;
+            }
+            matches.add(entry);
+        }
+    }
+
+    private void apply(Load load) {
+        long version = version(load);
+        boolean open = OPEN_STATUSES.contains(load.getStatus()) && load.getRemainingTrucks() > 0;
+        byLoadId.compute(load.getLoadId(), (id, current) -> {
+            Long closedVersion = closedVersions.getIfPresent(id);
+            if ((current != null && version < current.version()) || (closedVersion != null && version <= closedVersion)) {
+                // A newer change to this load has already been applied
+                return current;
+            }
+            if (!open) {
+                closedVersions.put(id, version);
+                if (current != null) {
+                    remove(current);
+                }
+                return null;
+            }
+            Entry entry = Entry.of(load);
+            lanes.computeIfAbsent(entry.lane(), lane -> new ConcurrentSkipListMap<>()).put(entry.slot(), entry);
+            byTruckType.computeIfAbsent(entry.lane().truckType(), type -> new ConcurrentSkipListMap<>())
+                    .put(entry.slot(), entry);
+            if (current != null && !current.equals(entry)) {
+                // Only removes the old entry where the new one did not replace it
+                remove(current);
+            }
+            return entry;
+        });
+    }
+
+    private void remove(Entry entry) {
+        ConcurrentSkipListMap<Slot, Entry> slots = lanes.get(entry.lane());
+        if (slots != null) {
+            slots.remove(entry.slot(), entry);
+        }
+        ConcurrentSkipListMap<Slot, Entry> sameType = byTruckType.get(entry.lane().truckType());
+        if (sameType != null) {
+            sameType.remove(entry.slot(), entry);
+        }
+    }
+
+    private static long version(Load load) {
+        return load.getVersion() == null ? 0 : load.getVersion();
+    }
+}
@@ -0,0 +1,366 @@
+package com.cargopro.service;
+
+import com.cargopro.dto.LoadImportResponse;
+import com.cargopro.dto.LoadRequest;
+import com.cargopro.enums.ImportStatus;
+import com.cargopro.exception.ResourceNotFoundException;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonMappingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+/**
+ * Service class for bulk load imports from CSV or NDJSON uploads
+ *
+ * The upload is spooled to a temporary file and the request returns a job id
+ * straight away. A worker then reads the file line by line, validates each row
+ * against the LoadRequest constraints and inserts valid rows in chunks, one
+ * transaction per chunk, so memory stays flat however large the file is.
+ * Progress and the first row errors are kept per job in memory.
+ *
+ * CSV files need a header row naming the LoadRequest fields (shipperId,
+ * loadingCity, ...). Fields may be quoted; quoted fields cannot span lines.
+ */
+@Service
+public class LoadImportService {
+
+    public enum Format {
+        CSV,
+        NDJSON
+    }
+
+    @Autowired
+    private LoadService loadService;
+
+    @Autowired
+    private Validator validator;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${tms.load-import.chunk-size:500}")
+    private int chunkSize;
+
+    @Value("${tms.load-import.worker-threads:2}")
+    private int workerThreads;
+
+    @Value("${tms.load-import.max-errors:1000}")
+    private int maxErrors;
+
+    @Value("${tms.load-import.retained-jobs:100}")
+    private int retainedJobs;
+
+    private Map<UUID, Job> jobs;
+
+    private ExecutorService workers;
+
+    @PostConstruct
+    void start() {
+        // Oldest jobs are forgotten first once more than retainedJobs exist
+        jobs = Collections.synchronizedMap(new LinkedHashMap<>() {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<UUID, Job> eldest) {
+                return size() > retainedJobs;
+            }
+        });
+        workers = Executors.newFixedThreadPool(workerThreads, runnable -> {
+            Thread thread = new Thread(runnable, "load-import");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @PreDestroy
+    void stop() {
+        workers.shutdownNow();
+    }
+
+    /**
+     * Store the upload and queue it for import
+     */
+    public LoadImportResponse startImport(InputStream upload, Format format) {
+        Path file = spool(upload, format);
+        Job job = new Job(UUID.randomUUID(), format);
+        jobs.put(job.id, job);
+        try {
+            workers.execute(() -> run(job, file));
+        } catch (RejectedExecutionException ex) {
+            jobs.remove(job.id);
+            deleteQuietly(file);
+            throw ex;
+        }
+        return job.toResponse();
+    }
+
+    /**
+     * Get the current progress of an import job
+     */
+    public LoadImportResponse getJob(UUID jobId) {
+        Job job = jobs.get(jobId);
+        if (job == null) {
+            throw new ResourceNotFoundException("Import job not found with id: " + jobId);
+        }
+        return job.toResponse();
+    }
+
+    private Path spool(InputStream upload, Format format) {
+        Path file = null;
+        try {
+            file = Files.createTempFile("load-import-", "." + format.name().toLowerCase());
+            Files.copy(upload, file, StandardCopyOption.REPLACE_EXISTING);
+            return file;
+        } catch (IOException ex) {
+            if (file != null) {
+                deleteQuietly(file);
+            }
+            throw new UncheckedIOException("Could not store import upload", ex);
+        }
+    }
+
+    private void run(Job job, Path file) {
+        job.status = ImportStatus.RUNNING;
+        Chunk chunk = new Chunk(chunkSize);
+        try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            List<String> header = null;
+            long lineNumber = 0;
+            String line;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                if (line.isBlank()) {
+                    continue;
+                }
+                if (job.format == Format.CSV && header == null) {
+                    header = parseCsvLine(line);
+                    continue;
+                }
+
+                job.rowsRead.incrementAndGet();
+                LoadRequest request = parseRow(job, header, line, lineNumber);
+                if (request != null) {
+                    chunk.add(request, lineNumber);
+                    if (chunk.isFull()) {
+                        insert(job, chunk);
+                    }
+                }
+            }
+            insert(job, chunk);
+            job.finish(ImportStatus.COMPLETED, null);
+        } catch (IOException | RuntimeException ex) {
+            job.finish(ImportStatus.FAILED, ex.getMessage());
+        } finally {
+            deleteQuietly(file);
+        }
+    }
+
+    /**
+     * Turn one line into a valid request, or record why it is rejected and return null
+     */
+    private LoadRequest parseRow(Job job, List<String> header, String line, long lineNumber) {
+        LoadRequest request;
+        try {
+            if (job.format == Format.CSV) {
+                List<String> values = parseCsvLine(line);
+                if (values.size() != header.size()) {
+                    job.addError(lineNumber, "Expected " + header.size() + " columns but found " + values.size());
+                    return null;
+                }
+                Map<String, String> row = new HashMap<>();
+                for (int i = 0; i < header.size(); i++) {
+                    String value = values.get(i).trim();
+                    row.put(header.get(i).trim(), value.isEmpty() ? null : value);
+                }
+                request = objectMapper.convertValue(row, LoadRequest.class);
+            } else {
+                request = objectMapper.readValue(line, LoadRequest.class);
+            }
+        } catch (IllegalArgumentException | JsonProcessingException ex) {
+            job.addError(lineNumber, describe(ex));
+            return null;
+        }
+
+        List<String> violations = validator.validate(request).stream()
+                .map(ConstraintViolation::getMessage)
+                .sorted()
+                .toList();
+        if (!violations.isEmpty()) {
+            job.addError(lineNumber, String.join("; ", violations));
+            return null;
+        }
+        return request;
+    }
+
+    private void insert(Job job, Chunk chunk) {
+        if (chunk.requests.isEmpty()) {
+            return;
+        }
+        try {
+            job.rowsImported.addAndGet(loadService.createLoads(chunk.requests));
+        } catch (DataAccessException ex) {
+            // The chunk's transaction rolled back; report its rows and keep going
+            String message = "Insert failed: " + ex.getMostSpecificCause().getMessage();
+            chunk.lines.forEach(line -> job.addError(line, message));
+        }
+        chunk.clear();
+    }
+
+    private String describe(Exception ex) {
+        Throwable cause = ex instanceof JsonMappingException ? ex : ex.getCause();
+        if (cause instanceof JsonMappingException mapping && !mapping.getPath().isEmpty()) {
+            String field = mapping.getPath().stream()
+                    .map(JsonMappingException.Reference::getFieldName)
+                    .collect(Collectors.joining("."));
+            return "Invalid value for " + field;
+        }
+        return "Malformed row";
+    }
+
+    /**
+     * Split one CSV line into fields; double quotes group a field and "" is a literal quote
+     */
+    static List<String> parseCsvLine(String line) {
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    field.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    field.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else {
+                field.append(c);
+            }
+        }
+        fields.add(field.toString());
+        return fields;
+    }
+
+    private static void deleteQuietly(Path file) {
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException ignored) {
+            // Temp files are also cleaned up by the OS
+        }
+    }
+
+    /**
+     * Valid rows waiting to be inserted, with their line numbers for error reporting
+     */
+    private static class Chunk {
+        private final int size;
+        private List<LoadRequest> requests;
+        private List<Long> lines;
+
+        Chunk(int size) {
+            this.size = size;
+            clear();
+        }
+
+        void add(LoadRequest request, long line) {
+            requests.add(request);
+            lines.add(line);
+        }
+
+        boolean isFull() {
+            return requests.size() >= size;
+        }
+
+        // Start new lists rather than emptying the ones just handed to the insert
+        void clear() {
+            requests = new ArrayList<>(size);
+            lines = new ArrayList<>(size);
+        }
+    }
+
+    /**
+     * Mutable state of one import; counters are read by status requests while the worker runs
+     */
+    class Job {
+        private final UUID id;
+        private final Format format;
+        private final LocalDateTime createdAt = LocalDateTime.now();
+        private final AtomicLong rowsRead = new AtomicLong();
+        private final AtomicLong rowsImported = new AtomicLong();
+        private final AtomicLong rowsFailed = new AtomicLong();
+        private final List<LoadImportResponse.RowError> errors = new ArrayList<>();
+        private boolean errorsTruncated;
+        private volatile ImportStatus status = ImportStatus.QUEUED;
+        private volatile String failureReason;
+        private volatile LocalDateTime finishedAt;
+
+        Job(UUID id, Format format) {
+            this.id = id;
+            this.format = format;
+        }
+
+        synchronized void addError(long line, String message) {
+            rowsFailed.incrementAndGet();
+            if (errors.size() < maxErrors) {
+                errors.add(new LoadImportResponse.RowError(line, message));
+            } else {
+                errorsTruncated = true;
+            }
+        }
+
+        void finish(ImportStatus finalStatus, String reason) {
+            failureReason = reason;
+            finishedAt = LocalDateTime.now();
+            status = finalStatus;
+        }
+
+        synchronized LoadImportResponse toResponse() {
+            return new LoadImportResponse(
+                    id,
+                    status,
+                    format.name(),
+                    rowsRead.get(),
+                    rowsImported.get(),
+                    rowsFailed.get(),
+                    new ArrayList<>(errors),
+                    errorsTruncated,
+                    failureReason,
+                    Timestamp.valueOf(createdAt),
+                    finishedAt != null ? Timestamp.valueOf(finishedAt) : null);
+        }
+    }
+}
@@ -1,19 +1,33 @@
 package com.cargopro.service;
 
+import com.cargopro.dto.CursorPage;
 import com.cargopro.dto.LoadRequest;
 import com.cargopro.dto.LoadResponse;
 import com.cargopro.entity.Load;
 import com.cargopro.enums.LoadStatus;
+import com.cargopro.exception.InvalidOperationException;
 import com.cargopro.exception.InvalidStatusTransitionException;
 import com.cargopro.exception.ResourceNotFoundException;
+import com.cargopro.repository.BidRepository;
 import com.cargopro.repository.LoadRepository;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.data.jpa.domain.Specification;
+import java.nio.charset.StandardCharsets;
 import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.UUID;
 
 /**
@@ -23,55 +37,107 @@ import java.util.UUID;
 @Transactional
 public class LoadService {
 
+    static final int MAX_SCROLL_SIZE = 100;
+
+    static final int MAX_BOARD_SIZE = 100;
+
+    // Keeps the IN list of the bulk bid rejection at a size every database accepts
+    private static final int REJECT_CHUNK = 1000;
+
+    // Newest first; loadId breaks ties between loads posted in the same instant
+    private static final Sort SCROLL_SORT = Sort.by(Sort.Order.desc("datePosted"), Sort.Order.desc("loadId"));
+
     @Autowired
     private LoadRepository loadRepository;
 
+    @Autowired
+    private BidRepository bidRepository;
+
+    @Autowired
+    private BidOrderBook bidOrderBook;
+
+    @Autowired
+    private LoadBoard loadBoard;
+
+    @Autowired
+    private DomainEventPublisher domainEventPublisher;
+
     /**
      * Create a new load
      */
     public LoadResponse createLoad(LoadRequest request) {
-        Load load = new Load();
-        load.setShipperId(request.getShipperId());
-        load.setLoadingCity(request.getLoadingCity());
-        load.setUnloadingCity(request.getUnloadingCity());
-        load.setProductType(request.getProductType());
-        load.setTruckType(request.getTruckType());
-        load.setNoOfTrucks(request.getNoOfTrucks());
-        load.setRemainingTrucks(request.getNoOfTrucks());
-        load.setWeight(request.getWeight());
-        load.setWeightUnit(request.getWeightUnit());
-        load.setComment(request.getComment());
-
-        // Default loading date to now if not handled (needs input in request?
-        // Request didn't have loadingDate. I'll use now() or check if request has it.
-        // Checking LoadRequest... I didn't add loadingDate to LoadRequest.
-        // I should have. I'll default to now() plus 1 day for now to avoid compilation
-        // error
-        // or just now().)
-        load.setLoadingDate(java.time.LocalDateTime.now().plusDays(1));
-
-        load.setStatus(LoadStatus.POSTED);
-
-        Load savedLoad = loadRepository.save(load);
+        Load savedLoad = loadRepository.save(toEntity(request));
+        loadBoard.upsert(savedLoad);
+        publishLoadPosted(savedLoad);
         return convertToResponse(savedLoad);
     }
 
+    /**
+     * Create several loads in one transaction, written as batched INSERTs
+     * Used by the bulk import, one call per chunk of rows
+     */
+    public int createLoads(List<LoadRequest> requests) {
+        List<Load> saved = loadRepository.saveAll(requests.stream().map(this::toEntity).toList());
+        saved.forEach(loadBoard::upsert);
+        saved.forEach(this::publishLoadPosted);
+        return saved.size();
+    }
+
     /**
      * Get loads with filtering
      */
     public Page<LoadResponse> getAllLoads(String shipperId, LoadStatus status, Pageable pageable) {
-        Specification<Load> spec = Specification.where(null);
+        Page<Load> loadPage = loadRepository.findAll(filter(shipperId, status), pageable);
+        return loadPage.map(this::convertToResponse);
+    }
 
-        if (shipperId != null) {
-            spec = spec.and((root, query, cb) -> cb.equal(root.get("shipperId"), shipperId));
+    /**
+     * Get loads with filtering using keyset pagination on (datePosted, loadId)
+     * Seeks past the cursor instead of skipping rows and runs no count query,
+     * so every slice costs the same however deep the caller scrolls
+     */
+    @Transactional(readOnly = true)
+    public CursorPage<LoadResponse> scrollLoads(String shipperId, LoadStatus status, String cursor, int size) {
+        if (size < 1 || size > MAX_SCROLL_SIZE) {
+            throw new InvalidOperationException("Size must be between 1 and " + MAX_SCROLL_SIZE);
         }
 
-        if (status != null) {
-            spec = spec.and((root, query, cb) -> cb.equal(root.get("status"), status));
+        Specification<Load> spec = filter(shipperId, status);
+        if (cursor != null && !cursor.isEmpty()) {
+            ScrollPosition after = decodeCursor(cursor);
+            spec = spec.and((root, query, cb) -> cb.or(
+                    cb.lessThan(root.get("datePosted"), after.datePosted()),
+                    cb.and(
+                            cb.equal(root.get("datePosted"), after.datePosted()),
+                            cb.lessThan(root.<UUID>get("loadId"), after.loadId()))));
         }
 
-        Page<Load> loadPage = loadRepository.findAll(spec, pageable);
-        return loadPage.map(this::convertToResponse);
+        // One extra row tells us whether another slice follows
+        List<Load> loads = loadRepository.findBy(spec, q -> q.sortBy(SCROLL_SORT).limit(size + 1).all());
+        boolean hasNext = loads.size() > size;
+        if (hasNext) {
+            loads = loads.subList(0, size);
+        }
+
+        String nextCursor = hasNext ? encodeCursor(loads.get(loads.size() - 1)) : null;
+        return new CursorPage<>(loads.stream().map(this::convertToResponse).toList(), nextCursor, hasNext);
+    }
+
+    /**
+     * Open loads from the in-memory load board, earliest loading date first
+     * Every filter is optional; the loading date window is inclusive.
+     * No transaction: the board never touches the database
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public List<LoadResponse> getLoadBoard(String loadingCity, String unloadingCity, String truckType,
+            LocalDateTime loadingFrom, LocalDateTime loadingTo, int size) {
+        if (size < 1 || size > MAX_BOARD_SIZE) {
+            throw new InvalidOperationException("Size must be between 1 and " + MAX_BOARD_SIZE);
+        }
+        if (loadingFrom != null && loadingTo != null && loadingFrom.isAfter(loadingTo)) {
+            throw new InvalidOperationException("loadingFrom must not be after loadingTo");
+        }
+        return loadBoard.find(loadingCity, unloadingCity, truckType, loadingFrom, loadingTo, size);
     }
 
     /**
@@ -90,8 +156,19 @@ public class LoadService {
                 .orElseThrow(() -> new ResourceNotFoundException("Load not found with id: " + id));
     }
 
+    /**
+     * Get the Load entities for a set of IDs in one query, keyed by ID
+     * IDs that do not exist are simply absent from the map
+     */
+    public Map<UUID, Load> getLoadEntities(Collection<UUID> ids) {
+        Map<UUID, Load> loads = new HashMap<>();
+        loadRepository.findAllById(ids).forEach(load -> loads.put(load.getLoadId(), load));
+        return loads;
+    }
+
     /**
      * Cancel a load
+     * Its pending bids are rejected and their transporters notified through the outbox
      */
     public LoadResponse cancelLoad(UUID loadId) {
         Load load = getLoadEntity(loadId);
@@ -106,12 +183,17 @@ public class LoadService {
 
         load.setStatus(LoadStatus.CANCELLED);
         Load savedLoad = loadRepository.save(load);
+        rejectPendingBids(loadId, LoadStatus.CANCELLED);
+        bidOrderBook.invalidate(loadId);
+        loadBoard.upsert(savedLoad);
 
         return convertToResponse(savedLoad);
     }
 
     /**
      * Update load's remaining trucks and status
+     * Once the load is fully booked its other pending bids are rejected; the
+     * accepted bid must already be marked ACCEPTED so it is not among them
      */
     public void updateLoadAfterBooking(Load load, Integer trucksBooked) {
         load.setRemainingTrucks(load.getRemainingTrucks() - trucksBooked);
@@ -128,10 +210,113 @@ public class LoadService {
         }
 
         loadRepository.save(load);
+        loadBoard.upsert(load);
+
+        if (load.getStatus() == LoadStatus.BOOKED) {
+            rejectPendingBids(load.getLoadId(), LoadStatus.BOOKED);
+            bidOrderBook.invalidate(load.getLoadId());
+        }
     }
 
     public void save(Load load) {
         loadRepository.save(load);
+        loadBoard.upsert(load);
+    }
+
+    /**
+     * Reject every pending bid of a closed load without loading the bids: one SELECT ... FOR
+     * UPDATE reads and locks their ids, one UPDATE per chunk of ids rejects exactly those, and
+     * a BidRejected event per bid joins the transaction's outbox batch, after the events
+     * published before it (e.g. the acceptance that filled the load). Transporters are told
+     * by the outbox listeners, outside this transaction.
+     * Bid entities already loaded in this transaction are not refreshed.
+     */
+    private void rejectPendingBids(UUID loadId, LoadStatus reason) {
+        bidRepository.flush();
+        List<Object[]> pending = bidRepository.lockPendingBids(loadId);
+        List<UUID> bidIds = new ArrayList<>(pending.size());
+        for (Object[] row : pending) {
+            bidIds.add((UUID) row[0]);
+        }
+        for (int from = 0; from < bidIds.size(); from += REJECT_CHUNK) {
+            bidRepository.rejectBids(bidIds.subList(from, Math.min(bidIds.size(), from + REJECT_CHUNK)));
+        }
+        for (Object[] row : pending) {
+            domainEventPublisher.publish(DomainEventPublisher.BID_REJECTED, row[0], Map.of(
+                    "bidId", row[0],
+                    "loadId", loadId,
+                    "transporterId", row[1],
+                    "reason", reason.name()));
+        }
+    }
+
+    private void publishLoadPosted(Load load) {
+        domainEventPublisher.publish(DomainEventPublisher.LOAD_POSTED, load.getLoadId(), Map.of(
+                "loadId", load.getLoadId(),
+                "shipperId", load.getShipperId(),
+                "loadingCity", load.getLoadingCity(),
+                "unloadingCity", load.getUnloadingCity(),
+                "truckType", load.getTruckType(),
+                "noOfTrucks", load.getNoOfTrucks()));
+    }
+
+    private Specification<Load> filter(String shipperId, LoadStatus status) {
+        Specification<Load> spec = Specification.where(null);
+
+        if (shipperId != null) {
+            spec = spec.and((root, query, cb) -> cb.equal(root.get("shipperId"), shipperId));
+        }
+
+        if (status != null) {
+            spec = spec.and((root, query, cb) -> cb.equal(root.get("status"), status));
+        }
+
+        return spec;
+    }
+
+    static String encodeCursor(Load load) {
+        String position = load.getDatePosted() + "|" + load.getLoadId();
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(position.getBytes(StandardCharsets.UTF_8));
+    }
+
+    static ScrollPosition decodeCursor(String cursor) {
+        try {
+            String position = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separator = position.indexOf('|');
+            return new ScrollPosition(
+                    LocalDateTime.parse(position.substring(0, separator)),
+                    UUID.fromString(position.substring(separator + 1)));
+        } catch (IllegalArgumentException | IndexOutOfBoundsException | DateTimeParseException ex) {
+            throw new InvalidOperationException("Invalid cursor");
+        }
+    }
+
+    record ScrollPosition(LocalDateTime datePosted, UUID loadId) {
+    }
+
+    private Load toEntity(LoadRequest request) {
+        Load load = new Load();
+        load.setShipperId(request.getShipperId());
+        load.setLoadingCity(request.getLoadingCity());
+        load.setUnloadingCity(request.getUnloadingCity());
+        load.setProductType(request.getProductType());
+        load.setTruckType(request.getTruckType());
+        load.setNoOfTrucks(request.getNoOfTrucks());
+        load.setRemainingTrucks(request.getNoOfTrucks());
+        load.setWeight(request.getWeight());
+        load.setWeightUnit(request.getWeightUnit());
+        load.setComment(request.getComment());
+
+        // Default loading date to now if not handled (needs input in request?
+        // Request didn't have loadingDate. I'll use now() or check if request has it.
+        // Checking LoadRequest... I didn't add loadingDate to LoadRequest.
+        // I should have. I'll default to now() plus 1 day for now to avoid compilation
+        // error
+        // or just now().)
+        load.setLoadingDate(java.time.LocalDateTime.now().plusDays(1));
+
+        load.setStatus(LoadStatus.POSTED);
+        return load;
     }
 
     private LoadResponse convertToResponse(Load load) {
@@ -0,0 +1,124 @@
+package com.cargopro.service;
+
+import com.cargopro.enums.BidStatus;
+import com.cargopro.enums.LoadStatus;
+import com.cargopro.enums.TruckType;
+import com.cargopro.repository.BidRepository;
+import com.cargopro.repository.LoadRepository;
+import com.cargopro.repository.TransporterRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Component;
+
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * Business gauges: loads and bids per status, free trucks per truck type
+ *
+ * Gauges are read on every scrape, so their values come from one snapshot of
+ * three GROUP BY queries that is refreshed at most every
+ * tms.metrics.gauge-refresh-ms. If a refresh fails the previous values stay
+ * and the next scrape tries again. Truck types outside TruckType are summed
+ * under OTHER to keep tag values bounded.
+ */
+@Component
+public class MarketplaceMetrics {
+
+    static final String LOADS_METRIC = "tms.loads";
+    static final String BIDS_METRIC = "tms.bids";
+    static final String TRUCKS_METRIC = "tms.trucks.available";
+    static final String OTHER_TRUCK_TYPE = "OTHER";
+
+    private static final Logger log = LoggerFactory.getLogger(MarketplaceMetrics.class);
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private LoadRepository loadRepository;
+
+    @Autowired
+    private BidRepository bidRepository;
+
+    @Autowired
+    private TransporterRepository transporterRepository;
+
+    @Value("${tms.metrics.gauge-refresh-ms:15000}")
+    private long refreshMs;
+
+    private Snapshot snapshot = new Snapshot(Map.of(), Map.of(), Map.of(), Long.MIN_VALUE);
+
+    /**
+     * Counts as of the last refresh; takenAt is System.nanoTime()
+     */
+    private record Snapshot(Map<LoadStatus, Long> loads, Map<BidStatus, Long> bids,
+            Map<String, Long> trucks, long takenAt) {
+    }
+
+    @PostConstruct
+    void start() {
+        for (LoadStatus status : LoadStatus.values()) {
+            gauge(LOADS_METRIC, "Loads by status", "status", status.name(),
+                    m -> m.current().loads().getOrDefault(status, 0L));
+        }
+        for (BidStatus status : BidStatus.values()) {
+            gauge(BIDS_METRIC, "Bids by status", "status", status.name(),
+                    m -> m.current().bids().getOrDefault(status, 0L));
+        }
+        for (TruckType type : TruckType.values()) {
+            gauge(TRUCKS_METRIC, "Free trucks across all transporters", "truck_type", type.name(),
+                    m -> m.current().trucks().getOrDefault(type.name(), 0L));
+        }
+        gauge(TRUCKS_METRIC, "Free trucks across all transporters", "truck_type", OTHER_TRUCK_TYPE,
+                m -> m.current().trucks().getOrDefault(OTHER_TRUCK_TYPE, 0L));
+    }
+
+    private void gauge(String name, String description, String tag, String value,
+            ToDoubleFunction<MarketplaceMetrics> reader) {
+        Gauge.builder(name, this, reader)
+                .description(description)
+                .tag(tag, value)
+                .register(meterRegistry);
+    }
+
+    synchronized Snapshot current() {
+        long now = System.nanoTime();
+        if (snapshot.takenAt() != Long.MIN_VALUE && now - snapshot.takenAt() < refreshMs * 1_000_000) {
+            return snapshot;
+        }
+        try {
+            Map<LoadStatus, Long> loads = new EnumMap<>(LoadStatus.class);
+            loadRepository.countByStatus().forEach(row -> loads.put(row.getStatus(), row.getTotal()));
+
+            Map<BidStatus, Long> bids = new EnumMap<>(BidStatus.class);
+            bidRepository.countByStatus().forEach(row -> bids.put(row.getStatus(), row.getTotal()));
+
+            Map<String, Long> trucks = new HashMap<>();
+            transporterRepository.sumAvailableByTruckType()
+                    .forEach(row -> trucks.merge(truckTypeTag(row.getTruckType()), row.getAvailable(), Long::sum));
+
+            snapshot = new Snapshot(loads, bids, trucks, now);
+        } catch (DataAccessException ex) {
+            log.warn("Could not refresh marketplace gauges: {}", ex.getMessage());
+        }
+        return snapshot;
+    }
+
+    private static String truckTypeTag(String truckType) {
+        for (TruckType type : TruckType.values()) {
+            if (type.name().equals(truckType)) {
+                return truckType;
+            }
+        }
+        return OTHER_TRUCK_TYPE;
+    }
+}
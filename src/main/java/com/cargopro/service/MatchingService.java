@@ -0,0 +1,81 @@
+package com.cargopro.service;
+
+import com.cargopro.dto.LoadResponse;
+import com.cargopro.dto.TransporterMatchResponse;
+import com.cargopro.exception.InvalidOperationException;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Service class for matching transporters with the loads they can serve
+ *
+ * Both directions are answered from memory: open loads come from the load
+ * board's truck type index and free capacity from the TruckCapacityIndex, so
+ * neither query touches the database unless the id is unknown to the index.
+ * A transporter matches a load when it has at least one free truck of the
+ * load's truck type.
+ */
+@Service
+public class MatchingService {
+
+    static final int MAX_MATCHES = 100;
+
+    @Autowired
+    private LoadBoard loadBoard;
+
+    @Autowired
+    private TruckCapacityIndex truckCapacityIndex;
+
+    @Autowired
+    private LoadService loadService;
+
+    @Autowired
+    private TransporterService transporterService;
+
+    @PostConstruct
+    void start() {
+        transporterService.streamAllTransporters(truckCapacityIndex::load);
+    }
+
+    /**
+     * Open loads the transporter has free trucks for, earliest loading date first
+     */
+    public List<LoadResponse> getMatchingLoads(UUID transporterId, int size) {
+        validateSize(size);
+        Map<String, Integer> trucks = truckCapacityIndex.getAvailableTrucks(transporterId);
+        if (trucks == null) {
+            // Not indexed: throws if the transporter does not exist
+            transporterService.getTransporterById(transporterId);
+            return new ArrayList<>();
+        }
+        return loadBoard.findByTruckTypes(trucks.keySet(), size);
+    }
+
+    /**
+     * Transporters with free trucks of the load's type, most free trucks first
+     * Loads that no longer take bids have no matches.
+     */
+    public List<TransporterMatchResponse> getMatchingTransporters(UUID loadId, int size) {
+        validateSize(size);
+        Optional<LoadResponse> load = loadBoard.get(loadId);
+        if (load.isEmpty()) {
+            // Not on the board: throws if the load does not exist
+            loadService.getLoadById(loadId);
+            return new ArrayList<>();
+        }
+        return truckCapacityIndex.find(load.get().getTruckType(), size);
+    }
+
+    private void validateSize(int size) {
+        if (size < 1 || size > MAX_MATCHES) {
+            throw new InvalidOperationException("Size must be between 1 and " + MAX_MATCHES);
+        }
+    }
+}
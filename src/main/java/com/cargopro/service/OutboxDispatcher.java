@@ -0,0 +1,379 @@
+package com.cargopro.service;
+
+import com.cargopro.dto.OutboxListenerStatus;
+import com.cargopro.entity.OutboxEvent;
+import com.cargopro.entity.OutboxGap;
+import com.cargopro.entity.OutboxOffset;
+import com.cargopro.exception.InvalidOperationException;
+import com.cargopro.exception.ResourceNotFoundException;
+import com.cargopro.repository.OutboxEventRepository;
+import com.cargopro.repository.OutboxGapRepository;
+import com.cargopro.repository.OutboxOffsetRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Delivers outbox events to the OutboxListener beans
+ *
+ * One background thread polls the outbox for events past the lowest listener
+ * offset, hands each batch to every listener in event order and then saves
+ * how far each listener got. A listener that throws stops at the failed event
+ * and gets it again on the next poll; the others carry on. Commits that
+ * publish events wake the poller, so the interval only bounds the delay when
+ * a wake-up is missed.
+ *
+ * Event ids are taken when a row is inserted, not when it commits, so a
+ * lower id can become visible after a higher one. A gap in the ids therefore
+ * holds delivery back until it fills or has been open for gap-timeout-ms.
+ * Delivery then moves on, but the skipped range is stored in outbox_gaps and
+ * re-checked on every poll: events that commit inside it later are delivered
+ * late, out of order. A range is only dropped after gap-retention-ms, once no
+ * transaction can still be holding its ids.
+ */
+@Component
+public class OutboxDispatcher {
+
+    private static final Logger log = LoggerFactory.getLogger(OutboxDispatcher.class);
+
+    static final String FAILURES_METRIC = "tms.outbox.failures";
+    static final String DELIVERED_METRIC = "tms.outbox.delivered";
+    static final String LAG_METRIC = "tms.outbox.lag";
+    static final String LAG_SECONDS_METRIC = "tms.outbox.lag.seconds";
+
+    @Autowired
+    private OutboxEventRepository outboxEventRepository;
+
+    @Autowired
+    private OutboxOffsetRepository outboxOffsetRepository;
+
+    @Autowired
+    private OutboxGapRepository outboxGapRepository;
+
+    @Autowired
+    private List<OutboxListener> listeners;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${tms.outbox.enabled:true}")
+    private boolean enabled;
+
+    @Value("${tms.outbox.poll-interval-ms:500}")
+    private long pollIntervalMs;
+
+    @Value("${tms.outbox.batch-size:500}")
+    private int batchSize;
+
+    @Value("${tms.outbox.gap-timeout-ms:5000}")
+    private long gapTimeoutMs;
+
+    @Value("${tms.outbox.gap-retention-ms:3600000}")
+    private long gapRetentionMs;
+
+    // Last processed event id per listener, read from outbox_offsets on first use
+    private final Map<String, Long> offsets = new HashMap<>();
+
+    // First missing id of each open gap -> when it was first seen
+    private final Map<Long, Long> gaps = new HashMap<>();
+
+    private final Map<String, Double> lagSeconds = new ConcurrentHashMap<>();
+
+    private final AtomicBoolean wakeQueued = new AtomicBoolean();
+
+    private volatile long lastEventId;
+
+    private ScheduledExecutorService poller;
+
+    @PostConstruct
+    void start() {
+        for (OutboxListener listener : listeners) {
+            String name = listener.name();
+            Gauge.builder(LAG_METRIC, this, dispatcher -> dispatcher.lag(name))
+                    .tag("listener", name)
+                    .description("Event ids between the listener's offset and the newest outbox event")
+                    .register(meterRegistry);
+            Gauge.builder(LAG_SECONDS_METRIC, lagSeconds, seconds -> seconds.getOrDefault(name, 0.0))
+                    .tag("listener", name)
+                    .description("Age of the oldest outbox event the listener has not processed")
+                    .register(meterRegistry);
+        }
+        if (!enabled) {
+            return;
+        }
+        poller = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "outbox-dispatcher");
+            thread.setDaemon(true);
+            return thread;
+        });
+        poller.scheduleWithFixedDelay(this::poll, pollIntervalMs, pollIntervalMs, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    void stop() {
+        if (poller != null) {
+            poller.shutdownNow();
+        }
+    }
+
+    /**
+     * Poll now instead of waiting for the interval, e.g. after a commit that published events
+     * Wake-ups that arrive while one is queued are merged into it
+     */
+    public void wake() {
+        if (poller == null || !wakeQueued.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            poller.execute(() -> {
+                wakeQueued.set(false);
+                poll();
+            });
+        } catch (RejectedExecutionException ex) {
+            // Shutting down
+            wakeQueued.set(false);
+        }
+    }
+
+    /**
+     * Deliver everything currently in the outbox, one batch at a time
+     * Returns the number of events read; the poller calls this, tests may too
+     */
+    public synchronized int dispatchPending() {
+        loadOffsets();
+        lastEventId = outboxEventRepository.findMaxEventId();
+
+        int read = deliverLate();
+        while (true) {
+            long from = minOffset();
+            if (from >= lastEventId) {
+                break;
+            }
+            List<OutboxEvent> batch = outboxEventRepository.findByEventIdGreaterThanOrderByEventIdAsc(
+                    from, PageRequest.ofSize(batchSize));
+            List<OutboxEvent> ready = contiguous(from, batch);
+            if (ready.isEmpty()) {
+                break;
+            }
+            read += ready.size();
+
+            boolean progressed = false;
+            for (OutboxListener listener : listeners) {
+                long offset = offsets.get(listener.name());
+                long reached = deliver(listener, ready, offset);
+                if (reached != offset) {
+                    offsets.put(listener.name(), reached);
+                    outboxOffsetRepository.save(new OutboxOffset(listener.name(), reached, null));
+                    progressed = true;
+                }
+            }
+            // Stop when every listener is stuck on a failing event, at a gap, or at the end
+            if (!progressed || ready.size() < batch.size() || batch.size() < batchSize) {
+                break;
+            }
+        }
+
+        long min = minOffset();
+        gaps.keySet().removeIf(id -> id <= min);
+        updateLagSeconds();
+        return read;
+    }
+
+    /**
+     * Deliver events again to one listener, starting at fromEventId
+     * Events before it are not touched; the replay runs on the next poll
+     */
+    public synchronized void replay(String listenerName, long fromEventId) {
+        if (fromEventId < 1) {
+            throw new InvalidOperationException("fromEventId must be at least 1");
+        }
+        OutboxListener listener = listeners.stream()
+                .filter(candidate -> candidate.name().equals(listenerName))
+                .findFirst()
+                .orElseThrow(() -> new ResourceNotFoundException("Outbox listener not found: " + listenerName));
+        loadOffsets();
+        offsets.put(listener.name(), fromEventId - 1);
+        outboxOffsetRepository.save(new OutboxOffset(listener.name(), fromEventId - 1, null));
+        log.info("Outbox listener {} will replay from event {}", listener.name(), fromEventId);
+        wake();
+    }
+
+    /**
+     * Offset and lag of every listener
+     */
+    public synchronized List<OutboxListenerStatus> getStatus() {
+        loadOffsets();
+        lastEventId = outboxEventRepository.findMaxEventId();
+        List<OutboxListenerStatus> status = new ArrayList<>(listeners.size());
+        for (OutboxListener listener : listeners) {
+            status.add(new OutboxListenerStatus(listener.name(), offsets.get(listener.name()), lag(listener.name())));
+        }
+        return status;
+    }
+
+    /**
+     * The leading events of the batch that follow on from the offset without an open gap
+     */
+    private List<OutboxEvent> contiguous(long from, List<OutboxEvent> batch) {
+        long now = System.currentTimeMillis();
+        // Gaps some listener has already moved past are settled, e.g. while replaying
+        long passed = offsets.values().stream().mapToLong(Long::longValue).max().orElse(0L);
+        long expected = from + 1;
+        for (int i = 0; i < batch.size(); i++) {
+            long eventId = batch.get(i).getEventId();
+            if (eventId != expected && expected > passed) {
+                long firstSeen = gaps.computeIfAbsent(expected, id -> now);
+                if (now - firstSeen < gapTimeoutMs) {
+                    return batch.subList(0, i);
+                }
+                // Stored before any offset moves past it, so a late commit is still found
+                if (!outboxGapRepository.existsById(expected)) {
+                    outboxGapRepository.save(new OutboxGap(expected, eventId - 1, LocalDateTime.now()));
+                }
+            }
+            expected = eventId + 1;
+        }
+        return batch;
+    }
+
+    /**
+     * Deliver events that committed inside a skipped range since the last poll
+     * Each goes to the listeners whose offset is already past it; the others get
+     * it in order. A range is narrowed once its events reached every listener.
+     */
+    private int deliverLate() {
+        int read = 0;
+        LocalDateTime expiry = LocalDateTime.now().minus(Duration.ofMillis(gapRetentionMs));
+        for (OutboxGap gap : outboxGapRepository.findAll()) {
+            if (gap.getSkippedAt().isBefore(expiry)) {
+                log.warn("Outbox ids {}-{} never committed; no longer waiting for them",
+                        gap.getFirstEventId(), gap.getLastEventId());
+                outboxGapRepository.delete(gap);
+                continue;
+            }
+            List<OutboxEvent> late = outboxEventRepository.findByEventIdBetweenOrderByEventIdAsc(
+                    gap.getFirstEventId(), gap.getLastEventId());
+            List<Long> done = new ArrayList<>();
+            for (OutboxEvent event : late) {
+                boolean delivered = true;
+                for (OutboxListener listener : listeners) {
+                    if (offsets.get(listener.name()) >= event.getEventId()
+                            && deliver(listener, List.of(event), event.getEventId() - 1) != event.getEventId()) {
+                        delivered = false;
+                    }
+                }
+                if (!delivered) {
+                    // Retried on the next poll, possibly again to listeners that did get it
+                    break;
+                }
+                done.add(event.getEventId());
+                read++;
+            }
+            if (!done.isEmpty()) {
+                narrow(gap, done);
+            }
+        }
+        return read;
+    }
+
+    /**
+     * Replace a gap by the ranges between the ids that have now been delivered
+     */
+    private void narrow(OutboxGap gap, List<Long> delivered) {
+        outboxGapRepository.delete(gap);
+        List<OutboxGap> rest = new ArrayList<>();
+        long first = gap.getFirstEventId();
+        for (long eventId : delivered) {
+            if (eventId > first) {
+                rest.add(new OutboxGap(first, eventId - 1, gap.getSkippedAt()));
+            }
+            first = eventId + 1;
+        }
+        if (first <= gap.getLastEventId()) {
+            rest.add(new OutboxGap(first, gap.getLastEventId(), gap.getSkippedAt()));
+        }
+        outboxGapRepository.saveAll(rest);
+    }
+
+    private long deliver(OutboxListener listener, List<OutboxEvent> batch, long offset) {
+        int delivered = 0;
+        try {
+            for (OutboxEvent event : batch) {
+                if (event.getEventId() <= offset) {
+                    continue;
+                }
+                try {
+                    listener.onEvent(event);
+                } catch (RuntimeException ex) {
+                    meterRegistry.counter(FAILURES_METRIC, "listener", listener.name()).increment();
+                    log.warn("Outbox listener {} failed on event {}: {}", listener.name(), event.getEventId(),
+                            ex.getMessage());
+                    return offset;
+                }
+                offset = event.getEventId();
+                delivered++;
+            }
+            return offset;
+        } finally {
+            meterRegistry.counter(DELIVERED_METRIC, "listener", listener.name()).increment(delivered);
+        }
+    }
+
+    private void loadOffsets() {
+        for (OutboxListener listener : listeners) {
+            offsets.computeIfAbsent(listener.name(), name -> outboxOffsetRepository.findById(name)
+                    .map(OutboxOffset::getLastEventId)
+                    .orElse(0L));
+        }
+    }
+
+    private long minOffset() {
+        return offsets.values().stream().mapToLong(Long::longValue).min().orElse(Long.MAX_VALUE);
+    }
+
+    private long lag(String listenerName) {
+        Long offset = offsets.get(listenerName);
+        return offset == null ? 0 : Math.max(0, lastEventId - offset);
+    }
+
+    private void updateLagSeconds() {
+        LocalDateTime now = LocalDateTime.now();
+        for (OutboxListener listener : listeners) {
+            long offset = offsets.get(listener.name());
+            double seconds = offset >= lastEventId ? 0.0
+                    : outboxEventRepository.findFirstByEventIdGreaterThanOrderByEventIdAsc(offset)
+                            .map(event -> Duration.between(event.getCreatedAt(), now).toMillis() / 1000.0)
+                            .orElse(0.0);
+            lagSeconds.put(listener.name(), Math.max(0.0, seconds));
+        }
+    }
+
+    private void poll() {
+        try {
+            dispatchPending();
+        } catch (RuntimeException ex) {
+            // Database unavailable and the like; try again on the next poll
+            log.warn("Outbox poll failed: {}", ex.getMessage());
+        }
+    }
+}
@@ -0,0 +1,20 @@
+package com.cargopro.service;
+
+import com.cargopro.entity.OutboxEvent;
+
+/**
+ * Receives outbox events after the transaction that wrote them has committed
+ *
+ * Delivery is at least once, in event order: an event whose handler throws is
+ * retried on the next poll, and events since the last saved offset are
+ * delivered again after a restart, so handlers must tolerate duplicates.
+ */
+public interface OutboxListener {
+
+    /**
+     * Stable name the listener's offset is stored under
+     */
+    String name();
+
+    void onEvent(OutboxEvent event);
+}
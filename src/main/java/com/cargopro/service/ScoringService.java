@@ -0,0 +1,89 @@
+package com.cargopro.service;
+
+import com.cargopro.dto.ScoringWeights;
+import com.cargopro.entity.ShipperScoring;
+import com.cargopro.exception.InvalidOperationException;
+import com.cargopro.repository.ShipperScoringRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Service class for shippers' bid scoring settings
+ *
+ * Changing a shipper's settings re-scores the order books of the shipper's
+ * loads in memory once the change commits, so best-bid reads reflect the
+ * new weights straight away.
+ */
+@Service
+@Transactional
+public class ScoringService {
+
+    @Autowired
+    private ShipperScoringRepository shipperScoringRepository;
+
+    @Autowired
+    private BidScorer bidScorer;
+
+    @Autowired
+    private BidOrderBook bidOrderBook;
+
+    /**
+     * Get a shipper's settings; shippers who never set any get the defaults
+     */
+    @Transactional(readOnly = true)
+    public ScoringWeights getWeights(String shipperId) {
+        return shipperScoringRepository.findById(shipperId)
+                .map(this::convertToResponse)
+                .orElseGet(ScoringService::defaults);
+    }
+
+    /**
+     * Replace a shipper's settings
+     */
+    public ScoringWeights updateWeights(String shipperId, ScoringWeights request) {
+        if (!bidScorer.hasStrategy(request.getStrategy())) {
+            throw new InvalidOperationException("Unknown scoring strategy: " + request.getStrategy()
+                    + " (available: " + String.join(", ", bidScorer.getStrategyNames()) + ")");
+        }
+        double total = request.getRate() + request.getRatePerTruck() + request.getRatePerTonne()
+                + request.getRating() + request.getReliability();
+        if (total <= 0) {
+            throw new InvalidOperationException("At least one weight must be positive");
+        }
+
+        ShipperScoring scoring = shipperScoringRepository.findById(shipperId).orElseGet(() -> {
+            ShipperScoring created = new ShipperScoring();
+            created.setShipperId(shipperId);
+            return created;
+        });
+        scoring.setStrategy(request.getStrategy());
+        scoring.setRateWeight(request.getRate());
+        scoring.setRatePerTruckWeight(request.getRatePerTruck());
+        scoring.setRatePerTonneWeight(request.getRatePerTonne());
+        scoring.setRatingWeight(request.getRating());
+        scoring.setReliabilityWeight(request.getReliability());
+        ShipperScoring saved = shipperScoringRepository.save(scoring);
+
+        // Both apply after commit, in this order: drop the cached settings, then re-score
+        bidScorer.evict(shipperId);
+        bidOrderBook.rescore(shipperId);
+        return convertToResponse(saved);
+    }
+
+    static ScoringWeights defaults() {
+        BidScoringStrategy.Weights weights = BidScoringStrategy.Weights.DEFAULT;
+        return new ScoringWeights(WeightedBidScoring.NAME, weights.rate(), weights.ratePerTruck(),
+                weights.ratePerTonne(), weights.rating(), weights.reliability());
+    }
+
+    private ScoringWeights convertToResponse(ShipperScoring scoring) {
+        return new ScoringWeights(
+                scoring.getStrategy(),
+                scoring.getRateWeight(),
+                scoring.getRatePerTruckWeight(),
+                scoring.getRatePerTonneWeight(),
+                scoring.getRatingWeight(),
+                scoring.getReliabilityWeight());
+    }
+}
@@ -0,0 +1,126 @@
+package com.cargopro.service;
+
+import com.cargopro.entity.Transporter;
+import com.cargopro.entity.TruckAvailability;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Bounded in-process cache of transporter data read on every bid
+ *
+ * Profiles (company name, rating) rarely change and are kept for profile-ttl.
+ * Truck lists are cached separately for display reads only and are evicted
+ * after every committed truck write; capacity checks never read them and go
+ * to the database instead. Both caches expire entries by TTL, evict by size
+ * and publish hit/miss metrics (cache.gets{cache=...,result=hit|miss}).
+ */
+@Component
+public class TransporterCache {
+
+    static final String PROFILES_CACHE = "transporter.profiles";
+    static final String TRUCKS_CACHE = "transporter.trucks";
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${tms.transporter-cache.max-size:10000}")
+    private long maxSize;
+
+    @Value("${tms.transporter-cache.profile-ttl-ms:300000}")
+    private long profileTtlMs;
+
+    @Value("${tms.transporter-cache.trucks-ttl-ms:30000}")
+    private long trucksTtlMs;
+
+    private Cache<UUID, Profile> profiles;
+    private Cache<UUID, List<TruckAvailability>> trucks;
+
+    /**
+     * Immutable copy of the rarely changing transporter fields
+     */
+    public record Profile(UUID transporterId, String companyName, Double rating, Long version) {
+
+        /**
+         * Detached Transporter with only these fields set (no trucks)
+         * Enough to reference the transporter from a new entity without a SELECT
+         */
+        public Transporter toReference() {
+            Transporter transporter = new Transporter();
+            transporter.setTransporterId(transporterId);
+            transporter.setCompanyName(companyName);
+            transporter.setRating(rating);
+            transporter.setVersion(version);
+            return transporter;
+        }
+    }
+
+    @PostConstruct
+    public void start() {
+        profiles = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(Duration.ofMillis(profileTtlMs))
+                .recordStats()
+                .build();
+        trucks = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(Duration.ofMillis(trucksTtlMs))
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, profiles, PROFILES_CACHE);
+        CaffeineCacheMetrics.monitor(meterRegistry, trucks, TRUCKS_CACHE);
+    }
+
+    /**
+     * Cached profile, or null on a miss
+     */
+    public Profile getProfile(UUID transporterId) {
+        return profiles.getIfPresent(transporterId);
+    }
+
+    public void putProfile(Transporter transporter) {
+        // Without a version a detached reference would look transient to Hibernate
+        if (transporter.getVersion() == null) {
+            return;
+        }
+        profiles.put(transporter.getTransporterId(), new Profile(transporter.getTransporterId(),
+                transporter.getCompanyName(), transporter.getRating(), transporter.getVersion()));
+    }
+
+    /**
+     * Copy of the cached truck list, or null on a miss
+     * For display only: never use it to decide whether trucks are available
+     */
+    public List<TruckAvailability> getTrucks(UUID transporterId) {
+        List<TruckAvailability> cached = trucks.getIfPresent(transporterId);
+        return cached == null ? null : copy(cached);
+    }
+
+    public void putTrucks(UUID transporterId, List<TruckAvailability> availableTrucks) {
+        trucks.put(transporterId, copy(availableTrucks));
+    }
+
+    /**
+     * Drop the transporter's truck list once the current transaction commits,
+     * so a reader cannot re-cache the old counts before the write is visible
+     */
+    public void evictTrucks(UUID transporterId) {
+        AfterCommit.run(() -> trucks.invalidate(transporterId));
+    }
+
+    private static List<TruckAvailability> copy(List<TruckAvailability> source) {
+        List<TruckAvailability> copy = new ArrayList<>(source.size());
+        source.forEach(truck -> copy.add(new TruckAvailability(truck.getTruckType(), truck.getCount())));
+        return copy;
+    }
+}
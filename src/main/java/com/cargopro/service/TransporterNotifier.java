@@ -0,0 +1,56 @@
+package com.cargopro.service;
+
+import com.cargopro.entity.OutboxEvent;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+/**
+ * Tells transporters that their bid on a closed load was rejected
+ *
+ * There is no delivery channel to transporters yet, so the notice is logged
+ * and counted (tms.notifications{type}); a mail or push sender plugs in here.
+ */
+@Component
+public class TransporterNotifier implements OutboxListener {
+
+    private static final Logger log = LoggerFactory.getLogger(TransporterNotifier.class);
+
+    static final String NAME = "transporter-notifier";
+    static final String NOTIFICATIONS_METRIC = "tms.notifications";
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Override
+    public String name() {
+        return NAME;
+    }
+
+    @Override
+    public void onEvent(OutboxEvent event) {
+        if (!DomainEventPublisher.BID_REJECTED.equals(event.getEventType())) {
+            return;
+        }
+        JsonNode payload;
+        try {
+            payload = objectMapper.readTree(event.getPayload());
+        } catch (JsonProcessingException ex) {
+            // A malformed event will never parse; skip it rather than block the listener
+            log.warn("Skipping outbox event {} with unreadable payload", event.getEventId());
+            return;
+        }
+        log.info("Notify transporter {}: bid {} on load {} rejected, load {}",
+                payload.path("transporterId").asText(), payload.path("bidId").asText(),
+                payload.path("loadId").asText(), payload.path("reason").asText());
+        meterRegistry.counter(NOTIFICATIONS_METRIC, "type", DomainEventPublisher.BID_REJECTED).increment();
+    }
+}
@@ -5,16 +5,27 @@ import com.cargopro.dto.TransporterResponse;
 import com.cargopro.entity.Transporter;
 import com.cargopro.entity.TruckAvailability;
 import com.cargopro.exception.InsufficientCapacityException;
+import com.cargopro.exception.InvalidOperationException;
 import com.cargopro.exception.ResourceNotFoundException;
 import com.cargopro.repository.TransporterRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
-import java.util.Optional;
+import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
-import java.util.stream.Collectors;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 /**
  * Service class for Transporter operations
@@ -23,9 +34,23 @@ import java.util.stream.Collectors;
 @Transactional
 public class TransporterService {
 
+    public static final int MAX_PAGE_SIZE = 100;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
     @Autowired
     private TransporterRepository transporterRepository;
 
+    @Autowired
+    private TransporterCache transporterCache;
+
+    @Autowired
+    private TruckCapacityIndex truckCapacityIndex;
+
+    @Autowired
+    private DomainEventPublisher domainEventPublisher;
+
     /**
      * Create a new transporter
      */
@@ -33,30 +58,79 @@ public class TransporterService {
         Transporter transporter = new Transporter();
         transporter.setCompanyName(request.getCompanyName());
         transporter.setRating(request.getRating());
-        transporter.setAvailableTrucks(request.getAvailableTrucks());
+        transporter.setAvailableTrucks(normaliseTruckTypes(request.getAvailableTrucks()));
 
         Transporter savedTransporter = transporterRepository.save(transporter);
-        return convertToResponse(savedTransporter);
+        TransporterResponse response = convertToResponse(savedTransporter);
+        truckCapacityIndex.put(response);
+        return response;
     }
 
     /**
-     * Get all transporters
+     * Get a page of transporters
      */
-    public List<TransporterResponse> getAllTransporters() {
-        List<Transporter> transporters = transporterRepository.findAll();
-        return transporters.stream()
-                .map(this::convertToResponse)
-                .collect(Collectors.toList());
+    @Transactional(readOnly = true)
+    public Page<TransporterResponse> getAllTransporters(Pageable pageable) {
+        if (pageable.getPageSize() > MAX_PAGE_SIZE) {
+            throw new InvalidOperationException("Size must be at most " + MAX_PAGE_SIZE);
+        }
+        return transporterRepository.findAll(pageable).map(this::convertToResponse);
+    }
+
+    /**
+     * Hand every transporter to the sink one row at a time
+     * Each transporter is evicted from the persistence context once handed
+     * over, so memory stays flat however many transporters exist
+     */
+    @Transactional(readOnly = true)
+    public void streamAllTransporters(Consumer<TransporterResponse> sink) {
+        try (Stream<Transporter> transporters = transporterRepository.streamAllWithTrucks()) {
+            transporters.forEach(transporter -> {
+                sink.accept(convertToResponse(transporter));
+                entityManager.detach(transporter);
+            });
+        }
     }
 
     /**
      * Get a transporter by ID
      */
     public TransporterResponse getTransporterById(UUID id) {
+        TransporterCache.Profile profile = transporterCache.getProfile(id);
+        List<TruckAvailability> trucks = transporterCache.getTrucks(id);
+        if (profile != null && trucks != null) {
+            return new TransporterResponse(id, profile.companyName(), profile.rating(), trucks);
+        }
+
         Transporter transporter = getTransporterEntity(id);
+        transporterCache.putProfile(transporter);
+        transporterCache.putTrucks(id, transporter.getAvailableTrucks());
         return convertToResponse(transporter);
     }
 
+    /**
+     * Get a transporter to reference from a new entity, served from the profile cache
+     * On a hit the instance is detached and has no trucks: use getAvailableTruckCount
+     * for capacity checks
+     */
+    public Transporter getTransporterReference(UUID id) {
+        TransporterCache.Profile profile = transporterCache.getProfile(id);
+        if (profile != null) {
+            return profile.toReference();
+        }
+
+        Transporter transporter = getTransporterEntity(id);
+        transporterCache.putProfile(transporter);
+        return transporter;
+    }
+
+    /**
+     * Current number of free trucks of a type, always read from the database
+     */
+    public int getAvailableTruckCount(UUID transporterId, String truckType) {
+        return transporterRepository.findTruckCount(transporterId, TruckCapacityIndex.normalise(truckType)).orElse(0);
+    }
+
     /**
      * Get the Transporter entity
      */
@@ -65,60 +139,117 @@ public class TransporterService {
                 .orElseThrow(() -> new ResourceNotFoundException("Transporter not found with id: " + id));
     }
 
+    /**
+     * Get the Transporter entities for a set of IDs in one query, keyed by ID
+     * IDs that do not exist are simply absent from the map
+     */
+    public Map<UUID, Transporter> getTransporterEntities(Collection<UUID> ids) {
+        Map<UUID, Transporter> transporters = new HashMap<>();
+        transporterRepository.findAllById(ids).forEach(t -> transporters.put(t.getTransporterId(), t));
+        return transporters;
+    }
+
+    /**
+     * Current free truck counts of several transporters in one query, read from the database
+     * Keyed by transporter ID, then by upper-cased truck type
+     */
+    public Map<UUID, Map<String, Integer>> getAvailableTruckCounts(Collection<UUID> transporterIds) {
+        Map<UUID, Map<String, Integer>> counts = new HashMap<>();
+        for (TransporterRepository.TruckCount row : transporterRepository.findTruckCounts(transporterIds)) {
+            counts.computeIfAbsent(row.getTransporterId(), id -> new HashMap<>())
+                    .put(row.getTruckType().toUpperCase(), row.getAvailable());
+        }
+        return counts;
+    }
+
     /**
      * Update available trucks for a transporter
      */
     public TransporterResponse updateAvailableTrucks(UUID transporterId, List<TruckAvailability> trucks) {
+        List<TruckAvailability> normalised = normaliseTruckTypes(trucks);
         Transporter transporter = getTransporterEntity(transporterId);
-        transporter.setAvailableTrucks(trucks);
-        Transporter savedTransporter = transporterRepository.save(transporter);
-        return convertToResponse(savedTransporter);
+        transporter.setAvailableTrucks(normalised);
+        // Flushed so the truck rows stay locked until commit; see TruckCapacityIndex
+        Transporter savedTransporter = transporterRepository.saveAndFlush(transporter);
+        transporterCache.evictTrucks(transporterId);
+        TransporterResponse response = convertToResponse(savedTransporter);
+        truckCapacityIndex.put(response);
+        return response;
+    }
+
+    /**
+     * Atomically reserve trucks with a single conditional UPDATE
+     * Returns false if the transporter does not have enough free trucks of the type
+     */
+    public boolean reserveTrucks(UUID transporterId, String truckType, int count) {
+        String type = TruckCapacityIndex.normalise(truckType);
+        if (transporterRepository.reserveTrucks(transporterId, type, count) > 0) {
+            transporterCache.evictTrucks(transporterId);
+            truckCapacityIndex.set(transporterId, type,
+                    transporterRepository.findTruckCount(transporterId, type).orElse(0));
+            domainEventPublisher.publish(DomainEventPublisher.TRUCKS_RESERVED, transporterId, Map.of(
+                    "transporterId", transporterId,
+                    "truckType", type,
+                    "trucks", count));
+            return true;
+        }
+        return false;
     }
 
     /**
      * Reduce available trucks when a booking is made
      */
     public void reduceAvailableTrucks(UUID transporterId, String truckType, int count) {
-        Transporter transporter = getTransporterEntity(transporterId);
-
-        // Find availability for the specific truck type
-        Optional<TruckAvailability> availabilityOpt = transporter.getAvailableTrucks().stream()
-                .filter(ta -> ta.getTruckType().equalsIgnoreCase(truckType))
-                .findFirst();
+        if (reserveTrucks(transporterId, truckType, count)) {
+            return;
+        }
 
-        if (availabilityOpt.isPresent()) {
-            TruckAvailability availability = availabilityOpt.get();
-            if (availability.getCount() < count) {
-                throw new InsufficientCapacityException("Not enough trucks of type " + truckType + " available");
-            }
-            availability.setCount(availability.getCount() - count);
-        } else {
+        // Reservation failed: read only now, to report why
+        if (!transporterRepository.existsById(transporterId)) {
+            throw new ResourceNotFoundException("Transporter not found with id: " + transporterId);
+        }
+        if (transporterRepository.findTruckCount(transporterId, TruckCapacityIndex.normalise(truckType)).isEmpty()) {
             throw new InsufficientCapacityException("Transporter does not have trucks of type " + truckType);
         }
-
-        transporterRepository.save(transporter);
+        throw new InsufficientCapacityException("Not enough trucks of type " + truckType + " available");
     }
 
     /**
      * Restore trucks when a load is cancelled
      */
     public void restoreAvailableTrucks(UUID transporterId, String truckType, int count) {
-        Transporter transporter = getTransporterEntity(transporterId);
+        String type = TruckCapacityIndex.normalise(truckType);
+        if (transporterRepository.releaseTrucks(transporterId, type, count) > 0) {
+            transporterCache.evictTrucks(transporterId);
+            truckCapacityIndex.set(transporterId, type,
+                    transporterRepository.findTruckCount(transporterId, type).orElse(0));
+            return;
+        }
 
-        Optional<TruckAvailability> availabilityOpt = transporter.getAvailableTrucks().stream()
-                .filter(ta -> ta.getTruckType().equalsIgnoreCase(truckType))
-                .findFirst();
-
-        if (availabilityOpt.isPresent()) {
-            TruckAvailability availability = availabilityOpt.get();
-            availability.setCount(availability.getCount() + count);
-        } else {
-            // Restore by adding new availability entry if it was somehow removed?
-            // Or just add it.
-            transporter.getAvailableTrucks().add(new TruckAvailability(truckType, count));
+        if (!transporterRepository.existsById(transporterId)) {
+            throw new ResourceNotFoundException("Transporter not found with id: " + transporterId);
         }
+        // The truck type was removed from the transporter in the meantime; add it back
+        transporterRepository.insertTrucks(transporterId, type, count);
+        transporterCache.evictTrucks(transporterId);
+        truckCapacityIndex.set(transporterId, type, count);
+    }
 
-        transporterRepository.save(transporter);
+    /**
+     * Copy of the trucks with upper-case truck types, the form the truck rows are
+     * stored and matched in; each truck type may appear only once per transporter
+     */
+    private List<TruckAvailability> normaliseTruckTypes(List<TruckAvailability> trucks) {
+        Set<String> seen = new HashSet<>();
+        List<TruckAvailability> normalised = new ArrayList<>(trucks.size());
+        for (TruckAvailability truck : trucks) {
+            String type = TruckCapacityIndex.normalise(truck.getTruckType());
+            if (type != null && !seen.add(type)) {
+                throw new InvalidOperationException("Duplicate truck type: " + truck.getTruckType());
+            }
+            normalised.add(new TruckAvailability(type, truck.getCount()));
+        }
+        return normalised;
     }
 
     private TransporterResponse convertToResponse(Transporter transporter) {
@@ -0,0 +1,207 @@
+package com.cargopro.service;
+
+import com.cargopro.dto.TransporterMatchResponse;
+import com.cargopro.dto.TransporterResponse;
+import com.cargopro.entity.TruckAvailability;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * In-memory inverted index from truck type to the transporters that have
+ * free trucks of that type, most free trucks first, then best rating
+ *
+ * Built by MatchingService at startup and kept current by TransporterService
+ * as fleets are registered or replaced and trucks are reserved or released.
+ * Changes are applied once their transaction commits. The index only decides
+ * who is shown as a match; bids and bookings still check the database.
+ *
+ * Commits can run their callbacks in any order, so every change carries
+ * absolute counts and a sequence number taken when it is made. Callers make
+ * the change after the database write, while they hold the row locks, so two
+ * changes to the same trucks are numbered in commit order; an older change
+ * that arrives late is ignored.
+ *
+ * Truck types are compared upper-case.
+ */
+@Component
+public class TruckCapacityIndex {
+
+    private static final Comparator<Capacity> RANKING = Comparator
+            .comparingInt(Capacity::available).reversed()
+            .thenComparing(Comparator.comparingDouble(Capacity::rating).reversed())
+            .thenComparing(Capacity::transporterId);
+
+    private final Map<UUID, Carrier> carriers = new ConcurrentHashMap<>();
+
+    private final Map<String, ConcurrentSkipListSet<Capacity>> byTruckType = new ConcurrentHashMap<>();
+
+    private final AtomicLong sequence = new AtomicLong();
+
+    /**
+     * A transporter's profile and free trucks per type, as held by the index
+     * fleetStamp numbers the last whole-fleet change; typeStamps the later changes to single types
+     */
+    private record Carrier(String companyName, double rating, Map<String, Integer> trucks,
+            long fleetStamp, Map<String, Long> typeStamps) {
+
+        boolean isOlder(String truckType, long stamp) {
+            return stamp <= typeStamps.getOrDefault(truckType, fleetStamp);
+        }
+
+        Carrier withCount(String truckType, int count, long stamp) {
+            Map<String, Integer> updated = new HashMap<>(trucks);
+            if (count > 0) {
+                updated.put(truckType, count);
+            } else {
+                updated.remove(truckType);
+            }
+            Map<String, Long> stamps = new HashMap<>(typeStamps);
+            stamps.put(truckType, stamp);
+            return new Carrier(companyName, rating, Map.copyOf(updated), fleetStamp, Map.copyOf(stamps));
+        }
+    }
+
+    /**
+     * Position of one transporter in one truck type's ranking
+     */
+    private record Capacity(int available, double rating, UUID transporterId) {
+    }
+
+    /**
+     * Register a transporter or replace its whole fleet
+     * Call after the fleet has been flushed, so its rows are locked
+     */
+    public void put(TransporterResponse transporter) {
+        Carrier carrier = toCarrier(transporter, sequence.incrementAndGet());
+        AfterCommit.run(() -> replace(transporter.getTransporterId(), carrier));
+    }
+
+    /**
+     * Index a transporter straight away, for the bulk build at startup
+     * Any change made while the index is being built wins over it.
+     */
+    void load(TransporterResponse transporter) {
+        replace(transporter.getTransporterId(), toCarrier(transporter, 0));
+    }
+
+    /**
+     * Set the free trucks of one type, as counted after the write that changed them
+     * Call while that write's row lock is held. Transporters the index does not know are ignored.
+     */
+    public void set(UUID transporterId, String truckType, int count) {
+        String type = normalise(truckType);
+        long stamp = sequence.incrementAndGet();
+        AfterCommit.run(() -> carriers.computeIfPresent(transporterId, (key, current) -> {
+            if (current.isOlder(type, stamp)) {
+                return current;
+            }
+            Carrier updated = current.withCount(type, Math.max(0, count), stamp);
+            reindex(key, current, updated);
+            return updated;
+        }));
+    }
+
+    /**
+     * Free trucks per upper-cased type, or null if the transporter is not indexed
+     */
+    public Map<String, Integer> getAvailableTrucks(UUID transporterId) {
+        Carrier carrier = carriers.get(transporterId);
+        return carrier == null ? null : carrier.trucks();
+    }
+
+    /**
+     * Transporters with at least one free truck of the type, most free trucks first
+     */
+    public List<TransporterMatchResponse> find(String truckType, int limit) {
+        ConcurrentSkipListSet<Capacity> ranked = byTruckType.get(normalise(truckType));
+        List<TransporterMatchResponse> result = new ArrayList<>();
+        if (ranked == null) {
+            return result;
+        }
+        for (Capacity capacity : ranked) {
+            if (result.size() >= limit) {
+                break;
+            }
+            Carrier carrier = carriers.get(capacity.transporterId());
+            if (carrier != null) {
+                result.add(new TransporterMatchResponse(capacity.transporterId(), carrier.companyName(),
+                        carrier.rating(), capacity.available()));
+            }
+        }
+        return result;
+    }
+
+    int size() {
+        return carriers.size();
+    }
+
+    static String normalise(String truckType) {
+        return truckType == null ? null : truckType.trim().toUpperCase(Locale.ROOT);
+    }
+
+    /**
+     * Move a transporter's rankings from its old state to its new one
+     * Called inside carriers.compute, so changes to one transporter never interleave
+     */
+    private void reindex(UUID transporterId, Carrier previous, Carrier next) {
+        if (previous != null) {
+            previous.trucks().forEach((type, count) -> {
+                ConcurrentSkipListSet<Capacity> ranked = byTruckType.get(type);
+                if (ranked != null) {
+                    ranked.remove(new Capacity(count, previous.rating(), transporterId));
+                }
+            });
+        }
+        next.trucks().forEach((type, count) -> byTruckType
+                .computeIfAbsent(type, key -> new ConcurrentSkipListSet<>(RANKING))
+                .add(new Capacity(count, next.rating(), transporterId)));
+    }
+
+    private void replace(UUID transporterId, Carrier carrier) {
+        carriers.compute(transporterId, (key, current) -> {
+            if (current != null && carrier.fleetStamp() <= current.fleetStamp()) {
+                return current;
+            }
+            // Single-type changes made after this fleet was written still apply on top of it
+            Carrier updated = carrier;
+            if (current != null) {
+                for (Map.Entry<String, Long> type : current.typeStamps().entrySet()) {
+                    if (type.getValue() > carrier.fleetStamp()) {
+                        updated = updated.withCount(type.getKey(),
+                                current.trucks().getOrDefault(type.getKey(), 0), type.getValue());
+                    }
+                }
+            }
+            reindex(key, current, updated);
+            return updated;
+        });
+    }
+
+    private static Carrier toCarrier(TransporterResponse transporter, long stamp) {
+        return new Carrier(transporter.getCompanyName(),
+                transporter.getRating() == null ? 0 : transporter.getRating(),
+                counts(transporter.getAvailableTrucks()), stamp, Map.of());
+    }
+
+    private static Map<String, Integer> counts(List<TruckAvailability> trucks) {
+        Map<String, Integer> counts = new HashMap<>();
+        if (trucks != null) {
+            for (TruckAvailability truck : trucks) {
+                if (truck.getTruckType() != null && truck.getCount() > 0) {
+                    counts.merge(normalise(truck.getTruckType()), truck.getCount(), Integer::sum);
+                }
+            }
+        }
+        return Map.copyOf(counts);
+    }
+}
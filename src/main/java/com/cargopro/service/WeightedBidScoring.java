@@ -0,0 +1,48 @@
+package com.cargopro.service;
+
+import org.springframework.stereotype.Component;
+
+/**
+ * Default strategy: a weighted sum of value-for-money and transporter terms
+ *
+ * score = w.rate / rate
+ *       + w.ratePerTruck / (rate / trucks)
+ *       + w.ratePerTonne / (rate / tonnes carried)
+ *       + w.rating * rating / 5
+ *       + w.reliability * reliability
+ *
+ * Prices enter inverted so that cheaper is always better. Tonnes carried is
+ * the bid's share of the load weight (trucks offered / trucks requested).
+ * With the default weights this is exactly the original 0.7 / 0.3 score.
+ */
+@Component
+public class WeightedBidScoring implements BidScoringStrategy {
+
+    public static final String NAME = "weighted";
+
+    @Override
+    public String name() {
+        return NAME;
+    }
+
+    @Override
+    public void score(BidFeatures bids, Weights weights, double[] scores) {
+        double[] rate = bids.proposedRate();
+        int[] trucks = bids.trucksOffered();
+        double[] rating = bids.rating();
+        double[] reliability = bids.reliability();
+        double wRate = weights.rate();
+        double wPerTruck = weights.ratePerTruck();
+        double wPerTonne = bids.noOfTrucks() > 0 ? weights.ratePerTonne() * bids.tonnes() / bids.noOfTrucks() : 0;
+        double wRating = weights.rating();
+        double wReliability = weights.reliability();
+
+        for (int i = 0; i < scores.length; i++) {
+            double perRate = 1.0 / rate[i];
+            scores[i] = wRate * perRate
+                    + (wPerTruck + wPerTonne) * trucks[i] * perRate
+                    + wRating * (rating[i] / 5.0)
+                    + wReliability * reliability[i];
+        }
+    }
+}
@@ -0,0 +1,67 @@
+-- Baseline: the schema previously created by ddl-auto=update
+-- Existing databases are baselined at this version and skip it
+
+CREATE TABLE loads (
+    load_id          UUID             NOT NULL,
+    shipper_id       VARCHAR(255)     NOT NULL,
+    loading_city     VARCHAR(255)     NOT NULL,
+    unloading_city   VARCHAR(255)     NOT NULL,
+    product_type     VARCHAR(255)     NOT NULL,
+    truck_type       VARCHAR(255)     NOT NULL,
+    no_of_trucks     INTEGER          NOT NULL,
+    remaining_trucks INTEGER          NOT NULL,
+    weight           DOUBLE PRECISION NOT NULL,
+    weight_unit      VARCHAR(255)     NOT NULL CHECK (weight_unit IN ('KG', 'TON')),
+    comment          VARCHAR(255),
+    loading_date     TIMESTAMP(6)     NOT NULL,
+    status           VARCHAR(255)     NOT NULL CHECK (status IN ('POSTED', 'OPEN_FOR_BIDS', 'BOOKED', 'CANCELLED')),
+    date_posted      TIMESTAMP(6)     NOT NULL,
+    version          BIGINT,
+    PRIMARY KEY (load_id)
+);
+
+CREATE TABLE transporters (
+    transporter_id UUID             NOT NULL,
+    company_name   VARCHAR(255)     NOT NULL,
+    rating         DOUBLE PRECISION NOT NULL,
+    version        BIGINT,
+    PRIMARY KEY (transporter_id)
+);
+
+CREATE TABLE transporter_trucks (
+    transporter_id UUID         NOT NULL,
+    truck_type     VARCHAR(255),
+    count          INTEGER      NOT NULL,
+    CONSTRAINT uk_transporter_trucks_type UNIQUE (transporter_id, truck_type),
+    CONSTRAINT fk_transporter_trucks_transporter FOREIGN KEY (transporter_id) REFERENCES transporters (transporter_id)
+);
+
+CREATE TABLE bids (
+    bid_id         UUID             NOT NULL,
+    load_id        UUID             NOT NULL,
+    transporter_id UUID             NOT NULL,
+    proposed_rate  DOUBLE PRECISION NOT NULL,
+    trucks_offered INTEGER          NOT NULL,
+    status         VARCHAR(255)     NOT NULL CHECK (status IN ('PENDING', 'ACCEPTED', 'REJECTED')),
+    submitted_at   TIMESTAMP(6)     NOT NULL,
+    version        BIGINT,
+    PRIMARY KEY (bid_id),
+    CONSTRAINT fk_bids_load FOREIGN KEY (load_id) REFERENCES loads (load_id),
+    CONSTRAINT fk_bids_transporter FOREIGN KEY (transporter_id) REFERENCES transporters (transporter_id)
+);
+
+CREATE TABLE bookings (
+    booking_id       UUID             NOT NULL,
+    load_id          UUID             NOT NULL,
+    bid_id           UUID UNIQUE,
+    transporter_id   UUID             NOT NULL,
+    allocated_trucks INTEGER          NOT NULL,
+    final_rate       DOUBLE PRECISION NOT NULL,
+    status           VARCHAR(255)     NOT NULL CHECK (status IN ('CONFIRMED', 'CANCELLED')),
+    booked_at        TIMESTAMP(6)     NOT NULL,
+    version          BIGINT,
+    PRIMARY KEY (booking_id),
+    CONSTRAINT fk_bookings_load FOREIGN KEY (load_id) REFERENCES loads (load_id),
+    CONSTRAINT fk_bookings_bid FOREIGN KEY (bid_id) REFERENCES bids (bid_id),
+    CONSTRAINT fk_bookings_transporter FOREIGN KEY (transporter_id) REFERENCES transporters (transporter_id)
+);
@@ -0,0 +1,20 @@
+-- Composite indexes for the list filters; PostgreSQL does not index foreign keys on its own.
+-- Equality columns come first, then the sort columns, so a filtered page is read in order.
+-- IF NOT EXISTS: the two keyset indexes were created by ddl-auto=update on older databases
+
+-- LoadService.scrollLoads (no filter / shipperId), newest first
+CREATE INDEX IF NOT EXISTS idx_loads_date_posted_id ON loads (date_posted DESC, load_id DESC);
+CREATE INDEX IF NOT EXISTS idx_loads_shipper_date_posted_id ON loads (shipper_id, date_posted DESC, load_id DESC);
+-- LoadService.getAllLoads / scrollLoads with status, and with shipperId + status
+CREATE INDEX IF NOT EXISTS idx_loads_status_date_posted_id ON loads (status, date_posted DESC, load_id DESC);
+CREATE INDEX IF NOT EXISTS idx_loads_shipper_status_date_posted_id ON loads (shipper_id, status, date_posted DESC, load_id DESC);
+
+-- BidService.getBids by loadId (+ status); BidRepository.findByLoadLoadId
+CREATE INDEX IF NOT EXISTS idx_bids_load_status ON bids (load_id, status);
+-- BidService.getBids by transporterId / status, newest first
+CREATE INDEX IF NOT EXISTS idx_bids_transporter_submitted ON bids (transporter_id, submitted_at DESC, bid_id DESC);
+CREATE INDEX IF NOT EXISTS idx_bids_status_submitted ON bids (status, submitted_at DESC, bid_id DESC);
+
+-- BookingRepository.findByLoadLoadId / findByTransporterTransporterId
+CREATE INDEX IF NOT EXISTS idx_bookings_load_status ON bookings (load_id, status);
+CREATE INDEX IF NOT EXISTS idx_bookings_transporter_status ON bookings (transporter_id, status);
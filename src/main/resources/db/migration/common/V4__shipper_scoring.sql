@@ -0,0 +1,14 @@
+-- Per-shipper bid scoring: which strategy ranks the shipper's bids and with what weights.
+-- Shippers without a row use the default weights (0.7 rate, 0.3 rating).
+CREATE TABLE shipper_scoring (
+    shipper_id            VARCHAR(255)     NOT NULL,
+    strategy              VARCHAR(64)      NOT NULL,
+    rate_weight           DOUBLE PRECISION NOT NULL,
+    rate_per_truck_weight DOUBLE PRECISION NOT NULL,
+    rate_per_tonne_weight DOUBLE PRECISION NOT NULL,
+    rating_weight         DOUBLE PRECISION NOT NULL,
+    reliability_weight    DOUBLE PRECISION NOT NULL,
+    updated_at            TIMESTAMP(6)     NOT NULL,
+    version               BIGINT,
+    PRIMARY KEY (shipper_id)
+);
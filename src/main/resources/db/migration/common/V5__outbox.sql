@@ -0,0 +1,18 @@
+-- Transactional outbox: events are inserted in the transaction that causes them and
+-- delivered to listeners afterwards by OutboxDispatcher, in event_id order.
+CREATE TABLE outbox_events (
+    event_id     BIGINT GENERATED BY DEFAULT AS IDENTITY,
+    event_type   VARCHAR(64)   NOT NULL,
+    aggregate_id VARCHAR(255)  NOT NULL,
+    payload      VARCHAR(4000) NOT NULL,
+    created_at   TIMESTAMP(6)  NOT NULL,
+    PRIMARY KEY (event_id)
+);
+
+-- Last event each listener has processed; delivery resumes after it
+CREATE TABLE outbox_offsets (
+    consumer      VARCHAR(64)  NOT NULL,
+    last_event_id BIGINT       NOT NULL,
+    updated_at    TIMESTAMP(6) NOT NULL,
+    PRIMARY KEY (consumer)
+);
@@ -0,0 +1,23 @@
+-- Databases baselined at V1 were created by the original ddl-auto=update schema, which had
+-- no optimistic-lock version columns. Add them where missing, and make every version column
+-- NOT NULL DEFAULT 0 so bulk "version = version + 1" updates never produce NULL
+ALTER TABLE loads ADD COLUMN IF NOT EXISTS version BIGINT DEFAULT 0 NOT NULL;
+ALTER TABLE transporters ADD COLUMN IF NOT EXISTS version BIGINT DEFAULT 0 NOT NULL;
+ALTER TABLE bids ADD COLUMN IF NOT EXISTS version BIGINT DEFAULT 0 NOT NULL;
+ALTER TABLE bookings ADD COLUMN IF NOT EXISTS version BIGINT DEFAULT 0 NOT NULL;
+
+-- Columns created nullable by V1
+UPDATE loads SET version = 0 WHERE version IS NULL;
+UPDATE transporters SET version = 0 WHERE version IS NULL;
+UPDATE bids SET version = 0 WHERE version IS NULL;
+UPDATE bookings SET version = 0 WHERE version IS NULL;
+
+ALTER TABLE loads ALTER COLUMN version SET DEFAULT 0;
+ALTER TABLE transporters ALTER COLUMN version SET DEFAULT 0;
+ALTER TABLE bids ALTER COLUMN version SET DEFAULT 0;
+ALTER TABLE bookings ALTER COLUMN version SET DEFAULT 0;
+
+ALTER TABLE loads ALTER COLUMN version SET NOT NULL;
+ALTER TABLE transporters ALTER COLUMN version SET NOT NULL;
+ALTER TABLE bids ALTER COLUMN version SET NOT NULL;
+ALTER TABLE bookings ALTER COLUMN version SET NOT NULL;
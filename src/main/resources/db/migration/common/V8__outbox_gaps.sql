@@ -0,0 +1,8 @@
+-- Outbox ids the dispatcher moved past without seeing them: a transaction that took them may
+-- still commit, so the range is re-checked on every poll until it expires
+CREATE TABLE outbox_gaps (
+    first_event_id BIGINT       NOT NULL,
+    last_event_id  BIGINT       NOT NULL,
+    skipped_at     TIMESTAMP(6) NOT NULL,
+    PRIMARY KEY (first_event_id)
+);
@@ -0,0 +1,3 @@
+-- No-op on H2: it has no partial indexes, and full-column versions of the PostgreSQL ones
+-- would only duplicate idx_bids_load_status and idx_loads_status_date_posted_id from V2.
+-- The file keeps the version numbers aligned across vendors.
@@ -0,0 +1,2 @@
+-- Same key as the PostgreSQL step; H2 databases are always created by V1, so it already exists
+ALTER TABLE transporter_trucks ADD CONSTRAINT IF NOT EXISTS uk_transporter_trucks_type UNIQUE (transporter_id, truck_type);
@@ -0,0 +1,9 @@
+-- Partial indexes for the hot subsets: only rows that are still in play are indexed,
+-- so these stay small however much bid and load history accumulates
+
+-- Pending bids of a load (best-bid book builds, rejecting the rest when a load closes)
+CREATE INDEX IF NOT EXISTS idx_bids_pending_load ON bids (load_id, submitted_at DESC) WHERE status = 'PENDING';
+
+-- Loads still open for bidding, newest first
+CREATE INDEX IF NOT EXISTS idx_loads_open_date_posted_id ON loads (date_posted DESC, load_id DESC)
+    WHERE status IN ('POSTED', 'OPEN_FOR_BIDS');
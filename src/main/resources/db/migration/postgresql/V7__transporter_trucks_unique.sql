@@ -0,0 +1,28 @@
+-- Databases baselined at V1 have no unique key on (transporter_id, truck_type), which the
+-- conditional truck reservation relies on, and older rows may hold a truck type in any case.
+-- Truck types are now stored upper-case and matched by equality, so rows of a type that
+-- differ only in case are merged into one upper-case row by adding up their counts, then the
+-- key is added; databases created by V1 with upper-case rows only are left alone
+DO $$
+BEGIN
+    IF NOT EXISTS (SELECT 1 FROM pg_constraint WHERE conname = 'uk_transporter_trucks_type')
+            OR EXISTS (SELECT 1 FROM transporter_trucks WHERE truck_type <> UPPER(truck_type)) THEN
+        CREATE TEMP TABLE merged_trucks AS
+            SELECT transporter_id, UPPER(truck_type) AS truck_type, SUM(count) AS count
+            FROM transporter_trucks
+            GROUP BY transporter_id, UPPER(truck_type);
+        DELETE FROM transporter_trucks;
+        INSERT INTO transporter_trucks (transporter_id, truck_type, count)
+            SELECT transporter_id, truck_type, count FROM merged_trucks;
+        DROP TABLE merged_trucks;
+    END IF;
+    IF NOT EXISTS (SELECT 1 FROM pg_constraint WHERE conname = 'uk_transporter_trucks_type') THEN
+        ALTER TABLE transporter_trucks
+            ADD CONSTRAINT uk_transporter_trucks_type UNIQUE (transporter_id, truck_type);
+    END IF;
+END $$;
+
+-- Keeps rows written around the application (or by an older build) from adding a second
+-- spelling of a type, which the equality matching would not see
+CREATE UNIQUE INDEX IF NOT EXISTS uk_transporter_trucks_type_upper
+    ON transporter_trucks (transporter_id, UPPER(truck_type));
@@ -0,0 +1,66 @@
+package com.cargopro.benchmark;
+
+import com.cargopro.entity.Bid;
+import com.cargopro.service.BidAllocator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Bid allocation for one load: the exact knapsack against accepting the
+ * cheapest bids per truck one by one, as a shopper booking by hand would
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class AllocationBenchmark {
+
+    @Param({ "1000", "10000" })
+    public int bidCount;
+
+    @Param({ "50", "500" })
+    public int trucksNeeded;
+
+    private List<BidAllocator.Option> options;
+
+    @Setup
+    public void setUp() {
+        options = new ArrayList<>(bidCount);
+        for (Bid bid : BenchmarkData.bids(BenchmarkData.load(), bidCount)) {
+            options.add(new BidAllocator.Option(bid.getBidId(), bid.getTrucksOffered(), bid.getProposedRate()));
+        }
+    }
+
+    @Benchmark
+    public BidAllocator.Allocation knapsack() {
+        return BidAllocator.allocate(options, trucksNeeded);
+    }
+
+    /**
+     * Baseline: cheapest rate per truck first, skipping bids that no longer fit
+     */
+    @Benchmark
+    public List<BidAllocator.Option> greedy() {
+        List<BidAllocator.Option> sorted = new ArrayList<>(options);
+        sorted.sort(Comparator.comparingDouble(o -> o.cost() / o.trucks()));
+        List<BidAllocator.Option> chosen = new ArrayList<>();
+        int trucks = 0;
+        for (BidAllocator.Option option : sorted) {
+            if (trucks + option.trucks() <= trucksNeeded) {
+                chosen.add(option);
+                trucks += option.trucks();
+            }
+        }
+        return chosen;
+    }
+}
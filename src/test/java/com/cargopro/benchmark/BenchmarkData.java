@@ -0,0 +1,182 @@
+package com.cargopro.benchmark;
+
+import com.cargopro.dto.TransporterResponse;
+import com.cargopro.entity.Bid;
+import com.cargopro.entity.Booking;
+import com.cargopro.entity.Load;
+import com.cargopro.entity.Transporter;
+import com.cargopro.entity.TruckAvailability;
+import com.cargopro.enums.BidStatus;
+import com.cargopro.enums.BookingStatus;
+import com.cargopro.enums.LoadStatus;
+import com.cargopro.enums.TruckType;
+import com.cargopro.enums.WeightUnit;
+import com.cargopro.repository.BookingRepository;
+import com.cargopro.repository.ShipperScoringRepository;
+import com.cargopro.service.BidOrderBook;
+import com.cargopro.service.BidScorer;
+import com.cargopro.service.WeightedBidScoring;
+import org.mockito.Mockito;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.lang.reflect.Proxy;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+
+/**
+ * In-memory fixtures for the JMH benchmarks (no database involved)
+ */
+final class BenchmarkData {
+
+    private BenchmarkData() {
+    }
+
+    static Load load() {
+        Load load = new Load();
+        load.setLoadId(UUID.randomUUID());
+        load.setShipperId("bench-shipper");
+        load.setLoadingCity("Pune");
+        load.setUnloadingCity("Delhi");
+        load.setProductType("Steel");
+        load.setTruckType("LARGE");
+        load.setNoOfTrucks(1000);
+        load.setRemainingTrucks(1000);
+        load.setWeight(20.0);
+        load.setWeightUnit(WeightUnit.TON);
+        load.setStatus(LoadStatus.OPEN_FOR_BIDS);
+        load.setLoadingDate(LocalDateTime.now().plusDays(1));
+        load.setDatePosted(LocalDateTime.now());
+        return load;
+    }
+
+    /**
+     * Bids with random rates and ratings, each from its own transporter
+     */
+    static List<Bid> bids(Load load, int count) {
+        Random random = new Random(42);
+        List<Bid> bids = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            Transporter transporter = new Transporter();
+            transporter.setTransporterId(UUID.randomUUID());
+            transporter.setCompanyName("Carrier " + i);
+            transporter.setRating(1.0 + random.nextDouble() * 4.0);
+
+            Bid bid = new Bid();
+            bid.setBidId(UUID.randomUUID());
+            bid.setLoad(load);
+            bid.setTransporter(transporter);
+            bid.setProposedRate(5000.0 + random.nextInt(50000));
+            bid.setTrucksOffered(1 + random.nextInt(5));
+            bid.setStatus(BidStatus.PENDING);
+            bid.setSubmittedAt(LocalDateTime.now());
+            bids.add(bid);
+        }
+        return bids;
+    }
+
+    /**
+     * Order book scoring with the default strategy; no shipper settings, no booking history
+     */
+    static BidOrderBook bidOrderBook() {
+        BidOrderBook orderBook = new BidOrderBook();
+        ReflectionTestUtils.setField(orderBook, "bidScorer", bidScorer());
+        ReflectionTestUtils.setField(orderBook, "maxLoads", 1_000_000L);
+        ReflectionTestUtils.setField(orderBook, "idleTtlMs", 600000L);
+        orderBook.start();
+        return orderBook;
+    }
+
+    static BidScorer bidScorer() {
+        BidScorer scorer = new BidScorer();
+        ReflectionTestUtils.setField(scorer, "strategyBeans", List.of(new WeightedBidScoring()));
+        ReflectionTestUtils.setField(scorer, "shipperScoringRepository", Mockito.mock(ShipperScoringRepository.class));
+        ReflectionTestUtils.setField(scorer, "bookingRepository", Mockito.mock(BookingRepository.class));
+        ReflectionTestUtils.setField(scorer, "maxShippers", 100_000L);
+        ReflectionTestUtils.setField(scorer, "reliabilityTtlMs", 3_600_000L);
+        scorer.start();
+        return scorer;
+    }
+
+    static List<Booking> bookings(List<Bid> bids) {
+        List<Booking> bookings = new ArrayList<>(bids.size());
+        for (Bid bid : bids) {
+            Booking booking = new Booking();
+            booking.setBookingId(UUID.randomUUID());
+            booking.setLoad(bid.getLoad());
+            booking.setBid(bid);
+            booking.setTransporter(bid.getTransporter());
+            booking.setAllocatedTrucks(bid.getTrucksOffered());
+            booking.setFinalRate(bid.getProposedRate());
+            booking.setStatus(BookingStatus.CONFIRMED);
+            booking.setBookedAt(LocalDateTime.now());
+            bookings.add(booking);
+        }
+        return bookings;
+    }
+
+    /**
+     * Open loads spread over a few lanes, every truck type and a year of loading dates
+     */
+    static List<Load> openLoads(int count) {
+        Random random = new Random(42);
+        String[] cities = { "Pune", "Delhi", "Mumbai", "Chennai", "Kolkata", "Nagpur" };
+        TruckType[] truckTypes = TruckType.values();
+        LocalDateTime start = LocalDateTime.now().plusDays(1);
+        List<Load> loads = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            Load load = load();
+            load.setLoadingCity(cities[random.nextInt(cities.length)]);
+            load.setUnloadingCity(cities[random.nextInt(cities.length)]);
+            load.setTruckType(truckTypes[random.nextInt(truckTypes.length)].name());
+            load.setNoOfTrucks(1 + random.nextInt(10));
+            load.setRemainingTrucks(load.getNoOfTrucks());
+            load.setLoadingDate(start.plusMinutes(random.nextInt(365 * 24 * 60)));
+            load.setVersion(0L);
+            loads.add(load);
+        }
+        return loads;
+    }
+
+    /**
+     * Transporters with one or two truck types each; some have no free trucks left
+     */
+    static List<TransporterResponse> transporters(int count) {
+        Random random = new Random(42);
+        TruckType[] truckTypes = TruckType.values();
+        List<TransporterResponse> transporters = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            List<TruckAvailability> trucks = new ArrayList<>();
+            int first = random.nextInt(truckTypes.length);
+            trucks.add(new TruckAvailability(truckTypes[first].name(), random.nextInt(20)));
+            if (random.nextBoolean()) {
+                trucks.add(new TruckAvailability(truckTypes[(first + 1) % truckTypes.length].name(),
+                        random.nextInt(20)));
+            }
+            transporters.add(new TransporterResponse(UUID.randomUUID(), "Carrier " + i,
+                    1.0 + random.nextDouble() * 4.0, trucks));
+        }
+        return transporters;
+    }
+
+    /**
+     * Repository stub whose List- and Page-returning query methods all return the given rows
+     */
+    @SuppressWarnings("unchecked")
+    static <T> T listRepository(Class<T> repositoryType, List<?> rows) {
+        return (T) Proxy.newProxyInstance(repositoryType.getClassLoader(), new Class<?>[] { repositoryType },
+                (proxy, method, args) -> {
+                    if (List.class.isAssignableFrom(method.getReturnType())) {
+                        return rows;
+                    }
+                    if (Page.class.isAssignableFrom(method.getReturnType())) {
+                        return new PageImpl<>(rows);
+                    }
+                    throw new UnsupportedOperationException(method.getName());
+                });
+    }
+}
@@ -0,0 +1,112 @@
+package com.cargopro.benchmark;
+
+import com.cargopro.dto.BestBidResponse;
+import com.cargopro.entity.Bid;
+import com.cargopro.entity.Load;
+import com.cargopro.enums.BidStatus;
+import com.cargopro.service.BidFeatures;
+import com.cargopro.service.BidOrderBook;
+import com.cargopro.service.BidScorer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.sql.Timestamp;
+import java.util.Comparator;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Best-bid ranking: the original score-and-sort stream against the order book,
+ * and the scoring pass over primitive columns on its own
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class BidScoringBenchmark {
+
+    @Param({ "10", "1000", "100000" })
+    public int bidCount;
+
+    private UUID loadId;
+    private List<Bid> bids;
+    private BidOrderBook warmBook;
+    private BidScorer scorer;
+    private Load load;
+    private BidFeatures features;
+
+    @Setup
+    public void setUp() {
+        load = BenchmarkData.load();
+        loadId = load.getLoadId();
+        bids = BenchmarkData.bids(load, bidCount);
+        scorer = BenchmarkData.bidScorer();
+        features = scorer.features(load, bids);
+        warmBook = BenchmarkData.bidOrderBook();
+        warmBook.getRankedBids(loadId, () -> bids);
+    }
+
+    /**
+     * Baseline: what getBestBidsForLoad did per request before the order book
+     */
+    @Benchmark
+    public List<BestBidResponse> scoreAndSortStream() {
+        return bids.stream()
+                .map(bid -> new BestBidResponse(
+                        bid.getBidId(),
+                        bid.getTransporter().getTransporterId(),
+                        bid.getTransporter().getCompanyName(),
+                        bid.getTransporter().getRating(),
+                        bid.getProposedRate(),
+                        bid.getTrucksOffered(),
+                        (1.0 / bid.getProposedRate()) * 0.7 + (bid.getTransporter().getRating() / 5.0) * 0.3,
+                        Timestamp.valueOf(bid.getSubmittedAt()),
+                        bid.getStatus()))
+                .sorted(Comparator.comparing(BestBidResponse::getScore).reversed())
+                .collect(Collectors.toList());
+    }
+
+    @Benchmark
+    public List<BestBidResponse> orderBookRead() {
+        return warmBook.getRankedBids(loadId, () -> bids);
+    }
+
+    /**
+     * Top 20 pending bids from transporters rated 3 or better; cost follows the limit, not bidCount
+     */
+    @Benchmark
+    public List<BestBidResponse> orderBookTopK() {
+        return warmBook.getTopBids(loadId, () -> bids, BidStatus.PENDING, 3.0, null, 20);
+    }
+
+    /**
+     * Cold path: first read for a load builds its book
+     */
+    @Benchmark
+    public List<BestBidResponse> orderBookBuild() {
+        return BenchmarkData.bidOrderBook().getRankedBids(loadId, () -> bids);
+    }
+
+    /**
+     * The strategy's single pass over columns already laid out
+     */
+    @Benchmark
+    public double[] scoreColumns() {
+        return scorer.score(load.getShipperId(), features);
+    }
+
+    /**
+     * Copying bids into columns (reliability cached) plus the scoring pass
+     */
+    @Benchmark
+    public double[] layOutAndScore() {
+        return scorer.score(load.getShipperId(), scorer.features(load, bids));
+    }
+}
@@ -0,0 +1,177 @@
+package com.cargopro.benchmark;
+
+import com.cargopro.dto.BidRequest;
+import com.cargopro.dto.LoadRequest;
+import com.cargopro.dto.TransporterRequest;
+import com.cargopro.entity.TruckAvailability;
+import com.cargopro.enums.BookingStatus;
+import com.cargopro.enums.TruckType;
+import com.cargopro.enums.WeightUnit;
+import com.fasterxml.jackson.databind.JsonNode;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.function.IntFunction;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Macro benchmark: hundreds of concurrent POST /bid and POST /booking calls
+ * against a single load over real HTTP (mvn -Pbenchmark test)
+ *
+ * Reports throughput and p50/p99 latency per phase, then checks the
+ * marketplace invariants: the load is never overbooked and every truck is
+ * either still available at its transporter or allocated to a confirmed booking.
+ *
+ * Tuning: -Dbench.transporters=200 -Dbench.threads=64 -Dbench.loadTrucks=100
+ */
+@Tag("benchmark")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@ActiveProfiles("test")
+class ContendedBookingBenchmarkTest {
+
+    private static final int TRUCKS_PER_TRANSPORTER = 2;
+
+    @Autowired
+    private TestRestTemplate restTemplate;
+
+    @Test
+    void concurrentBidsAndBookingsOnOneLoad() throws Exception {
+        int transporters = Integer.getInteger("bench.transporters", 200);
+        int threads = Integer.getInteger("bench.threads", 64);
+        int loadTrucks = Integer.getInteger("bench.loadTrucks", 100);
+
+        UUID loadId = createLoad(loadTrucks);
+        List<UUID> transporterIds = new ArrayList<>();
+        for (int i = 0; i < transporters; i++) {
+            transporterIds.add(createTransporter(i));
+        }
+
+        // Phase 1: every transporter bids one truck at the same time
+        Random random = new Random(7);
+        double[] rates = new double[transporters];
+        for (int i = 0; i < transporters; i++) {
+            rates[i] = 1000 + random.nextInt(9000);
+        }
+        ConcurrentLinkedQueue<UUID> bidIds = new ConcurrentLinkedQueue<>();
+        LatencyStats bidStats = runConcurrently("POST /bid", transporters, threads, i -> {
+            BidRequest request = new BidRequest();
+            request.setLoadId(loadId);
+            request.setTransporterId(transporterIds.get(i));
+            request.setProposedRate(rates[i]);
+            request.setTrucksOffered(1);
+            ResponseEntity<JsonNode> response = restTemplate.postForEntity("/bid", request, JsonNode.class);
+            if (response.getStatusCode().is2xxSuccessful()) {
+                bidIds.add(UUID.fromString(response.getBody().get("bidId").asText()));
+            }
+            return response.getStatusCode().value();
+        });
+
+        // Phase 2: accept every bid at once; more bids than trucks, so many must lose
+        List<UUID> acceptOrder = new ArrayList<>(bidIds);
+        LatencyStats bookingStats = runConcurrently("POST /booking", acceptOrder.size(), threads,
+                i -> restTemplate.postForEntity("/booking?bidId=" + acceptOrder.get(i), null, JsonNode.class)
+                        .getStatusCode().value());
+
+        System.out.println("=== Contended booking benchmark: " + transporters + " transporters, "
+                + threads + " threads, load of " + loadTrucks + " trucks ===");
+        System.out.println(bidStats.report());
+        System.out.println(bookingStats.report());
+
+        // Invariant 1: the load is never overbooked
+        int remaining = restTemplate.getForObject("/load/" + loadId, JsonNode.class).get("remainingTrucks").asInt();
+        JsonNode bookings = restTemplate.getForObject("/booking/load/" + loadId, JsonNode.class);
+        Map<UUID, Integer> allocatedByTransporter = new HashMap<>();
+        int allocated = 0;
+        for (JsonNode booking : bookings) {
+            if (BookingStatus.CONFIRMED.name().equals(booking.get("status").asText())) {
+                int trucks = booking.get("allocatedTrucks").asInt();
+                allocated += trucks;
+                allocatedByTransporter.merge(UUID.fromString(booking.get("transporterId").asText()), trucks,
+                        Integer::sum);
+            }
+        }
+        assertTrue(remaining >= 0, "Remaining trucks went negative");
+        assertEquals(loadTrucks, remaining + allocated, "Load trucks not conserved");
+        assertEquals(bookingStats.count(201), allocated, "Successful bookings do not match allocations");
+
+        // Invariant 2: transporter trucks are conserved (available + allocated == initial)
+        for (UUID transporterId : transporterIds) {
+            JsonNode trucks = restTemplate.getForObject("/transporter/" + transporterId, JsonNode.class)
+                    .get("availableTrucks");
+            int available = 0;
+            for (JsonNode truck : trucks) {
+                available += truck.get("count").asInt();
+            }
+            assertEquals(TRUCKS_PER_TRANSPORTER, available + allocatedByTransporter.getOrDefault(transporterId, 0),
+                    "Truck count not conserved for transporter " + transporterId);
+        }
+        System.out.println("Invariants OK: booked=" + allocated + " remaining=" + remaining);
+    }
+
+    private LatencyStats runConcurrently(String name, int requests, int threads, IntFunction<Integer> call)
+            throws InterruptedException {
+        LatencyStats stats = new LatencyStats(name);
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        CountDownLatch ready = new CountDownLatch(1);
+        for (int i = 0; i < requests; i++) {
+            int index = i;
+            pool.execute(() -> {
+                try {
+                    ready.await();
+                    long start = System.nanoTime();
+                    int status = call.apply(index);
+                    stats.record(System.nanoTime() - start, status);
+                } catch (InterruptedException ex) {
+                    Thread.currentThread().interrupt();
+                }
+            });
+        }
+        stats.start();
+        ready.countDown();
+        pool.shutdown();
+        assertTrue(pool.awaitTermination(5, TimeUnit.MINUTES), name + " did not finish");
+        stats.stop();
+        return stats;
+    }
+
+    private UUID createLoad(int trucks) {
+        LoadRequest request = new LoadRequest();
+        request.setShipperId("bench-shipper");
+        request.setLoadingCity("Pune");
+        request.setUnloadingCity("Delhi");
+        request.setProductType("Steel");
+        request.setTruckType(TruckType.LARGE.name());
+        request.setNoOfTrucks(trucks);
+        request.setWeight(20.0);
+        request.setWeightUnit(WeightUnit.TON);
+        return UUID.fromString(restTemplate.postForObject("/load", request, JsonNode.class).get("loadId").asText());
+    }
+
+    private UUID createTransporter(int index) {
+        TransporterRequest request = new TransporterRequest();
+        request.setCompanyName("Bench Carrier " + index);
+        request.setRating(1.0 + (index % 5));
+        request.setAvailableTrucks(new ArrayList<>(Arrays.asList(
+                new TruckAvailability(TruckType.LARGE.name(), TRUCKS_PER_TRANSPORTER))));
+        return UUID.fromString(
+                restTemplate.postForObject("/transporter", request, JsonNode.class).get("transporterId").asText());
+    }
+}
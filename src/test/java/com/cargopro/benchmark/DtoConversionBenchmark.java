@@ -0,0 +1,67 @@
+package com.cargopro.benchmark;
+
+import com.cargopro.dto.BidResponse;
+import com.cargopro.dto.BookingResponse;
+import com.cargopro.entity.Bid;
+import com.cargopro.entity.Load;
+import com.cargopro.repository.BidRepository;
+import com.cargopro.repository.BookingRepository;
+import com.cargopro.service.BidService;
+import com.cargopro.service.BookingService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Entity-to-response conversion in the bid and booking list endpoints,
+ * with the repositories stubbed out so only service-side cost is measured
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class DtoConversionBenchmark {
+
+    @Param({ "10", "1000" })
+    public int rowCount;
+
+    private UUID loadId;
+    private BidService bidService;
+    private BookingService bookingService;
+
+    @Setup
+    public void setUp() {
+        Load load = BenchmarkData.load();
+        loadId = load.getLoadId();
+        List<Bid> bids = BenchmarkData.bids(load, rowCount);
+
+        bidService = new BidService();
+        ReflectionTestUtils.setField(bidService, "bidRepository",
+                BenchmarkData.listRepository(BidRepository.class, bids));
+
+        bookingService = new BookingService();
+        ReflectionTestUtils.setField(bookingService, "bookingRepository",
+                BenchmarkData.listRepository(BookingRepository.class, BenchmarkData.bookings(bids)));
+    }
+
+    @Benchmark
+    public Page<BidResponse> bidResponses() {
+        return bidService.getBids(loadId, null, null, PageRequest.of(0, 100));
+    }
+
+    @Benchmark
+    public List<BookingResponse> bookingResponses() {
+        return bookingService.getBookingsByLoadId(loadId);
+    }
+}
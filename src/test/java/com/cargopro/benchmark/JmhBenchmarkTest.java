@@ -0,0 +1,43 @@
+package com.cargopro.benchmark;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.openjdk.jmh.results.RunResult;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.openjdk.jmh.runner.options.TimeValue;
+
+import java.util.Collection;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+/**
+ * Runs the JMH microbenchmarks in this package (mvn -Pbenchmark test)
+ *
+ * Tuning: -Dbench.jmh.include=regex -Dbench.jmh.forks=1
+ * -Dbench.jmh.warmup=3 -Dbench.jmh.iterations=5 (1s each).
+ * Results are also written to target/jmh-result.json.
+ */
+@Tag("benchmark")
+class JmhBenchmarkTest {
+
+    @Test
+    void runMicrobenchmarks() throws Exception {
+        Options options = new OptionsBuilder()
+                .include(System.getProperty("bench.jmh.include", "com\\.cargopro\\.benchmark\\..*Benchmark"))
+                .forks(Integer.getInteger("bench.jmh.forks", 1))
+                .warmupIterations(Integer.getInteger("bench.jmh.warmup", 3))
+                .warmupTime(TimeValue.seconds(1))
+                .measurementIterations(Integer.getInteger("bench.jmh.iterations", 5))
+                .measurementTime(TimeValue.seconds(1))
+                .resultFormat(ResultFormatType.JSON)
+                .result("target/jmh-result.json")
+                .build();
+
+        Collection<RunResult> results = new Runner(options).run();
+
+        assertFalse(results.isEmpty(), "No benchmarks matched");
+    }
+}
@@ -0,0 +1,66 @@
+package com.cargopro.benchmark;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Thread-safe recorder of request latencies and HTTP status codes for one benchmark phase
+ */
+final class LatencyStats {
+
+    private final String name;
+    private final ConcurrentLinkedQueue<Long> latenciesNanos = new ConcurrentLinkedQueue<>();
+    private final Map<Integer, LongAdder> statuses = new ConcurrentHashMap<>();
+    private long startNanos;
+    private long endNanos;
+
+    LatencyStats(String name) {
+        this.name = name;
+    }
+
+    void start() {
+        startNanos = System.nanoTime();
+    }
+
+    void stop() {
+        endNanos = System.nanoTime();
+    }
+
+    void record(long latencyNanos, int status) {
+        latenciesNanos.add(latencyNanos);
+        statuses.computeIfAbsent(status, s -> new LongAdder()).increment();
+    }
+
+    long count(int status) {
+        LongAdder adder = statuses.get(status);
+        return adder == null ? 0 : adder.sum();
+    }
+
+    /**
+     * Latency at the given percentile (0-100) in milliseconds
+     */
+    double percentileMillis(double percentile) {
+        long[] sorted = latenciesNanos.stream().mapToLong(Long::longValue).sorted().toArray();
+        if (sorted.length == 0) {
+            return 0;
+        }
+        int index = (int) Math.ceil(percentile / 100.0 * sorted.length) - 1;
+        return sorted[Math.max(0, Math.min(index, sorted.length - 1))] / 1_000_000.0;
+    }
+
+    double throughputPerSecond() {
+        double seconds = (endNanos - startNanos) / 1_000_000_000.0;
+        return seconds <= 0 ? 0 : latenciesNanos.size() / seconds;
+    }
+
+    String report() {
+        Map<Integer, Long> byStatus = new TreeMap<>();
+        statuses.forEach((status, adder) -> byStatus.put(status, adder.sum()));
+        return String.format("%-8s requests=%d throughput=%.1f req/s p50=%.2fms p99=%.2fms max=%.2fms statuses=%s",
+                name, latenciesNanos.size(), throughputPerSecond(),
+                percentileMillis(50), percentileMillis(99), percentileMillis(100), byStatus);
+    }
+}
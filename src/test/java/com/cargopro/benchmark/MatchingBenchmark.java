@@ -0,0 +1,117 @@
+package com.cargopro.benchmark;
+
+import com.cargopro.dto.LoadResponse;
+import com.cargopro.dto.TransporterMatchResponse;
+import com.cargopro.dto.TransporterResponse;
+import com.cargopro.entity.Load;
+import com.cargopro.entity.TruckAvailability;
+import com.cargopro.service.LoadBoard;
+import com.cargopro.service.TruckCapacityIndex;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Transporter-to-load matching at marketplace scale: the truck type indexes
+ * against scanning every open load, as a query without them would
+ *
+ * Each invocation asks for a random transporter's or load's first page of 20.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(jvmArgsAppend = "-Xmx3g")
+public class MatchingBenchmark {
+
+    private static final int PAGE = 20;
+
+    @Param({ "1000000" })
+    public int loadCount;
+
+    @Param({ "100000" })
+    public int transporterCount;
+
+    private List<Load> loads;
+    private List<TransporterResponse> transporters;
+    private LoadBoard loadBoard;
+    private TruckCapacityIndex capacityIndex;
+
+    @Setup
+    public void setUp() {
+        loads = BenchmarkData.openLoads(loadCount);
+        transporters = BenchmarkData.transporters(transporterCount);
+        // Outside a transaction both indexes apply changes straight away
+        loadBoard = new LoadBoard();
+        loads.forEach(loadBoard::upsert);
+        capacityIndex = new TruckCapacityIndex();
+        transporters.forEach(capacityIndex::put);
+    }
+
+    @Benchmark
+    public List<LoadResponse> matchingLoads() {
+        UUID transporterId = randomTransporter().getTransporterId();
+        return loadBoard.findByTruckTypes(capacityIndex.getAvailableTrucks(transporterId).keySet(), PAGE);
+    }
+
+    @Benchmark
+    public List<TransporterMatchResponse> matchingTransporters() {
+        UUID loadId = loads.get(ThreadLocalRandom.current().nextInt(loads.size())).getLoadId();
+        return capacityIndex.find(loadBoard.get(loadId).orElseThrow().getTruckType(), PAGE);
+    }
+
+    /**
+     * Baseline: filter every open load by the transporter's free truck types, then sort
+     */
+    @Benchmark
+    public List<Load> matchingLoadsByScan() {
+        Set<String> truckTypes = randomTransporter().getAvailableTrucks().stream()
+                .filter(truck -> truck.getCount() > 0)
+                .map(TruckAvailability::getTruckType)
+                .collect(Collectors.toSet());
+        return loads.stream()
+                .filter(load -> truckTypes.contains(load.getTruckType()))
+                .sorted(Comparator.comparing(Load::getLoadingDate))
+                .limit(PAGE)
+                .toList();
+    }
+
+    /**
+     * Baseline: filter every transporter by free trucks of the load's type, then sort
+     */
+    @Benchmark
+    public List<TransporterResponse> matchingTransportersByScan() {
+        String truckType = loads.get(ThreadLocalRandom.current().nextInt(loads.size())).getTruckType();
+        return transporters.stream()
+                .filter(transporter -> freeTrucks(transporter, truckType) > 0)
+                .sorted(Comparator.comparingInt((TransporterResponse t) -> freeTrucks(t, truckType)).reversed())
+                .limit(PAGE)
+                .toList();
+    }
+
+    private static int freeTrucks(TransporterResponse transporter, String truckType) {
+        for (TruckAvailability truck : transporter.getAvailableTrucks()) {
+            if (truck.getTruckType().equals(truckType)) {
+                return truck.getCount();
+            }
+        }
+        return 0;
+    }
+
+    private TransporterResponse randomTransporter() {
+        return transporters.get(ThreadLocalRandom.current().nextInt(transporters.size()));
+    }
+}
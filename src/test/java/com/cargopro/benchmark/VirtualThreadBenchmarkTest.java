@@ -0,0 +1,158 @@
+package com.cargopro.benchmark;
+
+import com.cargopro.TransportManagementSystemApplication;
+import com.cargopro.dto.BidRequest;
+import com.cargopro.dto.LoadRequest;
+import com.cargopro.dto.TransporterRequest;
+import com.cargopro.entity.TruckAvailability;
+import com.cargopro.enums.TruckType;
+import com.cargopro.enums.WeightUnit;
+import com.fasterxml.jackson.databind.JsonNode;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.http.client.JdkClientHttpRequestFactory;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * Macro benchmark: the same concurrent POST /bid load against the application
+ * served on platform threads and on virtual threads (mvn -Pbenchmark test)
+ *
+ * Each mode gets its own application context and in-memory database with the
+ * same connection pool size. Platform mode is bounded by Tomcat's worker pool;
+ * virtual mode by the ConcurrencyLimitFilter sized to that pool. Throughput and
+ * p50/p99 latency are printed per mode. Virtual mode needs a Java 21+
+ * runtime and is skipped otherwise.
+ *
+ * Tuning: -Dbench.requests=4000 -Dbench.clients=256 -Dbench.poolSize=10 -Dbench.platformThreads=50
+ */
+@Tag("benchmark")
+class VirtualThreadBenchmarkTest {
+
+    private static final int TRANSPORTERS = 50;
+
+    @Test
+    void platformVersusVirtualThreads() throws Exception {
+        int requests = Integer.getInteger("bench.requests", 4000);
+        int clients = Integer.getInteger("bench.clients", 256);
+        int poolSize = Integer.getInteger("bench.poolSize", 10);
+        int platformThreads = Integer.getInteger("bench.platformThreads", 50);
+
+        LatencyStats platform = run("platform threads", false, requests, clients,
+                "--server.tomcat.threads.max=" + platformThreads,
+                "--spring.datasource.hikari.maximum-pool-size=" + poolSize);
+        System.out.println("=== Virtual thread benchmark: " + requests + " bids, " + clients + " clients, pool of "
+                + poolSize + " ===");
+        System.out.println(platform.report());
+        assertEquals(requests, platform.count(201), "Platform mode should accept every bid");
+
+        assumeTrue(Runtime.version().feature() >= 21, "Virtual threads need a Java 21+ runtime");
+        LatencyStats virtual = run("virtual threads", true, requests, clients,
+                "--tms.concurrency-limit.enabled=true",
+                "--spring.datasource.hikari.maximum-pool-size=" + poolSize);
+        System.out.println(virtual.report());
+        System.out.printf("virtual/platform: throughput %.2fx, p99 %.2fx%n",
+                virtual.throughputPerSecond() / platform.throughputPerSecond(),
+                virtual.percentileMillis(99) / platform.percentileMillis(99));
+        // Anything but a bid or a limiter rejection means the pool was overrun
+        assertEquals(requests, virtual.count(201) + virtual.count(503), "Unexpected statuses in virtual mode");
+    }
+
+    private LatencyStats run(String mode, boolean virtualThreads, int requests, int clients, String... args)
+            throws Exception {
+        List<String> arguments = new ArrayList<>(Arrays.asList(args));
+        arguments.add("--spring.threads.virtual.enabled=" + virtualThreads);
+        arguments.add("--server.port=0");
+        arguments.add("--spring.datasource.url=jdbc:h2:mem:bench-" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1");
+        arguments.add("--spring.jpa.show-sql=false");
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(
+                TransportManagementSystemApplication.class)
+                .profiles("test")
+                .run(arguments.toArray(String[]::new))) {
+            if (virtualThreads) {
+                assertTrue(Threading.VIRTUAL.isActive(context.getEnvironment()), "Virtual threads not active");
+            }
+            String port = context.getEnvironment().getProperty("local.server.port");
+            TestRestTemplate restTemplate = new TestRestTemplate(new RestTemplateBuilder()
+                    .rootUri("http://localhost:" + port)
+                    .requestFactory(() -> new JdkClientHttpRequestFactory()));
+
+            UUID loadId = createLoad(restTemplate);
+            List<UUID> transporterIds = new ArrayList<>();
+            for (int i = 0; i < TRANSPORTERS; i++) {
+                transporterIds.add(createTransporter(restTemplate, i));
+            }
+
+            // Warm up JIT, connections and caches before measuring
+            fire(new LatencyStats(mode + " warm-up"), restTemplate, loadId, transporterIds, requests / 4, clients);
+            LatencyStats stats = new LatencyStats("POST /bid on " + mode);
+            fire(stats, restTemplate, loadId, transporterIds, requests, clients);
+            return stats;
+        }
+    }
+
+    private void fire(LatencyStats stats, TestRestTemplate restTemplate, UUID loadId, List<UUID> transporterIds,
+            int requests, int clients) throws InterruptedException {
+        ExecutorService pool = Executors.newFixedThreadPool(clients);
+        CountDownLatch ready = new CountDownLatch(1);
+        for (int i = 0; i < requests; i++) {
+            BidRequest request = new BidRequest();
+            request.setLoadId(loadId);
+            request.setTransporterId(transporterIds.get(i % transporterIds.size()));
+            request.setProposedRate(1000.0 + (i % 9000));
+            request.setTrucksOffered(1);
+            pool.execute(() -> {
+                try {
+                    ready.await();
+                    long start = System.nanoTime();
+                    int status = restTemplate.postForEntity("/bid", request, JsonNode.class).getStatusCode().value();
+                    stats.record(System.nanoTime() - start, status);
+                } catch (InterruptedException ex) {
+                    Thread.currentThread().interrupt();
+                }
+            });
+        }
+        stats.start();
+        ready.countDown();
+        pool.shutdown();
+        assertTrue(pool.awaitTermination(5, TimeUnit.MINUTES), "Bids did not finish");
+        stats.stop();
+    }
+
+    private UUID createLoad(TestRestTemplate restTemplate) {
+        LoadRequest request = new LoadRequest();
+        request.setShipperId("bench-shipper");
+        request.setLoadingCity("Pune");
+        request.setUnloadingCity("Delhi");
+        request.setProductType("Steel");
+        request.setTruckType(TruckType.LARGE.name());
+        request.setNoOfTrucks(10);
+        request.setWeight(20.0);
+        request.setWeightUnit(WeightUnit.TON);
+        return UUID.fromString(restTemplate.postForObject("/load", request, JsonNode.class).get("loadId").asText());
+    }
+
+    private UUID createTransporter(TestRestTemplate restTemplate, int index) {
+        TransporterRequest request = new TransporterRequest();
+        request.setCompanyName("Bench Carrier " + index);
+        request.setRating(1.0 + (index % 5));
+        request.setAvailableTrucks(new ArrayList<>(Arrays.asList(new TruckAvailability(TruckType.LARGE.name(), 5))));
+        return UUID.fromString(
+                restTemplate.postForObject("/transporter", request, JsonNode.class).get("transporterId").asText());
+    }
+}
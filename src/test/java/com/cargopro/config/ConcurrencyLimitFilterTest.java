@@ -0,0 +1,169 @@
+package com.cargopro.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.FilterChain;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ConcurrencyLimitFilterTest {
+
+    private HikariDataSource dataSource;
+    private MeterRegistry meterRegistry;
+    private ConcurrencyLimitFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        // Never started: the filter only reads the configured pool size
+        dataSource = new HikariDataSource();
+        dataSource.setMaximumPoolSize(2);
+        meterRegistry = new SimpleMeterRegistry();
+
+        filter = new ConcurrencyLimitFilter();
+        ReflectionTestUtils.setField(filter, "dataSource", dataSource);
+        ReflectionTestUtils.setField(filter, "meterRegistry", meterRegistry);
+        ReflectionTestUtils.setField(filter, "acquireTimeoutMs", 50L);
+    }
+
+    @AfterEach
+    void tearDown() {
+        dataSource.close();
+    }
+
+    @Test
+    void limit_ShouldDefaultToPoolSize() {
+        filter.start();
+
+        assertEquals(2, filter.getLimit());
+    }
+
+    @Test
+    void limit_ShouldUseConfiguredMaximum() {
+        ReflectionTestUtils.setField(filter, "maxConcurrent", 5);
+        filter.start();
+
+        assertEquals(5, filter.getLimit());
+    }
+
+    @Test
+    void requestOverLimit_ShouldGet503AfterTimeout() throws Exception {
+        ReflectionTestUtils.setField(filter, "maxConcurrent", 1);
+        filter.start();
+
+        CountDownLatch entered = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        FilterChain blocking = (request, response) -> {
+            entered.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+            }
+        };
+        CompletableFuture<Void> first = CompletableFuture.runAsync(() -> {
+            try {
+                filter.doFilter(new MockHttpServletRequest("POST", "/bid"), new MockHttpServletResponse(), blocking);
+            } catch (Exception ex) {
+                throw new IllegalStateException(ex);
+            }
+        });
+        assertTrue(entered.await(5, TimeUnit.SECONDS));
+        assertEquals(1.0, meterRegistry.get(ConcurrencyLimitFilter.IN_FLIGHT_METRIC).gauge().value());
+
+        MockHttpServletResponse rejected = new MockHttpServletResponse();
+        MockFilterChain chain = new MockFilterChain();
+        filter.doFilter(new MockHttpServletRequest("POST", "/bid"), rejected, chain);
+
+        assertEquals(503, rejected.getStatus());
+        assertEquals("1", rejected.getHeader("Retry-After"));
+        assertTrue(rejected.getContentAsString().contains("\"error\""));
+        assertNull(chain.getRequest());
+        assertEquals(1.0, meterRegistry.get(ConcurrencyLimitFilter.REJECTED_METRIC).counter().count());
+
+        release.countDown();
+        first.get(5, TimeUnit.SECONDS);
+        assertEquals(0.0, meterRegistry.get(ConcurrencyLimitFilter.IN_FLIGHT_METRIC).gauge().value());
+    }
+
+    @Test
+    void permit_ShouldBeReleasedWhenChainFails() throws Exception {
+        ReflectionTestUtils.setField(filter, "maxConcurrent", 1);
+        filter.start();
+        FilterChain failing = (request, response) -> {
+            throw new IllegalStateException("boom");
+        };
+
+        assertThrows(IllegalStateException.class, () -> filter.doFilter(
+                new MockHttpServletRequest("POST", "/bid"), new MockHttpServletResponse(), failing));
+
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        MockFilterChain chain = new MockFilterChain();
+        filter.doFilter(new MockHttpServletRequest("POST", "/bid"), response, chain);
+        assertEquals(200, response.getStatus());
+        assertNotNull(chain.getRequest());
+    }
+
+    @Test
+    void ndjsonStream_ShouldHoldPermitUntilAsyncCompletes() throws Exception {
+        ReflectionTestUtils.setField(filter, "maxConcurrent", 1);
+        filter.start();
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/bid/stream");
+        request.setAsyncSupported(true);
+
+        filter.doFilter(request, new MockHttpServletResponse(), streaming(MediaType.APPLICATION_NDJSON_VALUE));
+
+        assertEquals(1.0, meterRegistry.get(ConcurrencyLimitFilter.IN_FLIGHT_METRIC).gauge().value());
+        request.getAsyncContext().complete();
+        assertEquals(0.0, meterRegistry.get(ConcurrencyLimitFilter.IN_FLIGHT_METRIC).gauge().value());
+    }
+
+    @Test
+    void eventStream_ShouldReleasePermitWhenHandlerReturns() throws Exception {
+        ReflectionTestUtils.setField(filter, "maxConcurrent", 1);
+        filter.start();
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/load/1/best-bids/stream");
+        request.setAsyncSupported(true);
+
+        filter.doFilter(request, new MockHttpServletResponse(), streaming(MediaType.TEXT_EVENT_STREAM_VALUE));
+
+        assertTrue(request.isAsyncStarted());
+        assertEquals(0.0, meterRegistry.get(ConcurrencyLimitFilter.IN_FLIGHT_METRIC).gauge().value());
+    }
+
+    @Test
+    void actuator_ShouldBypassLimit() throws Exception {
+        ReflectionTestUtils.setField(filter, "maxConcurrent", 1);
+        filter.start();
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/actuator/health");
+        request.setRequestURI("/actuator/health");
+
+        MockFilterChain chain = new MockFilterChain();
+        filter.doFilter(request, new MockHttpServletResponse(), chain);
+
+        assertNotNull(chain.getRequest());
+        assertEquals(0L, meterRegistry.get(ConcurrencyLimitFilter.WAIT_METRIC).timer().count());
+    }
+
+    /**
+     * A handler that starts an async response of the given type, as MVC does for streams
+     */
+    private static FilterChain streaming(String contentType) {
+        return (request, response) -> {
+            response.setContentType(contentType);
+            request.startAsync();
+        };
+    }
+}
@@ -0,0 +1,93 @@
+package com.cargopro.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.aop.aspectj.annotation.AspectJProxyFactory;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class OptimisticRetryAspectTest {
+
+    private MeterRegistry meterRegistry;
+    private FlakyWriter writer;
+    private FlakyWriter proxy;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        OptimisticRetryAspect aspect = new OptimisticRetryAspect();
+        ReflectionTestUtils.setField(aspect, "meterRegistry", meterRegistry);
+        ReflectionTestUtils.setField(aspect, "maxAttempts", 3);
+        ReflectionTestUtils.setField(aspect, "backoffMs", 1L);
+
+        writer = new FlakyWriter();
+        AspectJProxyFactory factory = new AspectJProxyFactory(writer);
+        factory.addAspect(aspect);
+        proxy = factory.getProxy();
+    }
+
+    @Test
+    void retryOnConflict_WhenConflictClears_ShouldSucceed() {
+        writer.failuresLeft = 2;
+
+        assertEquals("ok", proxy.write());
+        assertEquals(3, writer.calls);
+        assertEquals(2.0, count(OptimisticRetryAspect.CONFLICTS_METRIC));
+        assertEquals(2.0, count(OptimisticRetryAspect.RETRIES_METRIC));
+    }
+
+    @Test
+    void retryOnConflict_WhenAttemptsExhausted_ShouldRethrow() {
+        writer.failuresLeft = 10;
+
+        assertThrows(ObjectOptimisticLockingFailureException.class, () -> proxy.write());
+        assertEquals(3, writer.calls);
+        assertEquals(1.0, count(OptimisticRetryAspect.EXHAUSTED_METRIC));
+    }
+
+    @Test
+    void retryOnConflict_ShouldNotRetryOtherExceptions() {
+        writer.failWith = new IllegalStateException("boom");
+
+        assertThrows(IllegalStateException.class, () -> proxy.write());
+        assertEquals(1, writer.calls);
+    }
+
+    @Test
+    void unannotatedMethods_ShouldNotBeRetried() {
+        writer.failuresLeft = 1;
+
+        assertThrows(ObjectOptimisticLockingFailureException.class, () -> proxy.writeOnce());
+        assertEquals(1, writer.calls);
+    }
+
+    private double count(String metric) {
+        return meterRegistry.counter(metric, "operation", "FlakyWriter.write").count();
+    }
+
+    static class FlakyWriter {
+        int calls;
+        int failuresLeft;
+        RuntimeException failWith;
+
+        @RetryOnConflict
+        public String write() {
+            return writeOnce();
+        }
+
+        public String writeOnce() {
+            calls++;
+            if (failWith != null) {
+                throw failWith;
+            }
+            if (failuresLeft-- > 0) {
+                throw new ObjectOptimisticLockingFailureException("Load", "id");
+            }
+            return "ok";
+        }
+    }
+}
@@ -0,0 +1,106 @@
+package com.cargopro.config;
+
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.read.ListAppender;
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.LoggerFactory;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.Statement;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SlowQueryDataSourceTest {
+
+    private JdbcDataSource h2;
+    private Logger logger;
+    private ListAppender<ILoggingEvent> appender;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        h2 = new JdbcDataSource();
+        h2.setURL("jdbc:h2:mem:slowquery;DB_CLOSE_DELAY=-1");
+        try (Connection connection = h2.getConnection(); Statement statement = connection.createStatement()) {
+            statement.execute("CREATE ALIAS IF NOT EXISTS SLEEP FOR 'java.lang.Thread.sleep(long)'");
+        }
+
+        logger = (Logger) LoggerFactory.getLogger(SlowQueryDataSource.class);
+        appender = new ListAppender<>();
+        appender.start();
+        logger.addAppender(appender);
+    }
+
+    @AfterEach
+    void tearDown() {
+        logger.detachAppender(appender);
+    }
+
+    @Test
+    void slowStatement_ShouldBeLoggedWithParameterTypesOnly() throws Exception {
+        DataSource dataSource = new SlowQueryDataSource(h2, 5);
+
+        try (Connection connection = dataSource.getConnection();
+                PreparedStatement statement = connection.prepareStatement(
+                        "SELECT CAST(? AS VARCHAR), CAST(? AS UUID), SLEEP(?)")) {
+            statement.setString(1, "secret-shipper");
+            statement.setObject(2, UUID.randomUUID());
+            statement.setLong(3, 20);
+            statement.executeQuery().close();
+        }
+
+        assertEquals(1, appender.list.size());
+        String message = appender.list.get(0).getFormattedMessage();
+        assertTrue(message.contains("SELECT CAST(? AS VARCHAR)"), message);
+        assertTrue(message.contains("params=[String, UUID, Long]"), message);
+        assertFalse(message.contains("secret-shipper"), message);
+    }
+
+    @Test
+    void fastStatement_ShouldNotBeLogged() throws Exception {
+        DataSource dataSource = new SlowQueryDataSource(h2, 10_000);
+
+        try (Connection connection = dataSource.getConnection();
+                PreparedStatement statement = connection.prepareStatement("SELECT ?")) {
+            statement.setInt(1, 1);
+            statement.executeQuery().close();
+        }
+
+        assertTrue(appender.list.isEmpty());
+    }
+
+    @Test
+    void slowBatch_ShouldReportBatchSize() throws Exception {
+        DataSource dataSource = new SlowQueryDataSource(h2, 5);
+
+        try (Connection connection = dataSource.getConnection();
+                PreparedStatement statement = connection.prepareStatement("CALL SLEEP(?)")) {
+            for (int i = 0; i < 3; i++) {
+                statement.setLong(1, 5);
+                statement.addBatch();
+            }
+            statement.executeBatch();
+        }
+
+        assertEquals(1, appender.list.size());
+        assertTrue(appender.list.get(0).getFormattedMessage().contains("batch=3"));
+    }
+
+    @Test
+    void postProcessor_ShouldOnlyWrapWhenEnabled() {
+        SlowQueryLogPostProcessor postProcessor = new SlowQueryLogPostProcessor();
+        assertSame(h2, postProcessor.postProcessAfterInitialization(h2, "dataSource"));
+
+        ReflectionTestUtils.setField(postProcessor, "thresholdMs", 200L);
+        Object wrapped = postProcessor.postProcessAfterInitialization(h2, "dataSource");
+        assertInstanceOf(SlowQueryDataSource.class, wrapped);
+        assertSame(wrapped, postProcessor.postProcessAfterInitialization(wrapped, "dataSource"));
+    }
+}
@@ -1,5 +1,7 @@
 package com.cargopro.controller;
 
+import com.cargopro.dto.BidBatchRequest;
+import com.cargopro.dto.BidBatchResponse;
 import com.cargopro.dto.BidRequest;
 import com.cargopro.dto.BidResponse;
 import com.cargopro.enums.BidStatus;
@@ -13,16 +15,24 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 
 import java.sql.Timestamp;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.UUID;
+import java.util.function.Consumer;
 
 import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
@@ -140,6 +150,62 @@ class BidControllerTest {
                 .andExpect(jsonPath("$.trucksOffered").value("Trucks offered must be positive"));
     }
 
+    @Test
+    void createBids_ShouldReturnPerItemResults() throws Exception {
+        BidRequest request = new BidRequest();
+        request.setLoadId(loadId);
+        request.setTransporterId(transporterId);
+        request.setProposedRate(500.0);
+        request.setTrucksOffered(5);
+        BidBatchRequest batch = new BidBatchRequest();
+        batch.setBids(Arrays.asList(request, request));
+
+        when(bidService.createBids(anyList())).thenReturn(new BidBatchResponse(1, 1, Arrays.asList(
+                BidBatchResponse.Item.created(0, testBidResponse),
+                BidBatchResponse.Item.failed(1, "Not enough trucks available"))));
+
+        mockMvc.perform(post("/bid/batch")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(batch)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.created").value(1))
+                .andExpect(jsonPath("$.failed").value(1))
+                .andExpect(jsonPath("$.results[0].bid.bidId").value(bidId.toString()))
+                .andExpect(jsonPath("$.results[0].error").doesNotExist())
+                .andExpect(jsonPath("$.results[1].created").value(false))
+                .andExpect(jsonPath("$.results[1].error").value("Not enough trucks available"));
+    }
+
+    @Test
+    void createBids_ValidationError_EmptyBatch() throws Exception {
+        BidBatchRequest batch = new BidBatchRequest();
+        batch.setBids(Collections.emptyList());
+
+        mockMvc.perform(post("/bid/batch")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(batch)))
+                .andExpect(status().isBadRequest());
+
+        verify(bidService, never()).createBids(anyList());
+    }
+
+    @Test
+    void createBids_ValidationError_InvalidItem() throws Exception {
+        BidRequest request = new BidRequest();
+        request.setLoadId(loadId);
+        request.setProposedRate(500.0);
+        request.setTrucksOffered(5);
+        BidBatchRequest batch = new BidBatchRequest();
+        batch.setBids(Arrays.asList(request));
+
+        mockMvc.perform(post("/bid/batch")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(batch)))
+                .andExpect(status().isBadRequest());
+
+        verify(bidService, never()).createBids(anyList());
+    }
+
     @Test
     void createBid_InsufficientCapacity() throws Exception {
         BidRequest request = new BidRequest();
@@ -178,34 +244,79 @@ class BidControllerTest {
 
     @Test
     void getBids_Success() throws Exception {
-        when(bidService.getBids(any(), any(), any())).thenReturn(Collections.singletonList(testBidResponse));
+        when(bidService.getBids(any(), any(), any(), any(Pageable.class)))
+                .thenReturn(new PageImpl<>(Collections.singletonList(testBidResponse), PageRequest.of(0, 20), 1));
 
         mockMvc.perform(get("/bid"))
                 .andExpect(status().isOk())
-                .andExpect(jsonPath("$", hasSize(1)))
-                .andExpect(jsonPath("$[0].bidId").value(bidId.toString()));
+                .andExpect(jsonPath("$.content", hasSize(1)))
+                .andExpect(jsonPath("$.content[0].bidId").value(bidId.toString()));
     }
 
     @Test
     void getBids_WithFilters() throws Exception {
-        when(bidService.getBids(eq(loadId), eq(transporterId), eq(BidStatus.PENDING)))
-                .thenReturn(Collections.singletonList(testBidResponse));
+        when(bidService.getBids(eq(loadId), eq(transporterId), eq(BidStatus.PENDING), any(Pageable.class)))
+                .thenReturn(new PageImpl<>(Collections.singletonList(testBidResponse), PageRequest.of(0, 20), 1));
 
         mockMvc.perform(get("/bid")
                 .param("loadId", loadId.toString())
                 .param("transporterId", transporterId.toString())
-                .param("status", "PENDING"))
+                .param("status", "PENDING")
+                .param("page", "1")
+                .param("size", "5"))
                 .andExpect(status().isOk())
-                .andExpect(jsonPath("$", hasSize(1)));
+                .andExpect(jsonPath("$.content", hasSize(1)));
+
+        verify(bidService).getBids(eq(loadId), eq(transporterId), eq(BidStatus.PENDING),
+                argThat(p -> p.getPageNumber() == 1 && p.getPageSize() == 5));
+    }
+
+    @Test
+    void getBids_WithSizeAboveMaximum_ShouldReturnBadRequest() throws Exception {
+        mockMvc.perform(get("/bid").param("size", "1000000"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.error").value("Size must be between 1 and " + BidService.MAX_PAGE_SIZE));
+
+        verifyNoInteractions(bidService);
+    }
+
+    @Test
+    void getBids_WithZeroSize_ShouldReturnBadRequest() throws Exception {
+        mockMvc.perform(get("/bid").param("size", "0"))
+                .andExpect(status().isBadRequest());
+
+        verifyNoInteractions(bidService);
     }
 
     @Test
     void getBids_Empty() throws Exception {
-        when(bidService.getBids(any(), any(), any())).thenReturn(Collections.emptyList());
+        when(bidService.getBids(any(), any(), any(), any(Pageable.class))).thenReturn(new PageImpl<>(Collections.emptyList(), PageRequest.of(0, 20), 0));
 
         mockMvc.perform(get("/bid"))
                 .andExpect(status().isOk())
-                .andExpect(jsonPath("$", hasSize(0)));
+                .andExpect(jsonPath("$.content", hasSize(0)));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void streamBids_ShouldWriteOneJsonObjectPerLine() throws Exception {
+        doAnswer(invocation -> {
+            Consumer<BidResponse> sink = invocation.getArgument(3);
+            sink.accept(testBidResponse);
+            sink.accept(testBidResponse);
+            return null;
+        }).when(bidService).streamBids(eq(loadId), any(), any(), any(Consumer.class));
+
+        MvcResult result = mockMvc.perform(get("/bid/stream").param("loadId", loadId.toString()))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        String[] lines = mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_NDJSON))
+                .andReturn().getResponse().getContentAsString().split("\n");
+        assertEquals(2, lines.length);
+        assertEquals(bidId.toString(), objectMapper.readTree(lines[0]).get("bidId").asText());
     }
 
     @Test
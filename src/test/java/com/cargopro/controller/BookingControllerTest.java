@@ -1,5 +1,6 @@
 package com.cargopro.controller;
 
+import com.cargopro.dto.AllocationResponse;
 import com.cargopro.dto.BookingResponse;
 import com.cargopro.enums.BookingStatus;
 import com.cargopro.exception.InvalidStatusTransitionException;
@@ -99,6 +100,39 @@ class BookingControllerTest {
                 .andExpect(jsonPath("$.error").value("Load is already fully booked"));
     }
 
+    @Test
+    void allocateBids_Preview_ShouldReturnOkWithoutBookings() throws Exception {
+        AllocationResponse allocation = new AllocationResponse(loadId, 5, 5, 500.0, true, true,
+                Collections.singletonList(new AllocationResponse.Item(bidId, transporterId, "Test Company", 4.5,
+                        5, 500.0)),
+                null);
+        when(bookingService.allocateBids(loadId, 4.0, false)).thenReturn(allocation);
+
+        mockMvc.perform(post("/booking/allocate")
+                .param("loadId", loadId.toString())
+                .param("minRating", "4.0"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.fullyCovered").value(true))
+                .andExpect(jsonPath("$.bids[0].bidId").value(bidId.toString()))
+                .andExpect(jsonPath("$.bookings").doesNotExist());
+    }
+
+    @Test
+    void allocateBids_WithBook_ShouldReturnCreatedBookings() throws Exception {
+        AllocationResponse allocation = new AllocationResponse(loadId, 5, 5, 500.0, true, true,
+                Collections.singletonList(new AllocationResponse.Item(bidId, transporterId, "Test Company", 4.5,
+                        5, 500.0)),
+                Collections.singletonList(testBookingResponse));
+        when(bookingService.allocateBids(loadId, 0, true)).thenReturn(allocation);
+
+        mockMvc.perform(post("/booking/allocate")
+                .param("loadId", loadId.toString())
+                .param("book", "true"))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.bookings", hasSize(1)))
+                .andExpect(jsonPath("$.bookings[0].bookingId").value(bookingId.toString()));
+    }
+
     @Test
     void getBookingById_Success() throws Exception {
         when(bookingService.getBookingById(bookingId)).thenReturn(testBookingResponse);
@@ -1,14 +1,22 @@
 package com.cargopro.controller;
 
 import com.cargopro.dto.BestBidResponse;
+import com.cargopro.dto.CursorPage;
+import com.cargopro.dto.LoadImportResponse;
 import com.cargopro.dto.LoadRequest;
 import com.cargopro.dto.LoadResponse;
+import com.cargopro.dto.TransporterMatchResponse;
+import com.cargopro.enums.BidStatus;
+import com.cargopro.enums.ImportStatus;
 import com.cargopro.enums.LoadStatus;
 import com.cargopro.enums.WeightUnit;
 import com.cargopro.exception.InvalidStatusTransitionException;
 import com.cargopro.exception.ResourceNotFoundException;
+import com.cargopro.service.BestBidStreamService;
 import com.cargopro.service.BidService;
+import com.cargopro.service.LoadImportService;
 import com.cargopro.service.LoadService;
+import com.cargopro.service.MatchingService;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -21,6 +29,7 @@ import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import java.sql.Timestamp;
 import java.util.Arrays;
@@ -29,6 +38,8 @@ import java.util.UUID;
 
 import static org.hamcrest.Matchers.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
@@ -48,6 +59,15 @@ class LoadControllerTest {
         @MockBean
         private BidService bidService;
 
+        @MockBean
+        private BestBidStreamService bestBidStreamService;
+
+        @MockBean
+        private LoadImportService loadImportService;
+
+        @MockBean
+        private MatchingService matchingService;
+
         private LoadResponse testLoadResponse;
         private UUID loadId;
 
@@ -161,6 +181,81 @@ class LoadControllerTest {
                                 .andExpect(jsonPath("$.content", hasSize(1)));
         }
 
+        @Test
+        void scrollLoads_ShouldPassCursorAndReturnNextCursor() throws Exception {
+                CursorPage<LoadResponse> page = new CursorPage<>(
+                                Collections.singletonList(testLoadResponse), "next-token", true);
+                when(loadService.scrollLoads(eq("shipper-123"), any(), eq("token"), eq(5))).thenReturn(page);
+
+                mockMvc.perform(get("/load/scroll")
+                                .param("shipperId", "shipper-123")
+                                .param("cursor", "token")
+                                .param("size", "5"))
+                                .andExpect(status().isOk())
+                                .andExpect(jsonPath("$.content", hasSize(1)))
+                                .andExpect(jsonPath("$.nextCursor").value("next-token"))
+                                .andExpect(jsonPath("$.hasNext").value(true));
+        }
+
+        @Test
+        void scrollLoads_WithInvalidCursor_ShouldReturnBadRequest() throws Exception {
+                when(loadService.scrollLoads(any(), any(), any(), anyInt()))
+                                .thenThrow(new com.cargopro.exception.InvalidOperationException("Invalid cursor"));
+
+                mockMvc.perform(get("/load/scroll").param("cursor", "garbage"))
+                                .andExpect(status().isBadRequest());
+        }
+
+        @Test
+        void getLoadBoard_ShouldPassFiltersAndReturnLoads() throws Exception {
+                when(loadService.getLoadBoard("New York", "Los Angeles", "LARGE",
+                                java.time.LocalDateTime.of(2030, 1, 1, 0, 0),
+                                java.time.LocalDateTime.of(2030, 1, 31, 23, 59), 5))
+                                .thenReturn(Collections.singletonList(testLoadResponse));
+
+                mockMvc.perform(get("/load/board")
+                                .param("loadingCity", "New York")
+                                .param("unloadingCity", "Los Angeles")
+                                .param("truckType", "LARGE")
+                                .param("loadingFrom", "2030-01-01T00:00:00")
+                                .param("loadingTo", "2030-01-31T23:59:00")
+                                .param("size", "5"))
+                                .andExpect(status().isOk())
+                                .andExpect(jsonPath("$", hasSize(1)))
+                                .andExpect(jsonPath("$[0].loadId").value(loadId.toString()));
+        }
+
+        @Test
+        void getLoadBoard_WithInvalidSize_ShouldReturnBadRequest() throws Exception {
+                when(loadService.getLoadBoard(any(), any(), any(), any(), any(), anyInt()))
+                                .thenThrow(new com.cargopro.exception.InvalidOperationException("Size must be between 1 and 100"));
+
+                mockMvc.perform(get("/load/board").param("size", "0"))
+                                .andExpect(status().isBadRequest());
+        }
+
+        @Test
+        void getMatchingTransporters_ShouldReturnTransporters() throws Exception {
+                UUID transporterId = UUID.randomUUID();
+                when(matchingService.getMatchingTransporters(loadId, 5)).thenReturn(Collections.singletonList(
+                                new TransporterMatchResponse(transporterId, "Test Logistics", 4.5, 8)));
+
+                mockMvc.perform(get("/load/{id}/matching-transporters", loadId).param("size", "5"))
+                                .andExpect(status().isOk())
+                                .andExpect(jsonPath("$", hasSize(1)))
+                                .andExpect(jsonPath("$[0].transporterId").value(transporterId.toString()))
+                                .andExpect(jsonPath("$[0].availableTrucks").value(8));
+        }
+
+        @Test
+        void getMatchingTransporters_WhenLoadNotFound_ShouldReturnNotFound() throws Exception {
+                when(matchingService.getMatchingTransporters(eq(loadId), anyInt()))
+                                .thenThrow(new ResourceNotFoundException("Load not found with id: " + loadId));
+
+                mockMvc.perform(get("/load/{id}/matching-transporters", loadId))
+                                .andExpect(status().isNotFound());
+        }
+
         @Test
         void getLoadById_Success() throws Exception {
                 when(loadService.getLoadById(loadId)).thenReturn(testLoadResponse);
@@ -219,25 +314,121 @@ class LoadControllerTest {
         void getBestBids_Success() throws Exception {
                 BestBidResponse bid1 = new BestBidResponse(
                                 UUID.randomUUID(), UUID.randomUUID(), "Company A", 4.5,
-                                500.0, 5, 0.8, new Timestamp(System.currentTimeMillis()));
+                                500.0, 5, 0.8, new Timestamp(System.currentTimeMillis()), BidStatus.PENDING);
                 BestBidResponse bid2 = new BestBidResponse(
                                 UUID.randomUUID(), UUID.randomUUID(), "Company B", 4.0,
-                                600.0, 5, 0.6, new Timestamp(System.currentTimeMillis()));
-                when(bidService.getBestBidsForLoad(loadId)).thenReturn(Arrays.asList(bid1, bid2));
+                                600.0, 5, 0.6, new Timestamp(System.currentTimeMillis()), BidStatus.PENDING);
+                when(bidService.getBestBidsForLoad(loadId, BidStatus.PENDING, null, null, 20))
+                                .thenReturn(Arrays.asList(bid1, bid2));
 
                 mockMvc.perform(get("/load/{id}/best-bids", loadId))
                                 .andExpect(status().isOk())
                                 .andExpect(jsonPath("$", hasSize(2)))
                                 .andExpect(jsonPath("$[0].transporterName").value("Company A"))
-                                .andExpect(jsonPath("$[1].transporterName").value("Company B"));
+                                .andExpect(jsonPath("$[1].transporterName").value("Company B"))
+                                .andExpect(jsonPath("$[0].status").value("PENDING"));
+        }
+
+        @Test
+        void getBestBids_ShouldPassLimitAndFilters() throws Exception {
+                when(bidService.getBestBidsForLoad(loadId, BidStatus.REJECTED, 4.0, 900.0, 5))
+                                .thenReturn(Collections.emptyList());
+
+                mockMvc.perform(get("/load/{id}/best-bids", loadId)
+                                .param("limit", "5")
+                                .param("status", "REJECTED")
+                                .param("minRating", "4")
+                                .param("maxRate", "900"))
+                                .andExpect(status().isOk())
+                                .andExpect(jsonPath("$", hasSize(0)));
+
+                verify(bidService).getBestBidsForLoad(loadId, BidStatus.REJECTED, 4.0, 900.0, 5);
+        }
+
+        @Test
+        void streamBestBids_ShouldStartAsyncStream() throws Exception {
+                when(loadService.getLoadById(loadId)).thenReturn(testLoadResponse);
+                when(bestBidStreamService.subscribe(loadId)).thenReturn(new SseEmitter());
+
+                mockMvc.perform(get("/load/{id}/best-bids/stream", loadId))
+                                .andExpect(request().asyncStarted());
+
+                verify(bestBidStreamService).subscribe(loadId);
+        }
+
+        @Test
+        void streamBestBids_WhenLoadNotFound_ShouldReturn404() throws Exception {
+                when(loadService.getLoadById(loadId))
+                                .thenThrow(new ResourceNotFoundException("Load not found with id: " + loadId));
+
+                mockMvc.perform(get("/load/{id}/best-bids/stream", loadId))
+                                .andExpect(status().isNotFound());
+
+                verify(bestBidStreamService, never()).subscribe(any());
         }
 
         @Test
         void getBestBids_EmptyList() throws Exception {
-                when(bidService.getBestBidsForLoad(loadId)).thenReturn(Collections.emptyList());
+                when(bidService.getBestBidsForLoad(loadId, BidStatus.PENDING, null, null, 20))
+                                .thenReturn(Collections.emptyList());
 
                 mockMvc.perform(get("/load/{id}/best-bids", loadId))
                                 .andExpect(status().isOk())
                                 .andExpect(jsonPath("$", hasSize(0)));
         }
+
+        @Test
+        void importLoads_Csv_ShouldStartJob() throws Exception {
+                UUID jobId = UUID.randomUUID();
+                when(loadImportService.startImport(any(), eq(LoadImportService.Format.CSV)))
+                                .thenReturn(importJob(jobId, ImportStatus.QUEUED));
+
+                mockMvc.perform(post("/load/import")
+                                .contentType("text/csv")
+                                .content("shipperId,loadingCity\n"))
+                                .andExpect(status().isAccepted())
+                                .andExpect(header().string("Location", "/load/import/" + jobId))
+                                .andExpect(jsonPath("$.jobId").value(jobId.toString()))
+                                .andExpect(jsonPath("$.status").value("QUEUED"));
+        }
+
+        @Test
+        void importLoads_Ndjson_ShouldStartJob() throws Exception {
+                UUID jobId = UUID.randomUUID();
+                when(loadImportService.startImport(any(), eq(LoadImportService.Format.NDJSON)))
+                                .thenReturn(importJob(jobId, ImportStatus.QUEUED));
+
+                mockMvc.perform(post("/load/import")
+                                .contentType(MediaType.APPLICATION_NDJSON)
+                                .content("{}\n"))
+                                .andExpect(status().isAccepted());
+        }
+
+        @Test
+        void importLoads_UnsupportedContentType_ShouldFail() throws Exception {
+                mockMvc.perform(post("/load/import")
+                                .contentType(MediaType.APPLICATION_XML)
+                                .content("<loads/>"))
+                                .andExpect(status().isUnsupportedMediaType());
+
+                verify(loadImportService, never()).startImport(any(), any());
+        }
+
+        @Test
+        void getImportJob_ShouldReturnProgress() throws Exception {
+                UUID jobId = UUID.randomUUID();
+                when(loadImportService.getJob(jobId)).thenReturn(importJob(jobId, ImportStatus.RUNNING));
+
+                mockMvc.perform(get("/load/import/" + jobId))
+                                .andExpect(status().isOk())
+                                .andExpect(jsonPath("$.status").value("RUNNING"))
+                                .andExpect(jsonPath("$.rowsImported").value(2))
+                                .andExpect(jsonPath("$.errors[0].line").value(3));
+        }
+
+        private LoadImportResponse importJob(UUID jobId, ImportStatus status) {
+                return new LoadImportResponse(jobId, status, "CSV", 3, 2, 1,
+                                Arrays.asList(new LoadImportResponse.RowError(3, "Weight is required")), false, null,
+                                new Timestamp(System.currentTimeMillis()), null);
+        }
 }
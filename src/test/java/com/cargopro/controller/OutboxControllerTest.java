@@ -0,0 +1,56 @@
+package com.cargopro.controller;
+
+import com.cargopro.dto.OutboxListenerStatus;
+import com.cargopro.exception.ResourceNotFoundException;
+import com.cargopro.service.OutboxDispatcher;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.List;
+
+import static org.hamcrest.Matchers.*;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@WebMvcTest(OutboxController.class)
+class OutboxControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private OutboxDispatcher outboxDispatcher;
+
+    @Test
+    void getListeners_Success() throws Exception {
+        when(outboxDispatcher.getStatus())
+                .thenReturn(List.of(new OutboxListenerStatus("transporter-notifier", 40, 2)));
+
+        mockMvc.perform(get("/outbox/listeners"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].listener", is("transporter-notifier")))
+                .andExpect(jsonPath("$[0].lastEventId", is(40)))
+                .andExpect(jsonPath("$[0].lag", is(2)));
+    }
+
+    @Test
+    void replay_Success() throws Exception {
+        mockMvc.perform(post("/outbox/listeners/transporter-notifier/replay").param("fromEventId", "7"))
+                .andExpect(status().isAccepted());
+
+        verify(outboxDispatcher).replay("transporter-notifier", 7);
+    }
+
+    @Test
+    void replay_UnknownListener() throws Exception {
+        doThrow(new ResourceNotFoundException("Outbox listener not found: nobody"))
+                .when(outboxDispatcher).replay("nobody", 1);
+
+        mockMvc.perform(post("/outbox/listeners/nobody/replay").param("fromEventId", "1"))
+                .andExpect(status().isNotFound());
+    }
+}
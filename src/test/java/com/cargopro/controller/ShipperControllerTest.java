@@ -0,0 +1,80 @@
+package com.cargopro.controller;
+
+import com.cargopro.dto.ScoringWeights;
+import com.cargopro.exception.InvalidOperationException;
+import com.cargopro.service.ScoringService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.hamcrest.Matchers.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@WebMvcTest(ShipperController.class)
+class ShipperControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @MockBean
+    private ScoringService scoringService;
+
+    @Test
+    void getScoring_Success() throws Exception {
+        when(scoringService.getWeights("shipper-1"))
+                .thenReturn(new ScoringWeights("weighted", 0.7, 0.0, 0.0, 0.3, 0.0));
+
+        mockMvc.perform(get("/shipper/shipper-1/scoring"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.strategy", is("weighted")))
+                .andExpect(jsonPath("$.rating", is(0.3)));
+    }
+
+    @Test
+    void updateScoring_Success() throws Exception {
+        ScoringWeights request = new ScoringWeights("weighted", 0.4, 0.0, 0.4, 0.0, 0.2);
+        when(scoringService.updateWeights(eq("shipper-1"), any(ScoringWeights.class))).thenReturn(request);
+
+        mockMvc.perform(put("/shipper/shipper-1/scoring")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.ratePerTonne", is(0.4)));
+    }
+
+    @Test
+    void updateScoring_NegativeWeight() throws Exception {
+        ScoringWeights request = new ScoringWeights("weighted", -1.0, 0.0, 0.0, 0.0, 0.0);
+
+        mockMvc.perform(put("/shipper/shipper-1/scoring")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isBadRequest());
+
+        verifyNoInteractions(scoringService);
+    }
+
+    @Test
+    void updateScoring_UnknownStrategy() throws Exception {
+        ScoringWeights request = new ScoringWeights("cheapest", 1.0, 0.0, 0.0, 0.0, 0.0);
+        when(scoringService.updateWeights(eq("shipper-1"), any(ScoringWeights.class)))
+                .thenThrow(new InvalidOperationException("Unknown scoring strategy: cheapest"));
+
+        mockMvc.perform(put("/shipper/shipper-1/scoring")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.error", containsString("cheapest")));
+    }
+}
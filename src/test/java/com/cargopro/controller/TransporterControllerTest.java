@@ -1,9 +1,14 @@
 package com.cargopro.controller;
 
+import com.cargopro.dto.LoadResponse;
 import com.cargopro.dto.TransporterRequest;
 import com.cargopro.dto.TransporterResponse;
 import com.cargopro.entity.TruckAvailability;
+import com.cargopro.enums.LoadStatus;
+import com.cargopro.enums.WeightUnit;
+import com.cargopro.exception.InvalidOperationException;
 import com.cargopro.exception.ResourceNotFoundException;
+import com.cargopro.service.MatchingService;
 import com.cargopro.service.TransporterService;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.BeforeEach;
@@ -11,15 +16,23 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 
+import java.util.function.Consumer;
+
+import java.sql.Timestamp;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
 import java.util.UUID;
 
 import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
@@ -38,6 +51,9 @@ class TransporterControllerTest {
     @MockBean
     private TransporterService transporterService;
 
+    @MockBean
+    private MatchingService matchingService;
+
     private TransporterResponse testTransporterResponse;
     private UUID transporterId;
 
@@ -132,23 +148,75 @@ class TransporterControllerTest {
     void getAllTransporters_Success() throws Exception {
         TransporterResponse transporter2 = new TransporterResponse(
                 UUID.randomUUID(), "Another Logistics", 3.5, Collections.emptyList());
-        when(transporterService.getAllTransporters())
-                .thenReturn(Arrays.asList(testTransporterResponse, transporter2));
+        when(transporterService.getAllTransporters(any(Pageable.class)))
+                .thenReturn(new PageImpl<>(Arrays.asList(testTransporterResponse, transporter2), PageRequest.of(0, 20), 2));
 
         mockMvc.perform(get("/transporter"))
                 .andExpect(status().isOk())
-                .andExpect(jsonPath("$", hasSize(2)))
-                .andExpect(jsonPath("$[0].companyName").value("Test Logistics"))
-                .andExpect(jsonPath("$[1].companyName").value("Another Logistics"));
+                .andExpect(jsonPath("$.content", hasSize(2)))
+                .andExpect(jsonPath("$.content[0].companyName").value("Test Logistics"))
+                .andExpect(jsonPath("$.content[1].companyName").value("Another Logistics"));
     }
 
     @Test
     void getAllTransporters_Empty() throws Exception {
-        when(transporterService.getAllTransporters()).thenReturn(Collections.emptyList());
+        when(transporterService.getAllTransporters(any(Pageable.class))).thenReturn(new PageImpl<>(Collections.emptyList(), PageRequest.of(0, 20), 0));
 
         mockMvc.perform(get("/transporter"))
                 .andExpect(status().isOk())
-                .andExpect(jsonPath("$", hasSize(0)));
+                .andExpect(jsonPath("$.content", hasSize(0)));
+    }
+
+    @Test
+    void getAllTransporters_ShouldPassPageAndSize() throws Exception {
+        when(transporterService.getAllTransporters(any(Pageable.class))).thenReturn(new PageImpl<>(Collections.emptyList(), PageRequest.of(0, 20), 0));
+
+        mockMvc.perform(get("/transporter").param("page", "2").param("size", "5"))
+                .andExpect(status().isOk());
+
+        verify(transporterService).getAllTransporters(argThat(p -> p.getPageNumber() == 2 && p.getPageSize() == 5));
+    }
+
+    @Test
+    void getAllTransporters_WithSizeAboveMaximum_ShouldReturnBadRequest() throws Exception {
+        mockMvc.perform(get("/transporter").param("size", "1000000"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.error").value("Size must be between 1 and " + TransporterService.MAX_PAGE_SIZE));
+
+        verifyNoInteractions(transporterService);
+    }
+
+    @Test
+    void getAllTransporters_WithNegativePage_ShouldReturnBadRequest() throws Exception {
+        mockMvc.perform(get("/transporter").param("page", "-1"))
+                .andExpect(status().isBadRequest());
+
+        verifyNoInteractions(transporterService);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void streamAllTransporters_ShouldWriteOneJsonObjectPerLine() throws Exception {
+        TransporterResponse transporter2 = new TransporterResponse(
+                UUID.randomUUID(), "Another Logistics", 3.5, Collections.emptyList());
+        doAnswer(invocation -> {
+            Consumer<TransporterResponse> sink = invocation.getArgument(0);
+            sink.accept(testTransporterResponse);
+            sink.accept(transporter2);
+            return null;
+        }).when(transporterService).streamAllTransporters(any(Consumer.class));
+
+        MvcResult result = mockMvc.perform(get("/transporter/stream"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        String[] lines = mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_NDJSON))
+                .andReturn().getResponse().getContentAsString().split("\n");
+        assertEquals(2, lines.length);
+        assertEquals("Test Logistics", objectMapper.readTree(lines[0]).get("companyName").asText());
+        assertEquals("Another Logistics", objectMapper.readTree(lines[1]).get("companyName").asText());
     }
 
     @Test
@@ -171,6 +239,30 @@ class TransporterControllerTest {
                 .andExpect(jsonPath("$.error").value(containsString("Transporter not found")));
     }
 
+    @Test
+    void getMatchingLoads_ShouldReturnLoads() throws Exception {
+        UUID loadId = UUID.randomUUID();
+        LoadResponse load = new LoadResponse(loadId, "shipper-123", "Pune", "Delhi",
+                new Timestamp(System.currentTimeMillis()), "Steel", 20.0, WeightUnit.TON, "LARGE",
+                4, 4, LoadStatus.POSTED, new Timestamp(System.currentTimeMillis()));
+        when(matchingService.getMatchingLoads(transporterId, 20)).thenReturn(Collections.singletonList(load));
+
+        mockMvc.perform(get("/transporter/{id}/matching-loads", transporterId))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(1)))
+                .andExpect(jsonPath("$[0].loadId").value(loadId.toString()))
+                .andExpect(jsonPath("$[0].truckType").value("LARGE"));
+    }
+
+    @Test
+    void getMatchingLoads_WithInvalidSize_ShouldReturnBadRequest() throws Exception {
+        when(matchingService.getMatchingLoads(transporterId, 500))
+                .thenThrow(new InvalidOperationException("Size must be between 1 and 100"));
+
+        mockMvc.perform(get("/transporter/{id}/matching-loads", transporterId).param("size", "500"))
+                .andExpect(status().isBadRequest());
+    }
+
     @Test
     void updateAvailableTrucks_Success() throws Exception {
         List<TruckAvailability> newTrucks = Arrays.asList(
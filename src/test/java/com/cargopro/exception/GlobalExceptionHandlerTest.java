@@ -4,6 +4,7 @@ import org.hibernate.StaleObjectStateException;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.http.HttpStatus;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.BindingResult;
 import org.springframework.validation.FieldError;
@@ -76,6 +77,39 @@ class GlobalExceptionHandlerTest {
         assertEquals("Not enough trucks available", response.getBody().get("error"));
     }
 
+    @Test
+    void handleSubscriberLimitExceededException_ShouldReturnTooManyRequests() {
+        SubscriberLimitExceededException ex = new SubscriberLimitExceededException("Too many subscribers");
+
+        ResponseEntity<Map<String, String>> response = exceptionHandler.handleSubscriberLimitExceededException(ex);
+
+        assertEquals(HttpStatus.TOO_MANY_REQUESTS, response.getStatusCode());
+        assertNotNull(response.getBody());
+        assertEquals("Too many subscribers", response.getBody().get("error"));
+    }
+
+    @Test
+    void handleInvalidOperationException_ShouldReturnBadRequest() {
+        InvalidOperationException ex = new InvalidOperationException("Duplicate truck type: LARGE");
+
+        ResponseEntity<Map<String, String>> response = exceptionHandler.handleInvalidOperationException(ex);
+
+        assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
+        assertNotNull(response.getBody());
+        assertEquals("Duplicate truck type: LARGE", response.getBody().get("error"));
+    }
+
+    @Test
+    void handleOptimisticLockingFailureException_ShouldReturnConflict() {
+        ObjectOptimisticLockingFailureException ex = new ObjectOptimisticLockingFailureException("Load", "id");
+
+        ResponseEntity<Map<String, String>> response = exceptionHandler.handleOptimisticLockingFailureException(ex);
+
+        assertEquals(HttpStatus.CONFLICT, response.getStatusCode());
+        assertNotNull(response.getBody());
+        assertTrue(response.getBody().get("error").contains("modified by another request"));
+    }
+
     @Test
     void handleConflictException_ShouldReturnConflict() {
         ConflictException ex = new ConflictException("Resource already exists");
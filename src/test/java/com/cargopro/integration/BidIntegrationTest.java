@@ -1,11 +1,16 @@
 package com.cargopro.integration;
 
+import com.cargopro.dto.BestBidResponse;
+import com.cargopro.dto.BidBatchRequest;
 import com.cargopro.dto.BidRequest;
 import com.cargopro.dto.LoadRequest;
+import com.cargopro.dto.ScoringWeights;
 import com.cargopro.dto.TransporterRequest;
 import com.cargopro.entity.TruckAvailability;
 import com.cargopro.enums.TruckType;
 import com.cargopro.enums.WeightUnit;
+import com.cargopro.service.BestBidStreamService;
+import com.cargopro.service.BidOrderBook;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -17,9 +22,12 @@ import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.web.servlet.MockMvc;
 
 import java.util.Arrays;
+import java.util.List;
 import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
 
 import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
@@ -34,6 +42,12 @@ public class BidIntegrationTest {
         @Autowired
         private ObjectMapper objectMapper;
 
+        @Autowired
+        private BestBidStreamService bestBidStreamService;
+
+        @Autowired
+        private BidOrderBook bidOrderBook;
+
         private String loadId;
         private String transporterId;
 
@@ -86,6 +100,73 @@ public class BidIntegrationTest {
                                 .andExpect(jsonPath("$.proposedRate", is(500.0)));
         }
 
+        @Test
+        public void shouldStreamBidDeltaToSubscriberOfLoadWithoutBids() throws Exception {
+                UUID load = UUID.fromString(loadId);
+                List<BestBidResponse> ranked = new CopyOnWriteArrayList<>();
+                BidOrderBook.Listener recorder = new BidOrderBook.Listener() {
+                        @Override
+                        public void onBidRanked(UUID id, int rank, BestBidResponse bid) {
+                                if (id.equals(load)) {
+                                        ranked.add(bid);
+                                }
+                        }
+
+                        @Override
+                        public void onBookClosed(UUID id) {
+                        }
+                };
+                bestBidStreamService.subscribe(load);
+                bidOrderBook.addListener(recorder);
+                try {
+                        BidRequest bidReq = new BidRequest();
+                        bidReq.setTransporterId(UUID.fromString(transporterId));
+                        bidReq.setLoadId(load);
+                        bidReq.setProposedRate(500.0);
+                        bidReq.setTrucksOffered(2);
+
+                        String bidJson = mockMvc.perform(post("/bid")
+                                        .contentType(MediaType.APPLICATION_JSON)
+                                        .content(objectMapper.writeValueAsString(bidReq)))
+                                        .andExpect(status().isCreated())
+                                        .andReturn().getResponse().getContentAsString();
+
+                        String bidId = com.jayway.jsonpath.JsonPath.read(bidJson, "$.bidId");
+                        assertEquals(1, ranked.size());
+                        assertEquals(UUID.fromString(bidId), ranked.get(0).getBidId());
+                } finally {
+                        bidOrderBook.removeListener(recorder);
+                }
+        }
+
+        @Test
+        public void shouldCreateBidOnLoadWithLowerCaseTruckType() throws Exception {
+                LoadRequest loadReq = new LoadRequest();
+                loadReq.setLoadingCity("A");
+                loadReq.setUnloadingCity("B");
+                loadReq.setShipperId("shipper-bid");
+                loadReq.setProductType("General");
+                loadReq.setTruckType("large");
+                loadReq.setNoOfTrucks(2);
+                loadReq.setWeight(100.0);
+                loadReq.setWeightUnit(WeightUnit.KG);
+                String loadJson = mockMvc.perform(post("/load")
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .content(objectMapper.writeValueAsString(loadReq)))
+                                .andReturn().getResponse().getContentAsString();
+
+                BidRequest bidReq = new BidRequest();
+                bidReq.setTransporterId(UUID.fromString(transporterId));
+                bidReq.setLoadId(UUID.fromString(com.jayway.jsonpath.JsonPath.read(loadJson, "$.loadId")));
+                bidReq.setProposedRate(500.0);
+                bidReq.setTrucksOffered(2);
+
+                mockMvc.perform(post("/bid")
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .content(objectMapper.writeValueAsString(bidReq)))
+                                .andExpect(status().isCreated());
+        }
+
         @Test
         public void shouldRejectBidWithInsufficientTrucks() throws Exception {
                 BidRequest bidReq = new BidRequest();
@@ -124,4 +205,137 @@ public class BidIntegrationTest {
                                 .content(objectMapper.writeValueAsString(bidReq)))
                                 .andExpect(status().isBadRequest()); // InvalidStatusTransitionException
         }
+
+        @Test
+        public void shouldCreateBidsInBatchAndReportFailures() throws Exception {
+                BidRequest valid = new BidRequest();
+                valid.setTransporterId(UUID.fromString(transporterId));
+                valid.setLoadId(UUID.fromString(loadId));
+                valid.setProposedRate(500.0);
+                valid.setTrucksOffered(2);
+
+                BidRequest tooMany = new BidRequest();
+                tooMany.setTransporterId(UUID.fromString(transporterId));
+                tooMany.setLoadId(UUID.fromString(loadId));
+                tooMany.setProposedRate(450.0);
+                tooMany.setTrucksOffered(6); // More than transporter has (5)
+
+                BidRequest unknownLoad = new BidRequest();
+                unknownLoad.setTransporterId(UUID.fromString(transporterId));
+                unknownLoad.setLoadId(UUID.randomUUID());
+                unknownLoad.setProposedRate(400.0);
+                unknownLoad.setTrucksOffered(1);
+
+                BidBatchRequest batch = new BidBatchRequest();
+                batch.setBids(Arrays.asList(valid, tooMany, unknownLoad, valid));
+
+                mockMvc.perform(post("/bid/batch")
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .content(objectMapper.writeValueAsString(batch)))
+                                .andExpect(status().isOk())
+                                .andExpect(jsonPath("$.created", is(2)))
+                                .andExpect(jsonPath("$.failed", is(2)))
+                                .andExpect(jsonPath("$.results[0].bid.bidId").exists())
+                                .andExpect(jsonPath("$.results[1].error", containsString("available trucks")))
+                                .andExpect(jsonPath("$.results[2].error", containsString("Load not found")))
+                                .andExpect(jsonPath("$.results[3].bid.bidId").exists());
+
+                mockMvc.perform(get("/bid?loadId=" + loadId))
+                                .andExpect(jsonPath("$.content", hasSize(2)));
+                mockMvc.perform(get("/load/" + loadId))
+                                .andExpect(jsonPath("$.status", is("OPEN_FOR_BIDS")));
+        }
+
+        @Test
+        public void shouldRankBestBidsWithShipperScoringWeights() throws Exception {
+                String shipperId = "shipper-scoring-" + UUID.randomUUID();
+                LoadRequest loadReq = new LoadRequest();
+                loadReq.setLoadingCity("A");
+                loadReq.setUnloadingCity("B");
+                loadReq.setShipperId(shipperId);
+                loadReq.setProductType("General");
+                loadReq.setTruckType(TruckType.LARGE.name());
+                loadReq.setNoOfTrucks(10);
+                loadReq.setWeight(100.0);
+                loadReq.setWeightUnit(WeightUnit.KG);
+                String scoredLoadId = com.jayway.jsonpath.JsonPath.read(mockMvc.perform(post("/load")
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .content(objectMapper.writeValueAsString(loadReq)))
+                                .andReturn().getResponse().getContentAsString(), "$.loadId");
+
+                // One truck for 300 against four trucks for 800: cheaper overall, dearer per truck
+                BidRequest cheap = new BidRequest();
+                cheap.setTransporterId(UUID.fromString(transporterId));
+                cheap.setLoadId(UUID.fromString(scoredLoadId));
+                cheap.setProposedRate(300.0);
+                cheap.setTrucksOffered(1);
+                BidRequest bulk = new BidRequest();
+                bulk.setTransporterId(UUID.fromString(transporterId));
+                bulk.setLoadId(UUID.fromString(scoredLoadId));
+                bulk.setProposedRate(800.0);
+                bulk.setTrucksOffered(4);
+                for (BidRequest bid : Arrays.asList(cheap, bulk)) {
+                        mockMvc.perform(post("/bid")
+                                        .contentType(MediaType.APPLICATION_JSON)
+                                        .content(objectMapper.writeValueAsString(bid)))
+                                        .andExpect(status().isCreated());
+                }
+
+                mockMvc.perform(get("/shipper/" + shipperId + "/scoring"))
+                                .andExpect(status().isOk())
+                                .andExpect(jsonPath("$.strategy", is("weighted")))
+                                .andExpect(jsonPath("$.rate", is(0.7)));
+                mockMvc.perform(get("/load/" + scoredLoadId + "/best-bids"))
+                                .andExpect(jsonPath("$[0].proposedRate", is(300.0)));
+
+                ScoringWeights perTruck = new ScoringWeights("weighted", 0.0, 1.0, 0.0, 0.0, 0.0);
+                mockMvc.perform(put("/shipper/" + shipperId + "/scoring")
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .content(objectMapper.writeValueAsString(perTruck)))
+                                .andExpect(status().isOk())
+                                .andExpect(jsonPath("$.ratePerTruck", is(1.0)));
+
+                mockMvc.perform(get("/load/" + scoredLoadId + "/best-bids"))
+                                .andExpect(jsonPath("$[0].proposedRate", is(800.0)))
+                                .andExpect(jsonPath("$[0].score", is(0.005)));
+
+                ScoringWeights unknown = new ScoringWeights("cheapest", 1.0, 0.0, 0.0, 0.0, 0.0);
+                mockMvc.perform(put("/shipper/" + shipperId + "/scoring")
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .content(objectMapper.writeValueAsString(unknown)))
+                                .andExpect(status().isBadRequest());
+        }
+
+        @Test
+        public void shouldReturnTopPendingBidsWithLimitAndFilters() throws Exception {
+                String[] bidIds = new String[3];
+                double[] rates = { 700.0, 500.0, 600.0 };
+                for (int i = 0; i < rates.length; i++) {
+                        BidRequest bid = new BidRequest();
+                        bid.setTransporterId(UUID.fromString(transporterId));
+                        bid.setLoadId(UUID.fromString(loadId));
+                        bid.setProposedRate(rates[i]);
+                        bid.setTrucksOffered(1);
+                        bidIds[i] = com.jayway.jsonpath.JsonPath.read(mockMvc.perform(post("/bid")
+                                        .contentType(MediaType.APPLICATION_JSON)
+                                        .content(objectMapper.writeValueAsString(bid)))
+                                        .andReturn().getResponse().getContentAsString(), "$.bidId");
+                }
+                mockMvc.perform(patch("/bid/" + bidIds[1] + "/reject"))
+                                .andExpect(status().isOk());
+
+                mockMvc.perform(get("/load/" + loadId + "/best-bids?limit=1"))
+                                .andExpect(status().isOk())
+                                .andExpect(jsonPath("$", hasSize(1)))
+                                .andExpect(jsonPath("$[0].bidId", is(bidIds[2])))
+                                .andExpect(jsonPath("$[0].status", is("PENDING")));
+                mockMvc.perform(get("/load/" + loadId + "/best-bids?maxRate=650"))
+                                .andExpect(jsonPath("$[*].bidId", contains(bidIds[2])));
+                mockMvc.perform(get("/load/" + loadId + "/best-bids?minRating=4.5"))
+                                .andExpect(jsonPath("$", hasSize(0)));
+                mockMvc.perform(get("/load/" + loadId + "/best-bids?status=REJECTED"))
+                                .andExpect(jsonPath("$[*].bidId", contains(bidIds[1])));
+                mockMvc.perform(get("/load/" + loadId + "/best-bids?limit=101"))
+                                .andExpect(status().isBadRequest());
+        }
 }
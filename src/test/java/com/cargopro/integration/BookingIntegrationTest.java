@@ -3,10 +3,15 @@ package com.cargopro.integration;
 import com.cargopro.dto.BidRequest;
 import com.cargopro.dto.LoadRequest;
 import com.cargopro.dto.TransporterRequest;
+import com.cargopro.entity.OutboxEvent;
 import com.cargopro.entity.TruckAvailability;
 import com.cargopro.enums.TruckType;
 import com.cargopro.enums.WeightUnit;
+import com.cargopro.repository.OutboxEventRepository;
+import com.cargopro.service.BookingService;
+import com.cargopro.service.OutboxDispatcher;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -16,10 +21,17 @@ import org.springframework.http.MediaType;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.web.servlet.MockMvc;
 
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.List;
 import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
@@ -34,6 +46,18 @@ public class BookingIntegrationTest {
         @Autowired
         private ObjectMapper objectMapper;
 
+        @Autowired
+        private BookingService bookingService;
+
+        @Autowired
+        private OutboxEventRepository outboxEventRepository;
+
+        @Autowired
+        private OutboxDispatcher outboxDispatcher;
+
+        @Autowired
+        private MeterRegistry meterRegistry;
+
         private String loadId;
         private String transporterId;
         private String bidId;
@@ -133,4 +157,205 @@ public class BookingIntegrationTest {
                                 .andExpect(jsonPath("$.status", is("BOOKED")))
                                 .andExpect(jsonPath("$.remainingTrucks", is(0)));
         }
+
+        @Test
+        public void shouldRejectPendingBidsWhenLoadIsFullyBooked() throws Exception {
+                String filling = placeBid(transporterId, 10, 90.0);
+                String other = placeBid(createTransporter("Too Late Co", 4.0), 5, 80.0);
+
+                mockMvc.perform(post("/booking?bidId=" + filling))
+                                .andExpect(status().isCreated());
+
+                mockMvc.perform(get("/bid/" + filling))
+                                .andExpect(jsonPath("$.status", is("ACCEPTED")));
+                mockMvc.perform(get("/bid/" + bidId))
+                                .andExpect(jsonPath("$.status", is("REJECTED")));
+                mockMvc.perform(get("/bid/" + other))
+                                .andExpect(jsonPath("$.status", is("REJECTED")));
+                List<OutboxEvent> rejections = outboxEventRepository.findAll().stream()
+                                .filter(event -> event.getPayload().contains(loadId))
+                                .filter(event -> event.getPayload().contains("\"reason\":\"BOOKED\""))
+                                .toList();
+                assertEquals(2, rejections.size());
+                // The acceptance that filled the load is recorded before the rejections it caused
+                long accepted = outboxEventRepository.findAll().stream()
+                                .filter(event -> event.getEventType().equals("BidAccepted"))
+                                .filter(event -> event.getAggregateId().equals(filling))
+                                .findFirst().orElseThrow().getEventId();
+                assertTrue(rejections.stream().allMatch(event -> event.getEventId() > accepted));
+        }
+
+        @Test
+        public void shouldRejectPendingBidsAndNotifyTransportersWhenLoadIsCancelled() throws Exception {
+                String other = placeBid(createTransporter("Cancelled On Co", 4.0), 5, 80.0);
+                double notified = meterRegistry.counter("tms.notifications", "type", "BidRejected").count();
+
+                mockMvc.perform(patch("/load/" + loadId + "/cancel"))
+                                .andExpect(status().isOk());
+
+                mockMvc.perform(get("/bid?loadId=" + loadId + "&status=PENDING"))
+                                .andExpect(jsonPath("$.content", hasSize(0)));
+                mockMvc.perform(get("/bid/" + other))
+                                .andExpect(jsonPath("$.status", is("REJECTED")));
+
+                outboxDispatcher.dispatchPending();
+                assertTrue(meterRegistry.counter("tms.notifications", "type", "BidRejected").count() >= notified + 2);
+        }
+
+        @Test
+        public void shouldAllocateCheapestBidsAboveMinRatingAndBookThem() throws Exception {
+                String secondBidId = placeBid(transporterId, 5, 90.0);
+                String lowRatedTransporterId = createTransporter("Cheap Inc", 2.0);
+                String lowRatedBidId = placeBid(lowRatedTransporterId, 5, 60.0);
+
+                mockMvc.perform(post("/booking/allocate").param("loadId", loadId))
+                                .andExpect(status().isOk())
+                                .andExpect(jsonPath("$.totalRate", is(150.0)))
+                                .andExpect(jsonPath("$.bids[*].bidId", containsInAnyOrder(lowRatedBidId, secondBidId)));
+
+                mockMvc.perform(post("/booking/allocate")
+                                .param("loadId", loadId)
+                                .param("minRating", "4.0")
+                                .param("book", "true"))
+                                .andExpect(status().isCreated())
+                                .andExpect(jsonPath("$.fullyCovered", is(true)))
+                                .andExpect(jsonPath("$.totalRate", is(190.0)))
+                                .andExpect(jsonPath("$.bids[*].bidId", containsInAnyOrder(bidId, secondBidId)))
+                                .andExpect(jsonPath("$.bookings", hasSize(2)));
+
+                mockMvc.perform(get("/load/" + loadId))
+                                .andExpect(jsonPath("$.status", is("BOOKED")))
+                                .andExpect(jsonPath("$.remainingTrucks", is(0)));
+                // Filling the load closes it to the bids that were not chosen
+                mockMvc.perform(get("/bid/" + lowRatedBidId))
+                                .andExpect(jsonPath("$.status", is("REJECTED")));
+        }
+
+        @Test
+        public void concurrentAcceptsShouldNeverOverbookLoad() throws Exception {
+                // Fresh 3-truck load with six 1-truck bids from different transporters
+                LoadRequest loadReq = new LoadRequest();
+                loadReq.setLoadingCity("X");
+                loadReq.setUnloadingCity("Y");
+                loadReq.setShipperId("shipper-contended");
+                loadReq.setProductType("Misc");
+                loadReq.setTruckType(TruckType.LARGE.name());
+                loadReq.setNoOfTrucks(3);
+                loadReq.setWeight(100.0);
+                loadReq.setWeightUnit(WeightUnit.KG);
+                String loadJson = mockMvc.perform(post("/load")
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .content(objectMapper.writeValueAsString(loadReq)))
+                                .andReturn().getResponse().getContentAsString();
+                String contendedLoadId = com.jayway.jsonpath.JsonPath.read(loadJson, "$.loadId");
+
+                List<UUID> bidIds = new ArrayList<>();
+                for (int i = 0; i < 6; i++) {
+                        TransporterRequest transReq = new TransporterRequest();
+                        transReq.setCompanyName("Racer " + i);
+                        transReq.setRating(4.0);
+                        transReq.setAvailableTrucks(Arrays.asList(
+                                        new TruckAvailability(TruckType.LARGE.name(), 5)));
+                        String transJson = mockMvc.perform(post("/transporter")
+                                        .contentType(MediaType.APPLICATION_JSON)
+                                        .content(objectMapper.writeValueAsString(transReq)))
+                                        .andReturn().getResponse().getContentAsString();
+
+                        BidRequest bidReq = new BidRequest();
+                        bidReq.setLoadId(UUID.fromString(contendedLoadId));
+                        bidReq.setTransporterId(UUID.fromString(
+                                        com.jayway.jsonpath.JsonPath.read(transJson, "$.transporterId")));
+                        bidReq.setProposedRate(100.0 + i);
+                        bidReq.setTrucksOffered(1);
+                        String bidJson = mockMvc.perform(post("/bid")
+                                        .contentType(MediaType.APPLICATION_JSON)
+                                        .content(objectMapper.writeValueAsString(bidReq)))
+                                        .andReturn().getResponse().getContentAsString();
+                        bidIds.add(UUID.fromString(com.jayway.jsonpath.JsonPath.read(bidJson, "$.bidId")));
+                }
+
+                ExecutorService pool = Executors.newFixedThreadPool(6);
+                List<Future<Boolean>> results = new ArrayList<>();
+                for (UUID id : bidIds) {
+                        results.add(pool.submit(() -> {
+                                try {
+                                        bookingService.acceptBid(id);
+                                        return true;
+                                } catch (RuntimeException ex) {
+                                        return false;
+                                }
+                        }));
+                }
+                int booked = 0;
+                for (Future<Boolean> result : results) {
+                        if (result.get()) {
+                                booked++;
+                        }
+                }
+                pool.shutdown();
+
+                assertTrue(booked >= 1 && booked <= 3);
+                mockMvc.perform(get("/load/" + contendedLoadId))
+                                .andExpect(jsonPath("$.remainingTrucks", is(3 - booked)));
+                mockMvc.perform(get("/booking/load/" + contendedLoadId))
+                                .andExpect(jsonPath("$", hasSize(booked)));
+        }
+
+        @Test
+        public void concurrentAcceptsOfSameBidShouldBookItOnce() throws Exception {
+                UUID id = UUID.fromString(bidId);
+                ExecutorService pool = Executors.newFixedThreadPool(4);
+                List<Future<Boolean>> results = new ArrayList<>();
+                for (int i = 0; i < 4; i++) {
+                        results.add(pool.submit(() -> {
+                                try {
+                                        bookingService.acceptBid(id);
+                                        return true;
+                                } catch (RuntimeException ex) {
+                                        return false;
+                                }
+                        }));
+                }
+                int booked = 0;
+                for (Future<Boolean> result : results) {
+                        if (result.get()) {
+                                booked++;
+                        }
+                }
+                pool.shutdown();
+
+                assertEquals(1, booked);
+                mockMvc.perform(get("/booking/load/" + loadId))
+                                .andExpect(jsonPath("$", hasSize(1)));
+                mockMvc.perform(get("/load/" + loadId))
+                                .andExpect(jsonPath("$.remainingTrucks", is(5)));
+                mockMvc.perform(get("/transporter/" + transporterId))
+                                .andExpect(jsonPath("$.availableTrucks[0].count", is(15)));
+        }
+
+        private String createTransporter(String companyName, double rating) throws Exception {
+                TransporterRequest request = new TransporterRequest();
+                request.setCompanyName(companyName);
+                request.setRating(rating);
+                request.setAvailableTrucks(Arrays.asList(
+                                new TruckAvailability(TruckType.LARGE.name(), 20)));
+                String json = mockMvc.perform(post("/transporter")
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .content(objectMapper.writeValueAsString(request)))
+                                .andReturn().getResponse().getContentAsString();
+                return com.jayway.jsonpath.JsonPath.read(json, "$.transporterId");
+        }
+
+        private String placeBid(String bidderId, int trucks, double rate) throws Exception {
+                BidRequest request = new BidRequest();
+                request.setLoadId(UUID.fromString(loadId));
+                request.setTransporterId(UUID.fromString(bidderId));
+                request.setProposedRate(rate);
+                request.setTrucksOffered(trucks);
+                String json = mockMvc.perform(post("/bid")
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .content(objectMapper.writeValueAsString(request)))
+                                .andReturn().getResponse().getContentAsString();
+                return com.jayway.jsonpath.JsonPath.read(json, "$.bidId");
+        }
 }
@@ -12,7 +12,13 @@ import org.springframework.http.MediaType;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.web.servlet.MockMvc;
 
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
 import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultHandlers.print;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
@@ -106,4 +112,121 @@ public class LoadIntegrationTest {
                                 .andExpect(status().isOk())
                                 .andExpect(jsonPath("$.status", is("CANCELLED")));
         }
+
+        @Test
+        public void shouldScrollLoadsWithCursorNewestFirst() throws Exception {
+                String shipperId = "shipper-scroll";
+                List<String> created = new ArrayList<>();
+                for (int i = 0; i < 5; i++) {
+                        LoadRequest request = new LoadRequest();
+                        request.setLoadingCity("Pune");
+                        request.setUnloadingCity("Delhi");
+                        request.setShipperId(shipperId);
+                        request.setProductType("Steel");
+                        request.setTruckType(TruckType.LARGE.name());
+                        request.setNoOfTrucks(1);
+                        request.setWeight(10.0);
+                        request.setWeightUnit(WeightUnit.TON);
+                        String json = mockMvc.perform(post("/load")
+                                        .contentType(MediaType.APPLICATION_JSON)
+                                        .content(objectMapper.writeValueAsString(request)))
+                                        .andReturn().getResponse().getContentAsString();
+                        created.add(com.jayway.jsonpath.JsonPath.read(json, "$.loadId"));
+                }
+
+                List<String> seen = new ArrayList<>();
+                String cursor = null;
+                int slices = 0;
+                do {
+                        var requestBuilder = get("/load/scroll").param("shipperId", shipperId).param("size", "2");
+                        if (cursor != null) {
+                                requestBuilder.param("cursor", cursor);
+                        }
+                        String json = mockMvc.perform(requestBuilder)
+                                        .andExpect(status().isOk())
+                                        .andReturn().getResponse().getContentAsString();
+                        seen.addAll(com.jayway.jsonpath.JsonPath.read(json, "$.content[*].loadId"));
+                        cursor = com.jayway.jsonpath.JsonPath.read(json, "$.nextCursor");
+                        slices++;
+                } while (cursor != null);
+
+                assertEquals(3, slices);
+                assertEquals(5, seen.size());
+                Set<String> unique = new HashSet<>(seen);
+                assertEquals(new HashSet<>(created), unique);
+        }
+
+        @Test
+        public void loadBoardShouldFollowCreateAndCancel() throws Exception {
+                // Unique lane so loads from other tests do not show up
+                String origin = "Board-" + java.util.UUID.randomUUID();
+                LoadRequest request = new LoadRequest();
+                request.setLoadingCity(origin);
+                request.setUnloadingCity("Delhi");
+                request.setShipperId("shipper-board");
+                request.setProductType("Steel");
+                request.setTruckType(TruckType.MEDIUM.name());
+                request.setNoOfTrucks(3);
+                request.setWeight(10.0);
+                request.setWeightUnit(WeightUnit.TON);
+                String json = mockMvc.perform(post("/load")
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .content(objectMapper.writeValueAsString(request)))
+                                .andReturn().getResponse().getContentAsString();
+                String id = com.jayway.jsonpath.JsonPath.read(json, "$.loadId");
+
+                mockMvc.perform(get("/load/board")
+                                .param("loadingCity", origin.toLowerCase())
+                                .param("unloadingCity", "delhi")
+                                .param("truckType", "medium"))
+                                .andExpect(status().isOk())
+                                .andExpect(jsonPath("$", hasSize(1)))
+                                .andExpect(jsonPath("$[0].loadId", is(id)))
+                                .andExpect(jsonPath("$[0].remainingTrucks", is(3)));
+
+                mockMvc.perform(patch("/load/" + id + "/cancel")).andExpect(status().isOk());
+
+                mockMvc.perform(get("/load/board").param("loadingCity", origin))
+                                .andExpect(status().isOk())
+                                .andExpect(jsonPath("$", hasSize(0)));
+        }
+
+        @Test
+        public void shouldImportLoadsFromCsvAndReportRowErrors() throws Exception {
+                StringBuilder csv = new StringBuilder(
+                                "shipperId,loadingCity,unloadingCity,productType,truckType,noOfTrucks,weight,weightUnit\n");
+                for (int i = 0; i < 1200; i++) {
+                        csv.append("shipper-import,Pune,Delhi,Steel,LARGE,").append(1 + i % 3).append(",12.5,TON\n");
+                }
+                csv.append("shipper-import,Pune,Delhi,Steel,LARGE,-1,12.5,TON\n");
+
+                String json = mockMvc.perform(post("/load/import")
+                                .contentType("text/csv")
+                                .content(csv.toString()))
+                                .andExpect(status().isAccepted())
+                                .andReturn().getResponse().getContentAsString();
+                String jobId = com.jayway.jsonpath.JsonPath.read(json, "$.jobId");
+
+                String status = "QUEUED";
+                long deadline = System.currentTimeMillis() + 30000;
+                while (!status.equals("COMPLETED") && !status.equals("FAILED")
+                                && System.currentTimeMillis() < deadline) {
+                        Thread.sleep(50);
+                        json = mockMvc.perform(get("/load/import/" + jobId))
+                                        .andReturn().getResponse().getContentAsString();
+                        status = com.jayway.jsonpath.JsonPath.read(json, "$.status");
+                }
+
+                mockMvc.perform(get("/load/import/" + jobId))
+                                .andExpect(status().isOk())
+                                .andExpect(jsonPath("$.status", is("COMPLETED")))
+                                .andExpect(jsonPath("$.rowsRead", is(1201)))
+                                .andExpect(jsonPath("$.rowsImported", is(1200)))
+                                .andExpect(jsonPath("$.rowsFailed", is(1)))
+                                .andExpect(jsonPath("$.errors[0].line", is(1202)));
+
+                mockMvc.perform(get("/load?shipperId=shipper-import&size=1"))
+                                .andExpect(jsonPath("$.totalElements", is(1200)))
+                                .andExpect(jsonPath("$.content[0].status", is("POSTED")));
+        }
 }
@@ -0,0 +1,176 @@
+package com.cargopro.integration;
+
+import com.cargopro.dto.BidRequest;
+import com.cargopro.dto.LoadRequest;
+import com.cargopro.dto.TransporterRequest;
+import com.cargopro.entity.OutboxEvent;
+import com.cargopro.entity.TruckAvailability;
+import com.cargopro.enums.TruckType;
+import com.cargopro.enums.WeightUnit;
+import com.cargopro.repository.OutboxEventRepository;
+import com.cargopro.service.DomainEventPublisher;
+import com.cargopro.service.OutboxDispatcher;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+/**
+ * Domain events are written to the outbox with the change that caused them
+ * and delivered to listeners afterwards
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+public class OutboxIntegrationTest {
+
+        @Autowired
+        private MockMvc mockMvc;
+
+        @Autowired
+        private ObjectMapper objectMapper;
+
+        @Autowired
+        private OutboxEventRepository outboxEventRepository;
+
+        @Autowired
+        private OutboxDispatcher outboxDispatcher;
+
+        @Autowired
+        private DomainEventPublisher domainEventPublisher;
+
+        @Test
+        public void shouldRecordBookingLifecycleInOrder() throws Exception {
+                long before = outboxEventRepository.findMaxEventId();
+                String loadId = createLoad(4);
+                String transporterId = createTransporter();
+                String bidId = placeBid(loadId, transporterId, 2);
+
+                String json = mockMvc.perform(post("/booking?bidId=" + bidId))
+                                .andExpect(status().isCreated())
+                                .andReturn().getResponse().getContentAsString();
+                String bookingId = com.jayway.jsonpath.JsonPath.read(json, "$.bookingId");
+                mockMvc.perform(patch("/booking/" + bookingId + "/cancel"))
+                                .andExpect(status().isOk());
+
+                List<OutboxEvent> events = eventsAfter(before);
+                assertEquals(List.of("LoadPosted", "BidPlaced", "TrucksReserved", "BidAccepted", "BookingCancelled"),
+                                events.stream().map(OutboxEvent::getEventType).toList());
+                assertEquals(List.of(loadId, bidId, transporterId, bidId, bookingId),
+                                events.stream().map(OutboxEvent::getAggregateId).toList());
+                assertTrue(events.get(3).getPayload().contains(bookingId));
+        }
+
+        @Test
+        public void shouldWriteNoEventsWhenTransactionRollsBack() throws Exception {
+                String loadId = createLoad(1);
+                String transporterId = createTransporter();
+                String bidId = placeBid(loadId, transporterId, 1);
+                mockMvc.perform(post("/booking?bidId=" + bidId))
+                                .andExpect(status().isCreated());
+                long before = outboxEventRepository.findMaxEventId();
+
+                // Load is fully booked: the request fails and rolls back
+                mockMvc.perform(post("/booking?bidId=" + bidId))
+                                .andExpect(status().is4xxClientError());
+
+                assertEquals(before, outboxEventRepository.findMaxEventId());
+        }
+
+        @Test
+        public void shouldCommitEventPublishedOutsideTransaction() {
+                long before = outboxEventRepository.findMaxEventId();
+                UUID transporterId = UUID.randomUUID();
+
+                // Auto-commit is off, so this only sticks if the publisher commits it
+                domainEventPublisher.publish(DomainEventPublisher.TRUCKS_RESERVED, transporterId,
+                                Map.of("trucks", 1));
+
+                List<OutboxEvent> events = eventsAfter(before);
+                assertEquals(1, events.size());
+                assertEquals(transporterId.toString(), events.get(0).getAggregateId());
+        }
+
+        @Test
+        public void shouldDeliverEventsAndReplayFromOffset() throws Exception {
+                createLoad(1);
+                outboxDispatcher.dispatchPending();
+
+                mockMvc.perform(get("/outbox/listeners"))
+                                .andExpect(status().isOk())
+                                .andExpect(jsonPath("$[?(@.listener == 'transporter-notifier')].lag", contains(0)));
+
+                mockMvc.perform(post("/outbox/listeners/transporter-notifier/replay").param("fromEventId", "1"))
+                                .andExpect(status().isAccepted());
+                mockMvc.perform(get("/outbox/listeners"))
+                                .andExpect(jsonPath("$[?(@.listener == 'transporter-notifier')].lastEventId",
+                                                contains(0)));
+
+                outboxDispatcher.dispatchPending();
+                mockMvc.perform(get("/outbox/listeners"))
+                                .andExpect(jsonPath("$[?(@.listener == 'transporter-notifier')].lag", contains(0)));
+        }
+
+        private List<OutboxEvent> eventsAfter(long eventId) {
+                return outboxEventRepository.findAll().stream()
+                                .filter(event -> event.getEventId() > eventId)
+                                .sorted((a, b) -> Long.compare(a.getEventId(), b.getEventId()))
+                                .toList();
+        }
+
+        private String createLoad(int trucks) throws Exception {
+                LoadRequest request = new LoadRequest();
+                request.setLoadingCity("Nagpur");
+                request.setUnloadingCity("Surat");
+                request.setShipperId("shipper-outbox");
+                request.setProductType("Cotton");
+                request.setTruckType(TruckType.LARGE.name());
+                request.setNoOfTrucks(trucks);
+                request.setWeight(100.0);
+                request.setWeightUnit(WeightUnit.KG);
+                String json = mockMvc.perform(post("/load")
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .content(objectMapper.writeValueAsString(request)))
+                                .andReturn().getResponse().getContentAsString();
+                return com.jayway.jsonpath.JsonPath.read(json, "$.loadId");
+        }
+
+        private String createTransporter() throws Exception {
+                TransporterRequest request = new TransporterRequest();
+                request.setCompanyName("Outbox Freight");
+                request.setRating(4.0);
+                request.setAvailableTrucks(Arrays.asList(new TruckAvailability(TruckType.LARGE.name(), 10)));
+                String json = mockMvc.perform(post("/transporter")
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .content(objectMapper.writeValueAsString(request)))
+                                .andReturn().getResponse().getContentAsString();
+                return com.jayway.jsonpath.JsonPath.read(json, "$.transporterId");
+        }
+
+        private String placeBid(String loadId, String transporterId, int trucks) throws Exception {
+                BidRequest request = new BidRequest();
+                request.setLoadId(UUID.fromString(loadId));
+                request.setTransporterId(UUID.fromString(transporterId));
+                request.setProposedRate(100.0);
+                request.setTrucksOffered(trucks);
+                String json = mockMvc.perform(post("/bid")
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .content(objectMapper.writeValueAsString(request)))
+                                .andReturn().getResponse().getContentAsString();
+                return com.jayway.jsonpath.JsonPath.read(json, "$.bidId");
+        }
+}
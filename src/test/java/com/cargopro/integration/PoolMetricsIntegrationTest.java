@@ -0,0 +1,42 @@
+package com.cargopro.integration;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+/**
+ * Verifies the connection pool publishes the metrics used for capacity planning
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+public class PoolMetricsIntegrationTest {
+
+        @Autowired
+        private MockMvc mockMvc;
+
+        @Autowired
+        private MeterRegistry meterRegistry;
+
+        @Test
+        public void poolShouldExposeWaitActiveAndTimeoutMetrics() throws Exception {
+                mockMvc.perform(get("/load")).andExpect(status().isOk());
+
+                Timer acquire = meterRegistry.get("hikaricp.connections.acquire").tag("pool", "tms").timer();
+                assertTrue(acquire.count() > 0);
+                assertNotNull(meterRegistry.get("hikaricp.connections.active").tag("pool", "tms").gauge());
+                assertNotNull(meterRegistry.get("hikaricp.connections.pending").tag("pool", "tms").gauge());
+                assertNotNull(meterRegistry.get("hikaricp.connections.max").tag("pool", "tms").gauge());
+                assertNotNull(meterRegistry.get("hikaricp.connections.timeout").tag("pool", "tms").counter());
+                assertFalse(acquire.takeSnapshot().percentileValues().length == 0, "acquire percentiles not published");
+        }
+}
@@ -0,0 +1,268 @@
+package com.cargopro.integration;
+
+import com.cargopro.dto.BidBatchRequest;
+import com.cargopro.dto.BidRequest;
+import com.cargopro.dto.LoadRequest;
+import com.cargopro.dto.TransporterRequest;
+import com.cargopro.entity.TruckAvailability;
+import com.cargopro.enums.TruckType;
+import com.cargopro.enums.WeightUnit;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import javax.sql.DataSource;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.UUID;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+/**
+ * Verifies list endpoints run a fixed number of SQL statements
+ * no matter how many rows they return (no N+1 lazy loading), and that
+ * accepting and cancelling a booking make a fixed set of round trips
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+@Import(QueryCountIntegrationTest.RoundTripCountingConfig.class)
+public class QueryCountIntegrationTest {
+
+        /**
+         * Wraps the application DataSource so round trips, including JDBC batches, can be counted
+         */
+        @TestConfiguration
+        static class RoundTripCountingConfig {
+
+                @Bean
+                static BeanPostProcessor roundTripCountingPostProcessor() {
+                        return new BeanPostProcessor() {
+                                @Override
+                                public Object postProcessAfterInitialization(Object bean, String beanName) {
+                                        if (bean instanceof DataSource dataSource
+                                                        && !(bean instanceof RoundTripCountingDataSource)) {
+                                                return new RoundTripCountingDataSource(dataSource);
+                                        }
+                                        return bean;
+                                }
+                        };
+                }
+        }
+
+        @Autowired
+        private MockMvc mockMvc;
+
+        @Autowired
+        private ObjectMapper objectMapper;
+
+        @Autowired
+        private EntityManagerFactory entityManagerFactory;
+
+        @Autowired
+        private DataSource dataSource;
+
+        private Statistics statistics;
+
+        private RoundTripCountingDataSource roundTrips;
+
+        @BeforeEach
+        public void setup() throws Exception {
+                statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+                roundTrips = dataSource.unwrap(RoundTripCountingDataSource.class);
+        }
+
+        @Test
+        public void getBidsByLoad_ShouldRunOneStatementRegardlessOfBidCount() throws Exception {
+                String smallLoad = createLoad(10);
+                createBid(smallLoad, createTransporter(10), 1);
+
+                String largeLoad = createLoad(10);
+                for (int i = 0; i < 5; i++) {
+                        createBid(largeLoad, createTransporter(10), 1);
+                }
+
+                long small = countStatements("/bid?loadId=" + smallLoad, "$.content", 1);
+                long large = countStatements("/bid?loadId=" + largeLoad, "$.content", 5);
+
+                assertEquals(1, small);
+                assertEquals(small, large);
+        }
+
+        @Test
+        public void getBookingsByTransporter_ShouldRunOneStatementRegardlessOfBookingCount() throws Exception {
+                String smallTransporter = createTransporter(10);
+                mockMvc.perform(post("/booking?bidId=" + createBid(createLoad(1), smallTransporter, 1)));
+
+                String largeTransporter = createTransporter(10);
+                for (int i = 0; i < 5; i++) {
+                        mockMvc.perform(post("/booking?bidId=" + createBid(createLoad(1), largeTransporter, 1)));
+                }
+
+                long small = countStatements("/booking/transporter/" + smallTransporter, "$", 1);
+                long large = countStatements("/booking/transporter/" + largeTransporter, "$", 5);
+
+                assertEquals(1, small);
+                assertEquals(small, large);
+        }
+
+        @Test
+        public void streamBidsByLoad_ShouldRunOneStatementRegardlessOfBidCount() throws Exception {
+                String smallLoad = createLoad(10);
+                createBid(smallLoad, createTransporter(10), 1);
+
+                String largeLoad = createLoad(10);
+                for (int i = 0; i < 5; i++) {
+                        createBid(largeLoad, createTransporter(10), 1);
+                }
+
+                long small = countStreamedStatements("/bid/stream?loadId=" + smallLoad, 1);
+                long large = countStreamedStatements("/bid/stream?loadId=" + largeLoad, 5);
+
+                assertEquals(1, small);
+                assertEquals(small, large);
+        }
+
+        @Test
+        public void createBidBatch_ShouldRunSameStatementsRegardlessOfBidCount() throws Exception {
+                String transporter = createTransporter(10);
+                String smallLoad = createLoad(10);
+                String largeLoad = createLoad(10);
+
+                long small = countBatchStatements(smallLoad, transporter, 1);
+                long large = countBatchStatements(largeLoad, transporter, 20);
+
+                assertEquals(small, large);
+        }
+
+        @Test
+        public void acceptAndCancelBooking_ShouldRunFixedRoundTrips() throws Exception {
+                String bidId = createBid(createLoad(5), createTransporter(10), 2);
+
+                roundTrips.start();
+                String json = mockMvc.perform(post("/booking?bidId=" + bidId))
+                                .andExpect(status().isCreated())
+                                .andReturn().getResponse().getContentAsString();
+                String bookingId = com.jayway.jsonpath.JsonPath.read(json, "$.bookingId");
+
+                // Before the flush: select bid+load+transporter, reserve trucks, read the count left
+                // (the count keeps the matching index in commit order)
+                assertEquals(Arrays.asList("select", "update transporter_trucks", "select"),
+                                roundTrips.statements());
+                // At commit: the outbox events (TrucksReserved, BidAccepted) in one batch, then the
+                // booking insert and the bid and load updates as one batch each
+                assertThat(roundTrips.batches(), containsInAnyOrder(
+                                "insert outbox_events x2", "insert bookings x1", "update bids x1", "update loads x1"));
+
+                roundTrips.start();
+                mockMvc.perform(patch("/booking/" + bookingId + "/cancel"))
+                                .andExpect(status().isOk());
+
+                // select booking+load+transporter, release trucks, read the count left
+                assertEquals(Arrays.asList("select", "update transporter_trucks", "select"),
+                                roundTrips.statements());
+                // The booking and load updates and the BookingCancelled event, one batch each
+                assertThat(roundTrips.batches(), containsInAnyOrder(
+                                "insert outbox_events x1", "update bookings x1", "update loads x1"));
+        }
+
+        private long countStatements(String url, String listPath, int expectedSize) throws Exception {
+                statistics.clear();
+                mockMvc.perform(get(url))
+                                .andExpect(status().isOk())
+                                .andExpect(jsonPath(listPath, hasSize(expectedSize)));
+                return statistics.getPrepareStatementCount();
+        }
+
+        private long countStreamedStatements(String url, int expectedLines) throws Exception {
+                statistics.clear();
+                MvcResult result = mockMvc.perform(get(url)).andReturn();
+                String body = mockMvc.perform(asyncDispatch(result))
+                                .andExpect(status().isOk())
+                                .andReturn().getResponse().getContentAsString();
+                assertEquals(expectedLines, body.lines().count());
+                return statistics.getPrepareStatementCount();
+        }
+
+        private long countBatchStatements(String loadId, String transporterId, int bids) throws Exception {
+                BidRequest bidReq = new BidRequest();
+                bidReq.setLoadId(UUID.fromString(loadId));
+                bidReq.setTransporterId(UUID.fromString(transporterId));
+                bidReq.setProposedRate(100.0);
+                bidReq.setTrucksOffered(1);
+                BidBatchRequest batch = new BidBatchRequest();
+                batch.setBids(Collections.nCopies(bids, bidReq));
+
+                statistics.clear();
+                mockMvc.perform(post("/bid/batch")
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .content(objectMapper.writeValueAsString(batch)))
+                                .andExpect(status().isOk())
+                                .andExpect(jsonPath("$.created", is(bids)));
+                return statistics.getPrepareStatementCount();
+        }
+
+        private String createLoad(int trucks) throws Exception {
+                LoadRequest loadReq = new LoadRequest();
+                loadReq.setLoadingCity("Q");
+                loadReq.setUnloadingCity("R");
+                loadReq.setShipperId("shipper-querycount");
+                loadReq.setProductType("General");
+                loadReq.setTruckType(TruckType.LARGE.name());
+                loadReq.setNoOfTrucks(trucks);
+                loadReq.setWeight(100.0);
+                loadReq.setWeightUnit(WeightUnit.KG);
+
+                String json = mockMvc.perform(post("/load")
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .content(objectMapper.writeValueAsString(loadReq)))
+                                .andReturn().getResponse().getContentAsString();
+                return com.jayway.jsonpath.JsonPath.read(json, "$.loadId");
+        }
+
+        private String createTransporter(int trucks) throws Exception {
+                TransporterRequest transReq = new TransporterRequest();
+                transReq.setCompanyName("Counter Co");
+                transReq.setRating(4.0);
+                transReq.setAvailableTrucks(Arrays.asList(
+                                new TruckAvailability(TruckType.LARGE.name(), trucks)));
+
+                String json = mockMvc.perform(post("/transporter")
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .content(objectMapper.writeValueAsString(transReq)))
+                                .andReturn().getResponse().getContentAsString();
+                return com.jayway.jsonpath.JsonPath.read(json, "$.transporterId");
+        }
+
+        private String createBid(String loadId, String transporterId, int trucks) throws Exception {
+                BidRequest bidReq = new BidRequest();
+                bidReq.setLoadId(UUID.fromString(loadId));
+                bidReq.setTransporterId(UUID.fromString(transporterId));
+                bidReq.setProposedRate(100.0);
+                bidReq.setTrucksOffered(trucks);
+
+                String json = mockMvc.perform(post("/bid")
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .content(objectMapper.writeValueAsString(bidReq)))
+                                .andReturn().getResponse().getContentAsString();
+                return com.jayway.jsonpath.JsonPath.read(json, "$.bidId");
+        }
+}
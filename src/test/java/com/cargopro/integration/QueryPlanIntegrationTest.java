@@ -0,0 +1,76 @@
+package com.cargopro.integration;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Verifies the hot list queries are planned on the indexes from the Flyway
+ * migrations (db/migration) rather than scanning the table
+ *
+ * H2 also creates a hidden index per foreign key, which it may pick for a
+ * single-column filter; those shapes only assert that no table scan happens.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+public class QueryPlanIntegrationTest {
+
+        private static final String ID = "UUID '00000000-0000-0000-0000-000000000001'";
+
+        @Autowired
+        private JdbcTemplate jdbcTemplate;
+
+        @Test
+        public void loadFiltersShouldUseCompositeIndexes() {
+                assertUsesIndex("IDX_LOADS_SHIPPER_STATUS_DATE_POSTED_ID",
+                                "SELECT * FROM loads WHERE shipper_id = 's' AND status = 'POSTED'");
+                assertUsesIndex("IDX_LOADS_SHIPPER_DATE_POSTED_ID",
+                                "SELECT * FROM loads WHERE shipper_id = 's'");
+                assertUsesIndex("IDX_LOADS_STATUS_DATE_POSTED_ID",
+                                "SELECT * FROM loads WHERE status = 'POSTED'");
+        }
+
+        @Test
+        public void loadScrollShouldReadIndexInOrder() {
+                String plan = explain("SELECT * FROM loads WHERE date_posted < TIMESTAMP '2030-01-01 00:00:00' "
+                                + "ORDER BY date_posted DESC, load_id DESC FETCH FIRST 11 ROWS ONLY");
+
+                assertTrue(plan.contains("IDX_LOADS_DATE_POSTED_ID"), plan);
+                assertTrue(plan.contains("index sorted"), plan);
+        }
+
+        @Test
+        public void bidFiltersShouldUseIndexes() {
+                assertUsesIndex("IDX_BIDS_LOAD_STATUS",
+                                "SELECT * FROM bids WHERE load_id = " + ID + " AND status = 'PENDING'");
+                assertUsesIndex("IDX_BIDS_STATUS_SUBMITTED",
+                                "SELECT * FROM bids WHERE status = 'PENDING' ORDER BY submitted_at DESC, bid_id DESC");
+                assertNoTableScan("SELECT * FROM bids WHERE load_id = " + ID);
+                assertNoTableScan("SELECT * FROM bids WHERE transporter_id = " + ID
+                                + " ORDER BY submitted_at DESC, bid_id DESC");
+        }
+
+        @Test
+        public void bookingLookupsShouldUseIndexes() {
+                assertNoTableScan("SELECT * FROM bookings WHERE load_id = " + ID);
+                assertNoTableScan("SELECT * FROM bookings WHERE transporter_id = " + ID);
+        }
+
+        private void assertUsesIndex(String index, String sql) {
+                String plan = explain(sql);
+                assertTrue(plan.contains("PUBLIC." + index), "Expected " + index + " in plan: " + plan);
+        }
+
+        private void assertNoTableScan(String sql) {
+                String plan = explain(sql);
+                assertFalse(plan.contains("tableScan"), "Table scan in plan: " + plan);
+        }
+
+        private String explain(String sql) {
+                return jdbcTemplate.queryForObject("EXPLAIN " + sql, String.class);
+        }
+}
@@ -0,0 +1,109 @@
+package com.cargopro.integration;
+
+import com.cargopro.dto.LoadRequest;
+import com.cargopro.enums.TruckType;
+import com.cargopro.enums.WeightUnit;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.UUID;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+/**
+ * Verifies the per-request latency breakdown (Server-Timing header and tms.request.db metrics)
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+public class RequestTimingIntegrationTest {
+
+        private static final Pattern STATEMENTS = Pattern.compile("db;dur=[0-9.]+;desc=\"(\\d+) statements\"");
+        private static final Pattern ENTITIES = Pattern.compile("entities;desc=\"(\\d+) loaded\"");
+        private static final Pattern SERIALIZATION = Pattern.compile("ser;dur=([0-9.]+)");
+
+        @Autowired
+        private MockMvc mockMvc;
+
+        @Autowired
+        private ObjectMapper objectMapper;
+
+        @Autowired
+        private MeterRegistry meterRegistry;
+
+        @Test
+        public void responseShouldCarryDbEntityAndSerializationTimings() throws Exception {
+                String loadId = createLoad();
+
+                String serverTiming = mockMvc.perform(get("/load/" + loadId))
+                                .andExpect(status().isOk())
+                                .andExpect(header().exists("Server-Timing"))
+                                .andReturn().getResponse().getHeader("Server-Timing");
+
+                assertTrue(group(STATEMENTS, serverTiming) >= 1, serverTiming);
+                assertTrue(group(ENTITIES, serverTiming) >= 1, serverTiming);
+                assertTrue(Double.parseDouble(matcher(SERIALIZATION, serverTiming).group(1)) > 0, serverTiming);
+                assertTrue(serverTiming.contains("pool;dur="), serverTiming);
+                assertTrue(serverTiming.contains("app;dur="), serverTiming);
+                assertTrue(serverTiming.contains("total;dur="), serverTiming);
+
+                assertTrue(meterRegistry.get("tms.request.db").tag("uri", "/load/{id}").timer().count() >= 1);
+                assertTrue(meterRegistry.get("tms.request.db.statements").tag("uri", "/load/{id}")
+                                .summary().totalAmount() >= 1);
+        }
+
+        @Test
+        public void errorResponsesShouldCarryTimingsToo() throws Exception {
+                String serverTiming = mockMvc.perform(get("/load/" + UUID.randomUUID()))
+                                .andExpect(status().isNotFound())
+                                .andReturn().getResponse().getHeader("Server-Timing");
+
+                assertNotNull(serverTiming);
+                assertEquals(0, group(ENTITIES, serverTiming), serverTiming);
+        }
+
+        @Test
+        public void actuatorShouldNotBeTimed() throws Exception {
+                mockMvc.perform(get("/actuator/health"))
+                                .andExpect(header().doesNotExist("Server-Timing"));
+        }
+
+        private String createLoad() throws Exception {
+                LoadRequest loadReq = new LoadRequest();
+                loadReq.setLoadingCity("A");
+                loadReq.setUnloadingCity("B");
+                loadReq.setShipperId("shipper-timing");
+                loadReq.setProductType("General");
+                loadReq.setTruckType(TruckType.LARGE.name());
+                loadReq.setNoOfTrucks(2);
+                loadReq.setWeight(100.0);
+                loadReq.setWeightUnit(WeightUnit.KG);
+                String json = mockMvc.perform(post("/load")
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .content(objectMapper.writeValueAsString(loadReq)))
+                                .andExpect(header().exists("Server-Timing"))
+                                .andReturn().getResponse().getContentAsString();
+                return com.jayway.jsonpath.JsonPath.read(json, "$.loadId");
+        }
+
+        private static int group(Pattern pattern, String value) {
+                return Integer.parseInt(matcher(pattern, value).group(1));
+        }
+
+        private static Matcher matcher(Pattern pattern, String value) {
+                Matcher matcher = pattern.matcher(value);
+                assertTrue(matcher.find(), pattern + " not in " + value);
+                return matcher;
+        }
+}
@@ -0,0 +1,139 @@
+package com.cargopro.integration;
+
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Records the JDBC round trips made on the thread that called {@link #start()}:
+ * each statement executed on its own, and each batch sent with executeBatch
+ *
+ * Hibernate's statistics count prepared statements, which says nothing about
+ * how many of them were sent together, and miss the outbox batch written with
+ * JdbcTemplate. Work done by other threads (e.g. the outbox poller) is ignored.
+ */
+class RoundTripCountingDataSource extends DelegatingDataSource {
+
+    private volatile Thread owner;
+    private final List<String> statements = new ArrayList<>();
+    private final List<String> batches = new ArrayList<>();
+
+    RoundTripCountingDataSource(DataSource target) {
+        super(target);
+    }
+
+    /**
+     * Forget what was recorded and record the calling thread from now on
+     */
+    synchronized void start() {
+        statements.clear();
+        batches.clear();
+        owner = Thread.currentThread();
+    }
+
+    /**
+     * Statements executed one at a time, in order, e.g. "select" or "update transporter_trucks"
+     */
+    synchronized List<String> statements() {
+        return new ArrayList<>(statements);
+    }
+
+    /**
+     * Batches sent, in order, with their row count, e.g. "insert bookings x1"
+     */
+    synchronized List<String> batches() {
+        return new ArrayList<>(batches);
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return wrap(super.getConnection());
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return wrap(super.getConnection(username, password));
+    }
+
+    private Connection wrap(Connection connection) {
+        return (Connection) Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[] { Connection.class },
+                (proxy, method, args) -> {
+                    Object result = invoke(connection, method, args);
+                    String sql = args != null && args.length > 0 && args[0] instanceof String text ? text : null;
+                    if (result instanceof CallableStatement statement) {
+                        return wrap(statement, CallableStatement.class, sql);
+                    }
+                    if (result instanceof PreparedStatement statement) {
+                        return wrap(statement, PreparedStatement.class, sql);
+                    }
+                    if (result instanceof Statement statement) {
+                        return wrap(statement, Statement.class, null);
+                    }
+                    return result;
+                });
+    }
+
+    private <T extends Statement> T wrap(T statement, Class<T> type, String preparedSql) {
+        int[] batchSize = { 0 };
+        String[] batchSql = { preparedSql };
+        return type.cast(Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[] { type },
+                (proxy, method, args) -> {
+                    String name = method.getName();
+                    String sql = args != null && args.length > 0 && args[0] instanceof String text ? text : preparedSql;
+                    if (name.equals("addBatch")) {
+                        batchSize[0]++;
+                        if (batchSql[0] == null) {
+                            batchSql[0] = sql;
+                        }
+                    } else if (name.equals("clearBatch")) {
+                        batchSize[0] = 0;
+                    } else if (name.equals("executeBatch") || name.equals("executeLargeBatch")) {
+                        record(batches, describe(batchSql[0]) + " x" + batchSize[0]);
+                        batchSize[0] = 0;
+                    } else if (name.startsWith("execute")) {
+                        record(statements, describe(sql));
+                    }
+                    return invoke(statement, method, args);
+                }));
+    }
+
+    private synchronized void record(List<String> calls, String call) {
+        if (Thread.currentThread() == owner) {
+            calls.add(call);
+        }
+    }
+
+    /**
+     * The verb, and for writes the table, of a statement
+     */
+    private static String describe(String sql) {
+        if (sql == null) {
+            return "unknown";
+        }
+        String[] words = sql.trim().toLowerCase(Locale.ROOT).split("\\s+");
+        return switch (words[0]) {
+            case "insert", "delete" -> words[0] + " " + words[2];
+            case "update" -> words[0] + " " + words[1];
+            default -> words[0];
+        };
+    }
+
+    private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException ex) {
+            throw ex.getCause();
+        }
+    }
+}
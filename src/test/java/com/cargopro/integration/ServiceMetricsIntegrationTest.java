@@ -0,0 +1,123 @@
+package com.cargopro.integration;
+
+import com.cargopro.dto.BidRequest;
+import com.cargopro.dto.LoadRequest;
+import com.cargopro.dto.TransporterRequest;
+import com.cargopro.entity.TruckAvailability;
+import com.cargopro.enums.TruckType;
+import com.cargopro.enums.WeightUnit;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.Arrays;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+/**
+ * Verifies service timers, business gauges and the Prometheus scrape endpoint
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@AutoConfigureMockMvc
+@AutoConfigureObservability(tracing = false)
+@ActiveProfiles("test")
+public class ServiceMetricsIntegrationTest {
+
+        @Autowired
+        private MockMvc mockMvc;
+
+        @Autowired
+        private ObjectMapper objectMapper;
+
+        @Autowired
+        private MeterRegistry meterRegistry;
+
+        @Test
+        public void serviceCallsShouldBeTimedWithOutcomeAndException() throws Exception {
+                String loadId = createLoad();
+                String transporterId = createTransporter();
+
+                postBid(loadId, transporterId).andExpect(status().isCreated());
+                postBid(UUID.randomUUID().toString(), transporterId).andExpect(status().isNotFound());
+
+                assertTrue(meterRegistry.get("tms.service")
+                                .tags("class", "BidService", "method", "createBid", "outcome", "success",
+                                                "exception", "none")
+                                .timer().count() >= 1);
+                assertTrue(meterRegistry.get("tms.service")
+                                .tags("class", "BidService", "method", "createBid", "outcome", "client_error",
+                                                "exception", "ResourceNotFoundException")
+                                .timer().count() >= 1);
+                assertTrue(meterRegistry.get("http.server.requests")
+                                .tags("uri", "/bid", "status", "404", "exception", "ResourceNotFoundException")
+                                .timer().count() >= 1);
+        }
+
+        @Test
+        public void prometheusShouldExposeTimersHistogramsAndBusinessGauges() throws Exception {
+                createLoad();
+                createTransporter();
+
+                String scrape = mockMvc.perform(get("/actuator/prometheus"))
+                                .andExpect(status().isOk())
+                                .andReturn().getResponse().getContentAsString();
+
+                assertTrue(scrape.contains("tms_service_seconds_bucket{class=\"LoadService\""), scrape);
+                assertTrue(scrape.contains("tms_loads{status=\"POSTED\""), scrape);
+                assertTrue(scrape.contains("tms_bids{status=\"PENDING\""), scrape);
+                assertTrue(scrape.contains("tms_trucks_available{truck_type=\"LARGE\""), scrape);
+                assertTrue(meterRegistry.get("tms.loads").tag("status", "POSTED").gauge().value() >= 1);
+                assertTrue(meterRegistry.get("tms.trucks.available").tag("truck_type", "LARGE").gauge().value() >= 5);
+        }
+
+        private org.springframework.test.web.servlet.ResultActions postBid(String loadId, String transporterId)
+                        throws Exception {
+                BidRequest bidReq = new BidRequest();
+                bidReq.setLoadId(UUID.fromString(loadId));
+                bidReq.setTransporterId(UUID.fromString(transporterId));
+                bidReq.setProposedRate(500.0);
+                bidReq.setTrucksOffered(1);
+                return mockMvc.perform(post("/bid")
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .content(objectMapper.writeValueAsString(bidReq)));
+        }
+
+        private String createLoad() throws Exception {
+                LoadRequest loadReq = new LoadRequest();
+                loadReq.setLoadingCity("A");
+                loadReq.setUnloadingCity("B");
+                loadReq.setShipperId("shipper-metrics");
+                loadReq.setProductType("General");
+                loadReq.setTruckType(TruckType.LARGE.name());
+                loadReq.setNoOfTrucks(3);
+                loadReq.setWeight(100.0);
+                loadReq.setWeightUnit(WeightUnit.KG);
+                String json = mockMvc.perform(post("/load")
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .content(objectMapper.writeValueAsString(loadReq)))
+                                .andReturn().getResponse().getContentAsString();
+                return com.jayway.jsonpath.JsonPath.read(json, "$.loadId");
+        }
+
+        private String createTransporter() throws Exception {
+                TransporterRequest transReq = new TransporterRequest();
+                transReq.setCompanyName("Metrics Carrier");
+                transReq.setRating(4.0);
+                transReq.setAvailableTrucks(Arrays.asList(new TruckAvailability(TruckType.LARGE.name(), 5)));
+                String json = mockMvc.perform(post("/transporter")
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .content(objectMapper.writeValueAsString(transReq)))
+                                .andReturn().getResponse().getContentAsString();
+                return com.jayway.jsonpath.JsonPath.read(json, "$.transporterId");
+        }
+}
@@ -1,8 +1,11 @@
 package com.cargopro.integration;
 
+import com.cargopro.dto.LoadRequest;
 import com.cargopro.dto.TransporterRequest;
 import com.cargopro.entity.TruckAvailability;
 import com.cargopro.enums.TruckType;
+import com.cargopro.enums.WeightUnit;
+import com.cargopro.service.TransporterService;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -11,10 +14,21 @@ import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.http.MediaType;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
@@ -32,6 +46,9 @@ public class TransporterIntegrationTest {
     @Autowired
     private ObjectMapper objectMapper;
 
+    @Autowired
+    private TransporterService transporterService;
+
     @Test
     public void shouldCreateTransporterSuccessfully() throws Exception {
         TransporterRequest request = new TransporterRequest();
@@ -50,4 +67,129 @@ public class TransporterIntegrationTest {
         // Verifying available trucks structure might be complex via jsonPath simply,
         // but checking size or basic property is okay.
     }
+
+    @Test
+    public void concurrentReservationsShouldNeverOverbookTrucks() throws Exception {
+        TransporterRequest request = new TransporterRequest();
+        request.setCompanyName("Contended Logistics");
+        request.setRating(4.0);
+        request.setAvailableTrucks(Arrays.asList(
+                new TruckAvailability(TruckType.LARGE.name(), 10)));
+
+        String json = mockMvc.perform(post("/transporter")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(request)))
+                .andReturn().getResponse().getContentAsString();
+        UUID transporterId = UUID.fromString(com.jayway.jsonpath.JsonPath.read(json, "$.transporterId"));
+
+        // 25 concurrent single-truck reservations against 10 trucks
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        List<Future<Boolean>> results = new ArrayList<>();
+        for (int i = 0; i < 25; i++) {
+            results.add(pool.submit(() -> transporterService.reserveTrucks(transporterId, "large", 1)));
+        }
+        int reserved = 0;
+        for (Future<Boolean> result : results) {
+            if (result.get()) {
+                reserved++;
+            }
+        }
+        pool.shutdown();
+
+        assertEquals(10, reserved);
+        mockMvc.perform(get("/transporter/" + transporterId))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.availableTrucks[0].count", is(0)));
+    }
+
+    @Test
+    public void matchingShouldFollowFleetAndLoadChanges() throws Exception {
+        // Unique truck type so loads and transporters from other tests do not match
+        String truckType = "MATCH_" + UUID.randomUUID().toString().substring(0, 8).toUpperCase();
+        TransporterRequest transporter = new TransporterRequest();
+        transporter.setCompanyName("Matching Logistics");
+        transporter.setRating(4.0);
+        transporter.setAvailableTrucks(Arrays.asList(new TruckAvailability(truckType, 5)));
+        String json = mockMvc.perform(post("/transporter")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(transporter)))
+                .andReturn().getResponse().getContentAsString();
+        String transporterId = com.jayway.jsonpath.JsonPath.read(json, "$.transporterId");
+
+        LoadRequest load = new LoadRequest();
+        load.setShipperId("shipper-match");
+        load.setLoadingCity("Pune");
+        load.setUnloadingCity("Delhi");
+        load.setProductType("Steel");
+        load.setTruckType(truckType.toLowerCase());
+        load.setNoOfTrucks(2);
+        load.setWeight(10.0);
+        load.setWeightUnit(WeightUnit.TON);
+        json = mockMvc.perform(post("/load")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(load)))
+                .andReturn().getResponse().getContentAsString();
+        String loadId = com.jayway.jsonpath.JsonPath.read(json, "$.loadId");
+
+        mockMvc.perform(get("/transporter/" + transporterId + "/matching-loads"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(1)))
+                .andExpect(jsonPath("$[0].loadId", is(loadId)));
+        mockMvc.perform(get("/load/" + loadId + "/matching-transporters"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(1)))
+                .andExpect(jsonPath("$[0].transporterId", is(transporterId)))
+                .andExpect(jsonPath("$[0].availableTrucks", is(5)));
+
+        // Every truck reserved: the transporter no longer serves the load, nor sees it
+        transporterService.reserveTrucks(UUID.fromString(transporterId), truckType, 5);
+        mockMvc.perform(get("/load/" + loadId + "/matching-transporters"))
+                .andExpect(jsonPath("$", hasSize(0)));
+        mockMvc.perform(get("/transporter/" + transporterId + "/matching-loads"))
+                .andExpect(jsonPath("$", hasSize(0)));
+
+        transporterService.restoreAvailableTrucks(UUID.fromString(transporterId), truckType, 1);
+        mockMvc.perform(patch("/load/" + loadId + "/cancel")).andExpect(status().isOk());
+        mockMvc.perform(get("/transporter/" + transporterId + "/matching-loads"))
+                .andExpect(jsonPath("$", hasSize(0)));
+        mockMvc.perform(get("/load/" + loadId + "/matching-transporters"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(0)));
+    }
+
+    @Test
+    public void shouldStreamEveryTransporterWithAllItsTrucks() throws Exception {
+        List<String> created = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            TransporterRequest request = new TransporterRequest();
+            request.setCompanyName("Streamed Logistics " + i);
+            request.setRating(3.0);
+            request.setAvailableTrucks(Arrays.asList(
+                    new TruckAvailability(TruckType.LARGE.name(), 4),
+                    new TruckAvailability(TruckType.SMALL.name(), i)));
+            String json = mockMvc.perform(post("/transporter")
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(objectMapper.writeValueAsString(request)))
+                    .andReturn().getResponse().getContentAsString();
+            created.add(com.jayway.jsonpath.JsonPath.read(json, "$.transporterId"));
+        }
+
+        MvcResult result = mockMvc.perform(get("/transporter/stream"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        String body = mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+
+        // One line per transporter, each carrying its full truck list
+        Map<String, Integer> truckTypesById = new HashMap<>();
+        for (String line : body.split("\\n")) {
+            var node = objectMapper.readTree(line);
+            assertNull(truckTypesById.put(node.get("transporterId").asText(),
+                    node.get("availableTrucks").size()));
+        }
+        for (String id : created) {
+            assertEquals(2, truckTypesById.get(id));
+        }
+    }
 }
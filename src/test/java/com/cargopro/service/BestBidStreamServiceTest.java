@@ -0,0 +1,117 @@
+package com.cargopro.service;
+
+import com.cargopro.dto.BestBidResponse;
+import com.cargopro.enums.BidStatus;
+import com.cargopro.exception.SubscriberLimitExceededException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.sql.Timestamp;
+import java.util.Collections;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class BestBidStreamServiceTest {
+
+    @Mock
+    private BidOrderBook bidOrderBook;
+
+    @Mock
+    private BidService bidService;
+
+    @InjectMocks
+    private BestBidStreamService streamService;
+
+    private UUID loadId;
+
+    @BeforeEach
+    void setUp() {
+        loadId = UUID.randomUUID();
+        ReflectionTestUtils.setField(streamService, "maxSubscribersPerLoad", 2);
+        ReflectionTestUtils.setField(streamService, "queueCapacity", 16);
+        ReflectionTestUtils.setField(streamService, "timeoutMs", 60000L);
+        ReflectionTestUtils.setField(streamService, "senderThreads", 1);
+        streamService.start();
+    }
+
+    @AfterEach
+    void tearDown() {
+        streamService.stop();
+    }
+
+    @Test
+    void start_ShouldRegisterWithOrderBook() {
+        verify(bidOrderBook).addListener(streamService);
+    }
+
+    @Test
+    void subscribe_ShouldRegisterSubscriberAndLoadSnapshot() {
+        when(bidService.getBestBidsForLoad(loadId)).thenReturn(Collections.emptyList());
+
+        SseEmitter emitter = streamService.subscribe(loadId);
+
+        assertNotNull(emitter);
+        assertEquals(1, streamService.getSubscriberCount(loadId));
+        verify(bidService).getBestBidsForLoad(loadId);
+    }
+
+    @Test
+    void subscribe_WhenLimitReached_ShouldThrowException() {
+        when(bidService.getBestBidsForLoad(loadId)).thenReturn(Collections.emptyList());
+        streamService.subscribe(loadId);
+        streamService.subscribe(loadId);
+
+        assertThrows(SubscriberLimitExceededException.class, () -> streamService.subscribe(loadId));
+        assertEquals(2, streamService.getSubscriberCount(loadId));
+    }
+
+    @Test
+    void subscribe_WhenSnapshotFails_ShouldNotKeepSubscriber() {
+        when(bidService.getBestBidsForLoad(loadId)).thenThrow(new IllegalStateException("boom"));
+
+        assertThrows(IllegalStateException.class, () -> streamService.subscribe(loadId));
+        assertEquals(0, streamService.getSubscriberCount(loadId));
+    }
+
+    @Test
+    void isWatching_ShouldFollowSubscribers() {
+        when(bidService.getBestBidsForLoad(loadId)).thenReturn(Collections.emptyList());
+        assertFalse(streamService.isWatching(loadId));
+
+        streamService.subscribe(loadId);
+
+        assertTrue(streamService.isWatching(loadId));
+        assertFalse(streamService.isWatching(UUID.randomUUID()));
+    }
+
+    @Test
+    void onBidRanked_WithoutSubscribers_ShouldDoNothing() {
+        BestBidResponse bid = new BestBidResponse(UUID.randomUUID(), UUID.randomUUID(), "Company", 4.0,
+                500.0, 2, 0.5, new Timestamp(System.currentTimeMillis()), BidStatus.PENDING);
+
+        assertDoesNotThrow(() -> streamService.onBidRanked(loadId, 0, bid));
+    }
+
+    @Test
+    void onBookClosed_ShouldCompleteSubscribers() throws Exception {
+        when(bidService.getBestBidsForLoad(loadId)).thenReturn(Collections.emptyList());
+        streamService.subscribe(loadId);
+
+        streamService.onBookClosed(loadId);
+
+        for (int i = 0; i < 100 && streamService.getSubscriberCount(loadId) > 0; i++) {
+            Thread.sleep(10);
+        }
+        assertEquals(0, streamService.getSubscriberCount(loadId));
+    }
+}
@@ -0,0 +1,187 @@
+package com.cargopro.service;
+
+import com.cargopro.service.BidAllocator.Allocation;
+import com.cargopro.service.BidAllocator.Option;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BidAllocatorTest {
+
+    @Test
+    void allocate_ShouldPreferExactCoverOverCheapestPerTruck() {
+        // Greedy by rate per truck takes the 5-truck bid and can never reach 6
+        Option five = option(5, 400);
+        Option threeA = option(3, 270);
+        Option threeB = option(3, 280);
+
+        Allocation allocation = BidAllocator.allocate(List.of(five, threeA, threeB), 6);
+
+        assertEquals(Set.of(threeA, threeB), Set.copyOf(allocation.chosen()));
+        assertEquals(6, allocation.trucks());
+        assertEquals(550.0, allocation.cost());
+        assertTrue(allocation.optimal());
+    }
+
+    @Test
+    void allocate_ShouldPickCheapestOfSeveralExactCovers() {
+        Option two = option(2, 200);
+        Option twoExpensive = option(2, 210);
+        Option twoCheap = option(2, 150);
+        Option four = option(4, 500);
+
+        Allocation allocation = BidAllocator.allocate(List.of(two, twoExpensive, twoCheap, four), 4);
+
+        assertEquals(List.of(twoCheap, two), allocation.chosen());
+        assertEquals(350.0, allocation.cost());
+    }
+
+    @Test
+    void allocate_WithoutExactCover_ShouldCoverAsManyTrucksAsPossible() {
+        Option fourA = option(4, 400);
+        Option fourB = option(4, 380);
+        Option three = option(3, 350);
+
+        Allocation allocation = BidAllocator.allocate(List.of(fourA, fourB, three), 10);
+
+        assertEquals(8, allocation.trucks());
+        assertEquals(780.0, allocation.cost());
+        assertEquals(Set.of(fourA, fourB), Set.copyOf(allocation.chosen()));
+    }
+
+    @Test
+    void allocate_ShouldIgnoreBidsLargerThanNeeded() {
+        Allocation allocation = BidAllocator.allocate(List.of(option(6, 10)), 5);
+
+        assertTrue(allocation.chosen().isEmpty());
+        assertEquals(0, allocation.trucks());
+        assertEquals(0.0, allocation.cost());
+    }
+
+    @Test
+    void allocate_ShouldMatchBruteForceOnRandomBids() {
+        Random random = new Random(7);
+        for (int round = 0; round < 50; round++) {
+            List<Option> options = new ArrayList<>();
+            for (int i = 0; i < 12; i++) {
+                options.add(option(1 + random.nextInt(5), 100 + random.nextInt(900)));
+            }
+            int needed = 1 + random.nextInt(20);
+
+            Allocation allocation = BidAllocator.allocate(options, needed);
+
+            int bestTrucks = 0;
+            double bestCost = 0;
+            for (int mask = 1; mask < 1 << options.size(); mask++) {
+                int trucks = 0;
+                double cost = 0;
+                for (int i = 0; i < options.size(); i++) {
+                    if ((mask & 1 << i) != 0) {
+                        trucks += options.get(i).trucks();
+                        cost += options.get(i).cost();
+                    }
+                }
+                if (trucks <= needed && (trucks > bestTrucks || (trucks == bestTrucks && cost < bestCost))) {
+                    bestTrucks = trucks;
+                    bestCost = cost;
+                }
+            }
+            assertEquals(bestTrucks, allocation.trucks());
+            assertEquals(bestCost, allocation.cost(), 1e-6);
+            assertEquals(allocation.trucks(), allocation.chosen().stream().mapToInt(Option::trucks).sum());
+        }
+    }
+
+    @Test
+    void allocate_ShouldKeepEachTransporterWithinItsCapacity() {
+        // The two cheapest bids come from one transporter with 4 free trucks
+        UUID busy = UUID.randomUUID();
+        UUID other = UUID.randomUUID();
+        Option busyA = new Option(UUID.randomUUID(), busy, 3, 150);
+        Option busyB = new Option(UUID.randomUUID(), busy, 3, 160);
+        Option busyOne = new Option(UUID.randomUUID(), busy, 1, 90);
+        Option otherThree = new Option(UUID.randomUUID(), other, 3, 400);
+
+        Allocation allocation = BidAllocator.allocate(List.of(busyA, busyB, busyOne, otherThree),
+                Map.of(busy, 4, other, 3), 6);
+
+        assertEquals(Set.of(busyA, otherThree), Set.copyOf(allocation.chosen()));
+        assertEquals(6, allocation.trucks());
+        assertEquals(550.0, allocation.cost());
+    }
+
+    @Test
+    void allocate_WithCapacities_ShouldMatchBruteForceOnRandomBids() {
+        Random random = new Random(11);
+        List<UUID> transporters = List.of(UUID.randomUUID(), UUID.randomUUID(), UUID.randomUUID());
+        for (int round = 0; round < 50; round++) {
+            Map<UUID, Integer> capacities = new HashMap<>();
+            transporters.forEach(id -> capacities.put(id, 1 + random.nextInt(8)));
+            List<Option> options = new ArrayList<>();
+            for (int i = 0; i < 12; i++) {
+                UUID transporterId = transporters.get(random.nextInt(transporters.size()));
+                options.add(new Option(UUID.randomUUID(), transporterId, 1 + random.nextInt(5),
+                        100 + random.nextInt(900)));
+            }
+            int needed = 1 + random.nextInt(20);
+
+            Allocation allocation = BidAllocator.allocate(options, capacities, needed);
+
+            int bestTrucks = 0;
+            double bestCost = 0;
+            for (int mask = 1; mask < 1 << options.size(); mask++) {
+                int trucks = 0;
+                double cost = 0;
+                Map<UUID, Integer> used = new HashMap<>();
+                for (int i = 0; i < options.size(); i++) {
+                    if ((mask & 1 << i) != 0) {
+                        trucks += options.get(i).trucks();
+                        cost += options.get(i).cost();
+                        used.merge(options.get(i).transporterId(), options.get(i).trucks(), Integer::sum);
+                    }
+                }
+                boolean withinCapacity = used.entrySet().stream()
+                        .allMatch(entry -> entry.getValue() <= capacities.get(entry.getKey()));
+                if (withinCapacity && trucks <= needed
+                        && (trucks > bestTrucks || (trucks == bestTrucks && cost < bestCost))) {
+                    bestTrucks = trucks;
+                    bestCost = cost;
+                }
+            }
+            assertEquals(bestTrucks, allocation.trucks());
+            assertEquals(bestCost, allocation.cost(), 1e-6);
+            Map<UUID, Integer> used = new HashMap<>();
+            allocation.chosen().forEach(option -> used.merge(option.transporterId(), option.trucks(), Integer::sum));
+            used.forEach((id, trucks) -> assertTrue(trucks <= capacities.get(id)));
+        }
+    }
+
+    @Test
+    void allocate_WhenTableTooLarge_ShouldFallBackToGreedy() {
+        int needed = 20_000;
+        List<Option> options = new ArrayList<>();
+        for (int i = 0; i < 1001; i++) {
+            options.add(option(1, 100 + i));
+        }
+
+        Allocation allocation = BidAllocator.allocate(options, needed);
+
+        assertFalse(allocation.optimal());
+        assertEquals(1001, allocation.trucks());
+        assertEquals(options.stream().map(Option::bidId).collect(Collectors.toSet()),
+                allocation.chosen().stream().map(Option::bidId).collect(Collectors.toSet()));
+    }
+
+    private static Option option(int trucks, double cost) {
+        return new Option(UUID.randomUUID(), trucks, cost);
+    }
+}
@@ -0,0 +1,372 @@
+package com.cargopro.service;
+
+import com.cargopro.dto.BestBidResponse;
+import com.cargopro.entity.Bid;
+import com.cargopro.entity.Load;
+import com.cargopro.entity.ShipperScoring;
+import com.cargopro.entity.Transporter;
+import com.cargopro.enums.BidStatus;
+import com.cargopro.enums.LoadStatus;
+import com.cargopro.repository.BookingRepository;
+import com.cargopro.repository.ShipperScoringRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class BidOrderBookTest {
+
+    private BidOrderBook orderBook;
+    private Load testLoad;
+    private UUID loadId;
+
+    @BeforeEach
+    void setUp() {
+        orderBook = orderBook(BidScorerTest.defaultScorer());
+        loadId = UUID.randomUUID();
+        testLoad = new Load();
+        testLoad.setLoadId(loadId);
+        testLoad.setShipperId("shipper-1");
+        testLoad.setStatus(LoadStatus.OPEN_FOR_BIDS);
+    }
+
+    @Test
+    void getRankedBids_ShouldRankByScoreDescending() {
+        Bid cheap = createBid(400.0, 3.0);
+        Bid expensive = createBid(900.0, 3.0);
+
+        List<BestBidResponse> result = orderBook.getRankedBids(loadId, () -> Arrays.asList(expensive, cheap));
+
+        assertEquals(cheap.getBidId(), result.get(0).getBidId());
+        assertEquals(expensive.getBidId(), result.get(1).getBidId());
+    }
+
+    @Test
+    void getRankedBids_ShouldOnlyLoadOnce() {
+        AtomicInteger loads = new AtomicInteger();
+        Bid bid = createBid(500.0, 4.0);
+
+        orderBook.getRankedBids(loadId, () -> {
+            loads.incrementAndGet();
+            return Collections.singletonList(bid);
+        });
+        orderBook.getRankedBids(loadId, () -> {
+            loads.incrementAndGet();
+            return Collections.singletonList(bid);
+        });
+
+        assertEquals(1, loads.get());
+    }
+
+    @Test
+    void upsert_ShouldReplaceExistingEntry() {
+        Bid bid = createBid(500.0, 4.0);
+        orderBook.getRankedBids(loadId, () -> new ArrayList<>(List.of(bid)));
+
+        bid.setProposedRate(250.0);
+        orderBook.upsert(bid, Collections::emptyList);
+
+        List<BestBidResponse> result = orderBook.getRankedBids(loadId, Collections::emptyList);
+        assertEquals(1, result.size());
+        assertEquals(250.0, result.get(0).getProposedRate());
+    }
+
+    @Test
+    void upsert_WhenBookNotBuilt_ShouldBeIgnoredUntilNextLoad() {
+        Bid bid = createBid(500.0, 4.0);
+        orderBook.upsert(bid, Collections::emptyList);
+
+        List<BestBidResponse> result = orderBook.getRankedBids(loadId, Collections::emptyList);
+
+        assertTrue(result.isEmpty());
+    }
+
+    @Test
+    void upsert_ShouldNotifyListenersWithNewRank() {
+        Bid first = createBid(500.0, 4.0);
+        orderBook.getRankedBids(loadId, () -> Collections.singletonList(first));
+        List<Integer> ranks = new ArrayList<>();
+        orderBook.addListener(new BidOrderBook.Listener() {
+            @Override
+            public void onBidRanked(UUID id, int rank, BestBidResponse bid) {
+                ranks.add(rank);
+            }
+
+            @Override
+            public void onBookClosed(UUID id) {
+                ranks.add(-1);
+            }
+        });
+
+        orderBook.upsert(createBid(100.0, 4.0), Collections::emptyList);
+        orderBook.upsert(createBid(900.0, 4.0), Collections::emptyList);
+        orderBook.invalidate(loadId);
+
+        assertEquals(Arrays.asList(0, 2, -1), ranks);
+    }
+
+    @Test
+    void upsert_WhenWatchedLoadHasNoBook_ShouldRebuildAndNotifyRank() {
+        Bid first = createBid(500.0, 4.0);
+        Bid better = createBid(100.0, 4.0);
+        List<Integer> ranks = new ArrayList<>();
+        orderBook.addListener(new BidOrderBook.Listener() {
+            @Override
+            public void onBidRanked(UUID id, int rank, BestBidResponse bid) {
+                assertEquals(better.getBidId(), bid.getBidId());
+                ranks.add(rank);
+            }
+
+            @Override
+            public void onBookClosed(UUID id) {
+            }
+
+            @Override
+            public boolean isWatching(UUID id) {
+                return loadId.equals(id);
+            }
+        });
+        // Subscribed while the load had no bids, so nothing was cached
+        assertTrue(orderBook.getRankedBids(loadId, Collections::emptyList).isEmpty());
+
+        orderBook.upsert(better, () -> List.of(first, better));
+
+        assertEquals(List.of(0), ranks);
+        assertEquals(2, orderBook.getRankedBids(loadId, Collections::emptyList).size());
+    }
+
+    @Test
+    void getRankedBids_WhenBidCommittedWhileLoading_ShouldNotCacheStaleBook() {
+        Bid first = createBid(500.0, 4.0);
+        Bid second = createBid(400.0, 4.0);
+        AtomicInteger loads = new AtomicInteger();
+
+        List<BestBidResponse> result = orderBook.getRankedBids(loadId, () -> {
+            loads.incrementAndGet();
+            // Another transaction commits a bid after this snapshot was read
+            orderBook.upsert(second, Collections::emptyList);
+            return List.of(first);
+        });
+        assertEquals(1, result.size());
+
+        result = orderBook.getRankedBids(loadId, () -> {
+            loads.incrementAndGet();
+            return List.of(first, second);
+        });
+        assertEquals(2, loads.get());
+        assertEquals(second.getBidId(), result.get(0).getBidId());
+    }
+
+    @Test
+    void getRankedBids_WhenOtherLoadOrShipperChangesWhileLoading_ShouldCacheBook() {
+        Load otherLoad = new Load();
+        otherLoad.setLoadId(UUID.randomUUID());
+        otherLoad.setShipperId("shipper-2");
+        otherLoad.setStatus(LoadStatus.OPEN_FOR_BIDS);
+        Bid otherBid = createBid(300.0, 4.0);
+        otherBid.setLoad(otherLoad);
+        Bid bid = createBid(500.0, 4.0);
+        AtomicInteger loads = new AtomicInteger();
+
+        orderBook.getRankedBids(loadId, () -> {
+            loads.incrementAndGet();
+            orderBook.upsert(otherBid, Collections::emptyList);
+            orderBook.rescore("shipper-2");
+            return List.of(bid);
+        });
+        orderBook.getRankedBids(loadId, () -> {
+            loads.incrementAndGet();
+            return List.of(bid);
+        });
+
+        assertEquals(1, loads.get());
+    }
+
+    @Test
+    void getRankedBids_WhenShipperRescoredWhileScoring_ShouldNotCacheBook() {
+        BidScorer scorer = spy(BidScorerTest.defaultScorer());
+        ReflectionTestUtils.setField(orderBook, "bidScorer", scorer);
+        AtomicBoolean rescored = new AtomicBoolean();
+        doAnswer(invocation -> {
+            // The shipper's weights change after this book started scoring
+            if (rescored.compareAndSet(false, true)) {
+                orderBook.rescore("shipper-1");
+            }
+            return invocation.callRealMethod();
+        }).when(scorer).score(eq("shipper-1"), any());
+        Bid bid = createBid(500.0, 4.0);
+        AtomicInteger loads = new AtomicInteger();
+
+        orderBook.getRankedBids(loadId, () -> {
+            loads.incrementAndGet();
+            return List.of(bid);
+        });
+        orderBook.getRankedBids(loadId, () -> {
+            loads.incrementAndGet();
+            return List.of(bid);
+        });
+
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    void getRankedBids_WhenLoadHasNoShipper_ShouldRankAndCacheBook() {
+        testLoad.setShipperId(null);
+        Bid cheap = createBid(400.0, 3.0);
+        Bid expensive = createBid(900.0, 3.0);
+        AtomicInteger loads = new AtomicInteger();
+
+        List<BestBidResponse> result = orderBook.getRankedBids(loadId, () -> {
+            loads.incrementAndGet();
+            return Arrays.asList(expensive, cheap);
+        });
+        orderBook.getRankedBids(loadId, () -> {
+            loads.incrementAndGet();
+            return Arrays.asList(expensive, cheap);
+        });
+
+        assertEquals(cheap.getBidId(), result.get(0).getBidId());
+        assertEquals(1, loads.get());
+    }
+
+    @Test
+    void invalidate_ShouldForceReload() {
+        Bid bid = createBid(500.0, 4.0);
+        orderBook.getRankedBids(loadId, () -> Collections.singletonList(bid));
+
+        orderBook.invalidate(loadId);
+
+        List<BestBidResponse> result = orderBook.getRankedBids(loadId, Collections::emptyList);
+        assertTrue(result.isEmpty());
+    }
+
+    @Test
+    void getRankedBids_WhenLoadCancelled_ShouldNotCacheBook() {
+        testLoad.setStatus(LoadStatus.CANCELLED);
+        AtomicInteger loads = new AtomicInteger();
+        Bid bid = createBid(500.0, 4.0);
+
+        orderBook.getRankedBids(loadId, () -> {
+            loads.incrementAndGet();
+            return Collections.singletonList(bid);
+        });
+        orderBook.getRankedBids(loadId, () -> {
+            loads.incrementAndGet();
+            return Collections.singletonList(bid);
+        });
+
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    void getRankedBids_ShouldReturnCopiesOfBookEntries() {
+        Bid bid = createBid(500.0, 4.0);
+        orderBook.getRankedBids(loadId, () -> Collections.singletonList(bid)).get(0).setScore(-1.0);
+
+        List<BestBidResponse> result = orderBook.getRankedBids(loadId, Collections::emptyList);
+
+        assertEquals(BidOrderBook.score(500.0, 4.0), result.get(0).getScore());
+    }
+
+    @Test
+    void getTopBids_ShouldKeepStatusesApartAndMergeThemWhenAsked() {
+        Bid pending = createBid(500.0, 4.0);
+        Bid accepted = createBid(400.0, 4.0);
+        accepted.setStatus(BidStatus.ACCEPTED);
+        Bid rejected = createBid(300.0, 4.0);
+        orderBook.getRankedBids(loadId, () -> Arrays.asList(pending, accepted, rejected));
+
+        rejected.setStatus(BidStatus.REJECTED);
+        orderBook.upsert(rejected, Collections::emptyList);
+
+        List<BestBidResponse> pendingOnly = orderBook.getTopBids(loadId, Collections::emptyList,
+                BidStatus.PENDING, null, null, 10);
+        assertEquals(1, pendingOnly.size());
+        assertEquals(pending.getBidId(), pendingOnly.get(0).getBidId());
+        assertEquals(BidStatus.PENDING, pendingOnly.get(0).getStatus());
+        List<BestBidResponse> all = orderBook.getRankedBids(loadId, Collections::emptyList);
+        assertEquals(Arrays.asList(rejected.getBidId(), accepted.getBidId(), pending.getBidId()),
+                all.stream().map(BestBidResponse::getBidId).toList());
+        assertEquals(BidStatus.REJECTED, all.get(0).getStatus());
+    }
+
+    @Test
+    void getTopBids_ShouldStopAtLimitAndApplyRateAndRatingFilters() {
+        List<Bid> bids = new ArrayList<>();
+        for (int i = 0; i < 50; i++) {
+            bids.add(createBid(100.0 + i * 10, i % 2 == 0 ? 4.0 : 2.0));
+        }
+        orderBook.getRankedBids(loadId, () -> bids);
+
+        List<BestBidResponse> result = orderBook.getTopBids(loadId, Collections::emptyList,
+                BidStatus.PENDING, 3.0, 300.0, 3);
+
+        assertEquals(Arrays.asList(100.0, 120.0, 140.0),
+                result.stream().map(BestBidResponse::getProposedRate).toList());
+        assertTrue(orderBook.getTopBids(loadId, Collections::emptyList, BidStatus.PENDING, 3.0, 50.0, 3).isEmpty());
+    }
+
+    @Test
+    void rescore_ShouldReRankShipperBooksWithNewWeights() {
+        ShipperScoringRepository shipperScoringRepository = mock(ShipperScoringRepository.class);
+        BidScorer scorer = BidScorerTest.scorer(shipperScoringRepository, mock(BookingRepository.class));
+        ReflectionTestUtils.setField(orderBook, "bidScorer", scorer);
+        Bid cheapLowRated = createBid(400.0, 1.0);
+        Bid dearHighRated = createBid(450.0, 5.0);
+        orderBook.getRankedBids(loadId, () -> Arrays.asList(cheapLowRated, dearHighRated));
+
+        ShipperScoring rateOnly = new ShipperScoring();
+        rateOnly.setStrategy(WeightedBidScoring.NAME);
+        rateOnly.setRateWeight(1.0);
+        when(shipperScoringRepository.findById("shipper-1")).thenReturn(Optional.of(rateOnly));
+        scorer.evict("shipper-1");
+        orderBook.rescore("other-shipper");
+        assertEquals(dearHighRated.getBidId(),
+                orderBook.getRankedBids(loadId, Collections::emptyList).get(0).getBidId());
+
+        orderBook.rescore("shipper-1");
+
+        List<BestBidResponse> result = orderBook.getRankedBids(loadId, Collections::emptyList);
+        assertEquals(cheapLowRated.getBidId(), result.get(0).getBidId());
+        assertEquals(1.0 / 400.0, result.get(0).getScore());
+        assertEquals(1.0 / 450.0, result.get(1).getScore());
+    }
+
+    static BidOrderBook orderBook(BidScorer scorer) {
+        BidOrderBook orderBook = new BidOrderBook();
+        ReflectionTestUtils.setField(orderBook, "bidScorer", scorer);
+        ReflectionTestUtils.setField(orderBook, "maxLoads", 100L);
+        ReflectionTestUtils.setField(orderBook, "idleTtlMs", 60000L);
+        orderBook.start();
+        return orderBook;
+    }
+
+    private Bid createBid(double rate, double rating) {
+        Transporter t = new Transporter();
+        t.setTransporterId(UUID.randomUUID());
+        t.setCompanyName("Company");
+        t.setRating(rating);
+
+        Bid bid = new Bid();
+        bid.setBidId(UUID.randomUUID());
+        bid.setLoad(testLoad);
+        bid.setTransporter(t);
+        bid.setProposedRate(rate);
+        bid.setTrucksOffered(1);
+        bid.setStatus(BidStatus.PENDING);
+        bid.setSubmittedAt(LocalDateTime.now());
+        return bid;
+    }
+}
@@ -0,0 +1,174 @@
+package com.cargopro.service;
+
+import com.cargopro.entity.Bid;
+import com.cargopro.entity.Load;
+import com.cargopro.entity.ShipperScoring;
+import com.cargopro.entity.Transporter;
+import com.cargopro.enums.WeightUnit;
+import com.cargopro.repository.BookingRepository;
+import com.cargopro.repository.ShipperScoringRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class BidScorerTest {
+
+    private ShipperScoringRepository shipperScoringRepository;
+    private BookingRepository bookingRepository;
+    private BidScorer scorer;
+    private Load load;
+
+    /**
+     * Scorer with only the default strategy, no stored settings and no booking history
+     */
+    static BidScorer defaultScorer() {
+        return scorer(mock(ShipperScoringRepository.class), mock(BookingRepository.class));
+    }
+
+    static BidScorer scorer(ShipperScoringRepository shipperScoringRepository,
+            BookingRepository bookingRepository) {
+        BidScorer scorer = new BidScorer();
+        ReflectionTestUtils.setField(scorer, "strategyBeans", List.of(new WeightedBidScoring()));
+        ReflectionTestUtils.setField(scorer, "shipperScoringRepository", shipperScoringRepository);
+        ReflectionTestUtils.setField(scorer, "bookingRepository", bookingRepository);
+        ReflectionTestUtils.setField(scorer, "maxShippers", 100L);
+        ReflectionTestUtils.setField(scorer, "reliabilityTtlMs", 60000L);
+        scorer.start();
+        return scorer;
+    }
+
+    @BeforeEach
+    void setUp() {
+        shipperScoringRepository = mock(ShipperScoringRepository.class);
+        bookingRepository = mock(BookingRepository.class);
+        scorer = scorer(shipperScoringRepository, bookingRepository);
+
+        load = new Load();
+        load.setShipperId("shipper-1");
+        load.setNoOfTrucks(10);
+        load.setWeight(20000.0);
+        load.setWeightUnit(WeightUnit.KG);
+    }
+
+    @Test
+    void score_WithDefaultWeights_ShouldMatchOriginalScore() {
+        List<Bid> bids = List.of(createBid(500.0, 2, 4.0), createBid(123.4, 7, 2.5));
+
+        double[] scores = scorer.score("shipper-1", scorer.features(load, bids));
+
+        assertEquals(BidOrderBook.score(500.0, 4.0), scores[0]);
+        assertEquals(BidOrderBook.score(123.4, 2.5), scores[1]);
+    }
+
+    @Test
+    void score_WithRatePerTonneWeight_ShouldPreferCheaperTonnes() {
+        when(shipperScoringRepository.findById("shipper-1"))
+                .thenReturn(Optional.of(settings(WeightedBidScoring.NAME, 0, 0, 1.0, 0, 0)));
+        // 20 t over 10 trucks: 2 trucks carry 4 t for 400 (100/t), 5 trucks carry 10 t for 800 (80/t)
+        List<Bid> bids = List.of(createBid(400.0, 2, 5.0), createBid(800.0, 5, 1.0));
+
+        double[] scores = scorer.score("shipper-1", scorer.features(load, bids));
+
+        assertEquals(1.0 / 100.0, scores[0], 1e-12);
+        assertEquals(1.0 / 80.0, scores[1], 1e-12);
+    }
+
+    @Test
+    void features_ShouldDeriveReliabilityFromBookingHistory() {
+        Bid kept = createBid(500.0, 1, 4.0);
+        Bid flaky = createBid(500.0, 1, 4.0);
+        Bid unknown = createBid(500.0, 1, 4.0);
+        when(bookingRepository.countOutcomesByTransporter(any())).thenReturn(List.of(
+                outcomes(kept.getTransporter().getTransporterId(), 3, 0),
+                outcomes(flaky.getTransporter().getTransporterId(), 3, 3)));
+
+        BidFeatures features = scorer.features(load, List.of(kept, flaky, unknown));
+        scorer.features(load, List.of(kept, flaky, unknown));
+
+        assertEquals(1.0, features.reliability()[0]);
+        assertEquals(0.25, features.reliability()[1]);
+        assertEquals(1.0, features.reliability()[2]);
+        assertEquals(20.0, features.tonnes());
+        verify(bookingRepository, times(1)).countOutcomesByTransporter(any());
+    }
+
+    @Test
+    void evict_ShouldReloadShipperSettings() {
+        List<Bid> bids = List.of(createBid(500.0, 1, 4.0));
+        scorer.score("shipper-1", scorer.features(load, bids));
+        when(shipperScoringRepository.findById("shipper-1"))
+                .thenReturn(Optional.of(settings(WeightedBidScoring.NAME, 0, 0, 0, 1.0, 0)));
+
+        double cached = scorer.score("shipper-1", scorer.features(load, bids))[0];
+        scorer.evict("shipper-1");
+        double reloaded = scorer.score("shipper-1", scorer.features(load, bids))[0];
+
+        assertEquals(BidOrderBook.score(500.0, 4.0), cached);
+        assertEquals(0.8, reloaded, 1e-12);
+    }
+
+    @Test
+    void score_WhenStoredStrategyMissing_ShouldUseDefaultStrategy() {
+        when(shipperScoringRepository.findById("shipper-1"))
+                .thenReturn(Optional.of(settings("retired", 0.7, 0, 0, 0.3, 0)));
+
+        double[] scores = scorer.score("shipper-1", scorer.features(load, List.of(createBid(500.0, 1, 4.0))));
+
+        assertEquals(BidOrderBook.score(500.0, 4.0), scores[0]);
+        assertFalse(scorer.hasStrategy("retired"));
+        assertTrue(scorer.hasStrategy(WeightedBidScoring.NAME));
+    }
+
+    private Bid createBid(double rate, int trucks, double rating) {
+        Transporter transporter = new Transporter();
+        transporter.setTransporterId(UUID.randomUUID());
+        transporter.setRating(rating);
+        Bid bid = new Bid();
+        bid.setBidId(UUID.randomUUID());
+        bid.setLoad(load);
+        bid.setTransporter(transporter);
+        bid.setProposedRate(rate);
+        bid.setTrucksOffered(trucks);
+        return bid;
+    }
+
+    private ShipperScoring settings(String strategy, double rate, double perTruck, double perTonne,
+            double rating, double reliability) {
+        ShipperScoring scoring = new ShipperScoring();
+        scoring.setShipperId("shipper-1");
+        scoring.setStrategy(strategy);
+        scoring.setRateWeight(rate);
+        scoring.setRatePerTruckWeight(perTruck);
+        scoring.setRatePerTonneWeight(perTonne);
+        scoring.setRatingWeight(rating);
+        scoring.setReliabilityWeight(reliability);
+        return scoring;
+    }
+
+    private BookingRepository.BookingOutcomes outcomes(UUID transporterId, long total, long cancelled) {
+        return new BookingRepository.BookingOutcomes() {
+            @Override
+            public UUID getTransporterId() {
+                return transporterId;
+            }
+
+            @Override
+            public long getTotal() {
+                return total;
+            }
+
+            @Override
+            public long getCancelled() {
+                return cancelled;
+            }
+        };
+    }
+}
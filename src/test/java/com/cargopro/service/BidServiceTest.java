@@ -1,6 +1,7 @@
 package com.cargopro.service;
 
 import com.cargopro.dto.BestBidResponse;
+import com.cargopro.dto.BidBatchResponse;
 import com.cargopro.dto.BidRequest;
 import com.cargopro.dto.BidResponse;
 import com.cargopro.entity.Bid;
@@ -10,26 +11,41 @@ import com.cargopro.entity.TruckAvailability;
 import com.cargopro.enums.BidStatus;
 import com.cargopro.enums.LoadStatus;
 import com.cargopro.exception.InsufficientCapacityException;
+import com.cargopro.exception.InvalidOperationException;
 import com.cargopro.exception.InvalidStatusTransitionException;
 import com.cargopro.exception.ResourceNotFoundException;
 import com.cargopro.repository.BidRepository;
+import jakarta.persistence.EntityManager;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.domain.Specification;
+import org.springframework.test.util.ReflectionTestUtils;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
+import java.util.stream.Stream;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.argThat;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -44,6 +60,15 @@ class BidServiceTest {
     @Mock
     private TransporterService transporterService;
 
+    @Spy
+    private BidOrderBook bidOrderBook = new BidOrderBook();
+
+    @Mock
+    private EntityManager entityManager;
+
+    @Mock
+    private DomainEventPublisher domainEventPublisher;
+
     @InjectMocks
     private BidService bidService;
 
@@ -56,6 +81,10 @@ class BidServiceTest {
 
     @BeforeEach
     void setUp() {
+        ReflectionTestUtils.setField(bidOrderBook, "bidScorer", BidScorerTest.defaultScorer());
+        ReflectionTestUtils.setField(bidOrderBook, "maxLoads", 100L);
+        ReflectionTestUtils.setField(bidOrderBook, "idleTtlMs", 60000L);
+        bidOrderBook.start();
         loadId = UUID.randomUUID();
         transporterId = UUID.randomUUID();
         bidId = UUID.randomUUID();
@@ -92,7 +121,8 @@ class BidServiceTest {
         request.setTrucksOffered(5);
 
         when(loadService.getLoadEntity(loadId)).thenReturn(testLoad);
-        when(transporterService.getTransporterEntity(transporterId)).thenReturn(testTransporter);
+        when(transporterService.getTransporterReference(transporterId)).thenReturn(testTransporter);
+        when(transporterService.getAvailableTruckCount(transporterId, "LARGE")).thenReturn(20);
         when(bidRepository.save(any(Bid.class))).thenReturn(testBid);
 
         BidResponse response = bidService.createBid(request);
@@ -102,6 +132,7 @@ class BidServiceTest {
         assertEquals(5, response.getTrucksOffered());
         verify(loadService).save(testLoad); // Status should be updated to OPEN_FOR_BIDS
         assertEquals(LoadStatus.OPEN_FOR_BIDS, testLoad.getStatus());
+        verify(domainEventPublisher).publish(eq(DomainEventPublisher.BID_PLACED), eq(testBid.getBidId()), any());
     }
 
     @Test
@@ -115,7 +146,8 @@ class BidServiceTest {
         request.setTrucksOffered(5);
 
         when(loadService.getLoadEntity(loadId)).thenReturn(testLoad);
-        when(transporterService.getTransporterEntity(transporterId)).thenReturn(testTransporter);
+        when(transporterService.getTransporterReference(transporterId)).thenReturn(testTransporter);
+        when(transporterService.getAvailableTruckCount(transporterId, "LARGE")).thenReturn(20);
         when(bidRepository.save(any(Bid.class))).thenReturn(testBid);
 
         bidService.createBid(request);
@@ -134,7 +166,7 @@ class BidServiceTest {
         request.setTrucksOffered(5);
 
         when(loadService.getLoadEntity(loadId)).thenReturn(testLoad);
-        when(transporterService.getTransporterEntity(transporterId)).thenReturn(testTransporter);
+        when(transporterService.getTransporterReference(transporterId)).thenReturn(testTransporter);
 
         assertThrows(InvalidStatusTransitionException.class, () -> bidService.createBid(request));
     }
@@ -150,7 +182,7 @@ class BidServiceTest {
         request.setTrucksOffered(5);
 
         when(loadService.getLoadEntity(loadId)).thenReturn(testLoad);
-        when(transporterService.getTransporterEntity(transporterId)).thenReturn(testTransporter);
+        when(transporterService.getTransporterReference(transporterId)).thenReturn(testTransporter);
 
         InvalidStatusTransitionException exception = assertThrows(
                 InvalidStatusTransitionException.class,
@@ -160,9 +192,6 @@ class BidServiceTest {
 
     @Test
     void createBid_WhenInsufficientTransporterTrucks_ShouldThrowException() {
-        testTransporter.setAvailableTrucks(Arrays.asList(
-                new TruckAvailability("LARGE", 2) // Only 2 trucks available
-        ));
 
         BidRequest request = new BidRequest();
         request.setLoadId(loadId);
@@ -171,7 +200,8 @@ class BidServiceTest {
         request.setTrucksOffered(5); // Requesting 5
 
         when(loadService.getLoadEntity(loadId)).thenReturn(testLoad);
-        when(transporterService.getTransporterEntity(transporterId)).thenReturn(testTransporter);
+        when(transporterService.getTransporterReference(transporterId)).thenReturn(testTransporter);
+        when(transporterService.getAvailableTruckCount(transporterId, "LARGE")).thenReturn(2); // Only 2 trucks available
 
         InsufficientCapacityException exception = assertThrows(
                 InsufficientCapacityException.class,
@@ -181,9 +211,6 @@ class BidServiceTest {
 
     @Test
     void createBid_WhenNoMatchingTruckType_ShouldThrowException() {
-        testTransporter.setAvailableTrucks(Arrays.asList(
-                new TruckAvailability("SMALL", 20) // Wrong type
-        ));
 
         BidRequest request = new BidRequest();
         request.setLoadId(loadId);
@@ -192,7 +219,8 @@ class BidServiceTest {
         request.setTrucksOffered(5);
 
         when(loadService.getLoadEntity(loadId)).thenReturn(testLoad);
-        when(transporterService.getTransporterEntity(transporterId)).thenReturn(testTransporter);
+        when(transporterService.getTransporterReference(transporterId)).thenReturn(testTransporter);
+        when(transporterService.getAvailableTruckCount(transporterId, "LARGE")).thenReturn(0); // No trucks of this type
 
         InsufficientCapacityException exception = assertThrows(
                 InsufficientCapacityException.class,
@@ -211,7 +239,8 @@ class BidServiceTest {
         request.setTrucksOffered(5); // Offering 5
 
         when(loadService.getLoadEntity(loadId)).thenReturn(testLoad);
-        when(transporterService.getTransporterEntity(transporterId)).thenReturn(testTransporter);
+        when(transporterService.getTransporterReference(transporterId)).thenReturn(testTransporter);
+        when(transporterService.getAvailableTruckCount(transporterId, "LARGE")).thenReturn(20);
 
         InsufficientCapacityException exception = assertThrows(
                 InsufficientCapacityException.class,
@@ -219,60 +248,162 @@ class BidServiceTest {
         assertTrue(exception.getMessage().contains("remaining trucks"));
     }
 
+    @Test
+    @SuppressWarnings("unchecked")
+    void createBids_ShouldCreateValidBidsAndReportFailuresPerItem() {
+        UUID missingLoadId = UUID.randomUUID();
+        when(loadService.getLoadEntities(anyCollection())).thenReturn(Map.of(loadId, testLoad));
+        when(transporterService.getTransporterEntities(anyCollection()))
+                .thenReturn(Map.of(transporterId, testTransporter));
+        when(transporterService.getAvailableTruckCounts(anyCollection()))
+                .thenReturn(Map.of(transporterId, Map.of("LARGE", 6)));
+        when(bidRepository.saveAll(anyList())).thenAnswer(invocation -> {
+            List<Bid> bids = invocation.getArgument(0);
+            bids.forEach(bid -> {
+                bid.setBidId(UUID.randomUUID());
+                bid.setSubmittedAt(LocalDateTime.now());
+            });
+            return bids;
+        });
+
+        BidBatchResponse response = bidService.createBids(List.of(
+                bidRequest(loadId, 500.0, 5),
+                bidRequest(missingLoadId, 500.0, 1),
+                bidRequest(loadId, 450.0, 7),
+                bidRequest(loadId, 400.0, 2)));
+
+        assertEquals(2, response.getCreated());
+        assertEquals(2, response.getFailed());
+        assertTrue(response.getResults().get(0).isCreated());
+        assertEquals(500.0, response.getResults().get(0).getBid().getProposedRate());
+        assertFalse(response.getResults().get(1).isCreated());
+        assertTrue(response.getResults().get(1).getError().contains("Load not found"));
+        assertTrue(response.getResults().get(2).getError().contains("only has 6 available trucks"));
+        assertEquals(3, response.getResults().get(3).getIndex());
+        assertTrue(response.getResults().get(3).isCreated());
+
+        verify(loadService, times(1)).getLoadEntities(Set.of(loadId, missingLoadId));
+        verify(transporterService, times(1)).getTransporterEntities(Set.of(transporterId));
+        verify(transporterService, never()).getAvailableTruckCount(any(), any());
+        verify(bidRepository, times(1)).saveAll(argThat(bids -> ((List<Bid>) bids).size() == 2));
+        verify(bidRepository, never()).save(any(Bid.class));
+    }
+
+    @Test
+    void createBids_ShouldOpenPostedLoadOnce() {
+        when(loadService.getLoadEntities(anyCollection())).thenReturn(Map.of(loadId, testLoad));
+        when(transporterService.getTransporterEntities(anyCollection()))
+                .thenReturn(Map.of(transporterId, testTransporter));
+        when(transporterService.getAvailableTruckCounts(anyCollection()))
+                .thenReturn(Map.of(transporterId, Map.of("LARGE", 20)));
+        when(bidRepository.saveAll(anyList())).thenAnswer(invocation -> {
+            List<Bid> bids = invocation.getArgument(0);
+            bids.forEach(bid -> {
+                bid.setBidId(UUID.randomUUID());
+                bid.setSubmittedAt(LocalDateTime.now());
+            });
+            return bids;
+        });
+
+        bidService.createBids(List.of(bidRequest(loadId, 500.0, 1), bidRequest(loadId, 450.0, 1)));
+
+        assertEquals(LoadStatus.OPEN_FOR_BIDS, testLoad.getStatus());
+        verify(loadService, times(1)).save(testLoad);
+    }
+
+    @Test
+    void createBids_WhenTransporterNotFound_ShouldFailItem() {
+        when(loadService.getLoadEntities(anyCollection())).thenReturn(Map.of(loadId, testLoad));
+        when(transporterService.getTransporterEntities(anyCollection())).thenReturn(Map.of());
+        when(transporterService.getAvailableTruckCounts(anyCollection())).thenReturn(Map.of());
+
+        BidBatchResponse response = bidService.createBids(List.of(bidRequest(loadId, 500.0, 1)));
+
+        assertEquals(0, response.getCreated());
+        assertTrue(response.getResults().get(0).getError().contains("Transporter not found"));
+        assertEquals(LoadStatus.POSTED, testLoad.getStatus());
+        verify(loadService, never()).save(any());
+    }
+
     @Test
     @SuppressWarnings("unchecked")
     void getBids_WithAllFilters_ShouldReturnFilteredBids() {
-        when(bidRepository.findAll(any(Specification.class))).thenReturn(Collections.singletonList(testBid));
+        when(bidRepository.findAll(any(Specification.class), any(Pageable.class)))
+                .thenReturn(new PageImpl<>(Collections.singletonList(testBid)));
 
-        List<BidResponse> result = bidService.getBids(loadId, transporterId, BidStatus.PENDING);
+        Page<BidResponse> result = bidService.getBids(loadId, transporterId, BidStatus.PENDING, PageRequest.of(0, 20));
 
         assertNotNull(result);
-        assertEquals(1, result.size());
-        assertEquals(bidId, result.get(0).getBidId());
+        assertEquals(1, result.getContent().size());
+        assertEquals(bidId, result.getContent().get(0).getBidId());
+    }
+
+    @Test
+    void getBids_WithSizeAboveLimit_ShouldThrowException() {
+        assertThrows(InvalidOperationException.class,
+                () -> bidService.getBids(null, null, null, PageRequest.of(0, BidService.MAX_PAGE_SIZE + 1)));
+        verifyNoInteractions(bidRepository);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void streamBids_ShouldHandEachBidToSinkAndEvictIt() {
+        when(bidRepository.findBy(any(Specification.class), any())).thenReturn(Stream.of(testBid, testBid));
+        List<BidResponse> written = new ArrayList<>();
+
+        bidService.streamBids(loadId, null, null, written::add);
+
+        assertEquals(2, written.size());
+        assertEquals(bidId, written.get(0).getBidId());
+        verify(entityManager, times(2)).clear();
     }
 
     @Test
     @SuppressWarnings("unchecked")
     void getBids_WithNoFilters_ShouldReturnAllBids() {
-        when(bidRepository.findAll(any(Specification.class))).thenReturn(Collections.singletonList(testBid));
+        when(bidRepository.findAll(any(Specification.class), any(Pageable.class)))
+                .thenReturn(new PageImpl<>(Collections.singletonList(testBid)));
 
-        List<BidResponse> result = bidService.getBids(null, null, null);
+        Page<BidResponse> result = bidService.getBids(null, null, null, PageRequest.of(0, 20));
 
         assertNotNull(result);
-        assertEquals(1, result.size());
+        assertEquals(1, result.getContent().size());
     }
 
     @Test
     @SuppressWarnings("unchecked")
     void getBids_WithLoadIdOnly_ShouldReturnFilteredBids() {
-        when(bidRepository.findAll(any(Specification.class))).thenReturn(Collections.singletonList(testBid));
+        when(bidRepository.findAll(any(Specification.class), any(Pageable.class)))
+                .thenReturn(new PageImpl<>(Collections.singletonList(testBid)));
 
-        List<BidResponse> result = bidService.getBids(loadId, null, null);
+        Page<BidResponse> result = bidService.getBids(loadId, null, null, PageRequest.of(0, 20));
 
         assertNotNull(result);
-        assertEquals(1, result.size());
+        assertEquals(1, result.getContent().size());
     }
 
     @Test
     @SuppressWarnings("unchecked")
     void getBids_WithTransporterIdOnly_ShouldReturnFilteredBids() {
-        when(bidRepository.findAll(any(Specification.class))).thenReturn(Collections.singletonList(testBid));
+        when(bidRepository.findAll(any(Specification.class), any(Pageable.class)))
+                .thenReturn(new PageImpl<>(Collections.singletonList(testBid)));
 
-        List<BidResponse> result = bidService.getBids(null, transporterId, null);
+        Page<BidResponse> result = bidService.getBids(null, transporterId, null, PageRequest.of(0, 20));
 
         assertNotNull(result);
-        assertEquals(1, result.size());
+        assertEquals(1, result.getContent().size());
     }
 
     @Test
     @SuppressWarnings("unchecked")
     void getBids_WithStatusOnly_ShouldReturnFilteredBids() {
-        when(bidRepository.findAll(any(Specification.class))).thenReturn(Collections.singletonList(testBid));
+        when(bidRepository.findAll(any(Specification.class), any(Pageable.class)))
+                .thenReturn(new PageImpl<>(Collections.singletonList(testBid)));
 
-        List<BidResponse> result = bidService.getBids(null, null, BidStatus.PENDING);
+        Page<BidResponse> result = bidService.getBids(null, null, BidStatus.PENDING, PageRequest.of(0, 20));
 
         assertNotNull(result);
-        assertEquals(1, result.size());
+        assertEquals(1, result.getContent().size());
     }
 
     @Test
@@ -313,6 +444,13 @@ class BidServiceTest {
         assertTrue(exception.getMessage().contains(bidId.toString()));
     }
 
+    @Test
+    void getBidEntityWithLoadAndTransporter_WhenBidNotFound_ShouldThrowException() {
+        when(bidRepository.findWithLoadAndTransporterByBidId(bidId)).thenReturn(Optional.empty());
+
+        assertThrows(ResourceNotFoundException.class, () -> bidService.getBidEntityWithLoadAndTransporter(bidId));
+    }
+
     @Test
     void rejectBid_WhenBidIsPending_ShouldRejectSuccessfully() {
         testBid.setStatus(BidStatus.PENDING);
@@ -362,6 +500,42 @@ class BidServiceTest {
         assertTrue(result.get(1).getScore() >= result.get(2).getScore());
     }
 
+    @Test
+    void getBestBidsForLoad_ShouldServeRepeatedReadsFromOrderBook() {
+        Bid bid1 = createBid(UUID.randomUUID(), 500.0, 5, 4.0);
+        when(bidRepository.findByLoadLoadId(loadId)).thenReturn(Arrays.asList(bid1));
+
+        bidService.getBestBidsForLoad(loadId);
+        List<BestBidResponse> result = bidService.getBestBidsForLoad(loadId);
+
+        assertEquals(1, result.size());
+        verify(bidRepository, times(1)).findByLoadLoadId(loadId);
+    }
+
+    @Test
+    void getBestBidsForLoad_ShouldIncludeBidsCreatedAfterBookWasBuilt() {
+        Bid bid1 = createBid(UUID.randomUUID(), 500.0, 5, 4.0);
+        when(bidRepository.findByLoadLoadId(loadId)).thenReturn(Arrays.asList(bid1));
+        bidService.getBestBidsForLoad(loadId);
+
+        BidRequest request = new BidRequest();
+        request.setLoadId(loadId);
+        request.setTransporterId(transporterId);
+        request.setProposedRate(500.0);
+        request.setTrucksOffered(5);
+        when(loadService.getLoadEntity(loadId)).thenReturn(testLoad);
+        when(transporterService.getTransporterReference(transporterId)).thenReturn(testTransporter);
+        when(transporterService.getAvailableTruckCount(transporterId, "LARGE")).thenReturn(20);
+        when(bidRepository.save(any(Bid.class))).thenReturn(testBid);
+        bidService.createBid(request);
+
+        List<BestBidResponse> result = bidService.getBestBidsForLoad(loadId);
+
+        assertEquals(2, result.size());
+        assertEquals(bidId, result.get(0).getBidId()); // Higher rating at the same rate ranks first
+        verify(bidRepository, times(1)).findByLoadLoadId(loadId);
+    }
+
     @Test
     void getBestBidsForLoad_WhenNoBids_ShouldReturnEmptyList() {
         when(bidRepository.findByLoadLoadId(loadId)).thenReturn(Collections.emptyList());
@@ -372,6 +546,37 @@ class BidServiceTest {
         assertTrue(result.isEmpty());
     }
 
+    @Test
+    void getBestBidsForLoad_WithFilters_ShouldReturnTopPendingMatches() {
+        Bid best = createBid(UUID.randomUUID(), 400.0, 5, 4.5);
+        Bid second = createBid(UUID.randomUUID(), 450.0, 5, 4.5);
+        Bid third = createBid(UUID.randomUUID(), 500.0, 5, 4.5);
+        Bid lowRated = createBid(UUID.randomUUID(), 300.0, 5, 2.0);
+        Bid tooDear = createBid(UUID.randomUUID(), 2000.0, 5, 5.0);
+        Bid rejected = createBid(UUID.randomUUID(), 100.0, 5, 5.0);
+        rejected.setStatus(BidStatus.REJECTED);
+        when(bidRepository.findByLoadLoadId(loadId))
+                .thenReturn(Arrays.asList(third, lowRated, tooDear, rejected, second, best));
+
+        List<BestBidResponse> result = bidService.getBestBidsForLoad(loadId, BidStatus.PENDING, 4.0, 1000.0, 2);
+
+        assertEquals(Arrays.asList(best.getBidId(), second.getBidId()),
+                result.stream().map(BestBidResponse::getBidId).toList());
+        assertEquals(rejected.getBidId(),
+                bidService.getBestBidsForLoad(loadId, BidStatus.REJECTED, null, null, 10).get(0).getBidId());
+        assertEquals(6, bidService.getBestBidsForLoad(loadId, null, null, null, 10).size());
+        verify(bidRepository, times(1)).findByLoadLoadId(loadId);
+    }
+
+    @Test
+    void getBestBidsForLoad_WithInvalidLimit_ShouldThrow() {
+        assertThrows(InvalidOperationException.class,
+                () -> bidService.getBestBidsForLoad(loadId, BidStatus.PENDING, null, null, 0));
+        assertThrows(InvalidOperationException.class,
+                () -> bidService.getBestBidsForLoad(loadId, BidStatus.PENDING, null, null, BidService.MAX_BEST_BIDS + 1));
+        verifyNoInteractions(bidRepository);
+    }
+
     @Test
     void save_ShouldCallRepositorySave() {
         when(bidRepository.save(testBid)).thenReturn(testBid);
@@ -381,6 +586,15 @@ class BidServiceTest {
         verify(bidRepository, times(1)).save(testBid);
     }
 
+    private BidRequest bidRequest(UUID load, double rate, int trucks) {
+        BidRequest request = new BidRequest();
+        request.setLoadId(load);
+        request.setTransporterId(transporterId);
+        request.setProposedRate(rate);
+        request.setTrucksOffered(trucks);
+        return request;
+    }
+
     private Bid createBid(UUID id, double rate, int trucks, double rating) {
         Transporter t = new Transporter();
         t.setTransporterId(UUID.randomUUID());
@@ -1,5 +1,6 @@
 package com.cargopro.service;
 
+import com.cargopro.dto.AllocationResponse;
 import com.cargopro.dto.BookingResponse;
 import com.cargopro.entity.Bid;
 import com.cargopro.entity.Booking;
@@ -9,6 +10,7 @@ import com.cargopro.entity.TruckAvailability;
 import com.cargopro.enums.BidStatus;
 import com.cargopro.enums.BookingStatus;
 import com.cargopro.enums.LoadStatus;
+import com.cargopro.exception.InvalidOperationException;
 import com.cargopro.exception.InvalidStatusTransitionException;
 import com.cargopro.exception.ResourceNotFoundException;
 import com.cargopro.repository.BookingRepository;
@@ -22,9 +24,13 @@ import org.mockito.junit.jupiter.MockitoExtension;
 import java.time.LocalDateTime;
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
+import java.util.stream.Collectors;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
@@ -45,6 +51,9 @@ class BookingServiceTest {
     @Mock
     private TransporterService transporterService;
 
+    @Mock
+    private DomainEventPublisher domainEventPublisher;
+
     @InjectMocks
     private BookingService bookingService;
 
@@ -99,7 +108,7 @@ class BookingServiceTest {
 
     @Test
     void acceptBid_Success() {
-        when(bidService.getBidEntity(bidId)).thenReturn(testBid);
+        when(bidService.getBidEntityWithLoadAndTransporter(bidId)).thenReturn(testBid);
         when(bookingRepository.save(any(Booking.class))).thenReturn(testBooking);
         doNothing().when(transporterService).reduceAvailableTrucks(transporterId, "LARGE", 5);
         doNothing().when(loadService).updateLoadAfterBooking(testLoad, 5);
@@ -113,12 +122,14 @@ class BookingServiceTest {
         verify(transporterService).reduceAvailableTrucks(transporterId, "LARGE", 5);
         verify(loadService).updateLoadAfterBooking(testLoad, 5);
         assertEquals(BidStatus.ACCEPTED, testBid.getStatus());
+        verify(domainEventPublisher).publish(eq(DomainEventPublisher.BID_ACCEPTED), eq(bidId),
+                argThat(payload -> bookingId.equals(payload.get("bookingId"))));
     }
 
     @Test
     void acceptBid_WhenLoadStatusPosted_ShouldSucceed() {
         testLoad.setStatus(LoadStatus.POSTED);
-        when(bidService.getBidEntity(bidId)).thenReturn(testBid);
+        when(bidService.getBidEntityWithLoadAndTransporter(bidId)).thenReturn(testBid);
         when(bookingRepository.save(any(Booking.class))).thenReturn(testBooking);
         doNothing().when(transporterService).reduceAvailableTrucks(any(), any(), anyInt());
         doNothing().when(loadService).updateLoadAfterBooking(any(), anyInt());
@@ -133,7 +144,7 @@ class BookingServiceTest {
         // BOOKED status is allowed (for partial bookings)
         testLoad.setStatus(LoadStatus.BOOKED);
         testLoad.setRemainingTrucks(5); // Still has trucks
-        when(bidService.getBidEntity(bidId)).thenReturn(testBid);
+        when(bidService.getBidEntityWithLoadAndTransporter(bidId)).thenReturn(testBid);
         when(bookingRepository.save(any(Booking.class))).thenReturn(testBooking);
         doNothing().when(transporterService).reduceAvailableTrucks(any(), any(), anyInt());
         doNothing().when(loadService).updateLoadAfterBooking(any(), anyInt());
@@ -146,15 +157,25 @@ class BookingServiceTest {
     @Test
     void acceptBid_WhenLoadIsCancelled_ShouldThrowException() {
         testLoad.setStatus(LoadStatus.CANCELLED);
-        when(bidService.getBidEntity(bidId)).thenReturn(testBid);
+        when(bidService.getBidEntityWithLoadAndTransporter(bidId)).thenReturn(testBid);
 
         assertThrows(InvalidStatusTransitionException.class, () -> bookingService.acceptBid(bidId));
     }
 
+    @Test
+    void acceptBid_WhenBidNotPending_ShouldThrowException() {
+        testBid.setStatus(BidStatus.ACCEPTED);
+        when(bidService.getBidEntityWithLoadAndTransporter(bidId)).thenReturn(testBid);
+
+        assertThrows(InvalidStatusTransitionException.class, () -> bookingService.acceptBid(bidId));
+        verify(transporterService, never()).reduceAvailableTrucks(any(), any(), anyInt());
+        verify(bookingRepository, never()).save(any());
+    }
+
     @Test
     void acceptBid_WhenLoadFullyBooked_ShouldThrowException() {
         testLoad.setRemainingTrucks(0);
-        when(bidService.getBidEntity(bidId)).thenReturn(testBid);
+        when(bidService.getBidEntityWithLoadAndTransporter(bidId)).thenReturn(testBid);
 
         InvalidStatusTransitionException exception = assertThrows(
                 InvalidStatusTransitionException.class,
@@ -166,7 +187,7 @@ class BookingServiceTest {
     void acceptBid_WhenBidExceedsRemainingTrucks_ShouldThrowException() {
         testLoad.setRemainingTrucks(3);
         testBid.setTrucksOffered(5);
-        when(bidService.getBidEntity(bidId)).thenReturn(testBid);
+        when(bidService.getBidEntityWithLoadAndTransporter(bidId)).thenReturn(testBid);
         doNothing().when(transporterService).reduceAvailableTrucks(any(), any(), anyInt());
 
         InvalidStatusTransitionException exception = assertThrows(
@@ -241,7 +262,7 @@ class BookingServiceTest {
     void cancelBooking_Success() {
         testBooking.setStatus(BookingStatus.CONFIRMED);
         testLoad.setStatus(LoadStatus.BOOKED);
-        when(bookingRepository.findById(bookingId)).thenReturn(Optional.of(testBooking));
+        when(bookingRepository.findWithLoadAndTransporterByBookingId(bookingId)).thenReturn(Optional.of(testBooking));
         when(bookingRepository.save(any(Booking.class))).thenReturn(testBooking);
         doNothing().when(loadService).save(any(Load.class));
         doNothing().when(transporterService).restoreAvailableTrucks(any(), any(), anyInt());
@@ -252,13 +273,15 @@ class BookingServiceTest {
         assertEquals(LoadStatus.OPEN_FOR_BIDS, testLoad.getStatus());
         assertEquals(15, testLoad.getRemainingTrucks()); // 10 + 5 restored
         verify(transporterService).restoreAvailableTrucks(transporterId, "LARGE", 5);
+        verify(domainEventPublisher).publish(eq(DomainEventPublisher.BOOKING_CANCELLED), eq(bookingId),
+                argThat(payload -> Integer.valueOf(5).equals(payload.get("releasedTrucks"))));
     }
 
     @Test
     void cancelBooking_WhenLoadNotBooked_ShouldNotChangeLoadStatus() {
         testBooking.setStatus(BookingStatus.CONFIRMED);
         testLoad.setStatus(LoadStatus.OPEN_FOR_BIDS); // Not fully booked
-        when(bookingRepository.findById(bookingId)).thenReturn(Optional.of(testBooking));
+        when(bookingRepository.findWithLoadAndTransporterByBookingId(bookingId)).thenReturn(Optional.of(testBooking));
         when(bookingRepository.save(any(Booking.class))).thenReturn(testBooking);
         doNothing().when(loadService).save(any(Load.class));
         doNothing().when(transporterService).restoreAvailableTrucks(any(), any(), anyInt());
@@ -271,7 +294,7 @@ class BookingServiceTest {
     @Test
     void cancelBooking_WhenAlreadyCancelled_ShouldThrowException() {
         testBooking.setStatus(BookingStatus.CANCELLED);
-        when(bookingRepository.findById(bookingId)).thenReturn(Optional.of(testBooking));
+        when(bookingRepository.findWithLoadAndTransporterByBookingId(bookingId)).thenReturn(Optional.of(testBooking));
 
         InvalidStatusTransitionException exception = assertThrows(
                 InvalidStatusTransitionException.class,
@@ -281,8 +304,133 @@ class BookingServiceTest {
 
     @Test
     void cancelBooking_WhenBookingNotFound_ShouldThrowException() {
-        when(bookingRepository.findById(bookingId)).thenReturn(Optional.empty());
+        when(bookingRepository.findWithLoadAndTransporterByBookingId(bookingId)).thenReturn(Optional.empty());
 
         assertThrows(ResourceNotFoundException.class, () -> bookingService.cancelBooking(bookingId));
     }
+
+    @Test
+    void allocateBids_ShouldReturnCheapestCoverWithoutBooking() {
+        Bid cheap = bid(transporter(3.0, 20), 5, 400.0);
+        Bid whole = bid(transporter(4.8, 20), 10, 1200.0);
+        stubAllocation(List.of(testBid, cheap, whole));
+
+        AllocationResponse response = bookingService.allocateBids(loadId, 0, false);
+
+        assertEquals(10, response.getTrucksNeeded());
+        assertEquals(10, response.getTrucksAllocated());
+        assertEquals(900.0, response.getTotalRate());
+        assertTrue(response.isFullyCovered());
+        assertEquals(Set.of(bidId, cheap.getBidId()),
+                response.getBids().stream().map(AllocationResponse.Item::getBidId).collect(Collectors.toSet()));
+        assertNull(response.getBookings());
+        verify(bookingRepository, never()).save(any());
+        verify(transporterService, never()).reduceAvailableTrucks(any(), any(), anyInt());
+    }
+
+    @Test
+    void allocateBids_ShouldSkipLowRatedAndUnderCapacityTransporters() {
+        Bid lowRated = bid(transporter(3.0, 20), 5, 100.0);
+        Bid overOffered = bid(transporter(5.0, 4), 5, 100.0);
+        Bid whole = bid(transporter(4.8, 20), 10, 1200.0);
+        stubAllocation(List.of(testBid, lowRated, overOffered, whole));
+
+        AllocationResponse response = bookingService.allocateBids(loadId, 4.0, false);
+
+        assertEquals(List.of(whole.getBidId()),
+                response.getBids().stream().map(AllocationResponse.Item::getBidId).toList());
+        assertEquals(1200.0, response.getTotalRate());
+    }
+
+    @Test
+    void allocateBids_ShouldNotChooseMoreTrucksThanTransporterHas() {
+        // Both cheap bids fit on their own, but the transporter has 6 trucks, not 10
+        Transporter small = transporter(4.0, 6);
+        Bid first = bid(small, 5, 300.0);
+        Bid second = bid(small, 5, 310.0);
+        Bid whole = bid(transporter(4.8, 20), 10, 1200.0);
+        stubAllocation(List.of(first, second, whole));
+
+        AllocationResponse response = bookingService.allocateBids(loadId, 0, false);
+
+        assertEquals(List.of(whole.getBidId()),
+                response.getBids().stream().map(AllocationResponse.Item::getBidId).toList());
+        assertEquals(1200.0, response.getTotalRate());
+    }
+
+    @Test
+    void allocateBids_WithBook_ShouldBookEveryChosenBid() {
+        Bid other = bid(transporter(4.0, 20), 5, 450.0);
+        stubAllocation(List.of(testBid, other));
+        when(bookingRepository.save(any(Booking.class))).thenAnswer(invocation -> {
+            Booking booking = invocation.getArgument(0);
+            booking.setBookingId(UUID.randomUUID());
+            booking.setBookedAt(LocalDateTime.now());
+            return booking;
+        });
+        doAnswer(invocation -> {
+            testLoad.setRemainingTrucks(testLoad.getRemainingTrucks() - invocation.<Integer>getArgument(1));
+            return null;
+        }).when(loadService).updateLoadAfterBooking(eq(testLoad), anyInt());
+
+        AllocationResponse response = bookingService.allocateBids(loadId, 0, true);
+
+        assertEquals(2, response.getBookings().size());
+        assertEquals(10, response.getTrucksNeeded());
+        verify(transporterService).reduceAvailableTrucks(transporterId, "LARGE", 5);
+        verify(transporterService).reduceAvailableTrucks(other.getTransporter().getTransporterId(), "LARGE", 5);
+        assertEquals(BidStatus.ACCEPTED, testBid.getStatus());
+        assertEquals(BidStatus.ACCEPTED, other.getStatus());
+        assertEquals(0, testLoad.getRemainingTrucks());
+    }
+
+    @Test
+    void allocateBids_WithBookAndNoEligibleBids_ShouldThrowException() {
+        stubAllocation(List.of());
+
+        assertThrows(InvalidOperationException.class, () -> bookingService.allocateBids(loadId, 0, true));
+        verify(bookingRepository, never()).save(any());
+    }
+
+    @Test
+    void allocateBids_WhenLoadCancelled_ShouldThrowException() {
+        testLoad.setStatus(LoadStatus.CANCELLED);
+        when(loadService.getLoadEntity(loadId)).thenReturn(testLoad);
+
+        assertThrows(InvalidStatusTransitionException.class, () -> bookingService.allocateBids(loadId, 0, false));
+        verifyNoInteractions(bidService);
+    }
+
+    private void stubAllocation(List<Bid> pending) {
+        when(loadService.getLoadEntity(loadId)).thenReturn(testLoad);
+        when(bidService.getPendingBidEntities(loadId)).thenReturn(pending);
+        Map<UUID, Map<String, Integer>> counts = new HashMap<>();
+        for (Bid bid : pending) {
+            Transporter transporter = bid.getTransporter();
+            counts.put(transporter.getTransporterId(),
+                    Map.of("LARGE", transporter.getAvailableTrucks().get(0).getCount()));
+        }
+        when(transporterService.getAvailableTruckCounts(any())).thenReturn(counts);
+    }
+
+    private Bid bid(Transporter transporter, int trucks, double rate) {
+        Bid bid = new Bid();
+        bid.setBidId(UUID.randomUUID());
+        bid.setLoad(testLoad);
+        bid.setTransporter(transporter);
+        bid.setProposedRate(rate);
+        bid.setTrucksOffered(trucks);
+        bid.setStatus(BidStatus.PENDING);
+        bid.setSubmittedAt(LocalDateTime.now());
+        return bid;
+    }
+
+    private static Transporter transporter(double rating, int largeTrucks) {
+        Transporter transporter = new Transporter();
+        transporter.setTransporterId(UUID.randomUUID());
+        transporter.setCompanyName("Carrier " + rating);
+        transporter.setRating(rating);
+        transporter.setAvailableTrucks(List.of(new TruckAvailability("LARGE", largeTrucks)));
+        return transporter;
+    }
 }
@@ -0,0 +1,233 @@
+package com.cargopro.service;
+
+import com.cargopro.dto.LoadResponse;
+import com.cargopro.entity.Load;
+import com.cargopro.enums.LoadStatus;
+import com.cargopro.enums.WeightUnit;
+import com.cargopro.repository.LoadRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class LoadBoardTest {
+
+    private static final LocalDateTime DAY = LocalDateTime.of(2030, 3, 1, 8, 0);
+
+    private LoadRepository loadRepository;
+    private MeterRegistry meterRegistry;
+    private LoadBoard board;
+
+    @BeforeEach
+    void setUp() {
+        loadRepository = mock(LoadRepository.class);
+        meterRegistry = new SimpleMeterRegistry();
+        board = new LoadBoard();
+        ReflectionTestUtils.setField(board, "loadRepository", loadRepository);
+        ReflectionTestUtils.setField(board, "meterRegistry", meterRegistry);
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void start_ShouldBuildBoardFromOpenLoads() {
+        Load open = load("Pune", "Delhi", "LARGE", DAY);
+        when(loadRepository.findByStatusInAndRemainingTrucksGreaterThan(anyCollection(), eq(0)))
+                .thenReturn(List.of(open));
+
+        board.start();
+
+        assertEquals(1, board.size());
+        assertEquals(1.0, meterRegistry.get(LoadBoard.SIZE_METRIC).gauge().value());
+        assertEquals(open.getLoadId(), board.find("Pune", "Delhi", "LARGE", null, null, 10).get(0).getLoadId());
+    }
+
+    @Test
+    void find_ShouldMatchLaneCaseInsensitivelyAndOrderByLoadingDate() {
+        Load later = load("Pune", "Delhi", "LARGE", DAY.plusDays(2));
+        Load earlier = load("Pune", "Delhi", "LARGE", DAY);
+        board.upsert(later);
+        board.upsert(earlier);
+        board.upsert(load("Pune", "Mumbai", "LARGE", DAY));
+
+        List<LoadResponse> result = board.find(" pune", "DELHI", "large", null, null, 10);
+
+        assertEquals(List.of(earlier.getLoadId(), later.getLoadId()), ids(result));
+    }
+
+    @Test
+    void find_WithPartialFilters_ShouldMergeLanesInDateOrder() {
+        Load toDelhi = load("Pune", "Delhi", "LARGE", DAY.plusDays(1));
+        Load toMumbai = load("Pune", "Mumbai", "SMALL", DAY);
+        Load fromNagpur = load("Nagpur", "Delhi", "LARGE", DAY);
+        board.upsert(toDelhi);
+        board.upsert(toMumbai);
+        board.upsert(fromNagpur);
+
+        assertEquals(List.of(toMumbai.getLoadId(), toDelhi.getLoadId()), ids(board.find("Pune", null, null, null, null, 10)));
+        assertEquals(List.of(fromNagpur.getLoadId(), toDelhi.getLoadId()), ids(board.find(null, null, "LARGE", null, null, 10)));
+        assertEquals(3, board.find(null, null, null, null, null, 10).size());
+        assertEquals(List.of(toMumbai.getLoadId()), ids(board.find("Pune", null, null, null, null, 1)));
+    }
+
+    @Test
+    void find_ShouldApplyInclusiveDateWindow() {
+        Load first = load("Pune", "Delhi", "LARGE", DAY);
+        Load second = load("Pune", "Delhi", "LARGE", DAY.plusDays(1));
+        Load third = load("Pune", "Delhi", "LARGE", DAY.plusDays(2));
+        board.upsert(first);
+        board.upsert(second);
+        board.upsert(third);
+
+        List<LoadResponse> result = board.find("Pune", "Delhi", "LARGE", DAY.plusDays(1), DAY.plusDays(2), 10);
+
+        assertEquals(List.of(second.getLoadId(), third.getLoadId()), ids(result));
+        assertTrue(board.find("Pune", "Delhi", "LARGE", DAY.plusDays(3), null, 10).isEmpty());
+    }
+
+    @Test
+    void upsert_WhenLoadClosed_ShouldRemoveIt() {
+        Load load = load("Pune", "Delhi", "LARGE", DAY);
+        board.upsert(load);
+
+        load.setStatus(LoadStatus.BOOKED);
+        load.setRemainingTrucks(0);
+        load.setVersion(1L);
+        board.upsert(load);
+
+        assertEquals(0, board.size());
+        assertTrue(board.find("Pune", "Delhi", "LARGE", null, null, 10).isEmpty());
+    }
+
+    @Test
+    void upsert_ShouldRefreshRemainingTrucksAndStatus() {
+        Load load = load("Pune", "Delhi", "LARGE", DAY);
+        board.upsert(load);
+
+        load.setStatus(LoadStatus.OPEN_FOR_BIDS);
+        load.setRemainingTrucks(2);
+        load.setVersion(1L);
+        board.upsert(load);
+
+        LoadResponse entry = board.find("Pune", "Delhi", "LARGE", null, null, 10).get(0);
+        assertEquals(LoadStatus.OPEN_FOR_BIDS, entry.getStatus());
+        assertEquals(2, entry.getRemainingTrucks());
+        assertEquals(1, board.size());
+    }
+
+    @Test
+    void upsert_WithOlderVersion_ShouldBeIgnored() {
+        Load load = load("Pune", "Delhi", "LARGE", DAY);
+        load.setVersion(3L);
+        load.setStatus(LoadStatus.CANCELLED);
+        board.upsert(load);
+
+        // A commit that finished earlier but was reported late must not resurrect the load
+        Load stale = copy(load);
+        stale.setVersion(2L);
+        stale.setStatus(LoadStatus.OPEN_FOR_BIDS);
+        board.upsert(stale);
+
+        assertEquals(0, board.size());
+    }
+
+    @Test
+    void upsert_ShouldApplyOnlyAfterCommit() {
+        TransactionSynchronizationManager.initSynchronization();
+        Load load = load("Pune", "Delhi", "LARGE", DAY);
+
+        board.upsert(load);
+        assertEquals(0, board.size());
+
+        List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager.getSynchronizations();
+        synchronizations.forEach(TransactionSynchronization::afterCommit);
+        assertEquals(1, board.size());
+    }
+
+    @Test
+    void find_ShouldReturnCopies() {
+        board.upsert(load("Pune", "Delhi", "LARGE", DAY));
+
+        board.find("Pune", "Delhi", "LARGE", null, null, 10).get(0).setRemainingTrucks(99);
+
+        assertEquals(3, board.find("Pune", "Delhi", "LARGE", null, null, 10).get(0).getRemainingTrucks());
+    }
+
+    @Test
+    void findByTruckTypes_ShouldMergeTypesInDateOrder() {
+        Load large = load("Pune", "Delhi", "LARGE", DAY.plusDays(1));
+        Load small = load("Nagpur", "Mumbai", "small", DAY);
+        board.upsert(large);
+        board.upsert(small);
+        board.upsert(load("Pune", "Delhi", "MEDIUM", DAY));
+
+        assertEquals(List.of(small.getLoadId(), large.getLoadId()),
+                ids(board.findByTruckTypes(List.of("LARGE", "SMALL"), 10)));
+        assertEquals(List.of(small.getLoadId()), ids(board.findByTruckTypes(List.of("LARGE", "SMALL"), 1)));
+        assertTrue(board.findByTruckTypes(List.of("TRAILER"), 10).isEmpty());
+    }
+
+    @Test
+    void truckTypeIndex_ShouldFollowRefreshAndClose() {
+        Load load = load("Pune", "Delhi", "LARGE", DAY);
+        board.upsert(load);
+
+        load.setRemainingTrucks(1);
+        load.setVersion(1L);
+        board.upsert(load);
+        assertEquals(1, board.findByTruckTypes(List.of("LARGE"), 10).get(0).getRemainingTrucks());
+        assertEquals(1, board.get(load.getLoadId()).orElseThrow().getRemainingTrucks());
+
+        load.setStatus(LoadStatus.CANCELLED);
+        load.setVersion(2L);
+        board.upsert(load);
+        assertTrue(board.findByTruckTypes(List.of("LARGE"), 10).isEmpty());
+        assertTrue(board.get(load.getLoadId()).isEmpty());
+    }
+
+    private static List<UUID> ids(List<LoadResponse> loads) {
+        return loads.stream().map(LoadResponse::getLoadId).toList();
+    }
+
+    private static Load load(String from, String to, String truckType, LocalDateTime loadingDate) {
+        Load load = new Load();
+        load.setLoadId(UUID.randomUUID());
+        load.setShipperId("shipper-board");
+        load.setLoadingCity(from);
+        load.setUnloadingCity(to);
+        load.setProductType("Steel");
+        load.setTruckType(truckType);
+        load.setNoOfTrucks(3);
+        load.setRemainingTrucks(3);
+        load.setWeight(10.0);
+        load.setWeightUnit(WeightUnit.TON);
+        load.setLoadingDate(loadingDate);
+        load.setDatePosted(DAY.minusDays(1));
+        load.setStatus(LoadStatus.POSTED);
+        load.setVersion(0L);
+        return load;
+    }
+
+    private static Load copy(Load load) {
+        Load copy = load(load.getLoadingCity(), load.getUnloadingCity(), load.getTruckType(), load.getLoadingDate());
+        copy.setLoadId(load.getLoadId());
+        return copy;
+    }
+}
@@ -0,0 +1,164 @@
+package com.cargopro.service;
+
+import com.cargopro.dto.LoadImportResponse;
+import com.cargopro.dto.LoadRequest;
+import com.cargopro.enums.ImportStatus;
+import com.cargopro.exception.ResourceNotFoundException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.validation.Validation;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class LoadImportServiceTest {
+
+    private static final String CSV_HEADER =
+            "shipperId,loadingCity,unloadingCity,productType,truckType,noOfTrucks,weight,weightUnit,comment\n";
+
+    @Mock
+    private LoadService loadService;
+
+    @InjectMocks
+    private LoadImportService loadImportService;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(loadImportService, "validator",
+                Validation.buildDefaultValidatorFactory().getValidator());
+        ReflectionTestUtils.setField(loadImportService, "objectMapper", new ObjectMapper());
+        ReflectionTestUtils.setField(loadImportService, "chunkSize", 2);
+        ReflectionTestUtils.setField(loadImportService, "workerThreads", 1);
+        ReflectionTestUtils.setField(loadImportService, "maxErrors", 10);
+        ReflectionTestUtils.setField(loadImportService, "retainedJobs", 10);
+        loadImportService.start();
+    }
+
+    @AfterEach
+    void tearDown() {
+        loadImportService.stop();
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void importCsv_ShouldInsertValidRowsInChunksAndReportInvalidOnes() throws Exception {
+        when(loadService.createLoads(anyList())).thenAnswer(invocation -> ((List<?>) invocation.getArgument(0)).size());
+
+        LoadImportResponse job = await(loadImportService.startImport(upload(CSV_HEADER
+                + "s1,Pune,Delhi,Steel,LARGE,2,10.5,TON,\n"
+                + "s1,Pune,Delhi,Steel,LARGE,0,10.5,TON,\n"
+                + "s1,\"Mumbai, MH\",Delhi,Steel,LARGE,1,3,KG,\"said \"\"fragile\"\"\"\n"
+                + "\n"
+                + "s1,Pune,Delhi,Steel,LARGE,1,10.5,STONE,\n"
+                + "s1,Pune,Delhi\n"
+                + "s2,Pune,Delhi,Steel,LARGE,4,1,TON,\n"), LoadImportService.Format.CSV));
+
+        assertEquals(ImportStatus.COMPLETED, job.getStatus());
+        assertEquals(6, job.getRowsRead());
+        assertEquals(3, job.getRowsImported());
+        assertEquals(3, job.getRowsFailed());
+        assertEquals(3, job.getErrors().get(0).getLine());
+        assertEquals("Number of trucks must be at least 1", job.getErrors().get(0).getMessage());
+        assertEquals(6, job.getErrors().get(1).getLine());
+        assertEquals("Invalid value for weightUnit", job.getErrors().get(1).getMessage());
+        assertEquals("Expected 9 columns but found 3", job.getErrors().get(2).getMessage());
+        assertNotNull(job.getFinishedAt());
+
+        ArgumentCaptor<List<LoadRequest>> chunks = ArgumentCaptor.forClass(List.class);
+        verify(loadService, times(2)).createLoads(chunks.capture());
+        LoadRequest quoted = chunks.getAllValues().get(0).get(1);
+        assertEquals("Mumbai, MH", quoted.getLoadingCity());
+        assertEquals("said \"fragile\"", quoted.getComment());
+    }
+
+    @Test
+    void importNdjson_ShouldReportMalformedAndInvalidLines() throws Exception {
+        when(loadService.createLoads(anyList())).thenReturn(1);
+
+        LoadImportResponse job = await(loadImportService.startImport(upload(
+                "{\"shipperId\":\"s1\",\"loadingCity\":\"Pune\",\"unloadingCity\":\"Delhi\",\"productType\":\"Steel\","
+                        + "\"truckType\":\"LARGE\",\"noOfTrucks\":2,\"weight\":10,\"weightUnit\":\"TON\"}\n"
+                        + "{not json\n"
+                        + "{\"shipperId\":\"\",\"loadingCity\":\"Pune\"}\n"), LoadImportService.Format.NDJSON));
+
+        assertEquals(ImportStatus.COMPLETED, job.getStatus());
+        assertEquals(3, job.getRowsRead());
+        assertEquals(1, job.getRowsImported());
+        assertEquals("Malformed row", job.getErrors().get(0).getMessage());
+        assertTrue(job.getErrors().get(1).getMessage().contains("Shipper ID is required"));
+        assertTrue(job.getErrors().get(1).getMessage().contains("Weight unit is required"));
+    }
+
+    @Test
+    void import_WhenChunkInsertFails_ShouldFailItsRowsAndContinue() throws Exception {
+        when(loadService.createLoads(anyList()))
+                .thenThrow(new DataIntegrityViolationException("boom"))
+                .thenReturn(1);
+
+        LoadImportResponse job = await(loadImportService.startImport(upload(CSV_HEADER
+                + "s1,Pune,Delhi,Steel,LARGE,1,1,TON,\n"
+                + "s1,Pune,Delhi,Steel,LARGE,1,1,TON,\n"
+                + "s1,Pune,Delhi,Steel,LARGE,1,1,TON,\n"), LoadImportService.Format.CSV));
+
+        assertEquals(ImportStatus.COMPLETED, job.getStatus());
+        assertEquals(1, job.getRowsImported());
+        assertEquals(2, job.getRowsFailed());
+        assertEquals(2, job.getErrors().get(0).getLine());
+        assertEquals("Insert failed: boom", job.getErrors().get(0).getMessage());
+    }
+
+    @Test
+    void import_ShouldKeepOnlyFirstErrors() throws Exception {
+        ReflectionTestUtils.setField(loadImportService, "maxErrors", 1);
+
+        LoadImportResponse job = await(loadImportService.startImport(upload(CSV_HEADER
+                + "s1,Pune,Delhi,Steel,LARGE,0,1,TON,\n"
+                + "s1,Pune,Delhi,Steel,LARGE,0,1,TON,\n"), LoadImportService.Format.CSV));
+
+        assertEquals(2, job.getRowsFailed());
+        assertEquals(1, job.getErrors().size());
+        assertTrue(job.isErrorsTruncated());
+        verify(loadService, never()).createLoads(anyList());
+    }
+
+    @Test
+    void getJob_WhenUnknown_ShouldThrowException() {
+        assertThrows(ResourceNotFoundException.class, () -> loadImportService.getJob(UUID.randomUUID()));
+    }
+
+    @Test
+    void parseCsvLine_ShouldHandleQuotesAndEmptyFields() {
+        assertEquals(List.of("a", "b, c", "", "d\"e"), LoadImportService.parseCsvLine("a,\"b, c\",,\"d\"\"e\""));
+    }
+
+    private ByteArrayInputStream upload(String content) {
+        return new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private LoadImportResponse await(LoadImportResponse started) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5000;
+        LoadImportResponse job = started;
+        while (job.getFinishedAt() == null && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+            job = loadImportService.getJob(started.getJobId());
+        }
+        assertNotNull(job.getFinishedAt(), "Import did not finish");
+        return job;
+    }
+}
@@ -1,12 +1,15 @@
 package com.cargopro.service;
 
+import com.cargopro.dto.CursorPage;
 import com.cargopro.dto.LoadRequest;
 import com.cargopro.dto.LoadResponse;
 import com.cargopro.entity.Load;
 import com.cargopro.enums.LoadStatus;
 import com.cargopro.enums.WeightUnit;
+import com.cargopro.exception.InvalidOperationException;
 import com.cargopro.exception.InvalidStatusTransitionException;
 import com.cargopro.exception.ResourceNotFoundException;
+import com.cargopro.repository.BidRepository;
 import com.cargopro.repository.LoadRepository;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -21,12 +24,17 @@ import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.domain.Specification;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.Collections;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.UUID;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -35,6 +43,18 @@ class LoadServiceTest {
     @Mock
     private LoadRepository loadRepository;
 
+    @Mock
+    private BidRepository bidRepository;
+
+    @Mock
+    private BidOrderBook bidOrderBook;
+
+    @Mock
+    private LoadBoard loadBoard;
+
+    @Mock
+    private DomainEventPublisher domainEventPublisher;
+
     @InjectMocks
     private LoadService loadService;
 
@@ -81,6 +101,9 @@ class LoadServiceTest {
         assertEquals(LoadStatus.POSTED, response.getStatus());
         assertEquals(10, response.getRemainingTrucks());
         verify(loadRepository, times(1)).save(any(Load.class));
+        verify(loadBoard).upsert(testLoad);
+        verify(domainEventPublisher).publish(eq(DomainEventPublisher.LOAD_POSTED), eq(loadId),
+                argThat(payload -> "shipper-123".equals(payload.get("shipperId"))));
     }
 
     @Test
@@ -178,6 +201,56 @@ class LoadServiceTest {
         assertEquals(1, result.getTotalElements());
     }
 
+    @Test
+    @SuppressWarnings("unchecked")
+    void scrollLoads_WhenMoreRowsRemain_ShouldReturnCursorForLastRow() {
+        Load older = new Load();
+        older.setLoadId(UUID.randomUUID());
+        older.setDatePosted(testLoad.getDatePosted().minusMinutes(1));
+        older.setLoadingDate(testLoad.getLoadingDate());
+        List<Load> rows = new ArrayList<>(List.of(testLoad, older));
+
+        when(loadRepository.findBy(any(Specification.class), any())).thenReturn(rows);
+
+        CursorPage<LoadResponse> result = loadService.scrollLoads(null, null, null, 1);
+
+        assertEquals(1, result.getContent().size());
+        assertEquals(loadId, result.getContent().get(0).getLoadId());
+        assertTrue(result.isHasNext());
+        LoadService.ScrollPosition position = LoadService.decodeCursor(result.getNextCursor());
+        assertEquals(testLoad.getDatePosted(), position.datePosted());
+        assertEquals(loadId, position.loadId());
+        verify(loadRepository, never()).count(any(Specification.class));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void scrollLoads_OnLastSlice_ShouldReturnNoCursor() {
+        when(loadRepository.findBy(any(Specification.class), any()))
+                .thenReturn(Collections.singletonList(testLoad));
+
+        CursorPage<LoadResponse> result = loadService.scrollLoads("shipper-123", LoadStatus.POSTED,
+                LoadService.encodeCursor(testLoad), 10);
+
+        assertEquals(1, result.getContent().size());
+        assertFalse(result.isHasNext());
+        assertNull(result.getNextCursor());
+    }
+
+    @Test
+    void scrollLoads_WithMalformedCursor_ShouldThrowException() {
+        assertThrows(InvalidOperationException.class,
+                () -> loadService.scrollLoads(null, null, "not-a-cursor", 10));
+        verifyNoInteractions(loadRepository);
+    }
+
+    @Test
+    void scrollLoads_WithSizeOutOfRange_ShouldThrowException() {
+        assertThrows(InvalidOperationException.class, () -> loadService.scrollLoads(null, null, null, 0));
+        assertThrows(InvalidOperationException.class,
+                () -> loadService.scrollLoads(null, null, null, LoadService.MAX_SCROLL_SIZE + 1));
+    }
+
     @Test
     void cancelLoad_WhenLoadIsPosted_ShouldCancelSuccessfully() {
         testLoad.setStatus(LoadStatus.POSTED);
@@ -188,6 +261,64 @@ class LoadServiceTest {
 
         assertEquals(LoadStatus.CANCELLED, testLoad.getStatus());
         verify(loadRepository).save(testLoad);
+        verify(bidOrderBook).invalidate(loadId);
+        verify(loadBoard).upsert(testLoad);
+    }
+
+    @Test
+    void cancelLoad_ShouldRejectLockedPendingBidsAndPublishAnEventForEach() {
+        UUID bidId = UUID.randomUUID();
+        UUID transporterId = UUID.randomUUID();
+        when(loadRepository.findById(loadId)).thenReturn(Optional.of(testLoad));
+        when(loadRepository.save(any(Load.class))).thenReturn(testLoad);
+        when(bidRepository.lockPendingBids(loadId)).thenReturn(List.<Object[]>of(new Object[] { bidId, transporterId }));
+
+        loadService.cancelLoad(loadId);
+
+        // Exactly the locked bids are rejected, and each of them gets an event
+        var order = inOrder(bidRepository);
+        order.verify(bidRepository).lockPendingBids(loadId);
+        order.verify(bidRepository).rejectBids(List.of(bidId));
+        verify(domainEventPublisher).publish(eq(DomainEventPublisher.BID_REJECTED), eq(bidId),
+                eq(Map.of("bidId", bidId, "loadId", loadId, "transporterId", transporterId, "reason", "CANCELLED")));
+    }
+
+    @Test
+    void cancelLoad_WithoutPendingBids_ShouldNotRejectOrPublish() {
+        when(loadRepository.findById(loadId)).thenReturn(Optional.of(testLoad));
+        when(loadRepository.save(any(Load.class))).thenReturn(testLoad);
+
+        loadService.cancelLoad(loadId);
+
+        verify(bidRepository, never()).rejectBids(any());
+        verify(domainEventPublisher, never()).publish(any(), any(), any());
+    }
+
+    @Test
+    void getLoadBoard_ShouldDelegateToBoard() {
+        LocalDateTime from = LocalDateTime.now();
+        LocalDateTime to = from.plusDays(2);
+        List<LoadResponse> board = List.of();
+        when(loadBoard.find("Pune", "Delhi", "LARGE", from, to, 20)).thenReturn(board);
+
+        assertSame(board, loadService.getLoadBoard("Pune", "Delhi", "LARGE", from, to, 20));
+        verifyNoInteractions(loadRepository);
+    }
+
+    @Test
+    void getLoadBoard_WithSizeOutOfRange_ShouldThrowException() {
+        assertThrows(InvalidOperationException.class,
+                () -> loadService.getLoadBoard(null, null, null, null, null, 0));
+        assertThrows(InvalidOperationException.class,
+                () -> loadService.getLoadBoard(null, null, null, null, null, LoadService.MAX_BOARD_SIZE + 1));
+    }
+
+    @Test
+    void getLoadBoard_WithInvertedDateWindow_ShouldThrowException() {
+        LocalDateTime now = LocalDateTime.now();
+
+        assertThrows(InvalidOperationException.class,
+                () -> loadService.getLoadBoard(null, null, null, now, now.minusDays(1), 20));
     }
 
     @Test
@@ -222,6 +353,7 @@ class LoadServiceTest {
         assertEquals(7, testLoad.getRemainingTrucks());
         assertEquals(LoadStatus.POSTED, testLoad.getStatus()); // Status unchanged
         verify(loadRepository).save(testLoad);
+        verifyNoInteractions(bidRepository);
     }
 
     @Test
@@ -234,6 +366,8 @@ class LoadServiceTest {
         assertEquals(0, testLoad.getRemainingTrucks());
         assertEquals(LoadStatus.BOOKED, testLoad.getStatus());
         verify(loadRepository).save(testLoad);
+        verify(bidRepository).lockPendingBids(loadId);
+        verify(bidOrderBook).invalidate(loadId);
     }
 
     @Test
@@ -0,0 +1,119 @@
+package com.cargopro.service;
+
+import com.cargopro.dto.LoadResponse;
+import com.cargopro.dto.TransporterMatchResponse;
+import com.cargopro.dto.TransporterResponse;
+import com.cargopro.enums.LoadStatus;
+import com.cargopro.enums.WeightUnit;
+import com.cargopro.exception.InvalidOperationException;
+import com.cargopro.exception.ResourceNotFoundException;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.sql.Timestamp;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class MatchingServiceTest {
+
+    @Mock
+    private LoadBoard loadBoard;
+
+    @Mock
+    private TruckCapacityIndex truckCapacityIndex;
+
+    @Mock
+    private LoadService loadService;
+
+    @Mock
+    private TransporterService transporterService;
+
+    @InjectMocks
+    private MatchingService matchingService;
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void start_ShouldIndexEveryTransporter() {
+        TransporterResponse transporter = new TransporterResponse(UUID.randomUUID(), "Fleet", 4.0, List.of());
+        doAnswer(invocation -> {
+            ((Consumer<TransporterResponse>) invocation.getArgument(0)).accept(transporter);
+            return null;
+        }).when(transporterService).streamAllTransporters(any());
+
+        matchingService.start();
+
+        verify(truckCapacityIndex).load(transporter);
+    }
+
+    @Test
+    void getMatchingLoads_ShouldSearchBoardByTransporterTruckTypes() {
+        UUID transporterId = UUID.randomUUID();
+        List<LoadResponse> loads = List.of(load(UUID.randomUUID()));
+        when(truckCapacityIndex.getAvailableTrucks(transporterId)).thenReturn(Map.of("LARGE", 4));
+        when(loadBoard.findByTruckTypes(Map.of("LARGE", 4).keySet(), 10)).thenReturn(loads);
+
+        assertSame(loads, matchingService.getMatchingLoads(transporterId, 10));
+        verifyNoInteractions(transporterService);
+    }
+
+    @Test
+    void getMatchingLoads_WhenTransporterNotIndexed_ShouldCheckItExists() {
+        UUID transporterId = UUID.randomUUID();
+        when(truckCapacityIndex.getAvailableTrucks(transporterId)).thenReturn(null);
+        when(transporterService.getTransporterById(transporterId))
+                .thenThrow(new ResourceNotFoundException("Transporter not found with id: " + transporterId));
+
+        assertThrows(ResourceNotFoundException.class, () -> matchingService.getMatchingLoads(transporterId, 10));
+        verifyNoInteractions(loadBoard);
+    }
+
+    @Test
+    void getMatchingTransporters_ShouldSearchIndexByLoadTruckType() {
+        UUID loadId = UUID.randomUUID();
+        LoadResponse load = load(loadId);
+        List<TransporterMatchResponse> matches = List.of(
+                new TransporterMatchResponse(UUID.randomUUID(), "Fleet", 4.0, 3));
+        when(loadBoard.get(loadId)).thenReturn(Optional.of(load));
+        when(truckCapacityIndex.find("LARGE", 5)).thenReturn(matches);
+
+        assertSame(matches, matchingService.getMatchingTransporters(loadId, 5));
+        verifyNoInteractions(loadService);
+    }
+
+    @Test
+    void getMatchingTransporters_WhenLoadClosed_ShouldReturnEmptyList() {
+        UUID loadId = UUID.randomUUID();
+        when(loadBoard.get(loadId)).thenReturn(Optional.empty());
+        when(loadService.getLoadById(loadId)).thenReturn(load(loadId));
+
+        assertTrue(matchingService.getMatchingTransporters(loadId, 5).isEmpty());
+        verifyNoInteractions(truckCapacityIndex);
+    }
+
+    @Test
+    void getMatching_WithInvalidSize_ShouldThrowException() {
+        UUID id = UUID.randomUUID();
+
+        assertThrows(InvalidOperationException.class, () -> matchingService.getMatchingLoads(id, 0));
+        assertThrows(InvalidOperationException.class,
+                () -> matchingService.getMatchingTransporters(id, MatchingService.MAX_MATCHES + 1));
+        verifyNoInteractions(loadBoard, truckCapacityIndex);
+    }
+
+    private static LoadResponse load(UUID loadId) {
+        Timestamp now = new Timestamp(System.currentTimeMillis());
+        return new LoadResponse(loadId, "shipper-1", "Pune", "Delhi", now, "Steel", 20.0, WeightUnit.TON, "LARGE",
+                4, 4, LoadStatus.POSTED, now);
+    }
+}
@@ -0,0 +1,267 @@
+package com.cargopro.service;
+
+import com.cargopro.entity.OutboxEvent;
+import com.cargopro.entity.OutboxGap;
+import com.cargopro.entity.OutboxOffset;
+import com.cargopro.exception.ResourceNotFoundException;
+import com.cargopro.repository.OutboxEventRepository;
+import com.cargopro.repository.OutboxGapRepository;
+import com.cargopro.repository.OutboxOffsetRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Pageable;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.*;
+
+class OutboxDispatcherTest {
+
+    private OutboxEventRepository outboxEventRepository;
+    private OutboxOffsetRepository outboxOffsetRepository;
+    private OutboxGapRepository outboxGapRepository;
+    private Map<Long, OutboxGap> storedGaps;
+    private SimpleMeterRegistry meterRegistry;
+    private List<OutboxEvent> outbox;
+
+    @BeforeEach
+    void setUp() {
+        outboxEventRepository = mock(OutboxEventRepository.class);
+        outboxOffsetRepository = mock(OutboxOffsetRepository.class);
+        outboxGapRepository = mock(OutboxGapRepository.class);
+        storedGaps = new TreeMap<>();
+        meterRegistry = new SimpleMeterRegistry();
+        outbox = new ArrayList<>();
+        for (long id = 1; id <= 5; id++) {
+            outbox.add(new OutboxEvent(id, "BidRejected", "bid-" + id, "{}", LocalDateTime.now()));
+        }
+        // Behaves like the real query: events after the offset, oldest first, one page
+        when(outboxEventRepository.findByEventIdGreaterThanOrderByEventIdAsc(anyLong(), any(Pageable.class)))
+                .thenAnswer(invocation -> {
+                    long after = invocation.getArgument(0);
+                    Pageable page = invocation.getArgument(1);
+                    return outbox.stream().filter(event -> event.getEventId() > after)
+                            .limit(page.getPageSize()).toList();
+                });
+        when(outboxEventRepository.findMaxEventId()).thenAnswer(invocation ->
+                outbox.stream().mapToLong(OutboxEvent::getEventId).max().orElse(0L));
+        when(outboxEventRepository.findByEventIdBetweenOrderByEventIdAsc(anyLong(), anyLong()))
+                .thenAnswer(invocation -> {
+                    long first = invocation.getArgument(0);
+                    long last = invocation.getArgument(1);
+                    return outbox.stream().filter(event -> event.getEventId() >= first && event.getEventId() <= last)
+                            .toList();
+                });
+        // outbox_gaps as a map keyed by the first skipped id
+        when(outboxGapRepository.findAll()).thenAnswer(invocation -> new ArrayList<>(storedGaps.values()));
+        when(outboxGapRepository.existsById(anyLong())).thenAnswer(invocation ->
+                storedGaps.containsKey(invocation.<Long>getArgument(0)));
+        when(outboxGapRepository.save(any(OutboxGap.class))).thenAnswer(invocation -> {
+            OutboxGap gap = invocation.getArgument(0);
+            storedGaps.put(gap.getFirstEventId(), gap);
+            return gap;
+        });
+        when(outboxGapRepository.saveAll(anyList())).thenAnswer(invocation -> {
+            List<OutboxGap> gaps = invocation.getArgument(0);
+            gaps.forEach(gap -> storedGaps.put(gap.getFirstEventId(), gap));
+            return gaps;
+        });
+        doAnswer(invocation -> storedGaps.remove(invocation.<OutboxGap>getArgument(0).getFirstEventId()))
+                .when(outboxGapRepository).delete(any(OutboxGap.class));
+    }
+
+    @Test
+    void dispatchPending_ShouldDeliverInOrderAndSaveOffset() {
+        RecordingListener listener = new RecordingListener("a", -1);
+        OutboxDispatcher dispatcher = dispatcher(2, listener);
+
+        assertEquals(5, dispatcher.dispatchPending());
+
+        assertEquals(List.of(1L, 2L, 3L, 4L, 5L), listener.received);
+        verify(outboxOffsetRepository).save(argThat(offset -> offset.getLastEventId() == 5));
+    }
+
+    @Test
+    void dispatchPending_ShouldResumeAfterStoredOffset() {
+        when(outboxOffsetRepository.findById("a")).thenReturn(Optional.of(new OutboxOffset("a", 3, null)));
+        RecordingListener listener = new RecordingListener("a", -1);
+
+        dispatcher(10, listener).dispatchPending();
+
+        assertEquals(List.of(4L, 5L), listener.received);
+    }
+
+    @Test
+    void dispatchPending_WhenListenerFails_ShouldStopThereAndRetryNextTime() {
+        RecordingListener failing = new RecordingListener("failing", 3);
+        RecordingListener healthy = new RecordingListener("healthy", -1);
+        OutboxDispatcher dispatcher = dispatcher(10, failing, healthy);
+
+        dispatcher.dispatchPending();
+
+        assertEquals(List.of(1L, 2L), failing.received);
+        assertEquals(List.of(1L, 2L, 3L, 4L, 5L), healthy.received);
+        verify(outboxOffsetRepository).save(argThat(offset ->
+                offset.getConsumer().equals("failing") && offset.getLastEventId() == 2));
+        assertEquals(1.0, meterRegistry.counter(OutboxDispatcher.FAILURES_METRIC, "listener", "failing").count());
+        assertEquals(3.0, meterRegistry.get(OutboxDispatcher.LAG_METRIC).tag("listener", "failing").gauge().value());
+        assertEquals(0.0, meterRegistry.get(OutboxDispatcher.LAG_METRIC).tag("listener", "healthy").gauge().value());
+
+        failing.failOn = -1;
+        dispatcher.dispatchPending();
+
+        assertEquals(List.of(1L, 2L, 3L, 4L, 5L), failing.received);
+        assertEquals(5, healthy.received.size());
+    }
+
+    @Test
+    void dispatchPending_ShouldHoldBackEventsAfterOpenGapUntilItFills() {
+        OutboxEvent late = outbox.remove(2);
+        RecordingListener listener = new RecordingListener("a", -1);
+        OutboxDispatcher dispatcher = dispatcher(10, listener);
+        ReflectionTestUtils.setField(dispatcher, "gapTimeoutMs", 60000L);
+
+        dispatcher.dispatchPending();
+        assertEquals(List.of(1L, 2L), listener.received);
+
+        // Event 3 was still being committed; it arrives after 4 and 5
+        outbox.add(2, late);
+        dispatcher.dispatchPending();
+        assertEquals(List.of(1L, 2L, 3L, 4L, 5L), listener.received);
+    }
+
+    @Test
+    void dispatchPending_ShouldSkipGapOlderThanTimeout() {
+        outbox.remove(2);
+        RecordingListener listener = new RecordingListener("a", -1);
+
+        dispatcher(10, listener).dispatchPending();
+
+        assertEquals(List.of(1L, 2L, 4L, 5L), listener.received);
+    }
+
+    @Test
+    void dispatchPending_WhenSkippedEventCommitsAfterTimeout_ShouldStillDeliverIt() {
+        OutboxEvent slow = outbox.remove(2);
+        RecordingListener listener = new RecordingListener("a", -1);
+        OutboxDispatcher dispatcher = dispatcher(10, listener);
+
+        dispatcher.dispatchPending();
+        assertEquals(List.of(1L, 2L, 4L, 5L), listener.received);
+        assertEquals(3L, storedGaps.get(3L).getLastEventId());
+
+        // The slow transaction commits event 3 after the gap was skipped
+        outbox.add(2, slow);
+        assertEquals(1, dispatcher.dispatchPending());
+
+        assertEquals(List.of(1L, 2L, 4L, 5L, 3L), listener.received);
+        assertTrue(storedGaps.isEmpty());
+        dispatcher.dispatchPending();
+        assertEquals(5, listener.received.size());
+    }
+
+    @Test
+    void dispatchPending_ShouldNarrowGapToIdsStillMissing() {
+        outbox.removeIf(event -> event.getEventId() >= 2 && event.getEventId() <= 4);
+        outbox.add(new OutboxEvent(6L, "BidRejected", "bid-6", "{}", LocalDateTime.now()));
+        RecordingListener failing = new RecordingListener("failing", 3);
+        RecordingListener healthy = new RecordingListener("healthy", -1);
+        OutboxDispatcher dispatcher = dispatcher(10, failing, healthy);
+        dispatcher.dispatchPending();
+        assertEquals(List.of(2L), List.copyOf(storedGaps.keySet()));
+
+        // 3 commits late; 2 and 4 never do. The failing listener keeps the gap open
+        outbox.add(1, new OutboxEvent(3L, "BidRejected", "bid-3", "{}", LocalDateTime.now()));
+        dispatcher.dispatchPending();
+        assertEquals(List.of(2L), List.copyOf(storedGaps.keySet()));
+
+        failing.failOn = -1;
+        dispatcher.dispatchPending();
+        assertEquals(List.of(1L, 5L, 6L, 3L), failing.received);
+        assertEquals(List.of(1L, 5L, 6L, 3L, 3L), healthy.received);
+        assertEquals(2L, storedGaps.get(2L).getLastEventId());
+        assertEquals(4L, storedGaps.get(4L).getLastEventId());
+    }
+
+    @Test
+    void dispatchPending_ShouldForgetGapAfterRetention() {
+        storedGaps.put(3L, new OutboxGap(3L, 3L, LocalDateTime.now().minusHours(2)));
+        OutboxDispatcher dispatcher = dispatcher(10, new RecordingListener("a", -1));
+
+        dispatcher.dispatchPending();
+
+        assertTrue(storedGaps.isEmpty());
+    }
+
+    @Test
+    void replay_ShouldRedeliverFromEventAndSaveOffset() {
+        RecordingListener listener = new RecordingListener("a", -1);
+        OutboxDispatcher dispatcher = dispatcher(10, listener);
+        dispatcher.dispatchPending();
+
+        dispatcher.replay("a", 4);
+        dispatcher.dispatchPending();
+
+        assertEquals(List.of(1L, 2L, 3L, 4L, 5L, 4L, 5L), listener.received);
+        verify(outboxOffsetRepository).save(argThat(offset -> offset.getLastEventId() == 3));
+        assertEquals(5, dispatcher.getStatus().get(0).getLastEventId());
+        assertEquals(0, dispatcher.getStatus().get(0).getLag());
+    }
+
+    @Test
+    void replay_WithUnknownListener_ShouldThrowException() {
+        OutboxDispatcher dispatcher = dispatcher(10, new RecordingListener("a", -1));
+
+        assertThrows(ResourceNotFoundException.class, () -> dispatcher.replay("missing", 1));
+    }
+
+    private OutboxDispatcher dispatcher(int batchSize, OutboxListener... listeners) {
+        OutboxDispatcher dispatcher = new OutboxDispatcher();
+        ReflectionTestUtils.setField(dispatcher, "outboxEventRepository", outboxEventRepository);
+        ReflectionTestUtils.setField(dispatcher, "outboxOffsetRepository", outboxOffsetRepository);
+        ReflectionTestUtils.setField(dispatcher, "outboxGapRepository", outboxGapRepository);
+        ReflectionTestUtils.setField(dispatcher, "listeners", List.of(listeners));
+        ReflectionTestUtils.setField(dispatcher, "meterRegistry", meterRegistry);
+        ReflectionTestUtils.setField(dispatcher, "batchSize", batchSize);
+        ReflectionTestUtils.setField(dispatcher, "gapRetentionMs", 3600000L);
+        dispatcher.start();
+        return dispatcher;
+    }
+
+    private static class RecordingListener implements OutboxListener {
+
+        private final String name;
+        private final List<Long> received = new ArrayList<>();
+        private long failOn;
+
+        RecordingListener(String name, long failOn) {
+            this.name = name;
+            this.failOn = failOn;
+        }
+
+        @Override
+        public String name() {
+            return name;
+        }
+
+        @Override
+        public void onEvent(OutboxEvent event) {
+            if (event.getEventId() == failOn) {
+                throw new IllegalStateException("boom");
+            }
+            received.add(event.getEventId());
+        }
+    }
+}
@@ -0,0 +1,84 @@
+package com.cargopro.service;
+
+import com.cargopro.dto.ScoringWeights;
+import com.cargopro.entity.ShipperScoring;
+import com.cargopro.exception.InvalidOperationException;
+import com.cargopro.repository.ShipperScoringRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.Optional;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ScoringServiceTest {
+
+    @Mock
+    private ShipperScoringRepository shipperScoringRepository;
+
+    @Mock
+    private BidScorer bidScorer;
+
+    @Mock
+    private BidOrderBook bidOrderBook;
+
+    @InjectMocks
+    private ScoringService scoringService;
+
+    @Test
+    void getWeights_WhenNeverSet_ShouldReturnDefaults() {
+        when(shipperScoringRepository.findById("shipper-1")).thenReturn(Optional.empty());
+
+        ScoringWeights result = scoringService.getWeights("shipper-1");
+
+        assertEquals(WeightedBidScoring.NAME, result.getStrategy());
+        assertEquals(0.7, result.getRate());
+        assertEquals(0.3, result.getRating());
+        assertEquals(0.0, result.getReliability());
+    }
+
+    @Test
+    void updateWeights_ShouldSaveAndRescoreShipperBooks() {
+        when(bidScorer.hasStrategy(WeightedBidScoring.NAME)).thenReturn(true);
+        when(shipperScoringRepository.findById("shipper-1")).thenReturn(Optional.empty());
+        when(shipperScoringRepository.save(any(ShipperScoring.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        ScoringWeights result = scoringService.updateWeights("shipper-1",
+                new ScoringWeights(WeightedBidScoring.NAME, 0.5, 0.0, 0.2, 0.1, 0.2));
+
+        assertEquals(0.2, result.getRatePerTonne());
+        verify(shipperScoringRepository).save(argThat(saved -> "shipper-1".equals(saved.getShipperId())
+                && saved.getReliabilityWeight() == 0.2));
+        verify(bidScorer).evict("shipper-1");
+        verify(bidOrderBook).rescore("shipper-1");
+    }
+
+    @Test
+    void updateWeights_UnknownStrategy_ShouldThrow() {
+        when(bidScorer.hasStrategy("cheapest")).thenReturn(false);
+        when(bidScorer.getStrategyNames()).thenReturn(Set.of(WeightedBidScoring.NAME));
+
+        InvalidOperationException ex = assertThrows(InvalidOperationException.class, () -> scoringService
+                .updateWeights("shipper-1", new ScoringWeights("cheapest", 1.0, 0.0, 0.0, 0.0, 0.0)));
+
+        assertTrue(ex.getMessage().contains(WeightedBidScoring.NAME));
+        verify(shipperScoringRepository, never()).save(any());
+        verifyNoInteractions(bidOrderBook);
+    }
+
+    @Test
+    void updateWeights_AllZero_ShouldThrow() {
+        when(bidScorer.hasStrategy(WeightedBidScoring.NAME)).thenReturn(true);
+
+        assertThrows(InvalidOperationException.class, () -> scoringService
+                .updateWeights("shipper-1", new ScoringWeights(WeightedBidScoring.NAME, 0.0, 0.0, 0.0, 0.0, 0.0)));
+        verify(shipperScoringRepository, never()).save(any());
+    }
+}
@@ -0,0 +1,92 @@
+package com.cargopro.service;
+
+import com.cargopro.entity.Transporter;
+import com.cargopro.entity.TruckAvailability;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TransporterCacheTest {
+
+    private TransporterCache cache;
+    private SimpleMeterRegistry meterRegistry;
+    private Transporter transporter;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        cache = new TransporterCache();
+        ReflectionTestUtils.setField(cache, "meterRegistry", meterRegistry);
+        ReflectionTestUtils.setField(cache, "maxSize", 2L);
+        ReflectionTestUtils.setField(cache, "profileTtlMs", 60000L);
+        ReflectionTestUtils.setField(cache, "trucksTtlMs", 60000L);
+        cache.start();
+
+        transporter = new Transporter();
+        transporter.setTransporterId(UUID.randomUUID());
+        transporter.setCompanyName("Cached Logistics");
+        transporter.setRating(4.0);
+        transporter.setVersion(3L);
+    }
+
+    @Test
+    void getProfile_ShouldRecordHitsAndMisses() {
+        assertNull(cache.getProfile(transporter.getTransporterId()));
+        cache.putProfile(transporter);
+        assertEquals("Cached Logistics", cache.getProfile(transporter.getTransporterId()).companyName());
+
+        assertEquals(1.0, gets(TransporterCache.PROFILES_CACHE, "hit"));
+        assertEquals(1.0, gets(TransporterCache.PROFILES_CACHE, "miss"));
+    }
+
+    @Test
+    void putProfile_WithoutVersion_ShouldBeSkipped() {
+        transporter.setVersion(null);
+        cache.putProfile(transporter);
+
+        assertNull(cache.getProfile(transporter.getTransporterId()));
+    }
+
+    @Test
+    void getTrucks_ShouldReturnCopies() {
+        List<TruckAvailability> trucks = new ArrayList<>(List.of(new TruckAvailability("LARGE", 5)));
+        cache.putTrucks(transporter.getTransporterId(), trucks);
+        trucks.get(0).setCount(0);
+
+        List<TruckAvailability> cached = cache.getTrucks(transporter.getTransporterId());
+        cached.get(0).setCount(1);
+
+        assertEquals(5, cache.getTrucks(transporter.getTransporterId()).get(0).getCount());
+    }
+
+    @Test
+    void evictTrucks_InTransaction_ShouldWaitForCommit() {
+        UUID id = transporter.getTransporterId();
+        cache.putTrucks(id, List.of(new TruckAvailability("LARGE", 5)));
+
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            cache.evictTrucks(id);
+            assertNotNull(cache.getTrucks(id));
+
+            TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+            assertNull(cache.getTrucks(id));
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    private double gets(String cacheName, String result) {
+        return meterRegistry.get("cache.gets").tag("cache", cacheName).tag("result", result)
+                .functionCounter().count();
+    }
+}
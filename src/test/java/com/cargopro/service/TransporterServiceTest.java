@@ -5,24 +5,34 @@ import com.cargopro.dto.TransporterResponse;
 import com.cargopro.entity.Transporter;
 import com.cargopro.entity.TruckAvailability;
 import com.cargopro.exception.InsufficientCapacityException;
+import com.cargopro.exception.InvalidOperationException;
 import com.cargopro.exception.ResourceNotFoundException;
 import com.cargopro.repository.TransporterRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManager;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.test.util.ReflectionTestUtils;
 
 import java.util.ArrayList;
 import java.util.Arrays;
-import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.stream.Stream;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -31,6 +41,18 @@ class TransporterServiceTest {
     @Mock
     private TransporterRepository transporterRepository;
 
+    @Mock
+    private EntityManager entityManager;
+
+    @Mock
+    private TruckCapacityIndex truckCapacityIndex;
+
+    @Mock
+    private DomainEventPublisher domainEventPublisher;
+
+    @Spy
+    private TransporterCache transporterCache = new TransporterCache();
+
     @InjectMocks
     private TransporterService transporterService;
 
@@ -39,12 +61,19 @@ class TransporterServiceTest {
 
     @BeforeEach
     void setUp() {
+        ReflectionTestUtils.setField(transporterCache, "meterRegistry", new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(transporterCache, "maxSize", 100L);
+        ReflectionTestUtils.setField(transporterCache, "profileTtlMs", 60000L);
+        ReflectionTestUtils.setField(transporterCache, "trucksTtlMs", 60000L);
+        transporterCache.start();
+
         transporterId = UUID.randomUUID();
 
         testTransporter = new Transporter();
         testTransporter.setTransporterId(transporterId);
         testTransporter.setCompanyName("Test Logistics");
         testTransporter.setRating(4.5);
+        testTransporter.setVersion(0L);
         testTransporter.setAvailableTrucks(new ArrayList<>(Arrays.asList(
                 new TruckAvailability("LARGE", 10),
                 new TruckAvailability("MEDIUM", 5))));
@@ -66,6 +95,7 @@ class TransporterServiceTest {
         assertEquals("Test Logistics", response.getCompanyName());
         assertEquals(4.5, response.getRating());
         verify(transporterRepository, times(1)).save(any(Transporter.class));
+        verify(truckCapacityIndex).put(response);
     }
 
     @Test
@@ -75,27 +105,49 @@ class TransporterServiceTest {
         transporter2.setCompanyName("Another Logistics");
         transporter2.setRating(3.5);
         transporter2.setAvailableTrucks(new ArrayList<>());
+        Pageable pageable = PageRequest.of(0, 20);
 
-        when(transporterRepository.findAll()).thenReturn(Arrays.asList(testTransporter, transporter2));
+        when(transporterRepository.findAll(pageable))
+                .thenReturn(new PageImpl<>(Arrays.asList(testTransporter, transporter2)));
 
-        List<TransporterResponse> result = transporterService.getAllTransporters();
+        Page<TransporterResponse> result = transporterService.getAllTransporters(pageable);
 
         assertNotNull(result);
-        assertEquals(2, result.size());
-        assertEquals("Test Logistics", result.get(0).getCompanyName());
-        assertEquals("Another Logistics", result.get(1).getCompanyName());
+        assertEquals(2, result.getContent().size());
+        assertEquals("Test Logistics", result.getContent().get(0).getCompanyName());
+        assertEquals("Another Logistics", result.getContent().get(1).getCompanyName());
     }
 
     @Test
     void getAllTransporters_WhenNoTransporters_ShouldReturnEmptyList() {
-        when(transporterRepository.findAll()).thenReturn(Collections.emptyList());
+        Pageable pageable = PageRequest.of(0, 20);
+        when(transporterRepository.findAll(pageable)).thenReturn(Page.empty());
 
-        List<TransporterResponse> result = transporterService.getAllTransporters();
+        Page<TransporterResponse> result = transporterService.getAllTransporters(pageable);
 
         assertNotNull(result);
         assertTrue(result.isEmpty());
     }
 
+    @Test
+    void getAllTransporters_WithSizeAboveLimit_ShouldThrowException() {
+        assertThrows(InvalidOperationException.class, () -> transporterService.getAllTransporters(
+                PageRequest.of(0, TransporterService.MAX_PAGE_SIZE + 1)));
+        verifyNoInteractions(transporterRepository);
+    }
+
+    @Test
+    void streamAllTransporters_ShouldHandEachTransporterToSinkAndDetachIt() {
+        when(transporterRepository.streamAllWithTrucks()).thenReturn(Stream.of(testTransporter));
+        List<TransporterResponse> written = new ArrayList<>();
+
+        transporterService.streamAllTransporters(written::add);
+
+        assertEquals(1, written.size());
+        assertEquals(2, written.get(0).getAvailableTrucks().size());
+        verify(entityManager).detach(testTransporter);
+    }
+
     @Test
     void getTransporterById_WhenTransporterExists_ShouldReturnTransporterResponse() {
         when(transporterRepository.findById(transporterId)).thenReturn(Optional.of(testTransporter));
@@ -115,6 +167,67 @@ class TransporterServiceTest {
                 () -> transporterService.getTransporterById(transporterId));
     }
 
+    @Test
+    void getTransporterById_WhenCached_ShouldNotReadRepository() {
+        when(transporterRepository.findById(transporterId)).thenReturn(Optional.of(testTransporter));
+
+        transporterService.getTransporterById(transporterId);
+        TransporterResponse response = transporterService.getTransporterById(transporterId);
+
+        assertEquals("Test Logistics", response.getCompanyName());
+        assertEquals(2, response.getAvailableTrucks().size());
+        verify(transporterRepository, times(1)).findById(transporterId);
+    }
+
+    @Test
+    void reduceAvailableTrucks_ShouldEvictCachedTrucks() {
+        when(transporterRepository.findById(transporterId)).thenReturn(Optional.of(testTransporter));
+        when(transporterRepository.reserveTrucks(transporterId, "LARGE", 3)).thenReturn(1);
+        transporterService.getTransporterById(transporterId);
+
+        transporterService.reduceAvailableTrucks(transporterId, "LARGE", 3);
+        transporterService.getTransporterById(transporterId);
+
+        verify(transporterCache).evictTrucks(transporterId);
+        verify(transporterRepository, times(2)).findById(transporterId);
+    }
+
+    @Test
+    void getTransporterReference_WhenCached_ShouldReturnDetachedProfileWithoutTrucks() {
+        when(transporterRepository.findById(transporterId)).thenReturn(Optional.of(testTransporter));
+
+        transporterService.getTransporterReference(transporterId);
+        Transporter reference = transporterService.getTransporterReference(transporterId);
+
+        assertNotSame(testTransporter, reference);
+        assertEquals(transporterId, reference.getTransporterId());
+        assertEquals("Test Logistics", reference.getCompanyName());
+        assertEquals(4.5, reference.getRating());
+        assertEquals(0L, reference.getVersion());
+        assertTrue(reference.getAvailableTrucks().isEmpty());
+        verify(transporterRepository, times(1)).findById(transporterId);
+    }
+
+    @Test
+    void getTransporterReference_WithoutVersion_ShouldNotBeCached() {
+        testTransporter.setVersion(null);
+        when(transporterRepository.findById(transporterId)).thenReturn(Optional.of(testTransporter));
+
+        transporterService.getTransporterReference(transporterId);
+        transporterService.getTransporterReference(transporterId);
+
+        verify(transporterRepository, times(2)).findById(transporterId);
+    }
+
+    @Test
+    void getAvailableTruckCount_ShouldAlwaysReadRepository() {
+        when(transporterRepository.findTruckCount(transporterId, "LARGE")).thenReturn(Optional.of(10), Optional.of(7));
+
+        assertEquals(10, transporterService.getAvailableTruckCount(transporterId, "LARGE"));
+        assertEquals(7, transporterService.getAvailableTruckCount(transporterId, "LARGE"));
+        assertEquals(0, transporterService.getAvailableTruckCount(transporterId, "SMALL"));
+    }
+
     @Test
     void getTransporterEntity_WhenTransporterExists_ShouldReturnTransporter() {
         when(transporterRepository.findById(transporterId)).thenReturn(Optional.of(testTransporter));
@@ -142,46 +255,75 @@ class TransporterServiceTest {
                 new TruckAvailability("LARGE", 25));
 
         when(transporterRepository.findById(transporterId)).thenReturn(Optional.of(testTransporter));
-        when(transporterRepository.save(any(Transporter.class))).thenReturn(testTransporter);
+        when(transporterRepository.saveAndFlush(any(Transporter.class))).thenReturn(testTransporter);
 
         TransporterResponse response = transporterService.updateAvailableTrucks(transporterId, newTrucks);
 
         assertNotNull(response);
         assertEquals(newTrucks, testTransporter.getAvailableTrucks());
-        verify(transporterRepository).save(testTransporter);
+        verify(transporterRepository).saveAndFlush(testTransporter);
+        verify(truckCapacityIndex).put(response);
     }
 
     @Test
-    void reduceAvailableTrucks_Success() {
-        when(transporterRepository.findById(transporterId)).thenReturn(Optional.of(testTransporter));
-        when(transporterRepository.save(any(Transporter.class))).thenReturn(testTransporter);
+    void reserveTrucks_WhenRowUpdated_ShouldReturnTrue() {
+        when(transporterRepository.reserveTrucks(transporterId, "LARGE", 3)).thenReturn(1);
+        when(transporterRepository.findTruckCount(transporterId, "LARGE")).thenReturn(Optional.of(7));
+
+        assertTrue(transporterService.reserveTrucks(transporterId, "LARGE", 3));
+        verify(transporterRepository, never()).findById(any());
+        verify(truckCapacityIndex).set(transporterId, "LARGE", 7);
+        verify(domainEventPublisher).publish(eq(DomainEventPublisher.TRUCKS_RESERVED), eq(transporterId),
+                argThat(payload -> Integer.valueOf(3).equals(payload.get("trucks"))));
+    }
 
-        transporterService.reduceAvailableTrucks(transporterId, "LARGE", 3);
+    @Test
+    void reserveTrucks_ShouldMatchUpperCaseTruckType() {
+        when(transporterRepository.reserveTrucks(transporterId, "LARGE", 3)).thenReturn(1);
+        when(transporterRepository.findTruckCount(transporterId, "LARGE")).thenReturn(Optional.of(7));
 
-        // Find LARGE truck availability and verify count reduced
-        TruckAvailability largeTrucks = testTransporter.getAvailableTrucks().stream()
-                .filter(t -> t.getTruckType().equalsIgnoreCase("LARGE"))
-                .findFirst().orElseThrow();
-        assertEquals(7, largeTrucks.getCount()); // 10 - 3 = 7
-        verify(transporterRepository).save(testTransporter);
+        assertTrue(transporterService.reserveTrucks(transporterId, "large", 3));
+        verify(truckCapacityIndex).set(transporterId, "LARGE", 7);
     }
 
     @Test
-    void reduceAvailableTrucks_CaseInsensitive_ShouldWork() {
-        when(transporterRepository.findById(transporterId)).thenReturn(Optional.of(testTransporter));
+    void createTransporter_ShouldStoreUpperCaseTruckTypes() {
+        TransporterRequest request = new TransporterRequest();
+        request.setCompanyName("Test Logistics");
+        request.setRating(4.5);
+        request.setAvailableTrucks(Arrays.asList(new TruckAvailability("large", 10)));
         when(transporterRepository.save(any(Transporter.class))).thenReturn(testTransporter);
 
-        transporterService.reduceAvailableTrucks(transporterId, "large", 3);
+        transporterService.createTransporter(request);
+
+        verify(transporterRepository).save(argThat(transporter ->
+                transporter.getAvailableTrucks().equals(List.of(new TruckAvailability("LARGE", 10)))));
+    }
+
+    @Test
+    void reserveTrucks_WhenNoRowUpdated_ShouldReturnFalse() {
+        when(transporterRepository.reserveTrucks(transporterId, "LARGE", 15)).thenReturn(0);
+
+        assertFalse(transporterService.reserveTrucks(transporterId, "LARGE", 15));
+        verifyNoInteractions(truckCapacityIndex, domainEventPublisher);
+    }
+
+    @Test
+    void reduceAvailableTrucks_Success() {
+        when(transporterRepository.reserveTrucks(transporterId, "LARGE", 3)).thenReturn(1);
+
+        transporterService.reduceAvailableTrucks(transporterId, "LARGE", 3);
 
-        TruckAvailability largeTrucks = testTransporter.getAvailableTrucks().stream()
-                .filter(t -> t.getTruckType().equalsIgnoreCase("LARGE"))
-                .findFirst().orElseThrow();
-        assertEquals(7, largeTrucks.getCount());
+        verify(transporterRepository).reserveTrucks(transporterId, "LARGE", 3);
+        verify(transporterRepository, never()).findById(any());
+        verify(transporterRepository, never()).save(any());
     }
 
     @Test
     void reduceAvailableTrucks_WhenInsufficientTrucks_ShouldThrowException() {
-        when(transporterRepository.findById(transporterId)).thenReturn(Optional.of(testTransporter));
+        when(transporterRepository.reserveTrucks(transporterId, "LARGE", 15)).thenReturn(0);
+        when(transporterRepository.existsById(transporterId)).thenReturn(true);
+        when(transporterRepository.findTruckCount(transporterId, "LARGE")).thenReturn(Optional.of(10));
 
         InsufficientCapacityException exception = assertThrows(
                 InsufficientCapacityException.class,
@@ -191,7 +333,9 @@ class TransporterServiceTest {
 
     @Test
     void reduceAvailableTrucks_WhenTruckTypeNotFound_ShouldThrowException() {
-        when(transporterRepository.findById(transporterId)).thenReturn(Optional.of(testTransporter));
+        when(transporterRepository.reserveTrucks(transporterId, "EXTRA_LARGE", 5)).thenReturn(0);
+        when(transporterRepository.existsById(transporterId)).thenReturn(true);
+        when(transporterRepository.findTruckCount(transporterId, "EXTRA_LARGE")).thenReturn(Optional.empty());
 
         InsufficientCapacityException exception = assertThrows(
                 InsufficientCapacityException.class,
@@ -199,46 +343,56 @@ class TransporterServiceTest {
         assertTrue(exception.getMessage().contains("does not have trucks of type"));
     }
 
+    @Test
+    void reduceAvailableTrucks_WhenTransporterNotFound_ShouldThrowException() {
+        when(transporterRepository.reserveTrucks(transporterId, "LARGE", 3)).thenReturn(0);
+        when(transporterRepository.existsById(transporterId)).thenReturn(false);
+
+        assertThrows(ResourceNotFoundException.class,
+                () -> transporterService.reduceAvailableTrucks(transporterId, "LARGE", 3));
+    }
+
     @Test
     void restoreAvailableTrucks_WhenTypeExists_ShouldIncreaseCount() {
-        when(transporterRepository.findById(transporterId)).thenReturn(Optional.of(testTransporter));
-        when(transporterRepository.save(any(Transporter.class))).thenReturn(testTransporter);
+        when(transporterRepository.releaseTrucks(transporterId, "LARGE", 5)).thenReturn(1);
+        when(transporterRepository.findTruckCount(transporterId, "LARGE")).thenReturn(Optional.of(15));
 
         transporterService.restoreAvailableTrucks(transporterId, "LARGE", 5);
 
-        TruckAvailability largeTrucks = testTransporter.getAvailableTrucks().stream()
-                .filter(t -> t.getTruckType().equalsIgnoreCase("LARGE"))
-                .findFirst().orElseThrow();
-        assertEquals(15, largeTrucks.getCount()); // 10 + 5 = 15
-        verify(transporterRepository).save(testTransporter);
+        verify(transporterRepository).releaseTrucks(transporterId, "LARGE", 5);
+        verify(transporterRepository, never()).insertTrucks(any(), any(), anyInt());
+        verify(truckCapacityIndex).set(transporterId, "LARGE", 15);
     }
 
     @Test
-    void restoreAvailableTrucks_CaseInsensitive_ShouldWork() {
-        when(transporterRepository.findById(transporterId)).thenReturn(Optional.of(testTransporter));
-        when(transporterRepository.save(any(Transporter.class))).thenReturn(testTransporter);
+    void restoreAvailableTrucks_WhenTypeNotExists_ShouldAddNewEntry() {
+        when(transporterRepository.releaseTrucks(transporterId, "EXTRA_LARGE", 5)).thenReturn(0);
+        when(transporterRepository.existsById(transporterId)).thenReturn(true);
 
-        transporterService.restoreAvailableTrucks(transporterId, "large", 5);
+        transporterService.restoreAvailableTrucks(transporterId, "EXTRA_LARGE", 5);
 
-        TruckAvailability largeTrucks = testTransporter.getAvailableTrucks().stream()
-                .filter(t -> t.getTruckType().equalsIgnoreCase("LARGE"))
-                .findFirst().orElseThrow();
-        assertEquals(15, largeTrucks.getCount());
+        verify(transporterRepository).insertTrucks(transporterId, "EXTRA_LARGE", 5);
+        verify(truckCapacityIndex).set(transporterId, "EXTRA_LARGE", 5);
     }
 
     @Test
-    void restoreAvailableTrucks_WhenTypeNotExists_ShouldAddNewEntry() {
-        when(transporterRepository.findById(transporterId)).thenReturn(Optional.of(testTransporter));
-        when(transporterRepository.save(any(Transporter.class))).thenReturn(testTransporter);
+    void restoreAvailableTrucks_WhenTransporterNotFound_ShouldThrowException() {
+        when(transporterRepository.releaseTrucks(transporterId, "LARGE", 5)).thenReturn(0);
+        when(transporterRepository.existsById(transporterId)).thenReturn(false);
 
-        int initialSize = testTransporter.getAvailableTrucks().size();
-        transporterService.restoreAvailableTrucks(transporterId, "EXTRA_LARGE", 5);
+        assertThrows(ResourceNotFoundException.class,
+                () -> transporterService.restoreAvailableTrucks(transporterId, "LARGE", 5));
+        verify(transporterRepository, never()).insertTrucks(any(), any(), anyInt());
+    }
 
-        assertEquals(initialSize + 1, testTransporter.getAvailableTrucks().size());
-        TruckAvailability extraLarge = testTransporter.getAvailableTrucks().stream()
-                .filter(t -> t.getTruckType().equalsIgnoreCase("EXTRA_LARGE"))
-                .findFirst().orElseThrow();
-        assertEquals(5, extraLarge.getCount());
-        verify(transporterRepository).save(testTransporter);
+    @Test
+    void updateAvailableTrucks_WithDuplicateTruckTypes_ShouldThrowException() {
+        List<TruckAvailability> trucks = Arrays.asList(
+                new TruckAvailability("LARGE", 2),
+                new TruckAvailability("large", 3));
+
+        assertThrows(InvalidOperationException.class,
+                () -> transporterService.updateAvailableTrucks(transporterId, trucks));
+        verify(transporterRepository, never()).save(any());
     }
 }
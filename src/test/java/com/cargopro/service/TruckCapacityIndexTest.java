@@ -0,0 +1,132 @@
+package com.cargopro.service;
+
+import com.cargopro.dto.TransporterMatchResponse;
+import com.cargopro.dto.TransporterResponse;
+import com.cargopro.entity.TruckAvailability;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TruckCapacityIndexTest {
+
+    private final TruckCapacityIndex index = new TruckCapacityIndex();
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void find_ShouldRankByFreeTrucksThenRating() {
+        TransporterResponse few = transporter("Few", 5.0, new TruckAvailability("LARGE", 2));
+        TransporterResponse manyLowRated = transporter("Many low", 3.0, new TruckAvailability("LARGE", 8));
+        TransporterResponse manyHighRated = transporter("Many high", 4.5, new TruckAvailability("large", 8));
+        index.put(few);
+        index.put(manyLowRated);
+        index.put(manyHighRated);
+        index.put(transporter("Other type", 5.0, new TruckAvailability("SMALL", 20)));
+
+        List<TransporterMatchResponse> result = index.find(" Large", 10);
+
+        assertEquals(List.of(manyHighRated.getTransporterId(), manyLowRated.getTransporterId(), few.getTransporterId()),
+                ids(result));
+        assertEquals(8, result.get(0).getAvailableTrucks());
+        assertEquals("Many high", result.get(0).getCompanyName());
+        assertEquals(1, index.find("LARGE", 1).size());
+    }
+
+    @Test
+    void put_ShouldReplaceWholeFleet() {
+        TransporterResponse transporter = transporter("Fleet", 4.0, new TruckAvailability("LARGE", 5));
+        index.put(transporter);
+
+        transporter.setAvailableTrucks(List.of(new TruckAvailability("SMALL", 3), new TruckAvailability("MEDIUM", 0)));
+        index.put(transporter);
+
+        assertTrue(index.find("LARGE", 10).isEmpty());
+        assertTrue(index.find("MEDIUM", 10).isEmpty());
+        assertEquals(Map.of("SMALL", 3), index.getAvailableTrucks(transporter.getTransporterId()));
+        assertEquals(1, index.size());
+    }
+
+    @Test
+    void set_ShouldMoveTransporterInRankingAndDropItAtZero() {
+        TransporterResponse first = transporter("First", 4.0, new TruckAvailability("LARGE", 5));
+        TransporterResponse second = transporter("Second", 4.0, new TruckAvailability("LARGE", 3));
+        index.put(first);
+        index.put(second);
+
+        index.set(first.getTransporterId(), "large", 1);
+        assertEquals(List.of(second.getTransporterId(), first.getTransporterId()), ids(index.find("LARGE", 10)));
+
+        index.set(first.getTransporterId(), "LARGE", 0);
+        assertEquals(List.of(second.getTransporterId()), ids(index.find("LARGE", 10)));
+        assertEquals(Map.of(), index.getAvailableTrucks(first.getTransporterId()));
+
+        index.set(first.getTransporterId(), "LARGE", 6);
+        assertEquals(List.of(first.getTransporterId(), second.getTransporterId()), ids(index.find("LARGE", 10)));
+    }
+
+    @Test
+    void set_ForUnknownTransporter_ShouldBeIgnored() {
+        UUID unknown = UUID.randomUUID();
+
+        index.set(unknown, "LARGE", 3);
+
+        assertNull(index.getAvailableTrucks(unknown));
+        assertTrue(index.find("LARGE", 10).isEmpty());
+    }
+
+    @Test
+    void changes_ShouldApplyOnlyAfterCommit() {
+        TransporterResponse transporter = transporter("Fleet", 4.0, new TruckAvailability("LARGE", 5));
+        index.load(transporter);
+        TransactionSynchronizationManager.initSynchronization();
+
+        index.set(transporter.getTransporterId(), "LARGE", 0);
+        assertEquals(1, index.find("LARGE", 10).size());
+
+        TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        assertTrue(index.find("LARGE", 10).isEmpty());
+    }
+
+    @Test
+    void changes_WhenCommitsRunOutOfOrder_ShouldKeepNewest() {
+        TransporterResponse transporter = transporter("Fleet", 4.0, new TruckAvailability("LARGE", 5));
+        index.load(transporter);
+        UUID transporterId = transporter.getTransporterId();
+        TransactionSynchronizationManager.initSynchronization();
+
+        // Reservation, then a fleet replacement, then a reservation on the new fleet
+        index.set(transporterId, "LARGE", 3);
+        transporter.setAvailableTrucks(List.of(new TruckAvailability("LARGE", 10), new TruckAvailability("SMALL", 2)));
+        index.put(transporter);
+        index.set(transporterId, "SMALL", 1);
+
+        List<TransactionSynchronization> commits = new ArrayList<>(TransactionSynchronizationManager.getSynchronizations());
+        Collections.reverse(commits);
+        commits.forEach(TransactionSynchronization::afterCommit);
+
+        assertEquals(Map.of("LARGE", 10, "SMALL", 1), index.getAvailableTrucks(transporterId));
+        assertEquals(10, index.find("LARGE", 10).get(0).getAvailableTrucks());
+    }
+
+    private static List<UUID> ids(List<TransporterMatchResponse> matches) {
+        return matches.stream().map(TransporterMatchResponse::getTransporterId).toList();
+    }
+
+    private static TransporterResponse transporter(String name, double rating, TruckAvailability... trucks) {
+        return new TransporterResponse(UUID.randomUUID(), name, rating, List.of(trucks));
+    }
+}